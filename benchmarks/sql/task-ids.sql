@@ -0,0 +1,91 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Compares the random UUIDs version 4 with the time-ordered UUIDs version 7 used as primary keys
+-- of the tasks: it fills two copies of the task table with the given number of rows, then it
+-- inserts the given number of new rows into each one. For every phase it reports the duration,
+-- the WAL written and the size of the primary key index.
+--
+-- Run it on an empty scratch database (it needs PostgreSQL 13 or later):
+--   psql -d <database> -v rows=5000000 -v new_rows=500000 -f benchmarks/sql/task-ids.sql
+
+\if :{?rows}
+\else
+  \set rows 5000000
+\endif
+\if :{?new_rows}
+\else
+  \set new_rows 500000
+\endif
+
+-- Same layout of the UuidV7Generator: 48 bits of unix timestamp in milliseconds, the version,
+-- the variant and the random bits. The random bits replace the counter, so the ids are ordered
+-- only by millisecond.
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v7() RETURNS UUID AS $$
+  SELECT encode(
+    set_bit(
+      set_bit(
+        overlay(
+          uuid_send(gen_random_uuid())
+          PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT)
+            FROM 3)
+          FROM 1 FOR 6),
+        52, 1),
+      53, 1),
+    'hex')::UUID;
+$$ LANGUAGE SQL VOLATILE;
+
+DROP TABLE IF EXISTS task_ids_v4, task_ids_v7;
+
+CREATE TABLE task_ids_v4 (
+  id         UUID PRIMARY KEY,
+  user_id    VARCHAR(256) NOT NULL,
+  title      VARCHAR(1024) NOT NULL,
+  created_at TIMESTAMP NOT NULL
+);
+CREATE TABLE task_ids_v7 (LIKE task_ids_v4 INCLUDING ALL);
+
+\timing on
+
+\echo 'Fill with' :rows 'rows: UUID v4'
+SELECT pg_current_wal_lsn() AS wal_start \gset
+INSERT INTO task_ids_v4
+  SELECT gen_random_uuid(), 'user-' || (n % 1000), 'Task ' || n, clock_timestamp()
+  FROM generate_series(1, :rows) AS n;
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_written;
+
+\echo 'Fill with' :rows 'rows: UUID v7'
+SELECT pg_current_wal_lsn() AS wal_start \gset
+INSERT INTO task_ids_v7
+  SELECT pg_temp.uuid_v7(), 'user-' || (n % 1000), 'Task ' || n, clock_timestamp()
+  FROM generate_series(1, :rows) AS n;
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_written;
+
+VACUUM ANALYZE task_ids_v4, task_ids_v7;
+CHECKPOINT;
+
+\echo 'Insert' :new_rows 'new rows: UUID v4'
+SELECT pg_current_wal_lsn() AS wal_start \gset
+INSERT INTO task_ids_v4
+  SELECT gen_random_uuid(), 'user-' || (n % 1000), 'Task ' || n, clock_timestamp()
+  FROM generate_series(1, :new_rows) AS n;
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_written;
+
+CHECKPOINT;
+
+\echo 'Insert' :new_rows 'new rows: UUID v7'
+SELECT pg_current_wal_lsn() AS wal_start \gset
+INSERT INTO task_ids_v7
+  SELECT pg_temp.uuid_v7(), 'user-' || (n % 1000), 'Task ' || n, clock_timestamp()
+  FROM generate_series(1, :new_rows) AS n;
+SELECT pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), :'wal_start')) AS wal_written;
+
+\timing off
+
+SELECT relname AS primary_key_index, pg_size_pretty(pg_relation_size(oid)) AS size
+FROM pg_class
+WHERE relname IN ('task_ids_v4_pkey', 'task_ids_v7_pkey')
+ORDER BY relname;
+
+DROP TABLE task_ids_v4, task_ids_v7;
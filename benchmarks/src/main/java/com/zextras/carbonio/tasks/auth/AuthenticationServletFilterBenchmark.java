@@ -0,0 +1,53 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.auth;
+
+import com.zextras.carbonio.tasks.benchmarks.Stubs;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of the authentication cookie done for every GraphQL request. The request
+ * carries the cookies usually sent by a browser, with the authentication one as the last.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationServletFilterBenchmark {
+
+  private HttpServletRequest request;
+
+  @Setup
+  public void setUp() {
+    request =
+        Stubs.httpServletRequest(
+            Collections.emptyMap(),
+            new Cookie("ZM_LOGIN_CSRF", "7f6ce3a6-1d6c-4b5f-9d4e-0b3c1a2e5f60"),
+            new Cookie("JSESSIONID", "node0abcdefghijklmnop1.node0"),
+            new Cookie("UI", "iris"),
+            new Cookie("ZM_AUTH_TOKEN", "0_a1b2c3d4e5f6a7b8c9d0e1f2a3b4c5d6e7f8a9b0"));
+  }
+
+  @Benchmark
+  public Optional<Cookie> findZmCookie() {
+    return AuthenticationServletFilter.findZmCookie(request);
+  }
+}
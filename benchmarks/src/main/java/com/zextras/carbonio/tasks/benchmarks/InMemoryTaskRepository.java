@@ -0,0 +1,248 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.benchmarks;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.NewTask;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchResult;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
+import jakarta.annotation.Nullable;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Represents a {@link TaskRepository} keeping the tasks in memory, so the benchmarks measure only
+ * the cost of the GraphQL layer. The requested attributes are ignored: the tasks are always
+ * returned fully loaded.
+ */
+public class InMemoryTaskRepository implements TaskRepository {
+
+  private static final Comparator<Task> NEWEST_FIRST =
+      Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId).reversed();
+
+  private final Map<UUID, Task> tasks = new ConcurrentHashMap<>();
+  private final Clock clock;
+
+  public InMemoryTaskRepository(Clock clock) {
+    this.clock = clock;
+  }
+
+  /** Removes all the tasks. */
+  public void clear() {
+    tasks.clear();
+  }
+
+  @Override
+  public Task createTask(
+      UUID userId,
+      String title,
+      @Nullable String description,
+      Priority priority,
+      Status status,
+      @Nullable Instant reminderAt,
+      @Nullable Boolean reminderAllDay) {
+    Task task =
+        new Task(
+            UUID.randomUUID(),
+            userId,
+            title,
+            description,
+            priority,
+            status,
+            clock.instant(),
+            reminderAt,
+            reminderAllDay);
+
+    tasks.put(task.getId(), task);
+    return task;
+  }
+
+  @Override
+  public List<Task> createTasks(UUID userId, List<NewTask> newTasks) {
+    return newTasks.stream()
+        .map(
+            newTask ->
+                createTask(
+                    userId,
+                    newTask.getTitle(),
+                    newTask.getDescription().orElse(null),
+                    newTask.getPriority(),
+                    newTask.getStatus(),
+                    newTask.getReminderAt().orElse(null),
+                    newTask.getReminderAllDay().orElse(null)))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Task> updateTask(UUID taskId, UUID userId, TaskChanges changes) {
+    Optional<Task> optTask = getTask(taskId, userId);
+    optTask.ifPresent(changes::applyTo);
+    return optTask;
+  }
+
+  @Override
+  public boolean trashTask(UUID taskId, UUID userId) {
+    Optional<Task> optTask = getTask(taskId, userId);
+    optTask.ifPresent(task -> task.setStatus(Status.TRASH));
+    return optTask.isPresent();
+  }
+
+  @Override
+  public Map<UUID, Task> updateTasks(Map<UUID, TaskChanges> changesByTaskId, UUID userId) {
+    Map<UUID, Task> updatedTasks = new HashMap<>();
+    changesByTaskId.forEach(
+        (taskId, changes) ->
+            updateTask(taskId, userId, changes).ifPresent(task -> updatedTasks.put(taskId, task)));
+    return updatedTasks;
+  }
+
+  @Override
+  public Set<UUID> trashTasks(Collection<UUID> taskIds, UUID userId) {
+    return taskIds.stream()
+        .filter(taskId -> trashTask(taskId, userId))
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Optional<Task> getTask(UUID taskId, UUID userId, Set<String> attributes) {
+    return Optional.ofNullable(tasks.get(taskId)).filter(task -> isVisible(task, userId));
+  }
+
+  @Override
+  public List<Task> getTasksByIds(Collection<UUID> taskIds, UUID userId) {
+    return taskIds.stream()
+        .map(tasks::get)
+        .filter(task -> task != null && isVisible(task, userId))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Task> getTasks(
+      UUID userId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      @Nullable Integer limit,
+      @Nullable TaskCursor after,
+      Set<String> attributes) {
+    Stream<Task> userTasks =
+        tasks.values().stream()
+            .filter(task -> task.getUserId().equals(userId))
+            .filter(task -> priority == null || task.getPriority() == priority)
+            .filter(
+                task ->
+                    status == null
+                        ? task.getStatus() != Status.TRASH
+                        : task.getStatus() == status)
+            .sorted(NEWEST_FIRST);
+
+    if (after != null) {
+      Task cursorTask =
+          new Task(after.getId(), userId, "", null, null, null, after.getCreatedAt(), null, null);
+      userTasks = userTasks.filter(task -> NEWEST_FIRST.compare(task, cursorTask) > 0);
+    }
+
+    if (limit != null) {
+      userTasks = userTasks.limit(limit);
+    }
+
+    return userTasks.collect(Collectors.toList());
+  }
+
+  /**
+   * Matches the tasks containing all the words of the query, ignoring the case and the search
+   * operators. All the matching tasks have the same rank, so they are sorted from the newest.
+   */
+  @Override
+  public List<TaskSearchResult> searchTasks(
+      UUID userId,
+      String query,
+      @Nullable Integer limit,
+      @Nullable TaskSearchCursor after,
+      Set<String> attributes) {
+    if (query.isBlank()) {
+      return List.of();
+    }
+
+    List<String> words = List.of(query.toLowerCase(Locale.ROOT).trim().split("\\s+"));
+
+    Stream<Task> matchingTasks =
+        tasks.values().stream()
+            .filter(task -> isVisible(task, userId))
+            .filter(
+                task -> {
+                  String text =
+                      (task.getTitle() + " " + task.getDescription().orElse(""))
+                          .toLowerCase(Locale.ROOT);
+                  return words.stream().allMatch(text::contains);
+                })
+            .sorted(NEWEST_FIRST);
+
+    if (after != null) {
+      Task cursorTask =
+          new Task(after.getId(), userId, "", null, null, null, after.getCreatedAt(), null, null);
+      matchingTasks = matchingTasks.filter(task -> NEWEST_FIRST.compare(task, cursorTask) > 0);
+    }
+
+    if (limit != null) {
+      matchingTasks = matchingTasks.limit(limit);
+    }
+
+    return matchingTasks.map(task -> new TaskSearchResult(task, 1f)).collect(Collectors.toList());
+  }
+
+  /** The changes are not tracked by the benchmarks: no task is ever returned. */
+  @Override
+  public List<Task> getTaskChanges(
+      UUID userId, @Nullable TaskWatermark since, Instant until, int limit) {
+    return List.of();
+  }
+
+  /** The reminders are not used by the benchmarks: no task is ever returned. */
+  @Override
+  public List<Task> getOpenTasksWithReminder(
+      Instant from, @Nullable UUID afterId, Instant to, int limit) {
+    return List.of();
+  }
+
+  /** The reminders are not fired by the benchmarks: no reminder is ever claimed. */
+  @Override
+  public List<Task> claimDueReminders(Collection<UUID> taskIds, Instant now) {
+    return List.of();
+  }
+
+  /** The trash is not purged by the benchmarks: no task is ever updated. */
+  @Override
+  public int stampTrashedTasks(Instant trashedAt, int limit) {
+    return 0;
+  }
+
+  /** The trash is not purged by the benchmarks: no task is ever deleted. */
+  @Override
+  public int deleteTrashedTasks(Instant trashedBefore, int limit) {
+    return 0;
+  }
+
+  private static boolean isVisible(Task task, UUID userId) {
+    return task.getUserId().equals(userId) && task.getStatus() != Status.TRASH;
+  }
+}
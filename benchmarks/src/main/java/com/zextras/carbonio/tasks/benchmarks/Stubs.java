@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.benchmarks;
+
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.instrumentation.fieldvalidation.FieldAndArguments;
+import graphql.execution.instrumentation.fieldvalidation.FieldValidationEnvironment;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Creates lightweight implementations of the interfaces needed by the benchmarks. Mockito is not
+ * used since the recording of the invocations would dominate the measured time and allocations.
+ * Only the methods used by the benchmarked code are implemented, the others throw an {@link
+ * UnsupportedOperationException}.
+ */
+public final class Stubs {
+
+  private Stubs() {}
+
+  /**
+   * @param attributes is a {@link Map} of the initial attributes of the request. It is copied, so
+   *     the attributes set by the benchmarked code do not change it
+   * @param cookies are the cookies of the request
+   * @return a {@link HttpServletRequest} exposing only the given attributes and cookies
+   */
+  public static HttpServletRequest httpServletRequest(
+      Map<String, Object> attributes, Cookie... cookies) {
+    Map<String, Object> requestAttributes = new HashMap<>(attributes);
+
+    return stub(
+        HttpServletRequest.class,
+        (methodName, args) -> {
+          switch (methodName) {
+            case "getAttribute":
+              return requestAttributes.get((String) args[0]);
+            case "setAttribute":
+              requestAttributes.put((String) args[0], args[1]);
+              return null;
+            case "getCookies":
+              return cookies;
+            default:
+              throw new UnsupportedOperationException(methodName);
+          }
+        });
+  }
+
+  /**
+   * @param arguments is a {@link Map} of the arguments of the field
+   * @return a {@link FieldAndArguments} exposing only the given arguments
+   */
+  public static FieldAndArguments fieldAndArguments(Map<String, Object> arguments) {
+    return stub(
+        FieldAndArguments.class,
+        (methodName, args) -> {
+          if ("getArgumentValue".equals(methodName)) {
+            return arguments.get((String) args[0]);
+          }
+          throw new UnsupportedOperationException(methodName);
+        });
+  }
+
+  /** @return a {@link FieldValidationEnvironment} able only to create the validation errors */
+  public static FieldValidationEnvironment fieldValidationEnvironment() {
+    return stub(
+        FieldValidationEnvironment.class,
+        (methodName, args) -> {
+          if ("mkError".equals(methodName)) {
+            return GraphqlErrorBuilder.newError().message((String) args[0]).build();
+          }
+          throw new UnsupportedOperationException(methodName);
+        });
+  }
+
+  private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> answer) {
+    Object proxy =
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (instance, method, args) -> answer.apply(method.getName(), args));
+
+    return type.cast(proxy);
+  }
+}
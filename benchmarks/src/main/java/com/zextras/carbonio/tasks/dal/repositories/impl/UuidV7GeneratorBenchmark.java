@@ -0,0 +1,53 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories.impl;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of the task ids from concurrent threads: the time-ordered {@link
+ * UuidV7Generator} against the random {@link UUID#randomUUID()}, which reads from the shared
+ * {@link java.security.SecureRandom}. The effect of the ids on the inserts and on the size of the
+ * primary key index is measured on PostgreSQL by the benchmarks/sql/task-ids.sql script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UuidV7GeneratorBenchmark {
+
+  private UuidV7Generator uuidV7Generator;
+
+  @Setup
+  public void setUp() {
+    uuidV7Generator = new UuidV7Generator(Clock.systemUTC());
+  }
+
+  @Benchmark
+  public UUID randomUuid() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  public UUID uuidV7() {
+    return uuidV7Generator.generate();
+  }
+}
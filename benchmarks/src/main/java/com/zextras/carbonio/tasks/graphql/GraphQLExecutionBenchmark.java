@@ -0,0 +1,191 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.zextras.carbonio.tasks.Constants.Config.GraphQLLimits;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
+import com.zextras.carbonio.tasks.benchmarks.InMemoryTaskRepository;
+import com.zextras.carbonio.tasks.benchmarks.Stubs;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.graphql.datafetchers.ServiceInfoDataFetcher;
+import com.zextras.carbonio.tasks.graphql.datafetchers.TaskDataFetchers;
+import com.zextras.carbonio.tasks.graphql.instrumentations.ContextInstrumentation;
+import com.zextras.carbonio.tasks.graphql.instrumentations.MetricsInstrumentation;
+import com.zextras.carbonio.tasks.graphql.instrumentations.QueryLimitsInstrumentation;
+import com.zextras.carbonio.tasks.graphql.validators.InputFieldsValidator;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.dataloader.DataLoaderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the execution of whole GraphQL documents, from the parsing to the serialization of the
+ * result, with the same schema, data fetchers and instrumentations of the service. The tasks are
+ * kept in an {@link InMemoryTaskRepository}, so the database is not part of the measure. The
+ * documents are measured with and without the {@link PreparsedDocumentCache}, which skips their
+ * parsing and validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQLExecutionBenchmark {
+
+  private static final UUID REQUESTER_ID =
+      UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+  private static final String FIND_TASKS =
+      "query { findTasks(first: 100) "
+          + "{ id title description priority status createdAt reminderAt reminderAllDay cursor } }";
+
+  private static final String CREATE_TASK =
+      "mutation { createTask(newTask: { title: \"Buy the groceries\", priority: HIGH, "
+          + "reminderAt: 1704186000000, reminderAllDay: false }) "
+          + "{ id title priority status createdAt reminderAt reminderAllDay } }";
+
+  @Param({"100"})
+  public int tasksCount;
+
+  @Param({"false", "true"})
+  public boolean documentCache;
+
+  private InMemoryTaskRepository taskRepository;
+  private DataFetcherExecutor dataFetcherExecutor;
+  private GraphQL graphQL;
+  private HttpServletRequest request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    taskRepository = new InMemoryTaskRepository(Clock.systemUTC());
+    dataFetcherExecutor = new DataFetcherExecutor(4, 1000);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    QueryLimitsInstrumentation queryLimitsInstrumentation =
+        new QueryLimitsInstrumentation(
+            GraphQLLimits.MAX_DEPTH,
+            GraphQLLimits.MAX_COMPLEXITY,
+            GraphQLLimits.MAX_ROOT_FIELDS,
+            GraphQLLimits.MAX_ALIASES,
+            GraphQLLimits.MAX_TOKENS,
+            meterRegistry);
+    GraphQLProvider graphQLProvider =
+        new GraphQLProvider(
+            new ContextInstrumentation(),
+            new MetricsInstrumentation(meterRegistry),
+            queryLimitsInstrumentation,
+            new BatchSizeLimiter(GraphQLLimits.MAX_BATCH_SIZE, meterRegistry),
+            new RequestContextBuilder(
+                taskRepository, dataFetcherExecutor, queryLimitsInstrumentation),
+            new PreparsedDocumentCache(1000, Set.of(), meterRegistry),
+            new ServiceInfoDataFetcher(),
+            new TaskDataFetchers(
+                taskRepository, dataFetcherExecutor, Clock.systemUTC(), Duration.ofDays(30)),
+            new InputFieldsValidator());
+
+    // The same instrumentations and document provider registered in the GraphQLServlet
+    graphQL =
+        GraphQL.newGraphQL(graphQLProvider.buildSchema())
+            .instrumentation(
+                new ChainedInstrumentation(
+                    List.of(
+                        graphQLProvider.getQueryLimitsInstrumentation(),
+                        graphQLProvider.buildValidationInstrumentation(),
+                        graphQLProvider.getContextInstrumentation(),
+                        graphQLProvider.getMetricsInstrumentation())))
+            .preparsedDocumentProvider(
+                documentCache
+                    ? graphQLProvider.getPreparsedDocumentCache()
+                    : NoOpPreparsedDocumentProvider.INSTANCE)
+            .build();
+
+    request = Stubs.httpServletRequest(Map.of(Context.REQUESTER_ID, REQUESTER_ID));
+  }
+
+  /**
+   * Restores the same tasks before each iteration, so the createTask benchmark does not change the
+   * size of the findTasks results.
+   */
+  @Setup(Level.Iteration)
+  public void populateTasks() {
+    taskRepository.clear();
+    Instant now = Instant.now();
+
+    for (int index = 0; index < tasksCount; index++) {
+      taskRepository.createTask(
+          REQUESTER_ID,
+          "Task " + index,
+          index % 2 == 0 ? "Description of the task " + index : null,
+          Priority.values()[index % Priority.values().length],
+          Status.OPEN,
+          index % 3 == 0 ? now.plus(index, ChronoUnit.HOURS) : null,
+          index % 3 == 0 ? Boolean.FALSE : null);
+    }
+
+    checkNoErrors(execute(FIND_TASKS));
+    checkNoErrors(execute(CREATE_TASK));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    dataFetcherExecutor.shutdown(1, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public ExecutionResult findTasks() {
+    return execute(FIND_TASKS);
+  }
+
+  @Benchmark
+  public ExecutionResult createTask() {
+    return execute(CREATE_TASK);
+  }
+
+  private ExecutionResult execute(String document) {
+    ExecutionInput executionInput =
+        ExecutionInput.newExecutionInput(document)
+            .graphQLContext(Map.<Object, Object>of(HttpServletRequest.class, request))
+            .dataLoaderRegistry(new DataLoaderRegistry())
+            .build();
+
+    return graphQL.executeAsync(executionInput).join();
+  }
+
+  private static void checkNoErrors(ExecutionResult executionResult) {
+    if (!executionResult.getErrors().isEmpty()) {
+      throw new IllegalStateException(
+          "The benchmarked document failed: " + executionResult.getErrors());
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the coercion of the {@link DateTimeScalar}: the serialization of every date returned
+ * and the parsing of the dates received as variables or as literals of the document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeScalarBenchmark {
+
+  // The inputs are not final fields, otherwise the JIT could fold the coercions into constants
+  private DateTimeScalar dateTimeScalar;
+  private Object longDate;
+  private Object stringDate;
+  private Object integerDate;
+  private Object intValueDate;
+  private Object stringValueDate;
+
+  @Setup
+  public void setUp() {
+    dateTimeScalar = new DateTimeScalar();
+    longDate = 1704103200000L;
+    stringDate = "1704103200000";
+    integerDate = 0;
+    intValueDate = new IntValue(BigInteger.valueOf(1704103200000L));
+    stringValueDate = new StringValue("1704103200000");
+  }
+
+  @Benchmark
+  public Long serializeLong() {
+    return dateTimeScalar.serialize(longDate);
+  }
+
+  @Benchmark
+  public Long serializeString() {
+    return dateTimeScalar.serialize(stringDate);
+  }
+
+  @Benchmark
+  public Long parseValueLong() {
+    return dateTimeScalar.parseValue(longDate);
+  }
+
+  @Benchmark
+  public Long parseValueInteger() {
+    return dateTimeScalar.parseValue(integerDate);
+  }
+
+  @Benchmark
+  public Long parseLiteralIntValue() {
+    return dateTimeScalar.parseLiteral(intValueDate);
+  }
+
+  @Benchmark
+  public Long parseLiteralStringValue() {
+    return dateTimeScalar.parseLiteral(stringValueDate);
+  }
+}
@@ -0,0 +1,176 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Queries;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Types;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput and the allocations of the serialization of the findTasks results,
+ * mapping the GraphQL Task type:
+ *
+ * <ul>
+ *   <li>{@code map}: to an immutable map built for every task, like the data fetchers did before
+ *       the {@link TaskResult}
+ *   <li>{@code result}: to a {@link TaskResult}, whose fields are resolved by its data fetchers
+ * </ul>
+ *
+ * <p>The tasks are loaded once and returned by a synchronous findTasks data fetcher, so only the
+ * mapping of the tasks and the resolution of their fields are measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSerializationBenchmark {
+
+  private static final String FIND_TASKS =
+      "query { findTasks "
+          + "{ id title description priority status createdAt reminderAt reminderAllDay cursor } }";
+
+  private static final String FIND_TASK_TITLES = "query { findTasks { id title } }";
+
+  @Param({"100", "1000"})
+  public int tasksCount;
+
+  @Param({"map", "result"})
+  public String mapping;
+
+  private GraphQL graphQL;
+
+  @Setup
+  public void setUp() {
+    Instant now = Instant.parse("2024-01-01T10:00:00Z");
+    List<Task> tasks = new ArrayList<>(tasksCount);
+
+    for (int index = 0; index < tasksCount; index++) {
+      tasks.add(
+          new Task(
+              UUID.randomUUID(),
+              UUID.fromString("00000000-0000-0000-0000-000000000000"),
+              "Task " + index,
+              index % 2 == 0 ? "Description of the task " + index : null,
+              Priority.values()[index % Priority.values().length],
+              Status.OPEN,
+              now.minus(index, ChronoUnit.MINUTES),
+              index % 3 == 0 ? now.plus(index, ChronoUnit.HOURS) : null,
+              index % 3 == 0 ? Boolean.FALSE : null));
+    }
+
+    RuntimeWiring.Builder wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .scalar(new DateTimeScalar().graphQLScalarType())
+            .type(newTypeWiring(Types.PRIORITY).enumValues(Priority::valueOf))
+            .type(newTypeWiring(Types.STATUS).enumValues(Status::valueOf));
+
+    DataFetcher<?> findTasks;
+    if ("map".equals(mapping)) {
+      findTasks =
+          environment ->
+              tasks.stream()
+                  .map(task -> convertTaskToMap(task, TaskCursor.of(task).encode()))
+                  .collect(Collectors.toList());
+    } else {
+      wiring.type(newTypeWiring(Types.TASK).dataFetchers(TaskResult.getFieldDataFetchers()));
+      findTasks =
+          environment ->
+              tasks.stream()
+                  .map(task -> new TaskResult(task, TaskCursor.of(task).encode()))
+                  .collect(Collectors.toList());
+    }
+    wiring.type(newTypeWiring("Query").dataFetcher(Queries.FIND_TASKS, findTasks));
+
+    Reader schema =
+        new InputStreamReader(
+            getClass().getResourceAsStream("/api/schema.graphql"), StandardCharsets.UTF_8);
+    graphQL =
+        GraphQL.newGraphQL(
+                new SchemaGenerator()
+                    .makeExecutableSchema(new SchemaParser().parse(schema), wiring.build()))
+            .build();
+
+    checkNoErrors(findTasks());
+  }
+
+  @Benchmark
+  public ExecutionResult findTasks() {
+    return graphQL.execute(FIND_TASKS);
+  }
+
+  @Benchmark
+  public ExecutionResult findTaskTitles() {
+    return graphQL.execute(FIND_TASK_TITLES);
+  }
+
+  /** The conversion of a task in a map done by the data fetchers before the {@link TaskResult}. */
+  private static Map<String, Object> convertTaskToMap(Task task, String cursor) {
+    ImmutableMap.Builder<String, Object> taskMapBuilder =
+        ImmutableMap.<String, Object>builder().put("id", task.getId());
+
+    Optional.ofNullable(task.getTitle()).ifPresent(title -> taskMapBuilder.put("title", title));
+    Optional.ofNullable(task.getPriority())
+        .ifPresent(priority -> taskMapBuilder.put("priority", priority));
+    Optional.ofNullable(task.getStatus()).ifPresent(status -> taskMapBuilder.put("status", status));
+    Optional.ofNullable(task.getCreatedAt())
+        .ifPresent(createdAt -> taskMapBuilder.put("createdAt", createdAt.toEpochMilli()));
+
+    task.getDescription()
+        .ifPresent(description -> taskMapBuilder.put("description", description));
+
+    task.getReminderAt()
+        .ifPresent(
+            reminderAt -> {
+              taskMapBuilder.put("reminderAt", reminderAt.toEpochMilli());
+              taskMapBuilder.put("reminderAllDay", task.getReminderAllDay().orElse(false));
+            });
+
+    return taskMapBuilder.put("cursor", cursor).build();
+  }
+
+  private static void checkNoErrors(ExecutionResult executionResult) {
+    if (!executionResult.getErrors().isEmpty()) {
+      throw new IllegalStateException(
+          "The benchmarked document failed: " + executionResult.getErrors());
+    }
+  }
+}
@@ -0,0 +1,60 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.instrumentations;
+
+import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
+import com.zextras.carbonio.tasks.benchmarks.Stubs;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the copy of the requester identifier from the http request to the GraphQL context. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextInstrumentationBenchmark {
+
+  private ContextInstrumentation contextInstrumentation;
+  private InstrumentationExecutionParameters parameters;
+
+  @Setup
+  public void setUp() {
+    contextInstrumentation = new ContextInstrumentation();
+
+    HttpServletRequest request =
+        Stubs.httpServletRequest(
+            Map.of(
+                Context.REQUESTER_ID, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    ExecutionInput executionInput =
+        ExecutionInput.newExecutionInput("{ findTasks { id } }")
+            .graphQLContext(Map.<Object, Object>of(HttpServletRequest.class, request))
+            .build();
+
+    parameters = new InstrumentationExecutionParameters(executionInput, null, null);
+  }
+
+  @Benchmark
+  public InstrumentationContext<ExecutionResult> beginExecution() {
+    return contextInstrumentation.beginExecution(parameters, null);
+  }
+}
@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.validators;
+
+import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs.TaskInput;
+import com.zextras.carbonio.tasks.benchmarks.Stubs;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import graphql.GraphQLError;
+import graphql.execution.instrumentation.fieldvalidation.FieldAndArguments;
+import graphql.execution.instrumentation.fieldvalidation.FieldValidationEnvironment;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the validation of the input of the createTask mutation, both when the input is valid
+ * and when it is not and the error must be built.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputFieldsValidatorBenchmark {
+
+  private BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      upsertTaskValidator;
+  private FieldValidationEnvironment fieldValidationEnvironment;
+  private FieldAndArguments validTask;
+  private FieldAndArguments invalidTask;
+
+  @Setup
+  public void setUp() {
+    upsertTaskValidator = new InputFieldsValidator().upsertTaskValidator(Inputs.NEW_TASK);
+    fieldValidationEnvironment = Stubs.fieldValidationEnvironment();
+
+    Map<String, Object> validTaskInput = new HashMap<>();
+    validTaskInput.put(TaskInput.TITLE, "Buy the groceries");
+    validTaskInput.put(TaskInput.DESCRIPTION, "Milk, eggs, bread and a lot of coffee");
+    validTaskInput.put(TaskInput.PRIORITY, Priority.HIGH);
+    validTaskInput.put(TaskInput.REMINDER_AT, 1704186000000L);
+    validTaskInput.put(TaskInput.REMINDER_ALL_DAY, false);
+    validTask = Stubs.fieldAndArguments(Map.of(Inputs.NEW_TASK, validTaskInput));
+
+    Map<String, Object> invalidTaskInput = new HashMap<>();
+    invalidTaskInput.put(TaskInput.TITLE, "a".repeat(Inputs.TITLE_MAX_LENGTH + 1));
+    invalidTaskInput.put(TaskInput.REMINDER_ALL_DAY, true);
+    invalidTask = Stubs.fieldAndArguments(Map.of(Inputs.NEW_TASK, invalidTaskInput));
+  }
+
+  @Benchmark
+  public Optional<GraphQLError> validateValidTask() {
+    return upsertTaskValidator.apply(validTask, fieldValidationEnvironment);
+  }
+
+  @Benchmark
+  public Optional<GraphQLError> validateInvalidTask() {
+    return upsertTaskValidator.apply(invalidTask, fieldValidationEnvironment);
+  }
+}
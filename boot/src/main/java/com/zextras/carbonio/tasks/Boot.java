@@ -8,8 +8,12 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.zextras.carbonio.tasks.config.LifecycleManager;
 import com.zextras.carbonio.tasks.config.TasksModule;
 import com.zextras.carbonio.tasks.dal.DatabaseManager;
+import com.zextras.carbonio.tasks.reminders.ReminderScheduler;
+import com.zextras.carbonio.tasks.rest.services.HealthMonitor;
+import com.zextras.carbonio.tasks.trash.TrashPurger;
 import org.slf4j.LoggerFactory;
 
 public class Boot {
@@ -21,9 +25,13 @@ public class Boot {
     rootLogger.setLevel(logLevel == null ? Level.INFO : Level.toLevel(logLevel));
 
     Injector injector = Guice.createInjector(new TasksModule());
+    injector.getInstance(LifecycleManager.class).registerShutdownHook();
 
     try {
       injector.getInstance(DatabaseManager.class).initialize();
+      injector.getInstance(HealthMonitor.class).start();
+      injector.getInstance(ReminderScheduler.class).start();
+      injector.getInstance(TrashPurger.class).start();
       injector.getInstance(JettyServer.class).start();
     } catch (Exception exception) {
       rootLogger.error("Service stopped unexpectedly: ", exception);
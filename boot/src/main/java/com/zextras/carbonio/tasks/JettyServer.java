@@ -8,9 +8,15 @@ import com.google.inject.Inject;
 import com.google.inject.servlet.GuiceFilter;
 import com.zextras.carbonio.tasks.Constants.Service;
 import com.zextras.carbonio.tasks.graphql.GraphQLServlet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jetty.JettyServerThreadPoolMetrics;
 import jakarta.servlet.DispatcherType;
 import java.util.EnumSet;
+import org.eclipse.jetty.ee10.servlet.FilterHolder;
 import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHandler.Default404Servlet;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.jboss.resteasy.plugins.guice.GuiceResteasyBootstrapServletContextListener;
@@ -19,10 +25,14 @@ import org.jboss.resteasy.plugins.server.servlet.HttpServlet30Dispatcher;
 public class JettyServer {
 
   private final GuiceResteasyBootstrapServletContextListener guiceRestEasyListener;
+  private final MeterRegistry meterRegistry;
 
   @Inject
-  public JettyServer(GuiceResteasyBootstrapServletContextListener guiceRestEasyListener) {
+  public JettyServer(
+      GuiceResteasyBootstrapServletContextListener guiceRestEasyListener,
+      MeterRegistry meterRegistry) {
     this.guiceRestEasyListener = guiceRestEasyListener;
+    this.meterRegistry = meterRegistry;
   }
 
   /**
@@ -40,6 +50,8 @@ public class JettyServer {
 
     // Unfortunately the jetty server is not AutoClosable, so I can't use try-with-resources
     Server server = new Server();
+    // Exposes the busy threads and the queued jobs of the server thread pool
+    new JettyServerThreadPoolMetrics(server.getThreadPool(), Tags.empty()).bindTo(meterRegistry);
     try {
       try (ServerConnector connector = new ServerConnector(server)) {
         connector.setDefaultProtocol("HTTP/1.1");
@@ -50,7 +62,16 @@ public class JettyServer {
       ServletContextHandler servletContextHandler =
           new ServletContextHandler("/", ServletContextHandler.SESSIONS);
 
-      servletContextHandler.addFilter(GuiceFilter.class, "/*", EnumSet.allOf(DispatcherType.class));
+      // The GraphQL requests are executed asynchronously, releasing the Jetty thread while the
+      // data fetchers wait for the database: the request supports it only if all the filters and
+      // the servlet matching it support it
+      FilterHolder guiceFilterHolder = new FilterHolder(GuiceFilter.class);
+      guiceFilterHolder.setAsyncSupported(true);
+      servletContextHandler.addFilter(guiceFilterHolder, "/*", EnumSet.allOf(DispatcherType.class));
+
+      ServletHolder defaultServletHolder = new ServletHolder(Default404Servlet.class);
+      defaultServletHolder.setAsyncSupported(true);
+      servletContextHandler.addServlet(defaultServletHolder, "/");
       servletContextHandler.addEventListener(guiceRestEasyListener);
 
       server.setHandler(servletContextHandler);
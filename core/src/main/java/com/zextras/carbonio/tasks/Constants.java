@@ -23,6 +23,7 @@ public final class Constants {
 
       public static final class Endpoints {
         public static final String GRAPHQL = "/graphql/";
+        public static final String TASKS_STREAM = "/graphql/stream/";
         public static final String REST = "/rest";
 
         private Endpoints() {}
@@ -43,12 +44,21 @@ public final class Constants {
       private Properties() {}
     }
 
+    public static final class ConfigsLoad {
+
+      public static final int MAX_ATTEMPTS = 5;
+      public static final int BACKOFF_MILLIS = 500;
+
+      private ConfigsLoad() {}
+    }
+
     public static final class Database {
 
       public static final String URL = "127.78.0.16";
       public static final String PORT = "20000";
       public static final String NAME = "carbonio-tasks-db";
       public static final String USERNAME = "carbonio-tasks-db";
+      public static final int BATCH_SIZE = 500;
 
       private Database() {}
     }
@@ -61,6 +71,82 @@ public final class Constants {
       private Hikari() {}
     }
 
+    public static final class DataFetcher {
+
+      public static final int QUEUE_CAPACITY = 1000;
+
+      private DataFetcher() {}
+    }
+
+    public static final class TokenCache {
+
+      public static final int MAX_SIZE = 10_000;
+      public static final int TTL_SECONDS = 60;
+      public static final int NEGATIVE_TTL_SECONDS = 5;
+
+      private TokenCache() {}
+    }
+
+    public static final class GraphQLAsync {
+
+      public static final int TIMEOUT_SECONDS = 30;
+
+      private GraphQLAsync() {}
+    }
+
+    public static final class GraphQLLimits {
+
+      public static final int MAX_DEPTH = 15;
+      public static final long MAX_COMPLEXITY = 10_000L;
+      public static final int MAX_ROOT_FIELDS = 10;
+      public static final int MAX_ALIASES = 20;
+      public static final int MAX_TOKENS = 15_000;
+      public static final int MAX_BATCH_SIZE = 10;
+
+      private GraphQLLimits() {}
+    }
+
+    public static final class TasksStream {
+
+      public static final int FETCH_SIZE = 500;
+      public static final int MAX_CONCURRENT = 4;
+
+      private TasksStream() {}
+    }
+
+    public static final class DocumentCache {
+
+      public static final int MAX_SIZE = 1000;
+
+      private DocumentCache() {}
+    }
+
+    public static final class Health {
+
+      public static final int REFRESH_INTERVAL_SECONDS = 10;
+
+      private Health() {}
+    }
+
+    public static final class Reminders {
+
+      public static final int WINDOW_MINUTES = 10;
+      public static final int MAX_LOADED = 10_000;
+
+      private Reminders() {}
+    }
+
+    public static final class TrashPurge {
+
+      public static final boolean ENABLED = true;
+      public static final int RETENTION_DAYS = 30;
+      public static final int INTERVAL_MINUTES = 60;
+      public static final int BATCH_SIZE = 500;
+      public static final int BATCH_PAUSE_MILLIS = 200;
+
+      private TrashPurge() {}
+    }
+
     public static final class UserService {
 
       public static final String PROTOCOL = "http";
@@ -91,6 +177,10 @@ public final class Constants {
         public static final String CREATED_AT = "created_at";
         public static final String REMINDER_AT = "reminder_at";
         public static final String REMINDER_ALL_DAY = "reminder_all_day";
+        public static final String SEARCH_VECTOR = "search_vector";
+        public static final String TRASHED_AT = "trashed_at";
+        public static final String UPDATED_AT = "updated_at";
+        public static final String REMINDER_FIRED_AT = "reminder_fired_at";
 
         private Task() {}
       }
@@ -110,14 +200,69 @@ public final class Constants {
         public static final String DB_NAME = "db-name";
         public static final String DB_USERNAME = "db-username";
         public static final String DB_PASSWORD = "db-password";
+        public static final String DB_BATCH_SIZE = "db-batch-size";
         public static final String HIKARI_MAX_POOL_SIZE = "hikari-max-pool-size";
         public static final String HIKARI_MIN_IDLE_CONNECTIONS = "hikari-min-idle-connections";
+        public static final String DATA_FETCHER_POOL_SIZE = "data-fetcher-pool-size";
+        public static final String DATA_FETCHER_QUEUE_CAPACITY = "data-fetcher-queue-capacity";
+        public static final String TOKEN_CACHE_MAX_SIZE = "token-cache-max-size";
+        public static final String TOKEN_CACHE_TTL_SECONDS = "token-cache-ttl-seconds";
+        public static final String TOKEN_CACHE_NEGATIVE_TTL_SECONDS =
+            "token-cache-negative-ttl-seconds";
+        public static final String DOCUMENT_CACHE_MAX_SIZE = "document-cache-max-size";
+        public static final String PERSISTED_QUERIES_ALLOWLIST = "persisted-queries-allowlist";
+        public static final String GRAPHQL_ASYNC_TIMEOUT_SECONDS = "graphql-async-timeout-seconds";
+        public static final String GRAPHQL_MAX_DEPTH = "graphql-max-depth";
+        public static final String GRAPHQL_MAX_COMPLEXITY = "graphql-max-complexity";
+        public static final String GRAPHQL_MAX_ROOT_FIELDS = "graphql-max-root-fields";
+        public static final String GRAPHQL_MAX_ALIASES = "graphql-max-aliases";
+        public static final String GRAPHQL_MAX_TOKENS = "graphql-max-tokens";
+        public static final String GRAPHQL_MAX_BATCH_SIZE = "graphql-max-batch-size";
+        public static final String TASKS_STREAM_FETCH_SIZE = "tasks-stream-fetch-size";
+        public static final String TASKS_STREAM_MAX_CONCURRENT = "tasks-stream-max-concurrent";
+        public static final String HEALTH_REFRESH_INTERVAL_SECONDS =
+            "health-refresh-interval-seconds";
+        public static final String REMINDERS_WINDOW_MINUTES = "reminders-window-minutes";
+        public static final String REMINDERS_MAX_LOADED = "reminders-max-loaded";
+        public static final String TRASH_PURGE_ENABLED = "trash-purge-enabled";
+        public static final String TRASH_PURGE_RETENTION_DAYS = "trash-purge-retention-days";
+        public static final String TRASH_PURGE_INTERVAL_MINUTES = "trash-purge-interval-minutes";
+        public static final String TRASH_PURGE_BATCH_SIZE = "trash-purge-batch-size";
+        public static final String TRASH_PURGE_BATCH_PAUSE_MILLIS =
+            "trash-purge-batch-pause-millis";
 
         private Key() {}
       }
     }
   }
 
+  public static final class Metrics {
+
+    public static final String GRAPHQL_OPERATION = "tasks.graphql.operation";
+    public static final String GRAPHQL_LIMIT_REJECTED = "tasks.graphql.limit.rejected";
+    public static final String REPOSITORY_CALL = "tasks.repository.call";
+    public static final String TOKEN_VALIDATION = "tasks.auth.token.validation";
+    public static final String TOKEN_CACHE_REQUESTS = "tasks.auth.token.cache.requests";
+    public static final String TOKEN_CACHE_SIZE = "tasks.auth.token.cache.size";
+    public static final String DOCUMENT_CACHE_REQUESTS = "tasks.graphql.document.cache.requests";
+    public static final String DOCUMENT_CACHE_SIZE = "tasks.graphql.document.cache.size";
+    public static final String PERSISTED_QUERIES_REJECTED =
+        "tasks.graphql.persisted.queries.rejected";
+    public static final String DATA_FETCHER_POOL_SIZE = "tasks.data.fetcher.pool.size";
+    public static final String DATA_FETCHER_ACTIVE = "tasks.data.fetcher.active";
+    public static final String DATA_FETCHER_QUEUED = "tasks.data.fetcher.queued";
+    public static final String DATA_FETCHER_REJECTED = "tasks.data.fetcher.rejected";
+    public static final String REMINDERS_PENDING = "tasks.reminders.pending";
+    public static final String REMINDERS_FIRED = "tasks.reminders.fired";
+    public static final String TRASH_PURGE_DELETED = "tasks.trash.purge.deleted";
+    public static final String TRASH_PURGE_BATCH = "tasks.trash.purge.batch";
+    public static final String TRASH_PURGE_RUNNING = "tasks.trash.purge.running";
+    public static final String TASKS_STREAM_REQUEST = "tasks.stream.request";
+    public static final String TASKS_STREAM_TASKS = "tasks.stream.tasks";
+
+    private Metrics() {}
+  }
+
   public static final class GraphQL {
 
     private GraphQL() {}
@@ -129,10 +274,34 @@ public final class Constants {
       private Context() {}
     }
 
+    public static final class PersistedQueries {
+
+      public static final String EXTENSION = "persistedQuery";
+      public static final String SHA256_HASH = "sha256Hash";
+      public static final String MARKER = "PersistedQueryMarker";
+      public static final String ERROR_CODE = "code";
+      public static final String NOT_FOUND = "PersistedQueryNotFound";
+      public static final String NOT_FOUND_CODE = "PERSISTED_QUERY_NOT_FOUND";
+      public static final String INVALID_HASH = "PersistedQueryIdInvalid";
+      public static final String INVALID_HASH_CODE = "PERSISTED_QUERY_ID_INVALID";
+      public static final String NOT_ALLOWED = "PersistedQueryNotAllowed";
+      public static final String NOT_ALLOWED_CODE = "PERSISTED_QUERY_NOT_ALLOWED";
+
+      private PersistedQueries() {}
+    }
+
+    public static final class DataLoaders {
+
+      public static final String TASK = "task";
+
+      private DataLoaders() {}
+    }
+
     public static final class Types {
 
       public static final String PRIORITY = "Priority";
       public static final String STATUS = "Status";
+      public static final String TASK = "Task";
 
       private Types() {}
     }
@@ -156,20 +325,43 @@ public final class Constants {
       public static final String CREATED_AT = "createdAt";
       public static final String REMINDER_AT = "reminderAt";
       public static final String REMINDER_ALL_DAY = "reminderAllDay";
+      public static final String CURSOR = "cursor";
 
       private Task() {}
     }
 
+    public static final class TaskChangeSet {
+
+      public static final String CHANGED = "changed";
+      public static final String TRASHED = "trashed";
+      public static final String WATERMARK = "watermark";
+      public static final String HAS_MORE = "hasMore";
+      public static final String RESYNC_REQUIRED = "resyncRequired";
+
+      private TaskChangeSet() {}
+    }
+
     public static final class Inputs {
 
       public static final int TITLE_MAX_LENGTH = 1024;
       public static final int DESCRIPTION_MAX_LENGTH = 4096;
       public static final int REMINDER_AT_RESET_VALUE = 0;
+      public static final int MAX_PAGE_SIZE = 500;
+      public static final int SEARCH_QUERY_MAX_LENGTH = 256;
+      public static final int MAX_BULK_SIZE = 500;
       public static final String PRIORITY = "priority";
       public static final String STATUS = "status";
+      public static final String FIRST = "first";
+      public static final String AFTER = "after";
+      public static final String QUERY = "query";
+      public static final String SINCE = "since";
       public static final String TASK_ID = "taskId";
       public static final String NEW_TASK = "newTask";
       public static final String UPDATE_TASK = "updateTask";
+      public static final String TASK_IDS = "taskIds";
+      public static final String NEW_TASKS = "newTasks";
+      public static final String UPDATE_TASKS = "updateTasks";
+      public static final String FIELDS = "fields";
 
       private Inputs() {}
 
@@ -192,6 +384,8 @@ public final class Constants {
       public static final String GET_SERVICE_INFO = "getServiceInfo";
       public static final String GET_TASK = "getTask";
       public static final String FIND_TASKS = "findTasks";
+      public static final String SEARCH_TASKS = "searchTasks";
+      public static final String TASK_CHANGES = "taskChanges";
 
       private Queries() {}
     }
@@ -201,6 +395,9 @@ public final class Constants {
       public static final String CREATE_TASK = "createTask";
       public static final String UPDATE_TASK = "updateTask";
       public static final String TRASH_TASK = "trashTask";
+      public static final String CREATE_TASKS = "createTasks";
+      public static final String UPDATE_TASKS = "updateTasks";
+      public static final String TRASH_TASKS = "trashTasks";
 
       private Mutations() {}
     }
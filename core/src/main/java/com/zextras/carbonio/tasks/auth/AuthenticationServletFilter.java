@@ -7,8 +7,8 @@ package com.zextras.carbonio.tasks.auth;
 import com.google.inject.Inject;
 import com.zextras.carbonio.tasks.Constants.Config;
 import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
-import com.zextras.carbonio.usermanagement.UserManagementClient;
 import com.zextras.carbonio.usermanagement.entities.UserId;
+import com.zextras.carbonio.usermanagement.exceptions.UnAuthorized;
 import io.vavr.control.Try;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -22,19 +22,29 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.UUID;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Authenticates the requests to the GraphQL endpoint through the {@link
+ * Config#ACCEPTED_COOKIE_TYPE} cookie, and stores the identifier of the requester in the {@link
+ * Context#REQUESTER_ID} attribute of the request.
+ *
+ * <p>The filter runs on the request thread before the GraphQL execution starts, which can then
+ * continue asynchronously: once the chain returns, the response may be still written by another
+ * thread, so the filter must not touch it anymore.
+ */
 public class AuthenticationServletFilter implements Filter {
 
   private static final Logger logger = LoggerFactory.getLogger(AuthenticationServletFilter.class);
 
-  private final UserManagementClient userManagementClient;
+  private final TokenValidationCache tokenValidationCache;
 
   @Inject
-  public AuthenticationServletFilter(UserManagementClient userManagementClient) {
-    this.userManagementClient = userManagementClient;
+  public AuthenticationServletFilter(TokenValidationCache tokenValidationCache) {
+    this.tokenValidationCache = tokenValidationCache;
   }
 
   @Override
@@ -53,10 +63,7 @@ public class AuthenticationServletFilter implements Filter {
       HttpServletRequest httpRequest = (HttpServletRequest) request;
       HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-      Optional<Cookie> optZmCookie =
-          Arrays.stream(httpRequest.getCookies())
-              .filter(cookie -> Config.ACCEPTED_COOKIE_TYPE.equals(cookie.getName()))
-              .findFirst();
+      Optional<Cookie> optZmCookie = findZmCookie(httpRequest);
 
       if (optZmCookie.isEmpty()) {
         logger.error("The request is unauthorized: the cookie is missing");
@@ -64,11 +71,22 @@ public class AuthenticationServletFilter implements Filter {
         return;
       }
 
-      // Unfortunately doFilter throws an exception, using the .map would lead to an unreadable code
-      Try<UserId> tryUserId = userManagementClient.validateUserToken(optZmCookie.get().getValue());
+      Try<UserId> tryUserId =
+          tokenValidationCache.validateUserToken(optZmCookie.get().getValue());
 
-      if (tryUserId.isSuccess()) {
-        httpRequest.setAttribute(Context.REQUESTER_ID, tryUserId.get().getUserId());
+      if (tryUserId.isFailure() && !(tryUserId.getCause() instanceof UnAuthorized)) {
+        // The token could not be validated: it may be still valid, so the client can retry
+        logger.error("Unable to validate the cookie", tryUserId.getCause());
+        httpResponse.setStatus(HttpStatus.SC_SERVICE_UNAVAILABLE);
+        return;
+      }
+
+      // Unfortunately doFilter throws an exception, using the .map would lead to an unreadable
+      // code. The requester id is parsed here, once: the owner of the tasks is stored as a uuid
+      Try<UUID> tryRequesterId = tryUserId.map(userId -> UUID.fromString(userId.getUserId()));
+
+      if (tryRequesterId.isSuccess()) {
+        httpRequest.setAttribute(Context.REQUESTER_ID, tryRequesterId.get());
         filterChain.doFilter(httpRequest, httpResponse);
       } else {
         logger.error("The request is unauthorized: the cookie is invalid");
@@ -79,6 +97,17 @@ public class AuthenticationServletFilter implements Filter {
     }
   }
 
+  /**
+   * @param httpRequest is the {@link HttpServletRequest} to authenticate
+   * @return an {@link Optional} containing the first cookie of the {@link
+   *     Config#ACCEPTED_COOKIE_TYPE} type, or an empty one if the request does not have it
+   */
+  static Optional<Cookie> findZmCookie(HttpServletRequest httpRequest) {
+    return Arrays.stream(httpRequest.getCookies())
+        .filter(cookie -> Config.ACCEPTED_COOKIE_TYPE.equals(cookie.getName()))
+        .findFirst();
+  }
+
   @Override
   public void destroy() {
     logger.trace("The destroy of this filter is not necessary");
@@ -0,0 +1,163 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.auth;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.usermanagement.UserManagementClient;
+import com.zextras.carbonio.usermanagement.entities.UserId;
+import com.zextras.carbonio.usermanagement.exceptions.UnAuthorized;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vavr.control.Try;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches the result of the validation of the authentication tokens done by the {@link
+ * UserManagementClient}, so a token is validated at most once per time-to-live on each node.
+ *
+ * <p>The tokens are stored hashed with SHA-256. Concurrent validations of the same token not in
+ * cache are coalesced: only one of them calls the user management, the others wait for its result.
+ * The tokens rejected by the user management are cached too, but only for the negative
+ * time-to-live, which should be shorter. The validations failed for any other reason, like the user
+ * management being unreachable or answering with an error, are never cached: the validation is
+ * retried by the next request, so the valid tokens are accepted again as soon as the user
+ * management recovers.
+ *
+ * <p>The hits, the misses and the size of the cache, and the duration of the validations done by
+ * the user management, are exposed in the given {@link MeterRegistry}.
+ */
+public class TokenValidationCache {
+
+  private final UserManagementClient userManagementClient;
+  private final Duration negativeTtl;
+  private final Ticker ticker;
+  private final Cache<String, Validation> cache;
+  private final Timer validationTimer;
+
+  public TokenValidationCache(
+      UserManagementClient userManagementClient,
+      long maxSize,
+      Duration ttl,
+      Duration negativeTtl,
+      Ticker ticker,
+      MeterRegistry meterRegistry) {
+    this.userManagementClient = userManagementClient;
+    this.negativeTtl = negativeTtl;
+    this.ticker = ticker;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+
+    FunctionCounter.builder(
+            Metrics.TOKEN_CACHE_REQUESTS, this, TokenValidationCache::getHitCount)
+        .description("The validations of the authentication tokens served by the cache")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder(
+            Metrics.TOKEN_CACHE_REQUESTS, this, TokenValidationCache::getMissCount)
+        .description("The validations of the authentication tokens not served by the cache")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder(Metrics.TOKEN_CACHE_SIZE, this, TokenValidationCache::getSize)
+        .description("The number of validations of the authentication tokens in cache")
+        .register(meterRegistry);
+    this.validationTimer =
+        Timer.builder(Metrics.TOKEN_VALIDATION)
+            .description("The duration of the validations done by the user management")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+  }
+
+  /**
+   * @param token is the authentication token to validate
+   * @return a {@link Try} containing the {@link UserId} of the owner of the token if it is valid,
+   *     or the failure of the validation otherwise. The failure is an {@link UnAuthorized} only if
+   *     the token has been rejected: any other failure means the token could not be validated
+   */
+  public Try<UserId> validateUserToken(String token) {
+    String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+
+    try {
+      Validation validation = cache.get(tokenHash, () -> validate(token));
+
+      // The cache expires all the entries after the same time-to-live, so the failed validations
+      // must be evicted explicitly when their shorter time-to-live is over
+      if (validation.isExpired(ticker.read())) {
+        cache.asMap().remove(tokenHash, validation);
+        validation = cache.get(tokenHash, () -> validate(token));
+      }
+
+      return validation.getResult();
+    } catch (ExecutionException | UncheckedExecutionException exception) {
+      return Try.failure(exception.getCause());
+    }
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  /** @return the ratio between the validations served by the cache and all the validations */
+  public double getHitRate() {
+    return cache.stats().hitRate();
+  }
+
+  public long getSize() {
+    return cache.size();
+  }
+
+  /**
+   * @throws Exception if the token could not be validated, so the failure is not cached. The
+   *     waiting validations of the same token receive the same failure
+   */
+  private Validation validate(String token) throws Exception {
+    Try<UserId> result =
+        validationTimer.record(() -> userManagementClient.validateUserToken(token));
+
+    if (result.isFailure() && !(result.getCause() instanceof UnAuthorized)) {
+      Throwable cause = result.getCause();
+      throw cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause);
+    }
+
+    long expiresAt = result.isSuccess() ? Long.MAX_VALUE : ticker.read() + negativeTtl.toNanos();
+    return new Validation(result, expiresAt);
+  }
+
+  private static final class Validation {
+
+    private final Try<UserId> result;
+    private final long expiresAtNanos;
+
+    Validation(Try<UserId> result, long expiresAtNanos) {
+      this.result = result;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    Try<UserId> getResult() {
+      return result;
+    }
+
+    boolean isExpired(long nowNanos) {
+      return nowNanos >= expiresAtNanos;
+    }
+  }
+}
@@ -4,27 +4,59 @@
 
 package com.zextras.carbonio.tasks.clients;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.apache.hc.client5.http.HttpResponseException;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.classic.BasicHttpClientResponseHandler;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.utils.Base64;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ServiceDiscoverHttpClient {
+/**
+ * Reads the configurations of the service from the key-value store of the service discover. All
+ * the requests share the same {@link CloseableHttpClient}, and then its connections, since some
+ * configs are read at every use and not only at startup: the client must be closed with the {@link
+ * #close()} method when the service stops.
+ */
+public class ServiceDiscoverHttpClient implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(ServiceDiscoverHttpClient.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /** The service discover runs locally: a slower answer means it is not working properly. */
+  private static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(2);
+
+  private static final Timeout SOCKET_TIMEOUT = Timeout.ofSeconds(5);
 
   private final String serviceDiscoverURL;
+  private final CloseableHttpClient httpClient;
 
   ServiceDiscoverHttpClient(String serviceDiscoverURL) {
     this.serviceDiscoverURL = serviceDiscoverURL;
+    this.httpClient =
+        HttpClients.createMinimal(
+            PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(
+                    ConnectionConfig.custom()
+                        .setConnectTimeout(CONNECT_TIMEOUT)
+                        .setSocketTimeout(SOCKET_TIMEOUT)
+                        .build())
+                .build());
   }
 
   public static ServiceDiscoverHttpClient atURL(String url, String serviceName) {
@@ -38,14 +70,14 @@ public class ServiceDiscoverHttpClient {
   }
 
   public Optional<String> getConfig(String configKey) {
-    try (CloseableHttpClient httpClient = HttpClients.createMinimal()) {
+    try {
       HttpGet request = new HttpGet(serviceDiscoverURL + configKey);
       request.setHeader("X-Consul-Token", System.getenv("CONSUL_HTTP_TOKEN"));
 
       // With the response handler the 2xx status code check is already done internally
       BasicHttpClientResponseHandler responseHandler = new BasicHttpClientResponseHandler();
       String bodyResponse = httpClient.execute(request, responseHandler);
-      String value = new ObjectMapper().readTree(bodyResponse).get(0).get("Value").asText();
+      String value = objectMapper.readTree(bodyResponse).get(0).get("Value").asText();
       String valueDecoded = new String(Base64.decodeBase64(value), StandardCharsets.UTF_8).trim();
 
       return Optional.of(valueDecoded);
@@ -62,4 +94,64 @@ public class ServiceDiscoverHttpClient {
       return Optional.empty();
     }
   }
+
+  /**
+   * Retrieves all the configurations of the service with a single recursive request, so the
+   * service can load them once at startup instead of asking for each key separately.
+   *
+   * @return an {@link Optional} containing a {@link Map} of the configuration keys, without the
+   *     service name prefix, and their decoded values. The map is empty if the service has no
+   *     configurations. The optional is empty if the configurations cannot be retrieved, so the
+   *     caller can tell a missing configuration from an unreachable service discover.
+   */
+  public Optional<Map<String, String>> getConfigs() {
+    try {
+      HttpGet request = new HttpGet(serviceDiscoverURL + "?recurse=true");
+      request.setHeader("X-Consul-Token", System.getenv("CONSUL_HTTP_TOKEN"));
+
+      BasicHttpClientResponseHandler responseHandler = new BasicHttpClientResponseHandler();
+      String bodyResponse = httpClient.execute(request, responseHandler);
+
+      Map<String, String> configs = new HashMap<>();
+      for (JsonNode config : objectMapper.readTree(bodyResponse)) {
+        String key = config.get("Key").asText();
+        JsonNode value = config.get("Value");
+
+        // The folders do not have a value
+        if (value != null && !value.isNull()) {
+          String configKey = key.substring(key.lastIndexOf('/') + 1);
+          String valueDecoded =
+              new String(Base64.decodeBase64(value.asText()), StandardCharsets.UTF_8).trim();
+          configs.put(configKey, valueDecoded);
+        }
+      }
+
+      return Optional.of(configs);
+
+    } catch (HttpResponseException exception) {
+      // The service discover answers 404 when no key has the service prefix
+      if (exception.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+        logger.info("No configs of the service found in consul");
+        return Optional.of(Collections.emptyMap());
+      }
+
+      logger.warn(
+          String.format(
+              "Unable to retrieve the configs from consul: status %d", exception.getStatusCode()));
+      return Optional.empty();
+
+    } catch (IOException exception) {
+      logger.warn(
+          String.format(
+              "Unable to decode the ServiceDiscover response when the configs are retrieved. %s",
+              exception));
+      return Optional.empty();
+    }
+  }
+
+  /** Closes the connections to the service discover without waiting for the pending requests. */
+  @Override
+  public void close() {
+    httpClient.close(CloseMode.IMMEDIATE);
+  }
 }
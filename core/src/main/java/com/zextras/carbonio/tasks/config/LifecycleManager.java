@@ -0,0 +1,88 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.config;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zextras.carbonio.tasks.dal.DatabaseConnectionManager;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.reminders.ReminderScheduler;
+import com.zextras.carbonio.tasks.rest.services.HealthMonitor;
+import com.zextras.carbonio.tasks.trash.TrashPurger;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Releases the resources shared by the whole service when it stops. The resources are released in
+ * the reverse order of their usage: first the health monitor, the reminder scheduler and the
+ * trash purger are stopped and the pending data fetchers are completed, then the Ebean database is
+ * shut down, the connection pool is closed and finally the connections to the service discover are
+ * closed.
+ */
+@Singleton
+public class LifecycleManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(LifecycleManager.class);
+  private static final long DATA_FETCHERS_TIMEOUT_SECONDS = 10;
+
+  private final HealthMonitor healthMonitor;
+  private final ReminderScheduler reminderScheduler;
+  private final TrashPurger trashPurger;
+  private final DataFetcherExecutor dataFetcherExecutor;
+  private final DatabaseConnectionManager databaseConnectionManager;
+  private final HikariDataSource dataSource;
+  private final TasksConfig tasksConfig;
+
+  @Inject
+  public LifecycleManager(
+      HealthMonitor healthMonitor,
+      ReminderScheduler reminderScheduler,
+      TrashPurger trashPurger,
+      DataFetcherExecutor dataFetcherExecutor,
+      DatabaseConnectionManager databaseConnectionManager,
+      HikariDataSource dataSource,
+      TasksConfig tasksConfig) {
+    this.healthMonitor = healthMonitor;
+    this.reminderScheduler = reminderScheduler;
+    this.trashPurger = trashPurger;
+    this.dataFetcherExecutor = dataFetcherExecutor;
+    this.databaseConnectionManager = databaseConnectionManager;
+    this.dataSource = dataSource;
+    this.tasksConfig = tasksConfig;
+  }
+
+  /**
+   * Registers a JVM shutdown hook that calls the {@link #stop()} method when the service is
+   * terminated.
+   */
+  public void registerShutdownHook() {
+    Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "shutdown-hook"));
+  }
+
+  public void stop() {
+    logger.info("Stopping the service");
+    healthMonitor.stop();
+    reminderScheduler.stop();
+    trashPurger.stop();
+
+    try {
+      dataFetcherExecutor.shutdown(DATA_FETCHERS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      logger.warn("Interrupted while waiting the end of the pending data fetchers");
+      Thread.currentThread().interrupt();
+    }
+
+    databaseConnectionManager.shutdown();
+
+    if (!dataSource.isClosed()) {
+      dataSource.close();
+      logger.info("Database connection pool closed");
+    }
+
+    tasksConfig.close();
+  }
+}
@@ -4,31 +4,97 @@
 
 package com.zextras.carbonio.tasks.config;
 
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zextras.carbonio.tasks.Constants.Config;
+import com.zextras.carbonio.tasks.Constants.Config.ConfigsLoad;
+import com.zextras.carbonio.tasks.Constants.Config.DataFetcher;
 import com.zextras.carbonio.tasks.Constants.Config.Database;
+import com.zextras.carbonio.tasks.Constants.Config.DocumentCache;
+import com.zextras.carbonio.tasks.Constants.Config.GraphQLAsync;
+import com.zextras.carbonio.tasks.Constants.Config.GraphQLLimits;
+import com.zextras.carbonio.tasks.Constants.Config.Health;
 import com.zextras.carbonio.tasks.Constants.Config.Hikari;
+import com.zextras.carbonio.tasks.Constants.Config.Reminders;
+import com.zextras.carbonio.tasks.Constants.Config.TasksStream;
+import com.zextras.carbonio.tasks.Constants.Config.TokenCache;
+import com.zextras.carbonio.tasks.Constants.Config.TrashPurge;
 import com.zextras.carbonio.tasks.Constants.Service;
 import com.zextras.carbonio.tasks.Constants.ServiceDiscover.Config.Key;
 import com.zextras.carbonio.tasks.clients.ServiceDiscoverHttpClient;
 import com.zextras.carbonio.tasks.dal.dao.Task;
 import io.ebean.config.DatabaseConfig;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Provides the configurations of the service. They are loaded from the service discover with a
+ * single request when the {@link TasksConfig} is created, and then they are kept in memory for the
+ * entire execution. For this reason it must be a {@link Singleton}.
+ *
+ * <p>If the service discover cannot be reached the request is retried with an exponential backoff,
+ * and if all the attempts fail the creation fails too: the service must not run for its whole
+ * life with the default configs, like the database credentials, just because the service discover
+ * was temporarily unavailable at startup.
+ */
+@Singleton
 public class TasksConfig {
 
   private static final Logger logger = LoggerFactory.getLogger(TasksConfig.class);
 
+  private final ServiceDiscoverHttpClient serviceDiscoverHttpClient;
+  private final Map<String, String> configs;
+
+  @Inject
+  public TasksConfig() {
+    this(ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME));
+  }
+
+  public TasksConfig(ServiceDiscoverHttpClient serviceDiscoverHttpClient) {
+    this(
+        serviceDiscoverHttpClient,
+        ConfigsLoad.MAX_ATTEMPTS,
+        Duration.ofMillis(ConfigsLoad.BACKOFF_MILLIS));
+  }
+
+  /**
+   * @param serviceDiscoverHttpClient is the {@link ServiceDiscoverHttpClient} to load the configs
+   * @param maxAttempts is the maximum number of requests done to load the configs
+   * @param initialBackoff is the pause before the first retry, doubled before each next one
+   * @throws IllegalStateException if the configs cannot be loaded with the given attempts
+   */
+  public TasksConfig(
+      ServiceDiscoverHttpClient serviceDiscoverHttpClient,
+      int maxAttempts,
+      Duration initialBackoff) {
+    this.serviceDiscoverHttpClient = serviceDiscoverHttpClient;
+    this.configs = loadConfigs(serviceDiscoverHttpClient, maxAttempts, initialBackoff);
+    logger.info("Loaded {} configs from the service discover", configs.size());
+  }
+
   public String getDatabaseName() {
-    return ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME)
-        .getConfig(Key.DB_NAME)
-        .orElse(Database.NAME);
+    return getConfig(Key.DB_NAME).orElse(Database.NAME);
   }
 
+  /**
+   * Creates a new connection pool: it must be called only once, by the {@link
+   * com.zextras.carbonio.tasks.config.providers.DataSourceProvider}, and the resulting {@link
+   * HikariDataSource} must be shared by the whole service.
+   *
+   * @return a new {@link HikariDataSource} connected to the service database
+   */
   public HikariDataSource getDataSource() {
     String databaseURL = System.getProperty(Config.Properties.DATABASE_URL);
     if (databaseURL == null) {
@@ -40,28 +106,17 @@ public class TasksConfig {
       databasePort = Database.PORT;
     }
 
-    String postgresUser =
-        ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME)
-            .getConfig(Key.DB_USERNAME)
-            .orElse(Database.USERNAME);
+    String postgresUser = getConfig(Key.DB_USERNAME).orElse(Database.USERNAME);
 
-    String postgresPassword =
-        ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME)
-            .getConfig(Key.DB_PASSWORD)
-            .orElse("");
+    String postgresPassword = getConfig(Key.DB_PASSWORD).orElse("");
 
     String jdbcPostgresUrl =
         String.format("jdbc:postgresql://%s:%s/%s", databaseURL, databasePort, getDatabaseName());
 
-    int maximumPoolSize =
-        ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME)
-            .getConfig(Key.HIKARI_MAX_POOL_SIZE)
-            .map(Integer::parseInt)
-            .orElse(Hikari.MAX_POOL_SIZE);
+    int maximumPoolSize = getHikariMaxPoolSize();
 
     int minimumIdleConnections =
-        ServiceDiscoverHttpClient.defaultURL(Service.SERVICE_NAME)
-            .getConfig(Key.HIKARI_MIN_IDLE_CONNECTIONS)
+        getConfig(Key.HIKARI_MIN_IDLE_CONNECTIONS)
             .map(
                 minIdleConnections ->
                     Math.min(Integer.parseInt(minIdleConnections), maximumPoolSize))
@@ -72,6 +127,8 @@ public class TasksConfig {
 
     Properties dataSourceProperties = new Properties();
     dataSourceProperties.setProperty("sslmode", "disable");
+    // Makes pgjdbc rewrite a batch of inserts into multi-row insert statements
+    dataSourceProperties.setProperty("reWriteBatchedInserts", "true");
 
     HikariDataSource dataSource = new HikariDataSource();
     dataSource.setJdbcUrl(jdbcPostgresUrl);
@@ -83,16 +140,282 @@ public class TasksConfig {
     return dataSource;
   }
 
-  public DatabaseConfig getEbeanDatabaseConfig() {
+  public int getHikariMaxPoolSize() {
+    return getConfig(Key.HIKARI_MAX_POOL_SIZE).map(Integer::parseInt).orElse(Hikari.MAX_POOL_SIZE);
+  }
+
+  /**
+   * @return the number of threads running the data fetchers. If it is not configured it is equal
+   *     to the maximum size of the database connection pool, since every data fetcher needs a
+   *     connection to do its job.
+   */
+  public int getDataFetcherPoolSize() {
+    return getConfig(Key.DATA_FETCHER_POOL_SIZE)
+        .map(Integer::parseInt)
+        .orElseGet(this::getHikariMaxPoolSize);
+  }
+
+  public int getDataFetcherQueueCapacity() {
+    return getConfig(Key.DATA_FETCHER_QUEUE_CAPACITY)
+        .map(Integer::parseInt)
+        .orElse(DataFetcher.QUEUE_CAPACITY);
+  }
+
+  public int getTokenCacheMaxSize() {
+    return getConfig(Key.TOKEN_CACHE_MAX_SIZE).map(Integer::parseInt).orElse(TokenCache.MAX_SIZE);
+  }
+
+  /** @return how long a valid token is trusted without asking the user management again */
+  public Duration getTokenCacheTtl() {
+    return Duration.ofSeconds(
+        getConfig(Key.TOKEN_CACHE_TTL_SECONDS)
+            .map(Integer::parseInt)
+            .orElse(TokenCache.TTL_SECONDS));
+  }
+
+  /** @return how long a token rejected by the user management is rejected without asking again */
+  public Duration getTokenCacheNegativeTtl() {
+    return Duration.ofSeconds(
+        getConfig(Key.TOKEN_CACHE_NEGATIVE_TTL_SECONDS)
+            .map(Integer::parseInt)
+            .orElse(TokenCache.NEGATIVE_TTL_SECONDS));
+  }
+
+  /** @return the maximum number of parsed and validated GraphQL documents kept in memory */
+  public int getDocumentCacheMaxSize() {
+    return getConfig(Key.DOCUMENT_CACHE_MAX_SIZE)
+        .map(Integer::parseInt)
+        .orElse(DocumentCache.MAX_SIZE);
+  }
+
+  /**
+   * @return the SHA-256 hashes of the only GraphQL documents that can be executed, configured as a
+   *     comma separated list. If it is empty, any document can be executed
+   */
+  public Set<String> getPersistedQueriesAllowlist() {
+    return getConfig(Key.PERSISTED_QUERIES_ALLOWLIST)
+        .map(
+            allowlist ->
+                Arrays.stream(allowlist.split(","))
+                    .map(String::trim)
+                    .filter(hash -> !hash.isEmpty())
+                    .map(hash -> hash.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet()))
+        .orElse(Set.of());
+  }
+
+  /**
+   * @return how long a GraphQL request executed asynchronously can wait for its result before
+   *     being completed with an error
+   */
+  public Duration getGraphQLAsyncTimeout() {
+    return Duration.ofSeconds(
+        getConfig(Key.GRAPHQL_ASYNC_TIMEOUT_SECONDS)
+            .map(Integer::parseInt)
+            .orElse(GraphQLAsync.TIMEOUT_SECONDS));
+  }
+
+  /** @return the maximum depth of the fields of a GraphQL operation */
+  public int getGraphQLMaxDepth() {
+    return getConfig(Key.GRAPHQL_MAX_DEPTH).map(Integer::parseInt).orElse(GraphQLLimits.MAX_DEPTH);
+  }
+
+  /**
+   * @return the maximum complexity of a GraphQL operation, where the sub-fields of the paginated
+   *     fields and of the bulk mutations are weighted by the page size and by the number of inputs
+   */
+  public long getGraphQLMaxComplexity() {
+    return getConfig(Key.GRAPHQL_MAX_COMPLEXITY)
+        .map(Long::parseLong)
+        .orElse(GraphQLLimits.MAX_COMPLEXITY);
+  }
+
+  /** @return the maximum number of root fields of a GraphQL operation */
+  public int getGraphQLMaxRootFields() {
+    return getConfig(Key.GRAPHQL_MAX_ROOT_FIELDS)
+        .map(Integer::parseInt)
+        .orElse(GraphQLLimits.MAX_ROOT_FIELDS);
+  }
+
+  /** @return the maximum number of aliases of a GraphQL operation */
+  public int getGraphQLMaxAliases() {
+    return getConfig(Key.GRAPHQL_MAX_ALIASES)
+        .map(Integer::parseInt)
+        .orElse(GraphQLLimits.MAX_ALIASES);
+  }
+
+  /** @return the maximum number of tokens of a GraphQL document, checked while parsing it */
+  public int getGraphQLMaxTokens() {
+    return getConfig(Key.GRAPHQL_MAX_TOKENS)
+        .map(Integer::parseInt)
+        .orElse(GraphQLLimits.MAX_TOKENS);
+  }
+
+  /** @return the maximum number of GraphQL operations in a batched request */
+  public int getGraphQLMaxBatchSize() {
+    return getConfig(Key.GRAPHQL_MAX_BATCH_SIZE)
+        .map(Integer::parseInt)
+        .orElse(GraphQLLimits.MAX_BATCH_SIZE);
+  }
+
+  /**
+   * @return the number of tasks read from the database by each query of a stream, so it bounds
+   *     the tasks kept in memory by a stream whatever the number of tasks returned
+   */
+  public int getTasksStreamFetchSize() {
+    return getConfig(Key.TASKS_STREAM_FETCH_SIZE)
+        .map(Integer::parseInt)
+        .orElse(TasksStream.FETCH_SIZE);
+  }
+
+  /**
+   * @return the maximum number of tasks streams served at the same time. Each stream holds a
+   *     server thread until the client has received the last task
+   */
+  public int getTasksStreamMaxConcurrent() {
+    return getConfig(Key.TASKS_STREAM_MAX_CONCURRENT)
+        .map(Integer::parseInt)
+        .orElse(TasksStream.MAX_CONCURRENT);
+  }
+
+  /** @return how often the health of the dependencies is checked in background */
+  public Duration getHealthRefreshInterval() {
+    return Duration.ofSeconds(
+        getConfig(Key.HEALTH_REFRESH_INTERVAL_SECONDS)
+            .map(Integer::parseInt)
+            .orElse(Health.REFRESH_INTERVAL_SECONDS));
+  }
+
+  /**
+   * @return how far in the future the reminders are loaded in memory. Only the reminders due
+   *     within this window are kept in memory, whatever the number of pending reminders
+   */
+  public Duration getRemindersWindow() {
+    return Duration.ofMinutes(
+        getConfig(Key.REMINDERS_WINDOW_MINUTES)
+            .map(Integer::parseInt)
+            .orElse(Reminders.WINDOW_MINUTES));
+  }
+
+  /** @return the maximum number of reminders kept in memory at the same time */
+  public int getRemindersMaxLoaded() {
+    return getConfig(Key.REMINDERS_MAX_LOADED)
+        .map(Integer::parseInt)
+        .orElse(Reminders.MAX_LOADED);
+  }
+
+  /**
+   * Unlike the other configs, it is read from the service discover at every call, so it works as a
+   * kill switch: the purge of the trashed tasks can be stopped without restarting the service.
+   *
+   * @return true if the tasks trashed longer than the retention have to be deleted
+   */
+  public boolean isTrashPurgeEnabled() {
+    return serviceDiscoverHttpClient
+        .getConfig(Key.TRASH_PURGE_ENABLED)
+        .map(Boolean::parseBoolean)
+        .orElse(TrashPurge.ENABLED);
+  }
+
+  /** @return how long a task stays in the trash before being deleted */
+  public Duration getTrashPurgeRetention() {
+    return Duration.ofDays(
+        getConfig(Key.TRASH_PURGE_RETENTION_DAYS)
+            .map(Integer::parseInt)
+            .orElse(TrashPurge.RETENTION_DAYS));
+  }
+
+  /** @return how often the trashed tasks are purged */
+  public Duration getTrashPurgeInterval() {
+    return Duration.ofMinutes(
+        getConfig(Key.TRASH_PURGE_INTERVAL_MINUTES)
+            .map(Integer::parseInt)
+            .orElse(TrashPurge.INTERVAL_MINUTES));
+  }
+
+  /** @return the maximum number of tasks deleted by each statement of the purge */
+  public int getTrashPurgeBatchSize() {
+    return getConfig(Key.TRASH_PURGE_BATCH_SIZE)
+        .map(Integer::parseInt)
+        .orElse(TrashPurge.BATCH_SIZE);
+  }
+
+  /** @return how long the purge waits between two batches, to not overload the database */
+  public Duration getTrashPurgeBatchPause() {
+    return Duration.ofMillis(
+        getConfig(Key.TRASH_PURGE_BATCH_PAUSE_MILLIS)
+            .map(Integer::parseInt)
+            .orElse(TrashPurge.BATCH_PAUSE_MILLIS));
+  }
+
+  public int getDatabaseBatchSize() {
+    return getConfig(Key.DB_BATCH_SIZE).map(Integer::parseInt).orElse(Database.BATCH_SIZE);
+  }
+
+  /**
+   * @param dataSource is the {@link DataSource} shared by the whole service
+   * @return the {@link DatabaseConfig} necessary to create the Ebean database on the given {@link
+   *     DataSource}
+   */
+  public DatabaseConfig getEbeanDatabaseConfig(DataSource dataSource) {
     List<Class<?>> entityList = new ArrayList<>();
     entityList.add(Task.class);
 
+    int batchSize = getDatabaseBatchSize();
+    logger.info("Ebean: persist batch size: {}", batchSize);
+
     DatabaseConfig databaseConfig = new DatabaseConfig();
     databaseConfig.setName("carbonio-tasks-postgres");
-    databaseConfig.setDataSource(getDataSource());
+    databaseConfig.setDataSource(dataSource);
     databaseConfig.setDefaultServer(true);
+    databaseConfig.setPersistBatchSize(batchSize);
     databaseConfig.addAll(entityList);
 
     return databaseConfig;
   }
+
+  private static Map<String, String> loadConfigs(
+      ServiceDiscoverHttpClient serviceDiscoverHttpClient,
+      int maxAttempts,
+      Duration initialBackoff) {
+    long backoffMillis = initialBackoff.toMillis();
+
+    for (int attempt = 1; ; attempt++) {
+      Optional<Map<String, String>> optConfigs = serviceDiscoverHttpClient.getConfigs();
+      if (optConfigs.isPresent()) {
+        return optConfigs.get();
+      }
+
+      if (attempt >= maxAttempts) {
+        throw new IllegalStateException(
+            String.format(
+                "Unable to load the configs from the service discover after %d attempts",
+                maxAttempts));
+      }
+
+      logger.warn(
+          "Unable to load the configs from the service discover, retrying in {} ms",
+          backoffMillis);
+      try {
+        Thread.sleep(backoffMillis);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(
+            "Interrupted while loading the configs from the service discover", exception);
+      }
+      backoffMillis *= 2;
+    }
+  }
+
+  /**
+   * Closes the connections to the service discover when the service stops: the configs read at
+   * every call, like the {@link #isTrashPurgeEnabled()}, cannot be read anymore.
+   */
+  public void close() {
+    serviceDiscoverHttpClient.close();
+  }
+
+  private Optional<String> getConfig(String configKey) {
+    return Optional.ofNullable(configs.get(configKey));
+  }
 }
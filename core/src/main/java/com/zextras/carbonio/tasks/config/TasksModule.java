@@ -7,21 +7,41 @@ package com.zextras.carbonio.tasks.config;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import com.google.inject.matcher.Matchers;
 import com.google.inject.servlet.ServletModule;
+import com.zaxxer.hikari.HikariDataSource;
 import com.zextras.carbonio.tasks.Constants.Config.UserService;
 import com.zextras.carbonio.tasks.Constants.Service.API.Endpoints;
 import com.zextras.carbonio.tasks.auth.AuthenticationServletFilter;
+import com.zextras.carbonio.tasks.auth.TokenValidationCache;
+import com.zextras.carbonio.tasks.config.providers.DataFetcherExecutorProvider;
+import com.zextras.carbonio.tasks.config.providers.DataSourceProvider;
 import com.zextras.carbonio.tasks.config.providers.FlywayProvider;
+import com.zextras.carbonio.tasks.config.providers.MeterRegistryProvider;
+import com.zextras.carbonio.tasks.config.providers.PreparsedDocumentCacheProvider;
+import com.zextras.carbonio.tasks.config.providers.TokenValidationCacheProvider;
 import com.zextras.carbonio.tasks.config.providers.UserManagementClientProvider;
 import com.zextras.carbonio.tasks.dal.DatabaseManager;
 import com.zextras.carbonio.tasks.dal.impl.DatabaseManagerFlyway;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChangeListener;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import com.zextras.carbonio.tasks.dal.repositories.impl.TaskRepositoryEbean;
 import com.zextras.carbonio.tasks.graphql.GraphQLServlet;
+import com.zextras.carbonio.tasks.graphql.PreparsedDocumentCache;
+import com.zextras.carbonio.tasks.graphql.TasksStreamServlet;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.metrics.RepositoryMetricsInterceptor;
+import com.zextras.carbonio.tasks.reminders.LoggingReminderSink;
+import com.zextras.carbonio.tasks.reminders.ReminderScheduler;
+import com.zextras.carbonio.tasks.reminders.ReminderSink;
 import com.zextras.carbonio.tasks.rest.RestApplication;
 import com.zextras.carbonio.tasks.rest.controllers.HealthController;
 import com.zextras.carbonio.tasks.rest.controllers.HealthControllerImpl;
+import com.zextras.carbonio.tasks.rest.controllers.MetricsController;
+import com.zextras.carbonio.tasks.rest.controllers.MetricsControllerImpl;
 import com.zextras.carbonio.usermanagement.UserManagementClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
 import org.flywaydb.core.Flyway;
 import org.jboss.resteasy.plugins.providers.jackson.ResteasyJackson2Provider;
 import org.jboss.resteasy.plugins.server.servlet.HttpServlet30Dispatcher;
@@ -40,10 +60,32 @@ public class TasksModule extends AbstractModule {
 
     bind(Clock.class).toInstance(Clock.systemUTC());
     bind(HealthController.class).to(HealthControllerImpl.class);
+    bind(MetricsController.class).to(MetricsControllerImpl.class);
     bind(TaskRepository.class).to(TaskRepositoryEbean.class);
+    bind(TaskChangeListener.class).to(ReminderScheduler.class);
+    bind(ReminderSink.class).to(LoggingReminderSink.class);
     bind(DatabaseManager.class).to(DatabaseManagerFlyway.class);
+    bind(HikariDataSource.class).toProvider(DataSourceProvider.class).in(Singleton.class);
     bind(Flyway.class).toProvider(FlywayProvider.class).in(Singleton.class);
     bind(UserManagementClient.class).toProvider(UserManagementClientProvider.class);
+    bind(DataFetcherExecutor.class)
+        .toProvider(DataFetcherExecutorProvider.class)
+        .in(Singleton.class);
+    bind(TokenValidationCache.class)
+        .toProvider(TokenValidationCacheProvider.class)
+        .in(Singleton.class);
+    bind(PreparsedDocumentCache.class)
+        .toProvider(PreparsedDocumentCacheProvider.class)
+        .in(Singleton.class);
+    bind(PrometheusMeterRegistry.class)
+        .toProvider(MeterRegistryProvider.class)
+        .in(Singleton.class);
+    bind(MeterRegistry.class).to(PrometheusMeterRegistry.class);
+
+    bindInterceptor(
+        Matchers.subclassesOf(TaskRepository.class),
+        RepositoryMetricsInterceptor.repositoryMethods(),
+        new RepositoryMetricsInterceptor(getProvider(MeterRegistry.class)));
 
     install(
         new ServletModule() {
@@ -51,11 +93,14 @@ public class TasksModule extends AbstractModule {
           protected void configureServlets() {
             bind(ResteasyJackson2Provider.class);
             bind(GraphQLServlet.class).in(Singleton.class);
+            bind(TasksStreamServlet.class).in(Singleton.class);
             bind(HttpServlet30Dispatcher.class).in(Singleton.class);
             bind(AuthenticationServletFilter.class).in(Singleton.class);
 
-            filter(Endpoints.GRAPHQL).through(AuthenticationServletFilter.class);
+            filter(Endpoints.GRAPHQL, Endpoints.TASKS_STREAM)
+                .through(AuthenticationServletFilter.class);
             serve(Endpoints.GRAPHQL).with(GraphQLServlet.class);
+            serve(Endpoints.TASKS_STREAM).with(TasksStreamServlet.class);
 
             Map<String, String> initParam = new HashMap<>();
             initParam.put("jakarta.ws.rs.core.Application", RestApplication.class.getName());
@@ -0,0 +1,41 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.config.providers;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.metrics.DataFetcherExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DataFetcherExecutorProvider implements Provider<DataFetcherExecutor> {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataFetcherExecutorProvider.class);
+
+  private final TasksConfig tasksConfig;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public DataFetcherExecutorProvider(TasksConfig tasksConfig, MeterRegistry meterRegistry) {
+    this.tasksConfig = tasksConfig;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public DataFetcherExecutor get() {
+    int poolSize = tasksConfig.getDataFetcherPoolSize();
+    int queueCapacity = tasksConfig.getDataFetcherQueueCapacity();
+
+    logger.info("Data fetchers: pool size: {}", poolSize);
+    logger.info("Data fetchers: queue capacity: {}", queueCapacity);
+
+    DataFetcherExecutor dataFetcherExecutor = new DataFetcherExecutor(poolSize, queueCapacity);
+    new DataFetcherExecutorMetrics(dataFetcherExecutor).bindTo(meterRegistry);
+    return dataFetcherExecutor;
+  }
+}
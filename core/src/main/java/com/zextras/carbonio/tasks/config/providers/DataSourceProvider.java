@@ -0,0 +1,37 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.config.providers;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Provides the connection pool to the database. It must be bound as a singleton: Flyway and Ebean
+ * share the same pool, so the service opens only the connections configured for Hikari. The usage
+ * of the pool and the time spent waiting for a connection are exposed in the {@link MeterRegistry}.
+ */
+public class DataSourceProvider implements Provider<HikariDataSource> {
+
+  private final TasksConfig tasksConfig;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public DataSourceProvider(TasksConfig tasksConfig, MeterRegistry meterRegistry) {
+    this.tasksConfig = tasksConfig;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public HikariDataSource get() {
+    HikariDataSource dataSource = tasksConfig.getDataSource();
+    // The tracker must be set before the first connection is requested, when the pool starts
+    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return dataSource;
+  }
+}
@@ -6,24 +6,26 @@ package com.zextras.carbonio.tasks.config.providers;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
-import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import java.util.Map;
 import org.flywaydb.core.Flyway;
 
 public class FlywayProvider implements Provider<Flyway> {
-  private final TasksConfig tasksConfig;
+  private final HikariDataSource dataSource;
 
   @Inject
-  public FlywayProvider(TasksConfig tasksConfig) {
-    this.tasksConfig = tasksConfig;
+  public FlywayProvider(HikariDataSource dataSource) {
+    this.dataSource = dataSource;
   }
 
   @Override
   public Flyway get() {
     return Flyway.configure()
-        .dataSource(tasksConfig.getDataSource())
-        .configuration(
-            Map.of("flyway.postgresql.transactional.lock", "false")) // use only one connection
+        .dataSource(dataSource)
+        // Use only one connection. A session-level lock is also required by the migrations
+        // creating indexes CONCURRENTLY: they would wait forever for the transaction holding a
+        // transactional lock to end
+        .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
         .baselineOnMigrate(true) // if schema is not empty create baseline, if it is ignore
         .baselineVersion("0")
         .load();
@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.config.providers;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.graphql.PreparsedDocumentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PreparsedDocumentCacheProvider implements Provider<PreparsedDocumentCache> {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(PreparsedDocumentCacheProvider.class);
+
+  private final TasksConfig tasksConfig;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public PreparsedDocumentCacheProvider(TasksConfig tasksConfig, MeterRegistry meterRegistry) {
+    this.tasksConfig = tasksConfig;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public PreparsedDocumentCache get() {
+    int maxSize = tasksConfig.getDocumentCacheMaxSize();
+    Set<String> allowlist = tasksConfig.getPersistedQueriesAllowlist();
+
+    logger.info("Document cache: max size: {}", maxSize);
+    logger.info(
+        "Document cache: allowlist: {}",
+        allowlist.isEmpty() ? "disabled" : allowlist.size() + " documents");
+
+    return new PreparsedDocumentCache(maxSize, allowlist, meterRegistry);
+  }
+}
@@ -0,0 +1,49 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.config.providers;
+
+import com.google.common.base.Ticker;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.zextras.carbonio.tasks.auth.TokenValidationCache;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.usermanagement.UserManagementClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TokenValidationCacheProvider implements Provider<TokenValidationCache> {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenValidationCacheProvider.class);
+
+  private final TasksConfig tasksConfig;
+  private final UserManagementClient userManagementClient;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public TokenValidationCacheProvider(
+      TasksConfig tasksConfig,
+      UserManagementClient userManagementClient,
+      MeterRegistry meterRegistry) {
+    this.tasksConfig = tasksConfig;
+    this.userManagementClient = userManagementClient;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public TokenValidationCache get() {
+    int maxSize = tasksConfig.getTokenCacheMaxSize();
+    Duration ttl = tasksConfig.getTokenCacheTtl();
+    Duration negativeTtl = tasksConfig.getTokenCacheNegativeTtl();
+
+    logger.info("Token cache: max size: {}", maxSize);
+    logger.info("Token cache: ttl: {}", ttl);
+    logger.info("Token cache: negative ttl: {}", negativeTtl);
+
+    return new TokenValidationCache(
+        userManagementClient, maxSize, ttl, negativeTtl, Ticker.systemTicker(), meterRegistry);
+  }
+}
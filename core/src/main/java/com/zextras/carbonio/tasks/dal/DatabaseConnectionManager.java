@@ -6,11 +6,11 @@ package com.zextras.carbonio.tasks.dal;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.zaxxer.hikari.HikariDataSource;
 import com.zextras.carbonio.tasks.config.TasksConfig;
 import io.ebean.Database;
 import io.ebean.DatabaseFactory;
 import io.ebean.config.DatabaseConfig;
-import jakarta.activation.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,26 +25,30 @@ public class DatabaseConnectionManager {
   private static final Logger logger = LoggerFactory.getLogger(DatabaseConnectionManager.class);
 
   private final TasksConfig tasksConfig;
+  private final HikariDataSource dataSource;
   private Database ebeanDatabase;
 
   @Inject
-  public DatabaseConnectionManager(TasksConfig tasksConfig) {
+  public DatabaseConnectionManager(TasksConfig tasksConfig, HikariDataSource dataSource) {
     this.tasksConfig = tasksConfig;
+    this.dataSource = dataSource;
   }
 
   /**
-   * Retrieves the {@link DatabaseConfig} containing the {@link DataSource} from the {@link
-   * TasksConfig} class, then it tries to create the connection to the database.
+   * Retrieves the {@link DatabaseConfig} from the {@link TasksConfig} class, using the {@link
+   * HikariDataSource} shared by the whole service, then it tries to create the connection to the
+   * database.
    *
    * @return a {@link Database} connection necessary to perform Ebean sql operations.
    * @throws {@link RuntimeException} if the connection creation to the database fails.
    */
-  public Database getEbeanDatabase() {
+  public synchronized Database getEbeanDatabase() {
     if (ebeanDatabase == null) {
       try {
         ebeanDatabase =
             DatabaseFactory.createWithContextClassLoader(
-                tasksConfig.getEbeanDatabaseConfig(), TasksConfig.class.getClassLoader());
+                tasksConfig.getEbeanDatabaseConfig(dataSource),
+                TasksConfig.class.getClassLoader());
       } catch (Exception exception) {
         String error =
             String.format(
@@ -62,4 +66,15 @@ public class DatabaseConnectionManager {
 
     return ebeanDatabase;
   }
+
+  /**
+   * Shuts down the Ebean {@link Database}, if it was created. The {@link HikariDataSource} is not
+   * closed since it is shared with other components.
+   */
+  public synchronized void shutdown() {
+    if (ebeanDatabase != null) {
+      ebeanDatabase.shutdown(false, false);
+      logger.info("Database connection shut down");
+    }
+  }
 }
@@ -4,12 +4,48 @@
 
 package com.zextras.carbonio.tasks.dal.dao;
 
+import io.ebean.annotation.DbEnumType;
+import io.ebean.annotation.DbEnumValue;
+import java.util.Arrays;
+
 /**
  * Represents the priority of a {@link Task}. A task priority could be {@link #LOW}, {@link #MEDIUM}
  * or {@link #HIGH}.
+ *
+ * <p>Each priority is stored in the database as a smallint {@link #getCode() code}: the codes are
+ * part of the schema, so they must never change, and a new priority must take a new code.
  */
 public enum Priority {
-  LOW,
-  MEDIUM,
-  HIGH
+  LOW(0),
+  MEDIUM(1),
+  HIGH(2);
+
+  private static final Priority[] BY_CODE = new Priority[values().length];
+
+  static {
+    Arrays.stream(values()).forEach(priority -> BY_CODE[priority.code] = priority);
+  }
+
+  private final int code;
+
+  Priority(int code) {
+    this.code = code;
+  }
+
+  @DbEnumValue(storage = DbEnumType.INTEGER)
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * @param code is the code of the priority stored in the database
+   * @return the {@link Priority} having the given code
+   * @throws IllegalArgumentException if no priority has the given code
+   */
+  public static Priority fromCode(int code) {
+    if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+      throw new IllegalArgumentException("Unknown priority code: " + code);
+    }
+    return BY_CODE[code];
+  }
 }
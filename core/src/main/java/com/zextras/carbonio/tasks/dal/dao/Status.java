@@ -4,12 +4,48 @@
 
 package com.zextras.carbonio.tasks.dal.dao;
 
+import io.ebean.annotation.DbEnumType;
+import io.ebean.annotation.DbEnumValue;
+import java.util.Arrays;
+
 /**
  * Represents the status of a {@link Task}. A task status could be {@link #OPEN} or {@link
  * #COMPLETE}.
+ *
+ * <p>Each status is stored in the database as a smallint {@link #getCode() code}: the codes are
+ * part of the schema, since the partial indexes filter on them, so they must never change.
  */
 public enum Status {
-  OPEN,
-  COMPLETE,
-  TRASH
+  OPEN(0),
+  COMPLETE(1),
+  TRASH(2);
+
+  private static final Status[] BY_CODE = new Status[values().length];
+
+  static {
+    Arrays.stream(values()).forEach(status -> BY_CODE[status.code] = status);
+  }
+
+  private final int code;
+
+  Status(int code) {
+    this.code = code;
+  }
+
+  @DbEnumValue(storage = DbEnumType.INTEGER)
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * @param code is the code of the status stored in the database
+   * @return the {@link Status} having the given code
+   * @throws IllegalArgumentException if no status has the given code
+   */
+  public static Status fromCode(int code) {
+    if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+      throw new IllegalArgumentException("Unknown status code: " + code);
+    }
+    return BY_CODE[code];
+  }
 }
@@ -9,8 +9,6 @@ import com.zextras.carbonio.tasks.Constants.Database.Tables;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.Instant;
@@ -28,8 +26,8 @@ public class Task {
   @Column(name = Tables.Task.ID, nullable = false)
   private UUID id;
 
-  @Column(name = Tables.Task.USER_ID, nullable = false, length = 36)
-  private String userId;
+  @Column(name = Tables.Task.USER_ID, nullable = false)
+  private UUID userId;
 
   @Column(name = Tables.Task.TITLE, nullable = false, length = 1024)
   private String title;
@@ -37,11 +35,9 @@ public class Task {
   @Column(name = Tables.Task.DESCRIPTION, nullable = true, length = 4096)
   private String description;
 
-  @Enumerated(EnumType.STRING)
   @Column(name = Tables.Task.PRIORITY, nullable = false)
   private Priority priority;
 
-  @Enumerated(EnumType.STRING)
   @Column(name = Tables.Task.STATUS, nullable = false)
   private Status status;
 
@@ -54,9 +50,15 @@ public class Task {
   @Column(name = Tables.Task.REMINDER_ALL_DAY, nullable = true)
   private Boolean reminderAllDay;
 
+  @Column(name = Tables.Task.TRASHED_AT, nullable = true)
+  private Instant trashedAt;
+
+  @Column(name = Tables.Task.UPDATED_AT, nullable = false)
+  private Instant updatedAt;
+
   public Task(
       UUID id,
-      String userId,
+      UUID userId,
       String title,
       @Nullable String description,
       Priority priority,
@@ -79,7 +81,7 @@ public class Task {
     return id;
   }
 
-  public String getUserId() {
+  public UUID getUserId() {
     return userId;
   }
 
@@ -134,4 +136,20 @@ public class Task {
   public void setReminderAllDay(Boolean reminderAllDay) {
     this.reminderAllDay = reminderAllDay;
   }
+
+  public Optional<Instant> getTrashedAt() {
+    return Optional.ofNullable(trashedAt);
+  }
+
+  public void setTrashedAt(Instant trashedAt) {
+    this.trashedAt = trashedAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
 }
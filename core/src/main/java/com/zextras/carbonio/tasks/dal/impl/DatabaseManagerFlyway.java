@@ -5,18 +5,29 @@
 package com.zextras.carbonio.tasks.dal.impl;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import com.zextras.carbonio.tasks.dal.DatabaseManager;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Optional;
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Manages the schema of the database with Flyway. The current migration is read once, when the
+ * database is initialized or at the first request, since computing it scans both the migration
+ * scripts in the classpath and the schema history table. This service is the only one migrating
+ * the database, so the current migration changes only with a call to {@link #initialize()}.
+ */
+@Singleton
 public class DatabaseManagerFlyway implements DatabaseManager {
 
   private static final Logger logger = LoggerFactory.getLogger(DatabaseManagerFlyway.class);
 
   private final Flyway flyway;
+  private volatile Optional<MigrationInfo> currentMigration;
 
   @Inject
   public DatabaseManagerFlyway(Flyway flyway) {
@@ -28,13 +39,14 @@ public class DatabaseManagerFlyway implements DatabaseManager {
     // Pre-condition: having the DatabaseConnectionManager object injected, we are sure that
     // the database already exists and the credentials are working properly.
     flyway.migrate();
+    currentMigration = Optional.ofNullable(flyway.info().current());
   }
 
   @Override
   public String getDatabaseVersion() {
-    return flyway.info().current() != null
-        ? flyway.info().current().getVersion().getVersion()
-        : "0";
+    return getCurrentMigration()
+        .map(migrationInfo -> migrationInfo.getVersion().getVersion())
+        .orElse("0");
   }
 
   @Override
@@ -50,8 +62,16 @@ public class DatabaseManagerFlyway implements DatabaseManager {
 
   @Override
   public boolean isDatabaseCorrectVersion() {
-    return flyway.info().current() != null
-        ? !flyway.info().current().getPhysicalLocation().isEmpty()
-        : false;
+    return getCurrentMigration()
+        .map(migrationInfo -> !migrationInfo.getPhysicalLocation().isEmpty())
+        .orElse(false);
+  }
+
+  private Optional<MigrationInfo> getCurrentMigration() {
+    if (currentMigration == null) {
+      currentMigration = Optional.ofNullable(flyway.info().current());
+    }
+
+    return currentMigration;
   }
 }
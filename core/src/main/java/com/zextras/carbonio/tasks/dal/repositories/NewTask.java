@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import jakarta.annotation.Nullable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents the attributes of a {@link Task} that has not been created yet. The identifier and
+ * the creation date are assigned by the {@link TaskRepository} when the task is persisted.
+ */
+public final class NewTask {
+
+  private final String title;
+  private final String description;
+  private final Priority priority;
+  private final Status status;
+  private final Instant reminderAt;
+  private final Boolean reminderAllDay;
+
+  public NewTask(
+      String title,
+      @Nullable String description,
+      Priority priority,
+      Status status,
+      @Nullable Instant reminderAt,
+      @Nullable Boolean reminderAllDay) {
+    this.title = Objects.requireNonNull(title);
+    this.description = description;
+    this.priority = Objects.requireNonNull(priority);
+    this.status = Objects.requireNonNull(status);
+    this.reminderAt = reminderAt;
+    this.reminderAllDay = reminderAllDay;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public Optional<String> getDescription() {
+    return Optional.ofNullable(description);
+  }
+
+  public Priority getPriority() {
+    return priority;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Optional<Instant> getReminderAt() {
+    return Optional.ofNullable(reminderAt);
+  }
+
+  public Optional<Boolean> getReminderAllDay() {
+    return Optional.ofNullable(reminderAllDay);
+  }
+}
@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Represents a component notified by the {@link TaskRepository} every time some tasks are saved or
+ * trashed. The notifications are sent after the changes have been committed, on the thread that
+ * made them, so the implementations must be thread-safe and must not block.
+ */
+public interface TaskChangeListener {
+
+  /** @param tasks is a {@link Collection} of the {@link Task}s just created or updated */
+  void onTasksSaved(Collection<Task> tasks);
+
+  /** @param taskId is the identifier of the task just trashed */
+  void onTaskTrashed(UUID taskId);
+}
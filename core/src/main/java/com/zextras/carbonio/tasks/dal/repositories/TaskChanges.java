@@ -0,0 +1,119 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import jakarta.annotation.Nullable;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Represents a partial update of a {@link Task}: only the attributes explicitly set are changed,
+ * the others keep their current value. The reminderAt and the reminderAllDay attributes are always
+ * changed together.
+ */
+public final class TaskChanges {
+
+  private String title;
+  private String description;
+  private Priority priority;
+  private Status status;
+  private boolean reminderChanged;
+  private Instant reminderAt;
+  private Boolean reminderAllDay;
+
+  public TaskChanges setTitle(String title) {
+    this.title = title;
+    return this;
+  }
+
+  public TaskChanges setDescription(String description) {
+    this.description = description;
+    return this;
+  }
+
+  public TaskChanges setPriority(Priority priority) {
+    this.priority = priority;
+    return this;
+  }
+
+  public TaskChanges setStatus(Status status) {
+    this.status = status;
+    return this;
+  }
+
+  /**
+   * @param reminderAt is the new reminder. If it is null the reminder is removed
+   * @param reminderAllDay is the new all day flag. It must be null if the reminderAt is null
+   * @return the {@link TaskChanges} itself
+   */
+  public TaskChanges setReminder(@Nullable Instant reminderAt, @Nullable Boolean reminderAllDay) {
+    this.reminderChanged = true;
+    this.reminderAt = reminderAt;
+    this.reminderAllDay = reminderAt == null ? null : reminderAllDay;
+    return this;
+  }
+
+  public Optional<String> getTitle() {
+    return Optional.ofNullable(title);
+  }
+
+  public Optional<String> getDescription() {
+    return Optional.ofNullable(description);
+  }
+
+  public Optional<Priority> getPriority() {
+    return Optional.ofNullable(priority);
+  }
+
+  public Optional<Status> getStatus() {
+    return Optional.ofNullable(status);
+  }
+
+  /**
+   * @return true if the reminder must be changed. In this case the {@link #getReminderAt()} and
+   *     the {@link #getReminderAllDay()} contain the new values, and if they are empty the
+   *     reminder must be removed.
+   */
+  public boolean isReminderChanged() {
+    return reminderChanged;
+  }
+
+  public Optional<Instant> getReminderAt() {
+    return Optional.ofNullable(reminderAt);
+  }
+
+  public Optional<Boolean> getReminderAllDay() {
+    return Optional.ofNullable(reminderAllDay);
+  }
+
+  /** @return true if there are no attributes to change */
+  public boolean isEmpty() {
+    return title == null
+        && description == null
+        && priority == null
+        && status == null
+        && !reminderChanged;
+  }
+
+  /**
+   * Applies the changes to the given {@link Task} entity without saving it.
+   *
+   * @param task is the {@link Task} to change
+   */
+  public void applyTo(Task task) {
+    getTitle().ifPresent(task::setTitle);
+    getDescription().ifPresent(task::setDescription);
+    getPriority().ifPresent(task::setPriority);
+    getStatus().ifPresent(task::setStatus);
+
+    if (reminderChanged) {
+      task.setReminderAt(reminderAt);
+      task.setReminderAllDay(reminderAllDay);
+    }
+  }
+}
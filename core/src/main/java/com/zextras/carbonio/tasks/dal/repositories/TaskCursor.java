@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Represents the position of a {@link Task} in a list of tasks sorted by creation date and id in
+ * descending order. It is used to paginate the tasks with the keyset method: the next page starts
+ * right after the task identified by the cursor, so the database can seek it through an index
+ * instead of scanning and discarding all the tasks of the previous pages.
+ *
+ * <p>A cursor can be encoded in an opaque string, that can be shared with the clients, and then
+ * decoded back.
+ */
+public final class TaskCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final Instant createdAt;
+  private final UUID id;
+
+  public TaskCursor(Instant createdAt, UUID id) {
+    this.createdAt = Objects.requireNonNull(createdAt);
+    this.id = Objects.requireNonNull(id);
+  }
+
+  /**
+   * @param task is the {@link Task} to point to
+   * @return a {@link TaskCursor} identifying the position of the given task
+   */
+  public static TaskCursor of(Task task) {
+    return new TaskCursor(task.getCreatedAt(), task.getId());
+  }
+
+  /**
+   * @param encodedCursor is a string generated by the {@link #encode()} method
+   * @return the {@link TaskCursor} represented by the encoded string
+   * @throws IllegalArgumentException if the given string is not a valid encoded cursor
+   */
+  public static TaskCursor decode(String encodedCursor) {
+    try {
+      String cursor =
+          new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+      int separatorIndex = cursor.indexOf(SEPARATOR);
+
+      if (separatorIndex < 0) {
+        throw new IllegalArgumentException("Invalid cursor " + encodedCursor);
+      }
+
+      return new TaskCursor(
+          Instant.parse(cursor.substring(0, separatorIndex)),
+          UUID.fromString(cursor.substring(separatorIndex + 1)));
+
+    } catch (DateTimeParseException exception) {
+      throw new IllegalArgumentException("Invalid cursor " + encodedCursor, exception);
+    }
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  /**
+   * @return an opaque string representing the cursor. It can be decoded back with the {@link
+   *     #decode(String)} method.
+   */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof TaskCursor)) {
+      return false;
+    }
+    TaskCursor that = (TaskCursor) other;
+    return createdAt.equals(that.createdAt) && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(createdAt, id);
+  }
+}
@@ -9,15 +9,19 @@ import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.dal.dao.Task;
 import jakarta.annotation.Nullable;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /** Represents all the allowed CRUD operations executable on a {@link Task} element. */
 public interface TaskRepository {
 
   Task createTask(
-      String userId,
+      UUID userId,
       String title,
       @Nullable String description,
       Priority priority,
@@ -25,9 +29,220 @@ public interface TaskRepository {
       @Nullable Instant reminderAt,
       @Nullable Boolean reminderAllDay);
 
-  void updateTask(Task taskToUpdate);
+  /**
+   * Creates all the given tasks in a single transaction. The inserts are sent to the database in
+   * JDBC batches, so the number of round trips does not grow with the number of tasks.
+   *
+   * @param userId is the identifier of the owner of the tasks
+   * @param newTasks is a {@link List} of {@link NewTask}s to create
+   * @return a {@link List} of the created {@link Task}s, in the same order of the given ones
+   */
+  List<Task> createTasks(UUID userId, List<NewTask> newTasks);
 
-  Optional<Task> getTask(UUID taskId, String userId);
+  /**
+   * Applies the given changes to a not trashed task of a user with a single conditional statement,
+   * so the task is not read before being updated and concurrent updates cannot be lost.
+   *
+   * @param taskId is the identifier of the task to update
+   * @param userId is the identifier of the owner of the task
+   * @param changes is the {@link TaskChanges} to apply
+   * @return an {@link Optional} containing the updated {@link Task}, or an empty one if the task
+   *     does not exist, is trashed or is owned by another user
+   */
+  Optional<Task> updateTask(UUID taskId, UUID userId, TaskChanges changes);
 
-  List<Task> getTasks(String userId, @Nullable Priority priority, @Nullable Status status);
+  /**
+   * Moves a not trashed task of a user in the trash with a single conditional statement. The trash
+   * date of the task is set to now.
+   *
+   * @param taskId is the identifier of the task to trash
+   * @param userId is the identifier of the owner of the task
+   * @return true if the task has been trashed, false if it does not exist, it is already trashed
+   *     or it is owned by another user
+   */
+  boolean trashTask(UUID taskId, UUID userId);
+
+  /**
+   * Applies the given changes to the not trashed tasks of a user in a single transaction. Each task
+   * is updated with a conditional statement, like in the {@link #updateTask(UUID, UUID,
+   * TaskChanges)}, so a task trashed or changed concurrently is never read and then overwritten.
+   * The statements changing the same attributes are sent to the database in JDBC batches, so the
+   * number of round trips does not grow with the number of tasks.
+   *
+   * @param changesByTaskId is a {@link Map} of the {@link TaskChanges} to apply indexed by the
+   *     identifier of the task to update
+   * @param userId is the identifier of the owner of the tasks
+   * @return a {@link Map} of the updated {@link Task}s indexed by their identifier. The tasks not
+   *     existing, trashed or owned by another user are missing
+   */
+  Map<UUID, Task> updateTasks(Map<UUID, TaskChanges> changesByTaskId, UUID userId);
+
+  /**
+   * Moves in the trash the not trashed tasks of a user having the given identifiers, with a single
+   * conditional statement. The trash date of the tasks is set to now.
+   *
+   * @param taskIds is a {@link Collection} of identifiers of the tasks to trash
+   * @param userId is the identifier of the owner of the tasks
+   * @return a {@link Set} of identifiers of the trashed tasks. The identifiers of tasks not
+   *     existing, already trashed or owned by another user are missing
+   */
+  Set<UUID> trashTasks(Collection<UUID> taskIds, UUID userId);
+
+  default Optional<Task> getTask(UUID taskId, UUID userId) {
+    return getTask(taskId, userId, Collections.emptySet());
+  }
+
+  /**
+   * Retrieves a not trashed task of a user loading only the given attributes. The attributes not
+   * loaded are left null and they are not fetched lazily.
+   *
+   * @param taskId is the identifier of the task
+   * @param userId is the identifier of the owner of the task
+   * @param attributes is a {@link Set} of names of the {@link Task} attributes to load. The
+   *     identifier is always loaded. If it is empty all the attributes are loaded
+   * @return an {@link Optional} containing the partially loaded {@link Task} if it exists
+   */
+  Optional<Task> getTask(UUID taskId, UUID userId, Set<String> attributes);
+
+  /**
+   * Retrieves, with a single query, the not trashed tasks of a user having the given identifiers.
+   * The identifiers are bound as a single array parameter ({@code id = ANY(?)}), so the statement
+   * is the same whatever the number of identifiers.
+   *
+   * @param taskIds is a {@link Collection} of task identifiers
+   * @param userId is the identifier of the owner of the tasks
+   * @return a {@link List} of the found {@link Task}s. The identifiers of tasks not existing,
+   *     trashed or owned by another user are ignored.
+   */
+  List<Task> getTasksByIds(Collection<UUID> taskIds, UUID userId);
+
+  /**
+   * Retrieves the tasks of a user sorted by creation date, from the newest to the oldest. The
+   * tasks can be paginated with the keyset method: the cost of fetching a page does not depend on
+   * how many tasks precede it.
+   *
+   * @param userId is the identifier of the owner of the tasks
+   * @param priority if set, only the tasks with this {@link Priority} are returned
+   * @param status if set, only the tasks with this {@link Status} are returned, otherwise all the
+   *     tasks not trashed are returned
+   * @param limit is the maximum number of tasks to return. If it is null all the matching tasks
+   *     are returned
+   * @param after if set, only the tasks following the one identified by this {@link TaskCursor}
+   *     are returned
+   * @return a {@link List} of the matching {@link Task}s
+   */
+  default List<Task> getTasks(
+      UUID userId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      @Nullable Integer limit,
+      @Nullable TaskCursor after) {
+    return getTasks(userId, priority, status, limit, after, Collections.emptySet());
+  }
+
+  /**
+   * Same as {@link #getTasks(UUID, Priority, Status, Integer, TaskCursor)} but it loads only the
+   * given attributes of the tasks, so the columns not requested are not read from the database.
+   * The attributes not loaded are left null and they are not fetched lazily.
+   *
+   * @param attributes is a {@link Set} of names of the {@link Task} attributes to load. The
+   *     identifier is always loaded. If it is empty all the attributes are loaded
+   */
+  List<Task> getTasks(
+      UUID userId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      @Nullable Integer limit,
+      @Nullable TaskCursor after,
+      Set<String> attributes);
+
+  /**
+   * Searches the words of the given query in the title and in the description of the not trashed
+   * tasks of a user. The tasks are sorted by relevance, then from the newest to the oldest, and
+   * they can be paginated with the keyset method.
+   *
+   * <p>The query follows the syntax of the web search engines: the words are matched all together,
+   * unless separated by {@code or}, a quoted text is matched as a phrase and a word preceded by
+   * {@code -} must not appear. The words are not stemmed, so they must match exactly, regardless of
+   * the case.
+   *
+   * @param userId is the identifier of the owner of the tasks
+   * @param query is the text to search. If it is blank, no task is returned
+   * @param limit is the maximum number of tasks to return. If it is null all the matching tasks
+   *     are returned
+   * @param after if set, only the tasks following the one identified by this {@link
+   *     TaskSearchCursor} are returned
+   * @param attributes is a {@link Set} of names of the {@link Task} attributes to load. The
+   *     identifier and the creation date are always loaded. If it is empty all the attributes are
+   *     loaded
+   * @return a {@link List} of {@link TaskSearchResult}s sorted by relevance
+   */
+  List<TaskSearchResult> searchTasks(
+      UUID userId,
+      String query,
+      @Nullable Integer limit,
+      @Nullable TaskSearchCursor after,
+      Set<String> attributes);
+
+  /**
+   * Retrieves, across all the users, the open tasks having a reminder due in the given interval,
+   * sorted by reminder date and id. The reminders can be paginated with the keyset method through
+   * the afterId parameter.
+   *
+   * @param from is the start of the interval. If afterId is null it is included, otherwise only
+   *     the reminders following the one identified by (from, afterId) are returned
+   * @param afterId if set, it is the identifier of the last reminder already read at the from date
+   * @param to is the end of the interval, excluded
+   * @param limit is the maximum number of tasks to return
+   * @return a {@link List} of the {@link Task}s with a reminder in the interval
+   */
+  List<Task> getOpenTasksWithReminder(Instant from, @Nullable UUID afterId, Instant to, int limit);
+
+  /**
+   * Claims, across all the users, the reminders of the given tasks that are due and not fired yet,
+   * marking them as fired with a single conditional statement. A reminder is claimed only once,
+   * even by concurrent nodes, and the tasks no longer open or whose reminder has been moved after
+   * the given instant are skipped. Changing the reminder of a task makes it claimable again.
+   *
+   * @param taskIds is a {@link Collection} of identifiers of the tasks whose reminder is due
+   * @param now is the instant at which the reminders are fired
+   * @return a {@link List} of the {@link Task}s whose reminder has been claimed, as they are stored
+   */
+  List<Task> claimDueReminders(Collection<UUID> taskIds, Instant now);
+
+  /**
+   * Retrieves the tasks of a user changed, created or trashed, after the given watermark and
+   * before the given instant, sorted by change date and id.
+   *
+   * @param userId is the identifier of the owner of the tasks
+   * @param since if set, only the changes following this {@link TaskWatermark} are returned,
+   *     trashed tasks included. Otherwise all the not trashed tasks are returned
+   * @param until is the instant, excluded, up to which the changes are returned
+   * @param limit is the maximum number of tasks to return
+   * @return a {@link List} of the changed {@link Task}s
+   */
+  List<Task> getTaskChanges(
+      UUID userId, @Nullable TaskWatermark since, Instant until, int limit);
+
+  /**
+   * Sets the trash date of at most the given number of trashed tasks not having one, that is the
+   * tasks trashed before the trash date existed. The tasks locked by another transaction are
+   * skipped.
+   *
+   * @param trashedAt is the trash date to set
+   * @param limit is the maximum number of tasks to update
+   * @return the number of updated tasks
+   */
+  int stampTrashedTasks(Instant trashedAt, int limit);
+
+  /**
+   * Deletes, across all the users, at most the given number of tasks trashed before the given
+   * instant. The tasks locked by another transaction are skipped, so the deletion never waits for
+   * the users and it never holds many locks for long.
+   *
+   * @param trashedBefore is the instant, excluded, before which the tasks have to be trashed
+   * @param limit is the maximum number of tasks to delete
+   * @return the number of deleted tasks
+   */
+  int deleteTrashedTasks(Instant trashedBefore, int limit);
 }
@@ -0,0 +1,99 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Represents the position of a {@link Task} in the results of a full-text search, sorted by rank,
+ * creation date and id in descending order. Like the {@link TaskCursor}, it is used to paginate
+ * the results with the keyset method and it can be encoded in an opaque string and decoded back.
+ */
+public final class TaskSearchCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final float rank;
+  private final Instant createdAt;
+  private final UUID id;
+
+  public TaskSearchCursor(float rank, Instant createdAt, UUID id) {
+    this.rank = rank;
+    this.createdAt = Objects.requireNonNull(createdAt);
+    this.id = Objects.requireNonNull(id);
+  }
+
+  /**
+   * @param encodedCursor is a string generated by the {@link #encode()} method
+   * @return the {@link TaskSearchCursor} represented by the encoded string
+   * @throws IllegalArgumentException if the given string is not a valid encoded cursor
+   */
+  public static TaskSearchCursor decode(String encodedCursor) {
+    try {
+      String cursor =
+          new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+      String[] parts = cursor.split("\\" + SEPARATOR, -1);
+
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid cursor " + encodedCursor);
+      }
+
+      // A NumberFormatException is an IllegalArgumentException too
+      return new TaskSearchCursor(
+          Float.parseFloat(parts[0]), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+
+    } catch (DateTimeParseException exception) {
+      throw new IllegalArgumentException("Invalid cursor " + encodedCursor, exception);
+    }
+  }
+
+  public float getRank() {
+    return rank;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  /**
+   * @return an opaque string representing the cursor. It can be decoded back with the {@link
+   *     #decode(String)} method.
+   */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(
+            (rank + SEPARATOR + createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof TaskSearchCursor)) {
+      return false;
+    }
+    TaskSearchCursor that = (TaskSearchCursor) other;
+    return Float.compare(rank, that.rank) == 0
+        && createdAt.equals(that.createdAt)
+        && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(rank, createdAt, id);
+  }
+}
@@ -0,0 +1,33 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+
+/** Represents a {@link Task} matching a full-text search together with its relevance. */
+public final class TaskSearchResult {
+
+  private final Task task;
+  private final float rank;
+
+  public TaskSearchResult(Task task, float rank) {
+    this.task = task;
+    this.rank = rank;
+  }
+
+  public Task getTask() {
+    return task;
+  }
+
+  /** @return the relevance of the task: the higher the rank, the better the task matches */
+  public float getRank() {
+    return rank;
+  }
+
+  /** @return a {@link TaskSearchCursor} identifying the position of the task in the results */
+  public TaskSearchCursor getCursor() {
+    return new TaskSearchCursor(rank, task.getCreatedAt(), task.getId());
+  }
+}
@@ -0,0 +1,113 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Represents the position of a change in the list of the changes of the tasks, sorted by change
+ * date and id in ascending order. A client keeps the watermark of the last change it has received
+ * and asks only for the changes following it. Like the {@link TaskCursor}, it can be encoded in an
+ * opaque string and decoded back.
+ *
+ * <p>A watermark can also point to the beginning of an instant, through the {@link #NIL_ID}: it
+ * precedes all the changes made at that instant.
+ */
+public final class TaskWatermark {
+
+  /** The smallest uuid: in the PostgreSQL order it precedes all the task identifiers. */
+  public static final UUID NIL_ID = new UUID(0L, 0L);
+
+  private static final String SEPARATOR = "|";
+
+  private final Instant updatedAt;
+  private final UUID id;
+
+  public TaskWatermark(Instant updatedAt, UUID id) {
+    this.updatedAt = Objects.requireNonNull(updatedAt);
+    this.id = Objects.requireNonNull(id);
+  }
+
+  /**
+   * @param task is the last changed {@link Task} received by the client
+   * @return a {@link TaskWatermark} following the change of the given task
+   */
+  public static TaskWatermark of(Task task) {
+    return new TaskWatermark(task.getUpdatedAt(), task.getId());
+  }
+
+  /**
+   * @param instant is the instant up to which the client has received all the changes
+   * @return a {@link TaskWatermark} preceding all the changes made at the given instant
+   */
+  public static TaskWatermark at(Instant instant) {
+    return new TaskWatermark(instant, NIL_ID);
+  }
+
+  /**
+   * @param encodedWatermark is a string generated by the {@link #encode()} method
+   * @return the {@link TaskWatermark} represented by the encoded string
+   * @throws IllegalArgumentException if the given string is not a valid encoded watermark
+   */
+  public static TaskWatermark decode(String encodedWatermark) {
+    try {
+      String watermark =
+          new String(Base64.getUrlDecoder().decode(encodedWatermark), StandardCharsets.UTF_8);
+      int separatorIndex = watermark.indexOf(SEPARATOR);
+
+      if (separatorIndex < 0) {
+        throw new IllegalArgumentException("Invalid watermark " + encodedWatermark);
+      }
+
+      return new TaskWatermark(
+          Instant.parse(watermark.substring(0, separatorIndex)),
+          UUID.fromString(watermark.substring(separatorIndex + 1)));
+
+    } catch (DateTimeParseException exception) {
+      throw new IllegalArgumentException("Invalid watermark " + encodedWatermark, exception);
+    }
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  /**
+   * @return an opaque string representing the watermark. It can be decoded back with the {@link
+   *     #decode(String)} method.
+   */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((updatedAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof TaskWatermark)) {
+      return false;
+    }
+    TaskWatermark that = (TaskWatermark) other;
+    return updatedAt.equals(that.updatedAt) && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(updatedAt, id);
+  }
+}
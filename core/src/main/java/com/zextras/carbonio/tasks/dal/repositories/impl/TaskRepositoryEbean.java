@@ -4,35 +4,102 @@
 
 package com.zextras.carbonio.tasks.dal.repositories.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.zextras.carbonio.tasks.Constants.Database.Tables;
 import com.zextras.carbonio.tasks.dal.DatabaseConnectionManager;
 import com.zextras.carbonio.tasks.dal.dao.Priority;
 import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.NewTask;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChangeListener;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchResult;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
+import io.ebean.Database;
 import io.ebean.ExpressionList;
+import io.ebean.Query;
+import io.ebean.SqlQuery;
+import io.ebean.SqlRow;
+import io.ebean.SqlUpdate;
+import io.ebean.Transaction;
 import jakarta.annotation.Nullable;
+import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class TaskRepositoryEbean implements TaskRepository {
 
+  /** Columns of the {@link Task} entity indexed by the name of the related attribute. */
+  private static final Map<String, String> TASK_COLUMNS =
+      ImmutableMap.<String, String>builder()
+          .put("id", Tables.Task.ID)
+          .put("userId", Tables.Task.USER_ID)
+          .put("title", Tables.Task.TITLE)
+          .put("description", Tables.Task.DESCRIPTION)
+          .put("priority", Tables.Task.PRIORITY)
+          .put("status", Tables.Task.STATUS)
+          .put("createdAt", Tables.Task.CREATED_AT)
+          .put("reminderAt", Tables.Task.REMINDER_AT)
+          .put("reminderAllDay", Tables.Task.REMINDER_ALL_DAY)
+          .put("trashedAt", Tables.Task.TRASHED_AT)
+          .put("updatedAt", Tables.Task.UPDATED_AT)
+          .build();
+
+  /**
+   * Text search configuration used to parse the search queries. It must be the same used to build
+   * the {@link Tables.Task#SEARCH_VECTOR} column (see the V4__task-search.sql migration).
+   */
+  private static final String TEXT_SEARCH_CONFIGURATION = "simple";
+
+  private static final String SEARCH_RANK = "search_rank";
+
+  /**
+   * Condition excluding the trashed tasks. The status is a literal and not a bound parameter:
+   * with a generic plan the planner could not prove that the partial indexes on the not trashed
+   * tasks match the query.
+   */
+  private static final String NOT_TRASHED =
+      String.format("%s <> %d", Tables.Task.STATUS, Status.TRASH.getCode());
+
   private final DatabaseConnectionManager dbConnectionManager;
   private final Clock clock;
+  private final TaskChangeListener taskChangeListener;
+  private final UuidV7Generator idGenerator;
 
   @Inject
-  public TaskRepositoryEbean(DatabaseConnectionManager dbConnectionManager, Clock clock) {
+  public TaskRepositoryEbean(
+      DatabaseConnectionManager dbConnectionManager,
+      Clock clock,
+      TaskChangeListener taskChangeListener) {
     this.dbConnectionManager = dbConnectionManager;
     this.clock = clock;
+    this.taskChangeListener = taskChangeListener;
+    this.idGenerator = new UuidV7Generator(clock);
   }
 
   @Override
   public Task createTask(
-      String userId,
+      UUID userId,
       String title,
       @Nullable String description,
       Priority priority,
@@ -42,7 +109,7 @@ public class TaskRepositoryEbean implements TaskRepository {
 
     Task newTask =
         new Task(
-            UUID.randomUUID(),
+            idGenerator.generate(),
             userId,
             title,
             description,
@@ -51,34 +118,571 @@ public class TaskRepositoryEbean implements TaskRepository {
             clock.instant(),
             reminderAt,
             reminderAllDay);
+    newTask.setUpdatedAt(newTask.getCreatedAt());
 
     dbConnectionManager.getEbeanDatabase().insert(newTask);
+    taskChangeListener.onTasksSaved(List.of(newTask));
     return newTask;
   }
 
   @Override
-  public void updateTask(Task taskToUpdate) {
-    dbConnectionManager.getEbeanDatabase().update(taskToUpdate);
+  public List<Task> createTasks(UUID userId, List<NewTask> newTasks) {
+    if (newTasks.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Instant now = clock.instant();
+    List<Task> tasksToCreate = new ArrayList<>(newTasks.size());
+
+    for (int index = 0; index < newTasks.size(); index++) {
+      NewTask newTask = newTasks.get(index);
+      Task taskToCreate =
+          new Task(
+              idGenerator.generate(),
+              userId,
+              newTask.getTitle(),
+              newTask.getDescription().orElse(null),
+              newTask.getPriority(),
+              newTask.getStatus(),
+              // Each task is created one microsecond after the previous one so the tasks keep,
+              // in the findTasks results, the same order in which they were given
+              now.plus(index, ChronoUnit.MICROS),
+              newTask.getReminderAt().orElse(null),
+              newTask.getReminderAllDay().orElse(null));
+      taskToCreate.setUpdatedAt(taskToCreate.getCreatedAt());
+      tasksToCreate.add(taskToCreate);
+    }
+
+    Database database = dbConnectionManager.getEbeanDatabase();
+    try (Transaction transaction = database.beginTransaction()) {
+      transaction.setBatchMode(true);
+      database.insertAll(tasksToCreate, transaction);
+      transaction.commit();
+    }
+
+    taskChangeListener.onTasksSaved(tasksToCreate);
+    return tasksToCreate;
   }
 
   @Override
-  public Optional<Task> getTask(UUID taskId, String userId) {
+  public Optional<Task> updateTask(UUID taskId, UUID userId, TaskChanges changes) {
+    if (changes.isEmpty()) {
+      return getTask(taskId, userId);
+    }
+
+    List<String> assignments = new ArrayList<>();
+    List<Object> parameters = new ArrayList<>();
+    addAssignments(assignments, parameters, changes, clock.instant());
+
+    parameters.add(taskId);
+    parameters.add(userId);
+
+    // The conditions make the update a no-op if the task is not visible to the user, and the
+    // RETURNING clause gives back the updated task in the same round trip. Only the columns of the
+    // entity are returned: the table has columns, like the search vector, not mapped by the entity
+    String sql =
+        String.format(
+            "UPDATE %s SET %s WHERE %s = ? AND %s = ? AND %s RETURNING %s",
+            Tables.TASK,
+            String.join(", ", assignments),
+            Tables.Task.ID,
+            Tables.Task.USER_ID,
+            NOT_TRASHED,
+            String.join(", ", TASK_COLUMNS.values()));
+
+    Database database = dbConnectionManager.getEbeanDatabase();
+    try (Transaction transaction = database.beginTransaction()) {
+      Query<Task> query = database.findNative(Task.class, sql).usingTransaction(transaction);
+      for (int index = 0; index < parameters.size(); index++) {
+        query.setParameter(index + 1, parameters.get(index));
+      }
+
+      Optional<Task> updatedTask = query.findOneOrEmpty();
+      transaction.commit();
+      updatedTask.ifPresent(task -> taskChangeListener.onTasksSaved(List.of(task)));
+      return updatedTask;
+    }
+  }
+
+  @Override
+  public boolean trashTask(UUID taskId, UUID userId) {
+    String sql =
+        String.format(
+            "UPDATE %s SET %s = %d, %s = ?, %s = ? WHERE %s = ? AND %s = ? AND %s",
+            Tables.TASK,
+            Tables.Task.STATUS,
+            Status.TRASH.getCode(),
+            Tables.Task.TRASHED_AT,
+            Tables.Task.UPDATED_AT,
+            Tables.Task.ID,
+            Tables.Task.USER_ID,
+            NOT_TRASHED);
+
+    Instant now = clock.instant();
+    boolean trashed =
+        dbConnectionManager
+                .getEbeanDatabase()
+                .sqlUpdate(sql)
+                .setParameter(1, now)
+                .setParameter(2, now)
+                .setParameter(3, taskId)
+                .setParameter(4, userId)
+                .execute()
+            > 0;
+
+    if (trashed) {
+      taskChangeListener.onTaskTrashed(taskId);
+    }
+    return trashed;
+  }
+
+  @Override
+  public Map<UUID, Task> updateTasks(Map<UUID, TaskChanges> changesByTaskId, UUID userId) {
+    if (changesByTaskId.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Instant now = clock.instant();
+    Database database = dbConnectionManager.getEbeanDatabase();
+    Set<UUID> updatedTaskIds = new HashSet<>();
+    Set<UUID> unchangedTaskIds = new HashSet<>();
+
+    try (Transaction transaction = database.beginTransaction()) {
+      // The updates changing the same attributes share the same statement, so they are sent to the
+      // database in a single JDBC batch
+      Map<String, SqlUpdate> updatesBySql = new LinkedHashMap<>();
+      Map<String, List<UUID>> taskIdsBySql = new HashMap<>();
+
+      changesByTaskId.forEach(
+          (taskId, changes) -> {
+            if (changes.isEmpty()) {
+              unchangedTaskIds.add(taskId);
+              return;
+            }
+
+            List<String> assignments = new ArrayList<>();
+            List<Object> parameters = new ArrayList<>();
+            addAssignments(assignments, parameters, changes, now);
+            parameters.add(taskId);
+            parameters.add(userId);
+
+            // Like in the updateTask, the conditions make the update a no-op if the task is not
+            // visible to the user anymore
+            String sql =
+                String.format(
+                    "UPDATE %s SET %s WHERE %s = ? AND %s = ? AND %s",
+                    Tables.TASK,
+                    String.join(", ", assignments),
+                    Tables.Task.ID,
+                    Tables.Task.USER_ID,
+                    NOT_TRASHED);
+
+            SqlUpdate update = updatesBySql.computeIfAbsent(sql, database::sqlUpdate);
+            for (int index = 0; index < parameters.size(); index++) {
+              update.setParameter(index + 1, parameters.get(index));
+            }
+            update.addBatch();
+            taskIdsBySql.computeIfAbsent(sql, key -> new ArrayList<>()).add(taskId);
+          });
+
+      // The batches are executed in the transaction just begun, which is the current one
+      updatesBySql.forEach(
+          (sql, update) -> {
+            int[] updatedRows = update.executeBatch();
+            List<UUID> taskIds = taskIdsBySql.get(sql);
+            for (int index = 0; index < updatedRows.length; index++) {
+              if (updatedRows[index] > 0) {
+                updatedTaskIds.add(taskIds.get(index));
+              }
+            }
+          });
+
+      Set<UUID> taskIdsToRead = new HashSet<>(updatedTaskIds);
+      taskIdsToRead.addAll(unchangedTaskIds);
+
+      // The updated tasks stay locked until the commit, so they are read in the state just
+      // written. The tasks without changes are returned only if they are not trashed
+      List<Task> tasks =
+          taskIdsToRead.isEmpty()
+              ? Collections.emptyList()
+              : database
+                  .find(Task.class)
+                  .usingTransaction(transaction)
+                  .where()
+                  .idIn(taskIdsToRead)
+                  .eq(Tables.Task.USER_ID, userId)
+                  .findList();
+      transaction.commit();
+
+      Map<UUID, Task> resultTasks =
+          tasks.stream()
+              .filter(
+                  task ->
+                      updatedTaskIds.contains(task.getId()) || task.getStatus() != Status.TRASH)
+              .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+      List<Task> updatedTasks =
+          resultTasks.values().stream()
+              .filter(task -> updatedTaskIds.contains(task.getId()))
+              .collect(Collectors.toList());
+      if (!updatedTasks.isEmpty()) {
+        taskChangeListener.onTasksSaved(updatedTasks);
+      }
+      return resultTasks;
+    }
+  }
+
+  @Override
+  public Set<UUID> trashTasks(Collection<UUID> taskIds, UUID userId) {
+    if (taskIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    // A single conditional statement trashes only the tasks still visible to the user, and the
+    // RETURNING clause tells which ones they are
+    String sql =
+        String.format(
+            "UPDATE %s SET %s = %d, %s = ?, %s = ? WHERE %s = ANY(?) AND %s = ? AND %s"
+                + " RETURNING %s",
+            Tables.TASK,
+            Tables.Task.STATUS,
+            Status.TRASH.getCode(),
+            Tables.Task.TRASHED_AT,
+            Tables.Task.UPDATED_AT,
+            Tables.Task.ID,
+            Tables.Task.USER_ID,
+            NOT_TRASHED,
+            Tables.Task.ID);
+
+    Instant now = clock.instant();
+    Database database = dbConnectionManager.getEbeanDatabase();
+    try (Transaction transaction = database.beginTransaction()) {
+      Set<UUID> trashedTaskIds =
+          database
+              .findNative(Task.class, sql)
+              .usingTransaction(transaction)
+              .setParameter(1, now)
+              .setParameter(2, now)
+              .setArrayParameter(3, taskIds)
+              .setParameter(4, userId)
+              .findList()
+              .stream()
+              .map(Task::getId)
+              .collect(Collectors.toSet());
+      transaction.commit();
+
+      trashedTaskIds.forEach(taskChangeListener::onTaskTrashed);
+      return trashedTaskIds;
+    }
+  }
+
+  @Override
+  public Optional<Task> getTask(UUID taskId, UUID userId, Set<String> attributes) {
+    return selectAttributes(dbConnectionManager.getEbeanDatabase().find(Task.class), attributes)
+        .where()
+        .idEq(taskId)
+        .eq(Tables.Task.USER_ID, userId)
+        .raw(NOT_TRASHED)
+        .findOneOrEmpty();
+  }
+
+  @Override
+  public List<Task> getTasksByIds(Collection<UUID> taskIds, UUID userId) {
+    if (taskIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // On PostgreSQL Ebean binds the identifiers as a single array parameter: id = any(?)
     return dbConnectionManager
         .getEbeanDatabase()
         .find(Task.class)
         .where()
-        .idEq(taskId)
+        .idIn(taskIds)
         .eq(Tables.Task.USER_ID, userId)
-        .ne(Tables.Task.STATUS, Status.TRASH)
-        .findOneOrEmpty();
+        .raw(NOT_TRASHED)
+        .findList();
   }
 
   @Override
-  public List<Task> getTasks(String userId, @Nullable Priority priority, @Nullable Status status) {
+  public List<Task> getTasks(
+      UUID userId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      @Nullable Integer limit,
+      @Nullable TaskCursor after,
+      Set<String> attributes) {
+    Query<Task> sortedQuery = findTasks(userId, priority, status, after, attributes);
+
+    if (limit != null) {
+      sortedQuery.setMaxRows(limit);
+    }
+
+    return sortedQuery.findList();
+  }
+
+  @Override
+  public List<TaskSearchResult> searchTasks(
+      UUID userId,
+      String query,
+      @Nullable Integer limit,
+      @Nullable TaskSearchCursor after,
+      Set<String> attributes) {
+    if (query.isBlank()) {
+      return Collections.emptyList();
+    }
+
+    // The identifier and the creation date are necessary to build the cursor of each result
+    Set<String> columns = new LinkedHashSet<>(List.of(Tables.Task.ID, Tables.Task.CREATED_AT));
+    if (attributes.isEmpty()) {
+      columns.addAll(TASK_COLUMNS.values());
+    } else {
+      attributes.stream()
+          .map(TASK_COLUMNS::get)
+          .filter(Objects::nonNull)
+          .forEach(columns::add);
+    }
+    columns.remove(Tables.Task.USER_ID);
+
+    String rank = String.format("ts_rank(%s, search_query)", Tables.Task.SEARCH_VECTOR);
+
+    // The GIN index finds the matching tasks without scanning all the tasks of the user. The status
+    // condition is a literal so the planner can use the partial index
+    StringBuilder sql =
+        new StringBuilder()
+            .append(
+                String.format(
+                    "SELECT %s, %s AS %s FROM %s, websearch_to_tsquery('%s', ?) AS search_query"
+                        + " WHERE %s = ? AND %s <> %d AND %s @@ search_query",
+                    String.join(", ", columns),
+                    rank,
+                    SEARCH_RANK,
+                    Tables.TASK,
+                    TEXT_SEARCH_CONFIGURATION,
+                    Tables.Task.USER_ID,
+                    Tables.Task.STATUS,
+                    Status.TRASH.getCode(),
+                    Tables.Task.SEARCH_VECTOR));
+
+    if (after != null) {
+      // The rank is recomputed with the same expression of the sorting, so the row value
+      // comparison skips exactly the results of the previous pages
+      sql.append(
+          String.format(
+              " AND (%s, %s, %s) < (?, ?, ?)", rank, Tables.Task.CREATED_AT, Tables.Task.ID));
+    }
+
+    sql.append(
+        String.format(
+            " ORDER BY %s DESC, %s DESC, %s DESC",
+            SEARCH_RANK, Tables.Task.CREATED_AT, Tables.Task.ID));
+
+    SqlQuery sqlQuery =
+        dbConnectionManager
+            .getEbeanDatabase()
+            .sqlQuery(sql.toString())
+            .setParameter(1, query)
+            .setParameter(2, userId);
+
+    if (after != null) {
+      sqlQuery
+          .setParameter(3, after.getRank())
+          .setParameter(4, after.getCreatedAt())
+          .setParameter(5, after.getId());
+    }
+
+    if (limit != null) {
+      sqlQuery.setMaxRows(limit);
+    }
+
+    return sqlQuery.findList().stream()
+        .map(row -> new TaskSearchResult(convertRowToTask(row, userId), row.getFloat(SEARCH_RANK)))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Task> getOpenTasksWithReminder(
+      Instant from, @Nullable UUID afterId, Instant to, int limit) {
+    ExpressionList<Task> query =
+        dbConnectionManager
+            .getEbeanDatabase()
+            .find(Task.class)
+            .where()
+            // The conditions of the partial index are literals, so the planner can always use it
+            .raw(
+                String.format(
+                    "%s IS NOT NULL AND %s = %d",
+                    Tables.Task.REMINDER_AT, Tables.Task.STATUS, Status.OPEN.getCode()))
+            .lt(Tables.Task.REMINDER_AT, to);
+
+    if (afterId == null) {
+      query.ge(Tables.Task.REMINDER_AT, from);
+    } else {
+      query.raw(
+          String.format("(%s, %s) > (?, ?)", Tables.Task.REMINDER_AT, Tables.Task.ID),
+          from,
+          afterId);
+    }
+
+    Query<Task> sortedQuery =
+        query.orderBy(String.format("%s asc, %s asc", Tables.Task.REMINDER_AT, Tables.Task.ID));
+    sortedQuery.setMaxRows(limit);
+
+    return sortedQuery.findList();
+  }
+
+  @Override
+  public List<Task> claimDueReminders(Collection<UUID> taskIds, Instant now) {
+    if (taskIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // The conditions are checked again on the rows locked by the update, so a reminder claimed by
+    // another node meanwhile is skipped, and the RETURNING clause gives back the current tasks
+    String sql =
+        String.format(
+            "UPDATE %s SET %s = ? WHERE %s = ANY(?) AND %s = %d AND %s <= ? AND %s IS NULL"
+                + " RETURNING %s",
+            Tables.TASK,
+            Tables.Task.REMINDER_FIRED_AT,
+            Tables.Task.ID,
+            Tables.Task.STATUS,
+            Status.OPEN.getCode(),
+            Tables.Task.REMINDER_AT,
+            Tables.Task.REMINDER_FIRED_AT,
+            String.join(", ", TASK_COLUMNS.values()));
+
+    Database database = dbConnectionManager.getEbeanDatabase();
+    try (Transaction transaction = database.beginTransaction()) {
+      List<Task> claimedTasks =
+          database
+              .findNative(Task.class, sql)
+              .usingTransaction(transaction)
+              .setParameter(1, now)
+              .setArrayParameter(2, taskIds)
+              .setParameter(3, now)
+              .findList();
+      transaction.commit();
+      return claimedTasks;
+    }
+  }
+
+  @Override
+  public List<Task> getTaskChanges(
+      UUID userId, @Nullable TaskWatermark since, Instant until, int limit) {
     ExpressionList<Task> query =
         dbConnectionManager
             .getEbeanDatabase()
             .find(Task.class)
+            .where()
+            .eq(Tables.Task.USER_ID, userId)
+            .lt(Tables.Task.UPDATED_AT, until);
+
+    if (since == null) {
+      // Without a watermark the client has no tasks yet, so it does not need the trashed ones
+      query.raw(NOT_TRASHED);
+    } else {
+      // Like in the getTasks, the row value comparison lets the database seek the first change in
+      // the index
+      query.raw(
+          String.format("(%s, %s) > (?, ?)", Tables.Task.UPDATED_AT, Tables.Task.ID),
+          since.getUpdatedAt(),
+          since.getId());
+    }
+
+    Query<Task> sortedQuery =
+        query.orderBy(String.format("%s asc, %s asc", Tables.Task.UPDATED_AT, Tables.Task.ID));
+    sortedQuery.setMaxRows(limit);
+
+    return sortedQuery.findList();
+  }
+
+  @Override
+  public int stampTrashedTasks(Instant trashedAt, int limit) {
+    String sql =
+        String.format(
+            "UPDATE %s SET %s = ? WHERE %s IN (%s)",
+            Tables.TASK,
+            Tables.Task.TRASHED_AT,
+            Tables.Task.ID,
+            selectTrashedTaskIds(Tables.Task.TRASHED_AT + " IS NULL"));
+
+    return dbConnectionManager
+        .getEbeanDatabase()
+        .sqlUpdate(sql)
+        .setParameter(1, trashedAt)
+        .setParameter(2, limit)
+        .execute();
+  }
+
+  @Override
+  public int deleteTrashedTasks(Instant trashedBefore, int limit) {
+    String sql =
+        String.format(
+            "DELETE FROM %s WHERE %s IN (%s)",
+            Tables.TASK,
+            Tables.Task.ID,
+            selectTrashedTaskIds(Tables.Task.TRASHED_AT + " < ?"));
+
+    return dbConnectionManager
+        .getEbeanDatabase()
+        .sqlUpdate(sql)
+        .setParameter(1, trashedBefore)
+        .setParameter(2, limit)
+        .execute();
+  }
+
+  /**
+   * Builds the sub-query selecting a bounded batch of trashed tasks matching the given condition on
+   * the trash date. The status condition is a literal so the planner can use the partial index on
+   * the trash date, and the rows locked by the users are skipped instead of waited for.
+   */
+  private static String selectTrashedTaskIds(String trashedAtCondition) {
+    return String.format(
+        "SELECT %s FROM %s WHERE %s = %d AND %s LIMIT ? FOR UPDATE SKIP LOCKED",
+        Tables.Task.ID,
+        Tables.TASK,
+        Tables.Task.STATUS,
+        Status.TRASH.getCode(),
+        trashedAtCondition);
+  }
+
+  /**
+   * Converts a row of the {@link Tables#TASK} table in a {@link Task}. The columns not selected
+   * are left null, like in the partially loaded entities.
+   */
+  private static Task convertRowToTask(SqlRow row, UUID userId) {
+    Integer priority = row.getInteger(Tables.Task.PRIORITY);
+    Integer status = row.getInteger(Tables.Task.STATUS);
+
+    return new Task(
+        row.getUUID(Tables.Task.ID),
+        userId,
+        row.getString(Tables.Task.TITLE),
+        row.getString(Tables.Task.DESCRIPTION),
+        priority == null ? null : Priority.fromCode(priority),
+        status == null ? null : Status.fromCode(status),
+        toInstant(row.getTimestamp(Tables.Task.CREATED_AT)),
+        toInstant(row.getTimestamp(Tables.Task.REMINDER_AT)),
+        row.getBoolean(Tables.Task.REMINDER_ALL_DAY));
+  }
+
+  @Nullable
+  private static Instant toInstant(@Nullable Timestamp timestamp) {
+    return timestamp == null ? null : timestamp.toInstant();
+  }
+
+  /**
+   * Builds the query of the tasks of a user, sorted from the newest to the oldest, paginated with
+   * the keyset method when a cursor is given.
+   */
+  private Query<Task> findTasks(
+      UUID userId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      @Nullable TaskCursor after,
+      Set<String> attributes) {
+    ExpressionList<Task> query =
+        selectAttributes(dbConnectionManager.getEbeanDatabase().find(Task.class), attributes)
             .where()
             .eq(Tables.Task.USER_ID, userId);
 
@@ -89,9 +693,91 @@ public class TaskRepositoryEbean implements TaskRepository {
     if (status != null) {
       query.eq(Tables.Task.STATUS, status);
     } else {
-      query.ne(Tables.Task.STATUS, Status.TRASH);
+      query.raw(NOT_TRASHED);
+    }
+
+    if (after != null) {
+      // The row value comparison matches the sorting below, so the database can seek the first
+      // task of the page in the index without reading the previous ones
+      query.raw(
+          String.format("(%s, %s) < (?, ?)", Tables.Task.CREATED_AT, Tables.Task.ID),
+          after.getCreatedAt(),
+          after.getId());
     }
 
-    return query.order().desc(Tables.Task.CREATED_AT).findList();
+    // The id is a tie-breaker for tasks created at the same instant: it makes the sorting total,
+    // so no task is skipped or repeated between two pages
+    return query.orderBy(String.format("%s desc, %s desc", Tables.Task.CREATED_AT, Tables.Task.ID));
+  }
+
+  /**
+   * Restricts the columns read by the query to the given attributes. The lazy loading is disabled,
+   * otherwise accessing an attribute not selected would run another query to fetch it.
+   */
+  private static Query<Task> selectAttributes(Query<Task> query, Set<String> attributes) {
+    if (!attributes.isEmpty()) {
+      query.select(String.join(",", attributes));
+      query.setDisableLazyLoading(true);
+    }
+    return query;
+  }
+
+  /**
+   * Adds to the SET clause of an update statement the assignments of the given changes and of the
+   * change date.
+   */
+  private static void addAssignments(
+      List<String> assignments, List<Object> parameters, TaskChanges changes, Instant updatedAt) {
+    changes
+        .getTitle()
+        .ifPresent(title -> addAssignment(assignments, parameters, Tables.Task.TITLE, title));
+    changes
+        .getDescription()
+        .ifPresent(
+            description ->
+                addAssignment(assignments, parameters, Tables.Task.DESCRIPTION, description));
+    changes
+        .getPriority()
+        .ifPresent(
+            priority ->
+                addAssignment(assignments, parameters, Tables.Task.PRIORITY, priority.getCode()));
+    changes
+        .getStatus()
+        .ifPresent(
+            status -> addAssignment(assignments, parameters, Tables.Task.STATUS, status.getCode()));
+
+    if (changes.isReminderChanged()) {
+      addAssignment(
+          assignments, parameters, Tables.Task.REMINDER_AT, changes.getReminderAt().orElse(null));
+      addAssignment(
+          assignments,
+          parameters,
+          Tables.Task.REMINDER_ALL_DAY,
+          changes.getReminderAllDay().orElse(null));
+      // A reminder set again must be fired again, even if it is due at the same instant
+      addAssignment(assignments, parameters, Tables.Task.REMINDER_FIRED_AT, null);
+    }
+
+    // The updates apply only to the tasks not trashed, so a task moved in the trash is stamped now
+    if (changes.getStatus().filter(Status.TRASH::equals).isPresent()) {
+      addAssignment(assignments, parameters, Tables.Task.TRASHED_AT, updatedAt);
+    }
+
+    addAssignment(assignments, parameters, Tables.Task.UPDATED_AT, updatedAt);
+  }
+
+  /**
+   * Adds to the SET clause of an update statement the assignment of the given column. A null value
+   * is written as a literal NULL because a null parameter cannot be bound without knowing its SQL
+   * type.
+   */
+  private static void addAssignment(
+      List<String> assignments, List<Object> parameters, String column, @Nullable Object value) {
+    if (value == null) {
+      assignments.add(column + " = NULL");
+    } else {
+      assignments.add(column + " = ?");
+      parameters.add(value);
+    }
   }
 }
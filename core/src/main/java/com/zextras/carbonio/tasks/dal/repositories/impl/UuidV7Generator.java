@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories.impl;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates the time-ordered UUIDs version 7, as defined by the RFC 9562, used as identifiers of
+ * the new tasks. Since they start with the creation timestamp, the new ids are always appended to
+ * the right edge of the primary key index instead of being scattered across all its pages like the
+ * random UUIDs version 4: the inserts touch few, cached, pages and the index does not bloat with
+ * half-empty pages. The existing version 4 ids remain valid, they are just not ordered.
+ *
+ * <p>The layout of the 128 bits is:
+ *
+ * <ul>
+ *   <li>48 bits of unix timestamp in milliseconds
+ *   <li>4 bits of version (0111)
+ *   <li>12 bits of counter, starting from a random value in the lower half of its range at every
+ *       new millisecond, so the ids generated by a thread are monotonic also in the same
+ *       millisecond
+ *   <li>2 bits of variant (10)
+ *   <li>62 random bits
+ * </ul>
+ *
+ * <p>The generator does not use any lock: the last timestamp and the counter are kept per thread,
+ * so the ids are strictly monotonic per thread, and unique across threads thanks to the random
+ * bits. When the counter overflows, or when the clock goes backwards, the thread keeps using its
+ * last timestamp increased by one millisecond, so its ids never go backwards.
+ */
+public class UuidV7Generator {
+
+  private static final long VERSION = 7L << 12;
+  private static final long VARIANT = 0x8000000000000000L;
+  private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+  private static final long TIMESTAMP_MASK = 0xFFFFFFFFFFFFL;
+  private static final int MAX_COUNTER = 0xFFF;
+
+  private final Clock clock;
+  private final ThreadLocal<State> threadState = ThreadLocal.withInitial(State::new);
+
+  public UuidV7Generator(Clock clock) {
+    this.clock = clock;
+  }
+
+  public UUID generate() {
+    State state = threadState.get();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long now = clock.millis();
+
+    if (now > state.lastMillis) {
+      state.lastMillis = now;
+      state.counter = random.nextInt(MAX_COUNTER / 2 + 1);
+    } else if (state.counter < MAX_COUNTER) {
+      state.counter++;
+    } else {
+      state.lastMillis++;
+      state.counter = random.nextInt(MAX_COUNTER / 2 + 1);
+    }
+
+    long mostSignificantBits =
+        ((state.lastMillis & TIMESTAMP_MASK) << 16) | VERSION | state.counter;
+    long leastSignificantBits = (random.nextLong() & RANDOM_MASK) | VARIANT;
+    return new UUID(mostSignificantBits, leastSignificantBits);
+  }
+
+  private static final class State {
+
+    private long lastMillis = Long.MIN_VALUE;
+    private int counter;
+  }
+}
@@ -0,0 +1,57 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.inject.Inject;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput;
+import graphql.kickstart.servlet.input.BatchInputPreProcessResult;
+import graphql.kickstart.servlet.input.BatchInputPreProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects with a 400 Bad Request the batched GraphQL requests containing more operations than the
+ * maximum batch size, before executing any of them. Each operation of an accepted batch is still
+ * subject to the limits of the {@link
+ * com.zextras.carbonio.tasks.graphql.instrumentations.QueryLimitsInstrumentation}.
+ */
+public class BatchSizeLimiter implements BatchInputPreProcessor {
+
+  private final int maxBatchSize;
+  private final Counter rejectedCounter;
+
+  @Inject
+  public BatchSizeLimiter(TasksConfig tasksConfig, MeterRegistry meterRegistry) {
+    this(tasksConfig.getGraphQLMaxBatchSize(), meterRegistry);
+  }
+
+  public BatchSizeLimiter(int maxBatchSize, MeterRegistry meterRegistry) {
+    this.maxBatchSize = maxBatchSize;
+    this.rejectedCounter =
+        Counter.builder(Metrics.GRAPHQL_LIMIT_REJECTED)
+            .description("The GraphQL operations rejected because exceeding a limit")
+            .tag("limit", "batch_size")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public BatchInputPreProcessResult preProcessBatch(
+      GraphQLBatchedInvocationInput batchedInvocationInput,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    if (batchedInvocationInput.getInvocationInputs().size() > maxBatchSize) {
+      rejectedCounter.increment();
+      return new BatchInputPreProcessResult(
+          HttpServletResponse.SC_BAD_REQUEST,
+          "The batch exceeds the limit of " + maxBatchSize + " operations");
+    }
+
+    return new BatchInputPreProcessResult(batchedInvocationInput);
+  }
+}
@@ -17,7 +17,10 @@ import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.graphql.datafetchers.DateTimeScalar;
 import com.zextras.carbonio.tasks.graphql.datafetchers.ServiceInfoDataFetcher;
 import com.zextras.carbonio.tasks.graphql.datafetchers.TaskDataFetchers;
+import com.zextras.carbonio.tasks.graphql.datafetchers.TaskResult;
 import com.zextras.carbonio.tasks.graphql.instrumentations.ContextInstrumentation;
+import com.zextras.carbonio.tasks.graphql.instrumentations.MetricsInstrumentation;
+import com.zextras.carbonio.tasks.graphql.instrumentations.QueryLimitsInstrumentation;
 import com.zextras.carbonio.tasks.graphql.validators.InputFieldsValidator;
 import graphql.execution.ResultPath;
 import graphql.execution.instrumentation.SimpleInstrumentation;
@@ -42,6 +45,11 @@ import java.io.Reader;
  *   <li>Create a {@link RuntimeWiring} to bind queries and mutations to the related data-fetchers
  *   <li>Create a {@link FieldValidationInstrumentation} to bind queries and mutations to the
  *       related validation logic to validate their inputs
+ *   <li>Provide the {@link QueryLimitsInstrumentation} and the {@link BatchSizeLimiter} rejecting
+ *       the operations and the batches too expensive to be executed
+ *   <li>Provide the {@link RequestContextBuilder} registering the data loaders of each request
+ *   <li>Provide the {@link MetricsInstrumentation} measuring the duration of each operation
+ *   <li>Provide the {@link PreparsedDocumentCache} caching the parsed and validated documents
  * </ul>
  */
 @Singleton
@@ -50,6 +58,11 @@ public class GraphQLProvider {
   private static final String SCHEMA_URL = "/api/schema.graphql";
 
   private final ContextInstrumentation contextInstrumentation;
+  private final MetricsInstrumentation metricsInstrumentation;
+  private final QueryLimitsInstrumentation queryLimitsInstrumentation;
+  private final BatchSizeLimiter batchSizeLimiter;
+  private final RequestContextBuilder requestContextBuilder;
+  private final PreparsedDocumentCache preparsedDocumentCache;
   private final ServiceInfoDataFetcher serviceInfoDataFetcher;
   private final TaskDataFetchers taskDataFetchers;
   private final InputFieldsValidator inputFieldsValidator;
@@ -57,11 +70,21 @@ public class GraphQLProvider {
   @Inject
   public GraphQLProvider(
       ContextInstrumentation contextInstrumentation,
+      MetricsInstrumentation metricsInstrumentation,
+      QueryLimitsInstrumentation queryLimitsInstrumentation,
+      BatchSizeLimiter batchSizeLimiter,
+      RequestContextBuilder requestContextBuilder,
+      PreparsedDocumentCache preparsedDocumentCache,
       ServiceInfoDataFetcher serviceInfoDataFetcher,
       TaskDataFetchers taskDataFetchers,
       InputFieldsValidator inputFieldsValidator) {
 
     this.contextInstrumentation = contextInstrumentation;
+    this.metricsInstrumentation = metricsInstrumentation;
+    this.queryLimitsInstrumentation = queryLimitsInstrumentation;
+    this.batchSizeLimiter = batchSizeLimiter;
+    this.requestContextBuilder = requestContextBuilder;
+    this.preparsedDocumentCache = preparsedDocumentCache;
     this.serviceInfoDataFetcher = serviceInfoDataFetcher;
     this.taskDataFetchers = taskDataFetchers;
     this.inputFieldsValidator = inputFieldsValidator;
@@ -79,7 +102,25 @@ public class GraphQLProvider {
                 inputFieldsValidator.upsertTaskValidator(Inputs.NEW_TASK))
             .addRule(
                 ResultPath.parse("/" + Mutations.UPDATE_TASK),
-                inputFieldsValidator.upsertTaskValidator(Inputs.UPDATE_TASK));
+                inputFieldsValidator.upsertTaskValidator(Inputs.UPDATE_TASK))
+            .addRule(
+                ResultPath.parse("/" + Mutations.CREATE_TASKS),
+                inputFieldsValidator.bulkUpsertTasksValidator(Inputs.NEW_TASKS))
+            .addRule(
+                ResultPath.parse("/" + Mutations.UPDATE_TASKS),
+                inputFieldsValidator.bulkUpsertTasksValidator(Inputs.UPDATE_TASKS))
+            .addRule(
+                ResultPath.parse("/" + Mutations.TRASH_TASKS),
+                inputFieldsValidator.bulkSizeValidator(Inputs.TASK_IDS))
+            .addRule(
+                ResultPath.parse("/" + Queries.FIND_TASKS),
+                inputFieldsValidator.paginationValidator())
+            .addRule(
+                ResultPath.parse("/" + Queries.SEARCH_TASKS),
+                inputFieldsValidator.searchValidator())
+            .addRule(
+                ResultPath.parse("/" + Queries.TASK_CHANGES),
+                inputFieldsValidator.changesValidator());
 
     return new FieldValidationInstrumentation(fieldValidation);
   }
@@ -88,6 +129,46 @@ public class GraphQLProvider {
     return contextInstrumentation;
   }
 
+  /**
+   * @return a {@link MetricsInstrumentation} necessary to measure the duration of each GraphQL
+   *     operation
+   */
+  public SimpleInstrumentation getMetricsInstrumentation() {
+    return metricsInstrumentation;
+  }
+
+  /**
+   * @return a {@link QueryLimitsInstrumentation} necessary to reject the operations exceeding the
+   *     configured limits before executing them
+   */
+  public QueryLimitsInstrumentation getQueryLimitsInstrumentation() {
+    return queryLimitsInstrumentation;
+  }
+
+  /**
+   * @return a {@link BatchSizeLimiter} necessary to reject the batched requests containing too many
+   *     operations
+   */
+  public BatchSizeLimiter getBatchSizeLimiter() {
+    return batchSizeLimiter;
+  }
+
+  /**
+   * @return a {@link RequestContextBuilder} necessary to register the data loaders of the requester
+   *     in the context of each request
+   */
+  public RequestContextBuilder getRequestContextBuilder() {
+    return requestContextBuilder;
+  }
+
+  /**
+   * @return a {@link PreparsedDocumentCache} necessary to skip the parsing and the validation of
+   *     the documents already executed, and to resolve the persisted queries
+   */
+  public PreparsedDocumentCache getPreparsedDocumentCache() {
+    return preparsedDocumentCache;
+  }
+
   /**
    * Creates a {@link RuntimeWiring} object binding:
    *
@@ -95,6 +176,7 @@ public class GraphQLProvider {
    *   <li>The DateTime GraphQL scalar to the {@link DateTimeScalar} object
    *   <li>The {@link Types#PRIORITY} to the related enumerator
    *   <li>The {@link Types#STATUS} to the related enumerator
+   *   <li>The fields of the {@link Types#TASK} to the data fetchers of the {@link TaskResult}
    *   <li>The queries and the mutations to the related {@link DataFetcher}s.
    * </ul>
    *
@@ -105,16 +187,22 @@ public class GraphQLProvider {
         .scalar(new DateTimeScalar().graphQLScalarType())
         .type(newTypeWiring(Types.PRIORITY).enumValues(Priority::valueOf))
         .type(newTypeWiring(Types.STATUS).enumValues(Status::valueOf))
+        .type(newTypeWiring(Types.TASK).dataFetchers(TaskResult.getFieldDataFetchers()))
         .type(
             newTypeWiring("Query")
                 .dataFetcher(Queries.GET_SERVICE_INFO, serviceInfoDataFetcher)
                 .dataFetcher(Queries.GET_TASK, taskDataFetchers.getTask())
-                .dataFetcher(Queries.FIND_TASKS, taskDataFetchers.findTasks()))
+                .dataFetcher(Queries.FIND_TASKS, taskDataFetchers.findTasks())
+                .dataFetcher(Queries.SEARCH_TASKS, taskDataFetchers.searchTasks())
+                .dataFetcher(Queries.TASK_CHANGES, taskDataFetchers.taskChanges()))
         .type(
             newTypeWiring("Mutation")
                 .dataFetcher(Mutations.CREATE_TASK, taskDataFetchers.createTask())
                 .dataFetcher(Mutations.UPDATE_TASK, taskDataFetchers.updateTask())
-                .dataFetcher(Mutations.TRASH_TASK, taskDataFetchers.trashTask()))
+                .dataFetcher(Mutations.TRASH_TASK, taskDataFetchers.trashTask())
+                .dataFetcher(Mutations.CREATE_TASKS, taskDataFetchers.createTasks())
+                .dataFetcher(Mutations.UPDATE_TASKS, taskDataFetchers.updateTasks())
+                .dataFetcher(Mutations.TRASH_TASKS, taskDataFetchers.trashTasks()))
         .build();
   }
 
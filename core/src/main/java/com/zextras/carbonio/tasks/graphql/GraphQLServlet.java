@@ -5,6 +5,7 @@
 package com.zextras.carbonio.tasks.graphql;
 
 import com.google.inject.Inject;
+import com.zextras.carbonio.tasks.config.TasksConfig;
 import graphql.kickstart.execution.GraphQLQueryInvoker;
 import graphql.kickstart.servlet.GraphQLConfiguration;
 import graphql.kickstart.servlet.GraphQLHttpServlet;
@@ -17,16 +18,29 @@ import java.util.Arrays;
  * <ul>
  *   <li>The GraphQL SDL schema loaded from resources
  *   <li>The Wiring to bind the queries and mutations to the related data-fetchers
+ *   <li>An instrumentation rejecting the operations exceeding the configured limits, and a limit
+ *       on the size of the batches
  *   <li>An instrumentation necessary for the input validation
+ *   <li>A context builder registering a new set of data loaders for each request, and the parser
+ *       options limiting the number of tokens of its document
+ *   <li>An instrumentation measuring the duration of each operation
+ *   <li>A cache of the parsed and validated documents, resolving the persisted queries too
  * </ul>
+ *
+ * <p>The requests are executed asynchronously when the whole filter chain supports it: the request
+ * thread is released as soon as the execution starts, and the response is written by the thread
+ * completing the execution, usually one of the data fetchers. A request not completed within the
+ * configured timeout is completed with an error.
  */
 public class GraphQLServlet extends GraphQLHttpServlet {
 
   private final GraphQLProvider graphQLProvider;
+  private final TasksConfig tasksConfig;
 
   @Inject
-  public GraphQLServlet(GraphQLProvider graphQLProvider) {
+  public GraphQLServlet(GraphQLProvider graphQLProvider, TasksConfig tasksConfig) {
     this.graphQLProvider = graphQLProvider;
+    this.tasksConfig = tasksConfig;
   }
 
   /**
@@ -40,10 +54,18 @@ public class GraphQLServlet extends GraphQLHttpServlet {
         GraphQLQueryInvoker.newBuilder()
             .with(
                 Arrays.asList(
+                    graphQLProvider.getQueryLimitsInstrumentation(),
                     graphQLProvider.buildValidationInstrumentation(),
-                    graphQLProvider.getContextInstrumentation()))
+                    graphQLProvider.getContextInstrumentation(),
+                    graphQLProvider.getMetricsInstrumentation()))
+            .withPreparsedDocumentProvider(graphQLProvider.getPreparsedDocumentCache())
             .build();
 
-    return GraphQLConfiguration.with(graphQLProvider.buildSchema()).with(queryInvoker).build();
+    return GraphQLConfiguration.with(graphQLProvider.buildSchema())
+        .with(queryInvoker)
+        .with(graphQLProvider.getRequestContextBuilder())
+        .with(graphQLProvider.getBatchSizeLimiter())
+        .asyncTimeout(tasksConfig.getGraphQLAsyncTimeout().toMillis())
+        .build();
   }
 }
@@ -0,0 +1,163 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.zextras.carbonio.tasks.Constants.GraphQL.PersistedQueries;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caches the GraphQL documents already parsed and validated against the schema, so the few
+ * operations sent by the clients over and over are parsed and validated only once per node.
+ *
+ * <p>The documents are identified by the SHA-256 hash of their text, which makes this cache also
+ * the store of the Automatic Persisted Queries: a client can send the hash in the {@code
+ * extensions.persistedQuery.sha256Hash} field of the request instead of the whole document. If the
+ * hash is unknown the request fails with a {@value PersistedQueries#NOT_FOUND} error, and the
+ * client has to send it again with the document too. Since the query of a request is mandatory, a
+ * request carrying only the hash must send an empty query or the {@value
+ * PersistedQueries#MARKER}.
+ *
+ * <p>Only the valid documents are cached: the ones with syntax or validation errors are parsed
+ * again at every request, so they cannot evict the operations of the clients. When an allowlist of
+ * hashes is configured, every document whose hash is not in the list is rejected without being
+ * parsed.
+ *
+ * <p>The hits, the misses and the size of the cache, and the rejected persisted queries, are
+ * exposed in the given {@link MeterRegistry}.
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+  private final Set<String> allowlist;
+  private final Cache<String, PreparsedDocumentEntry> cache;
+  private final MeterRegistry meterRegistry;
+
+  public PreparsedDocumentCache(long maxSize, Set<String> allowlist, MeterRegistry meterRegistry) {
+    this.allowlist = allowlist;
+    this.meterRegistry = meterRegistry;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+
+    FunctionCounter.builder(
+            Metrics.DOCUMENT_CACHE_REQUESTS, this, PreparsedDocumentCache::getHitCount)
+        .description("The GraphQL documents served by the cache")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder(
+            Metrics.DOCUMENT_CACHE_REQUESTS, this, PreparsedDocumentCache::getMissCount)
+        .description("The GraphQL documents parsed and validated because not in cache")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder(Metrics.DOCUMENT_CACHE_SIZE, this, PreparsedDocumentCache::getSize)
+        .description("The number of parsed and validated GraphQL documents in cache")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  /** @return the ratio between the documents served by the cache and all the documents */
+  public double getHitRate() {
+    return cache.stats().hitRate();
+  }
+
+  public long getSize() {
+    return cache.size();
+  }
+
+  private PreparsedDocumentEntry getDocument(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    String query = executionInput.getQuery();
+    boolean hasQuery = !query.isBlank() && !PersistedQueries.MARKER.equals(query);
+    Optional<String> requestedHash = getPersistedQueryHash(executionInput);
+
+    if (!hasQuery && requestedHash.isEmpty()) {
+      return parseAndValidateFunction.apply(executionInput);
+    }
+
+    String hash = hasQuery ? sha256(query) : requestedHash.get();
+
+    if (hasQuery && requestedHash.isPresent() && !requestedHash.get().equals(hash)) {
+      return reject(PersistedQueries.INVALID_HASH, PersistedQueries.INVALID_HASH_CODE);
+    }
+
+    if (!allowlist.isEmpty() && !allowlist.contains(hash)) {
+      return reject(PersistedQueries.NOT_ALLOWED, PersistedQueries.NOT_ALLOWED_CODE);
+    }
+
+    PreparsedDocumentEntry cachedEntry = cache.getIfPresent(hash);
+    if (cachedEntry != null) {
+      return cachedEntry;
+    }
+
+    if (!hasQuery) {
+      return reject(PersistedQueries.NOT_FOUND, PersistedQueries.NOT_FOUND_CODE);
+    }
+
+    PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+    if (!entry.hasErrors()) {
+      cache.put(hash, entry);
+    }
+    return entry;
+  }
+
+  private PreparsedDocumentEntry reject(String message, String code) {
+    Counter.builder(Metrics.PERSISTED_QUERIES_REJECTED)
+        .description("The GraphQL requests rejected by the persisted queries")
+        .tag("reason", code.toLowerCase(Locale.ROOT))
+        .register(meterRegistry)
+        .increment();
+
+    return new PreparsedDocumentEntry(
+        GraphqlErrorBuilder.newError()
+            .message(message)
+            .errorType(ErrorType.ValidationError)
+            .extensions(Map.of(PersistedQueries.ERROR_CODE, code))
+            .build());
+  }
+
+  private static Optional<String> getPersistedQueryHash(ExecutionInput executionInput) {
+    return Optional.ofNullable(executionInput.getExtensions())
+        .map(extensions -> extensions.get(PersistedQueries.EXTENSION))
+        .filter(Map.class::isInstance)
+        .map(persistedQuery -> ((Map<?, ?>) persistedQuery).get(PersistedQueries.SHA256_HASH))
+        .filter(String.class::isInstance)
+        .map(hash -> ((String) hash).toLowerCase(Locale.ROOT));
+  }
+
+  private static String sha256(String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+}
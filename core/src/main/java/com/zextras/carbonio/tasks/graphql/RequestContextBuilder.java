@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
+import com.zextras.carbonio.tasks.Constants.GraphQL.DataLoaders;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.graphql.instrumentations.QueryLimitsInstrumentation;
+import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import graphql.kickstart.servlet.context.DefaultGraphQLServletContextBuilder;
+import graphql.parser.ParserOptions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Builds the context of each GraphQL request. Other than the http request and response, the
+ * context contains a {@link DataLoaderRegistry} with the {@link DataLoader}s of the requester.
+ *
+ * <p>The registry is created for every request because the loaders cache the fetched elements and
+ * are bound to the requester: all the lookups of a task made while executing a document are
+ * collected and resolved with a single query.
+ *
+ * <p>The context contains also the {@link ParserOptions} of the request, limiting the number of
+ * tokens of the document: the parser reads them from the context, so the default options of the
+ * JVM are left untouched.
+ */
+@Singleton
+public class RequestContextBuilder extends DefaultGraphQLServletContextBuilder {
+
+  private final TaskRepository taskRepository;
+  private final DataFetcherExecutor dataFetcherExecutor;
+  private final ParserOptions parserOptions;
+
+  @Inject
+  public RequestContextBuilder(
+      TaskRepository taskRepository,
+      DataFetcherExecutor dataFetcherExecutor,
+      QueryLimitsInstrumentation queryLimitsInstrumentation) {
+    this.taskRepository = taskRepository;
+    this.dataFetcherExecutor = dataFetcherExecutor;
+    this.parserOptions = queryLimitsInstrumentation.getParserOptions();
+  }
+
+  @Override
+  public GraphQLKickstartContext build(HttpServletRequest request, HttpServletResponse response) {
+    Map<Object, Object> context = new HashMap<>();
+    context.put(HttpServletRequest.class, request);
+    context.put(HttpServletResponse.class, response);
+    context.put(ParserOptions.class, parserOptions);
+
+    DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+    UUID requesterId = (UUID) request.getAttribute(Context.REQUESTER_ID);
+
+    if (requesterId != null) {
+      dataLoaderRegistry.register(DataLoaders.TASK, buildTaskDataLoader(requesterId));
+    }
+
+    return GraphQLKickstartContext.of(dataLoaderRegistry, context);
+  }
+
+  /**
+   * @param userId is the identifier of the requester
+   * @return a {@link DataLoader} that fetches the tasks of the requester by their identifier. The
+   *     identifiers of tasks not found are resolved with a null value.
+   */
+  DataLoader<UUID, Task> buildTaskDataLoader(UUID userId) {
+    return DataLoaderFactory.newMappedDataLoader(
+        taskIds ->
+            CompletableFuture.supplyAsync(
+                () ->
+                    taskRepository.getTasksByIds(taskIds, userId).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity())),
+                dataFetcherExecutor));
+  }
+}
@@ -0,0 +1,379 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.zextras.carbonio.tasks.Constants.GraphQL;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Queries;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents a {@link HttpServlet} streaming all the tasks of the requester matching the filters
+ * of the findTasks query, without paginating them. The response has the same format of the
+ * findTasks GraphQL response ({@code {"data":{"findTasks":[...]}}}), so the clients can parse it
+ * in the same way, but the result is never built in memory: the tasks are read from the database
+ * in keyset pages of the configured fetch size, and each page is written to the output stream with
+ * a {@link JsonGenerator} before the next one is read. The memory used by a request is then bounded
+ * by the fetch size and by the response buffer, whatever the number of tasks returned.
+ *
+ * <p>Each page is read by a short query run on the {@link DataFetcherExecutor}, like the queries
+ * of the GraphQL data fetchers, so the streams share their bounds on the database connections and
+ * no connection is held while a page is written to a slow client. The streams served at the same
+ * time are limited as well, since each one holds a server thread until its end: the requests over
+ * the limit, or finding the executor queue full, are rejected with a 503 Service Unavailable.
+ *
+ * <p>The request accepts the optional {@value Inputs#STATUS} and {@value Inputs#PRIORITY}
+ * parameters, with the same values of the findTasks arguments, and the {@value Inputs#FIELDS}
+ * parameter: a comma separated list of the fields of the GraphQL Task type to return. If it is
+ * missing all the fields are returned, except the cursor.
+ *
+ * <p>Once the first tasks are sent the status of the response cannot change anymore: if the
+ * stream fails midway the response is truncated and its JSON is not valid, so the client cannot
+ * mistake it for a complete result.
+ */
+public class TasksStreamServlet extends HttpServlet {
+
+  private static final Logger logger = LoggerFactory.getLogger(TasksStreamServlet.class);
+
+  /**
+   * The missing closing tokens must not be written when the generator is closed after a failure,
+   * otherwise a truncated stream would look like a complete result.
+   */
+  private static final JsonFactory JSON_FACTORY =
+      new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+  /** Writers of the fields of the GraphQL Task type, in the order of the default fields. */
+  private static final Map<String, FieldWriter> FIELD_WRITERS =
+      ImmutableMap.<String, FieldWriter>builder()
+          .put(
+              GraphQL.Task.ID,
+              (generator, task) -> generator.writeString(task.getId().toString()))
+          .put(GraphQL.Task.TITLE, (generator, task) -> generator.writeString(task.getTitle()))
+          .put(
+              GraphQL.Task.DESCRIPTION,
+              (generator, task) -> generator.writeString(task.getDescription().orElse(null)))
+          .put(
+              GraphQL.Task.PRIORITY,
+              (generator, task) -> generator.writeString(task.getPriority().name()))
+          .put(
+              GraphQL.Task.STATUS,
+              (generator, task) -> generator.writeString(task.getStatus().name()))
+          .put(
+              GraphQL.Task.CREATED_AT,
+              (generator, task) -> generator.writeNumber(task.getCreatedAt().toEpochMilli()))
+          .put(GraphQL.Task.REMINDER_AT, TasksStreamServlet::writeReminderAt)
+          .put(GraphQL.Task.REMINDER_ALL_DAY, TasksStreamServlet::writeReminderAllDay)
+          .put(
+              GraphQL.Task.CURSOR,
+              (generator, task) -> generator.writeString(TaskCursor.of(task).encode()))
+          .build();
+
+  private static final List<String> DEFAULT_FIELDS =
+      FIELD_WRITERS.keySet().stream()
+          .filter(field -> !GraphQL.Task.CURSOR.equals(field))
+          .collect(ImmutableList.toImmutableList());
+
+  private final TaskRepository taskRepository;
+  private final DataFetcherExecutor dataFetcherExecutor;
+  private final int fetchSize;
+  private final Semaphore streamPermits;
+  private final MeterRegistry meterRegistry;
+  private final Counter streamedTasksCounter;
+
+  @Inject
+  public TasksStreamServlet(
+      TaskRepository taskRepository,
+      DataFetcherExecutor dataFetcherExecutor,
+      TasksConfig tasksConfig,
+      MeterRegistry meterRegistry) {
+    this(
+        taskRepository,
+        dataFetcherExecutor,
+        tasksConfig.getTasksStreamFetchSize(),
+        tasksConfig.getTasksStreamMaxConcurrent(),
+        meterRegistry);
+  }
+
+  public TasksStreamServlet(
+      TaskRepository taskRepository,
+      DataFetcherExecutor dataFetcherExecutor,
+      int fetchSize,
+      int maxConcurrentStreams,
+      MeterRegistry meterRegistry) {
+    this.taskRepository = taskRepository;
+    this.dataFetcherExecutor = dataFetcherExecutor;
+    this.fetchSize = fetchSize;
+    this.streamPermits = new Semaphore(maxConcurrentStreams);
+    this.meterRegistry = meterRegistry;
+    this.streamedTasksCounter =
+        Counter.builder(Metrics.TASKS_STREAM_TASKS)
+            .description("The tasks written by the tasks streams")
+            .register(meterRegistry);
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    UUID requesterId = (UUID) request.getAttribute(Context.REQUESTER_ID);
+    Priority priority;
+    Status status;
+    List<String> fields;
+
+    try {
+      priority = parseEnum(Priority.class, request.getParameter(Inputs.PRIORITY));
+      status = parseEnum(Status.class, request.getParameter(Inputs.STATUS));
+      fields = parseFields(request.getParameter(Inputs.FIELDS));
+    } catch (IllegalArgumentException exception) {
+      logger.debug("Invalid request to stream the tasks: {}", exception.getMessage());
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, exception.getMessage());
+      return;
+    }
+
+    if (!streamPermits.tryAcquire()) {
+      logger.debug("Too many concurrent streams: the request of {} is rejected", requesterId);
+      recordRequest("rejected", 0L);
+      response.sendError(
+          HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent tasks streams");
+      return;
+    }
+
+    long start = System.nanoTime();
+    String outcome = "error";
+    try {
+      outcome = stream(requesterId, priority, status, fields, response);
+    } finally {
+      streamPermits.release();
+      recordRequest(outcome, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Writes the matching tasks page by page. The first page is read before writing anything, so a
+   * failure to read it can still be reported with an error status.
+   *
+   * @return the outcome of the stream to record in the metrics
+   */
+  private String stream(
+      UUID requesterId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      List<String> fields,
+      HttpServletResponse response)
+      throws IOException {
+    Set<String> attributes = getAttributes(fields);
+    List<Task> page;
+
+    try {
+      page = readPage(requesterId, priority, status, attributes, null);
+    } catch (RejectedExecutionException exception) {
+      logger.debug("Unable to stream the tasks: {}", exception.getMessage());
+      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exception.getMessage());
+      return "rejected";
+    }
+
+    List<FieldWriter> fieldWriters = new ArrayList<>(fields.size());
+    fields.forEach(field -> fieldWriters.add(FIELD_WRITERS.get(field)));
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType("application/json");
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    try (JsonGenerator generator =
+        JSON_FACTORY.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeObjectFieldStart("data");
+      generator.writeArrayFieldStart(Queries.FIND_TASKS);
+
+      while (true) {
+        for (Task task : page) {
+          writeTask(generator, task, fields, fieldWriters);
+        }
+        streamedTasksCounter.increment(page.size());
+
+        if (page.size() < fetchSize) {
+          break;
+        }
+        // The connection used to read a page is back in the pool while the page is sent, so a
+        // slow client only holds its own server thread
+        generator.flush();
+        TaskCursor after = TaskCursor.of(page.get(page.size() - 1));
+        page = readPage(requesterId, priority, status, attributes, after);
+      }
+
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndObject();
+    }
+    return "success";
+  }
+
+  /**
+   * Reads a page of tasks on the {@link DataFetcherExecutor} and waits for it.
+   *
+   * @throws RejectedExecutionException if the executor has too many pending operations
+   */
+  private List<Task> readPage(
+      UUID requesterId,
+      @Nullable Priority priority,
+      @Nullable Status status,
+      Set<String> attributes,
+      @Nullable TaskCursor after) {
+    try {
+      return CompletableFuture.supplyAsync(
+              () ->
+                  taskRepository.getTasks(
+                      requesterId, priority, status, fetchSize, after, attributes),
+              dataFetcherExecutor)
+          .join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw exception;
+    }
+  }
+
+  private void recordRequest(String outcome, long durationNanos) {
+    Timer.builder(Metrics.TASKS_STREAM_REQUEST)
+        .description("The duration of the tasks streams")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static void writeTask(
+      JsonGenerator generator, Task task, List<String> fields, List<FieldWriter> fieldWriters)
+      throws IOException {
+    generator.writeStartObject();
+    for (int index = 0; index < fields.size(); index++) {
+      generator.writeFieldName(fields.get(index));
+      fieldWriters.get(index).write(generator, task);
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeReminderAt(JsonGenerator generator, Task task) throws IOException {
+    Instant reminderAt = task.getReminderAt().orElse(null);
+
+    if (reminderAt == null) {
+      generator.writeNull();
+    } else {
+      generator.writeNumber(reminderAt.toEpochMilli());
+    }
+  }
+
+  /** The reminderAllDay is returned only if the reminderAt is set, and it is false by default. */
+  private static void writeReminderAllDay(JsonGenerator generator, Task task) throws IOException {
+    if (task.getReminderAt().isPresent()) {
+      generator.writeBoolean(task.getReminderAllDay().orElse(false));
+    } else {
+      generator.writeNull();
+    }
+  }
+
+  /**
+   * @return the requested fields in the given order, or all the default fields if the parameter is
+   *     missing
+   * @throws IllegalArgumentException if a field is not a field of the GraphQL Task type
+   */
+  private static List<String> parseFields(@Nullable String fieldsParameter) {
+    if (fieldsParameter == null || fieldsParameter.isBlank()) {
+      return DEFAULT_FIELDS;
+    }
+
+    List<String> fields = new ArrayList<>();
+    for (String field : fieldsParameter.split(",")) {
+      String trimmedField = field.trim();
+
+      if (!FIELD_WRITERS.containsKey(trimmedField)) {
+        throw new IllegalArgumentException("Unknown task field " + trimmedField);
+      }
+      if (!fields.contains(trimmedField)) {
+        fields.add(trimmedField);
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * @return the {@link Task} attributes to load to write the given fields. The identifier and the
+   *     creation date are always loaded since the pages, like the cursor field, are built on them,
+   *     and the reminderAllDay is returned only if the reminderAt is set
+   */
+  private static Set<String> getAttributes(List<String> fields) {
+    Set<String> attributes = new HashSet<>(fields);
+    attributes.remove(GraphQL.Task.CURSOR);
+    attributes.add(GraphQL.Task.ID);
+    attributes.add(GraphQL.Task.CREATED_AT);
+
+    if (attributes.contains(GraphQL.Task.REMINDER_ALL_DAY)) {
+      attributes.add(GraphQL.Task.REMINDER_AT);
+    }
+    return attributes;
+  }
+
+  /**
+   * @return the constant of the given enum having the given name, or null if the name is missing
+   * @throws IllegalArgumentException if the name is not a constant of the enum
+   */
+  @Nullable
+  private static <T extends Enum<T>> T parseEnum(Class<T> enumType, @Nullable String name) {
+    if (name == null || name.isBlank()) {
+      return null;
+    }
+
+    try {
+      return Enum.valueOf(enumType, name);
+    } catch (IllegalArgumentException exception) {
+      throw new IllegalArgumentException(
+          "Invalid " + enumType.getSimpleName().toLowerCase(Locale.ROOT) + " " + name, exception);
+    }
+  }
+
+  @FunctionalInterface
+  private interface FieldWriter {
+
+    void write(JsonGenerator generator, Task task) throws IOException;
+  }
+}
@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the {@link Executor} running the blocking operations of the GraphQL data fetchers.
+ * It is a fixed pool of platform threads with a bounded queue, so the data fetchers do not starve
+ * the {@link java.util.concurrent.ForkJoinPool#commonPool()} and the pending operations cannot
+ * grow without limits.
+ *
+ * <p>The pool should be as big as the database connection pool: more threads would only wait for
+ * a free connection. When the queue is full the operation is rejected with a {@link
+ * RejectedExecutionException} and it is counted in the {@link #getRejectedCount()}.
+ */
+public class DataFetcherExecutor implements Executor {
+
+  private static final String THREAD_NAME_PREFIX = "data-fetcher-";
+
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private final ThreadPoolExecutor threadPoolExecutor;
+
+  public DataFetcherExecutor(int poolSize, int queueCapacity) {
+    AtomicInteger threadCounter = new AtomicInteger();
+
+    this.threadPoolExecutor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, THREAD_NAME_PREFIX + threadCounter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            (runnable, executor) -> {
+              rejectedCount.incrementAndGet();
+              throw new RejectedExecutionException(
+                  "Unable to run the data fetcher: too many pending operations");
+            });
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    threadPoolExecutor.execute(command);
+  }
+
+  public int getPoolSize() {
+    return threadPoolExecutor.getMaximumPoolSize();
+  }
+
+  /** @return the number of threads running an operation */
+  public int getActiveCount() {
+    return threadPoolExecutor.getActiveCount();
+  }
+
+  /** @return the number of operations waiting for a free thread */
+  public int getQueueSize() {
+    return threadPoolExecutor.getQueue().size();
+  }
+
+  /** @return the number of operations rejected since the creation of the executor */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  /**
+   * Stops accepting new operations and waits, for the given time, the end of the pending ones.
+   *
+   * @param timeout is the maximum time to wait
+   * @param unit is the {@link TimeUnit} of the timeout
+   */
+  public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+    threadPoolExecutor.shutdown();
+    threadPoolExecutor.awaitTermination(timeout, unit);
+  }
+}
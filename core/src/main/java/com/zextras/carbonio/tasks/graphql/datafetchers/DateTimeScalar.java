@@ -13,6 +13,7 @@ import graphql.schema.CoercingParseLiteralException;
 import graphql.schema.CoercingParseValueException;
 import graphql.schema.CoercingSerializeException;
 import graphql.schema.GraphQLScalarType;
+import java.time.Instant;
 
 /**
  * {@inheritDoc}
@@ -34,6 +35,11 @@ public class DateTimeScalar implements Coercing<Long, Long> {
       return (Long) input;
     }
 
+    // The data fetchers return the dates of the tasks as they are stored
+    if (input instanceof Instant) {
+      return ((Instant) input).toEpochMilli();
+    }
+
     if (input instanceof String) {
       try {
         return Long.valueOf(((String) input));
@@ -8,201 +8,555 @@ import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.zextras.carbonio.tasks.Constants.GraphQL;
 import com.zextras.carbonio.tasks.Constants.GraphQL.Context;
+import com.zextras.carbonio.tasks.Constants.GraphQL.DataLoaders;
 import com.zextras.carbonio.tasks.Constants.GraphQL.ErrorMessages;
 import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs;
 import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs.TaskInput;
+import com.zextras.carbonio.tasks.Constants.GraphQL.TaskChangeSet;
+import com.zextras.carbonio.tasks.config.TasksConfig;
 import com.zextras.carbonio.tasks.dal.dao.Priority;
 import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.NewTask;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
+import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import jakarta.annotation.Nullable;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
 
 public class TaskDataFetchers {
 
+  private static final Set<String> TASK_ATTRIBUTES =
+      Set.of(
+          GraphQL.Task.ID,
+          GraphQL.Task.TITLE,
+          GraphQL.Task.DESCRIPTION,
+          GraphQL.Task.PRIORITY,
+          GraphQL.Task.STATUS,
+          GraphQL.Task.CREATED_AT,
+          GraphQL.Task.REMINDER_AT,
+          GraphQL.Task.REMINDER_ALL_DAY);
+
+  /**
+   * The changes of the last seconds are not returned by the taskChanges query yet: the change date
+   * is set before the write is committed, so a change could become visible after a more recent
+   * one and then be skipped by the watermark. The delay covers the short transactions of the
+   * repository and a small clock skew between the nodes.
+   */
+  private static final Duration CHANGES_SETTLE_TIME = Duration.ofSeconds(5);
+
   private final TaskRepository taskRepository;
+  private final DataFetcherExecutor dataFetcherExecutor;
+  private final Clock clock;
+  private final Duration trashRetention;
 
   @Inject
-  public TaskDataFetchers(TaskRepository taskRepository) {
+  public TaskDataFetchers(
+      TaskRepository taskRepository,
+      DataFetcherExecutor dataFetcherExecutor,
+      Clock clock,
+      TasksConfig tasksConfig) {
+    this(taskRepository, dataFetcherExecutor, clock, tasksConfig.getTrashPurgeRetention());
+  }
+
+  public TaskDataFetchers(
+      TaskRepository taskRepository,
+      DataFetcherExecutor dataFetcherExecutor,
+      Clock clock,
+      Duration trashRetention) {
     this.taskRepository = taskRepository;
+    this.dataFetcherExecutor = dataFetcherExecutor;
+    this.clock = clock;
+    this.trashRetention = trashRetention;
   }
 
-  public DataFetcher<CompletableFuture<DataFetcherResult<Map<String, Object>>>> createTask() {
+  public DataFetcher<CompletableFuture<DataFetcherResult<TaskResult>>> createTask() {
     return environment ->
         CompletableFuture.supplyAsync(
             () -> {
-              String userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
               Map<String, Object> newTask = environment.getArgument(Inputs.NEW_TASK);
 
-              String title = (String) newTask.get(TaskInput.TITLE);
-              String description = (String) newTask.get(TaskInput.DESCRIPTION);
-              Priority priority = (Priority) newTask.get(TaskInput.PRIORITY);
-              Status status = (Status) newTask.get(TaskInput.STATUS);
-              // If the reminderAt is zero then it is considered as null because the reset of a
-              // reminder during a creation of a task has any sense
-              Long reminderAt = (Long) newTask.get(TaskInput.REMINDER_AT);
-              Boolean reminderAllDay = (Boolean) newTask.get(TaskInput.REMINDER_ALL_DAY);
+              NewTask taskToCreate = convertMapToNewTask(newTask);
 
               Task createdTask =
                   taskRepository.createTask(
                       userId,
-                      title,
-                      description,
-                      priority == null ? Priority.MEDIUM : priority,
-                      status == null ? Status.OPEN : status,
-                      reminderAt == null || reminderAt == Inputs.REMINDER_AT_RESET_VALUE
-                          ? null
-                          : Instant.ofEpochMilli(reminderAt),
-                      reminderAllDay);
-
-              return DataFetcherResult.<Map<String, Object>>newResult()
-                  .data(convertTaskToMap(createdTask))
+                      taskToCreate.getTitle(),
+                      taskToCreate.getDescription().orElse(null),
+                      taskToCreate.getPriority(),
+                      taskToCreate.getStatus(),
+                      taskToCreate.getReminderAt().orElse(null),
+                      taskToCreate.getReminderAllDay().orElse(null));
+
+              return DataFetcherResult.<TaskResult>newResult()
+                  .data(new TaskResult(createdTask))
                   .build();
-            });
+            },
+            dataFetcherExecutor);
   }
 
-  public DataFetcher<CompletableFuture<DataFetcherResult<Map<String, Object>>>> updateTask() {
+  public DataFetcher<CompletableFuture<DataFetcherResult<TaskResult>>> updateTask() {
     return environment ->
         CompletableFuture.supplyAsync(
             () -> {
-              String userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
               Map<String, Object> updateTask = environment.getArgument(Inputs.UPDATE_TASK);
               String taskId = (String) updateTask.get(TaskInput.ID);
-              Optional<Task> optTask = taskRepository.getTask(UUID.fromString(taskId), userId);
-
-              if (optTask.isEmpty()) {
-                return DataFetcherResult.<Map<String, Object>>newResult()
-                    .error(
-                        GraphqlErrorBuilder.newError()
-                            .message(String.format(ErrorMessages.TASK_NOT_FOUND, taskId))
-                            .build())
-                    .build();
+
+              TaskChanges changes = convertMapToTaskChanges(updateTask, new TaskChanges());
+
+              return taskRepository
+                  .updateTask(UUID.fromString(taskId), userId, changes)
+                  .map(
+                      updatedTask ->
+                          DataFetcherResult.<TaskResult>newResult()
+                              .data(new TaskResult(updatedTask))
+                              .build())
+                  .orElse(
+                      DataFetcherResult.<TaskResult>newResult()
+                          .error(buildTaskNotFoundError(taskId))
+                          .build());
+            },
+            dataFetcherExecutor);
+  }
+
+  public DataFetcher<CompletableFuture<List<TaskResult>>> createTasks() {
+    return environment ->
+        CompletableFuture.supplyAsync(
+            () -> {
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              List<Map<String, Object>> newTasks = environment.getArgument(Inputs.NEW_TASKS);
+
+              List<NewTask> tasksToCreate =
+                  newTasks.stream()
+                      .map(TaskDataFetchers::convertMapToNewTask)
+                      .collect(Collectors.toList());
+
+              return taskRepository.createTasks(userId, tasksToCreate).stream()
+                  .map(TaskResult::new)
+                  .collect(Collectors.toList());
+            },
+            dataFetcherExecutor);
+  }
+
+  /**
+   * Updates all the requested tasks with conditional statements sent in batches, without reading
+   * them first. The result contains an element for each input in the same order: if a task does
+   * not exist its element is null and a related error is returned, without affecting the other
+   * tasks.
+   */
+  public DataFetcher<CompletableFuture<DataFetcherResult<List<TaskResult>>>> updateTasks() {
+    return environment ->
+        CompletableFuture.supplyAsync(
+            () -> {
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              List<Map<String, Object>> updateTasks = environment.getArgument(Inputs.UPDATE_TASKS);
+
+              // The changes of a task requested more than once are merged, so the task is
+              // returned with the state of its last update
+              Map<UUID, TaskChanges> changesByTaskId = new LinkedHashMap<>();
+              for (Map<String, Object> updateTask : updateTasks) {
+                UUID taskId = parseTaskId((String) updateTask.get(TaskInput.ID));
+
+                if (taskId != null) {
+                  convertMapToTaskChanges(
+                      updateTask, changesByTaskId.computeIfAbsent(taskId, id -> new TaskChanges()));
+                }
               }
 
-              Task taskToUpdate = optTask.get();
-
-              String title = (String) updateTask.get(TaskInput.TITLE);
-              String description = (String) updateTask.get(TaskInput.DESCRIPTION);
-              Priority priority = (Priority) updateTask.get(TaskInput.PRIORITY);
-              Status status = (Status) updateTask.get(TaskInput.STATUS);
-              Long reminderAt = (Long) updateTask.get(TaskInput.REMINDER_AT);
-              Boolean reminderAllDay = (Boolean) updateTask.get(TaskInput.REMINDER_ALL_DAY);
-
-              if (title != null) taskToUpdate.setTitle(title);
-              if (description != null) taskToUpdate.setDescription(description);
-              if (priority != null) taskToUpdate.setPriority(priority);
-              if (status != null) taskToUpdate.setStatus(status);
-
-              if (reminderAt != null && reminderAllDay != null) {
-                if (reminderAt == Inputs.REMINDER_AT_RESET_VALUE) {
-                  // Reset the reminderAt and the reminderAllDay
-                  taskToUpdate.setReminderAt(null);
-                  taskToUpdate.setReminderAllDay(null);
+              Map<UUID, Task> updatedTasks = taskRepository.updateTasks(changesByTaskId, userId);
+
+              List<TaskResult> results = new ArrayList<>(updateTasks.size());
+              List<GraphQLError> errors = new ArrayList<>();
+
+              for (Map<String, Object> updateTask : updateTasks) {
+                String taskId = (String) updateTask.get(TaskInput.ID);
+                Task updatedTask = updatedTasks.get(parseTaskId(taskId));
+
+                if (updatedTask == null) {
+                  results.add(null);
+                  errors.add(buildTaskNotFoundError(taskId));
                 } else {
-                  taskToUpdate.setReminderAt(Instant.ofEpochMilli(reminderAt));
-                  taskToUpdate.setReminderAllDay(reminderAllDay);
+                  results.add(new TaskResult(updatedTask));
                 }
               }
 
-              taskRepository.updateTask(taskToUpdate);
-
-              return DataFetcherResult.<Map<String, Object>>newResult()
-                  .data(convertTaskToMap(taskToUpdate))
+              return DataFetcherResult.<List<TaskResult>>newResult()
+                  .data(results)
+                  .errors(errors)
                   .build();
-            });
+            },
+            dataFetcherExecutor);
+  }
+
+  /**
+   * Fetches a task through the {@link DataLoader} of the request, if registered, so the lookups of
+   * many aliased getTask fields in the same document are resolved with a single query.
+   */
+  public DataFetcher<CompletableFuture<DataFetcherResult<TaskResult>>> getTask() {
+    return environment -> {
+      UUID taskId = UUID.fromString(environment.getArgument(Inputs.TASK_ID));
+      DataLoader<UUID, Task> taskDataLoader = environment.getDataLoader(DataLoaders.TASK);
+
+      if (taskDataLoader != null) {
+        // The load must be requested in the fetcher thread: the loader is dispatched right after
+        // all the fields of the same level have been fetched
+        return taskDataLoader
+            .load(taskId)
+            .thenApply(task -> buildGetTaskResult(taskId, Optional.ofNullable(task)));
+      }
+
+      Set<String> attributes = getRequestedAttributes(environment.getSelectionSet());
+
+      return CompletableFuture.supplyAsync(
+          () -> {
+            UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+            return buildGetTaskResult(taskId, taskRepository.getTask(taskId, userId, attributes));
+          },
+          dataFetcherExecutor);
+    };
   }
 
-  public DataFetcher<CompletableFuture<DataFetcherResult<Map<String, Object>>>> getTask() {
+  public DataFetcher<CompletableFuture<List<TaskResult>>> findTasks() {
     return environment ->
         CompletableFuture.supplyAsync(
             () -> {
-              String userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
-              UUID taskId = UUID.fromString(environment.getArgument(Inputs.TASK_ID));
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              Priority priority = environment.getArgument(Inputs.PRIORITY);
+              Status status = environment.getArgument(Inputs.STATUS);
+              Integer first = environment.getArgument(Inputs.FIRST);
+              String after = environment.getArgument(Inputs.AFTER);
+
+              Set<String> attributes = getRequestedAttributes(environment.getSelectionSet());
+              if (!attributes.isEmpty()) {
+                // The cursor of each task is built on its creation date
+                attributes.add(GraphQL.Task.CREATED_AT);
+              }
+              boolean cursorRequested = isCursorRequested(environment.getSelectionSet());
+
               return taskRepository
-                  .getTask(taskId, userId)
+                  .getTasks(
+                      userId,
+                      priority,
+                      status,
+                      first,
+                      after == null ? null : TaskCursor.decode(after),
+                      attributes)
+                  .stream()
                   .map(
                       task ->
-                          DataFetcherResult.<Map<String, Object>>newResult()
-                              .data(convertTaskToMap(task))
-                              .build())
-                  .orElse(
-                      DataFetcherResult.<Map<String, Object>>newResult()
-                          .error(
-                              GraphqlErrorBuilder.newError()
-                                  .message(String.format(ErrorMessages.TASK_NOT_FOUND, taskId))
-                                  .build())
-                          .build());
-            });
+                          new TaskResult(
+                              task, cursorRequested ? TaskCursor.of(task).encode() : null))
+                  .collect(Collectors.toList());
+            },
+            dataFetcherExecutor);
   }
 
-  public DataFetcher<CompletableFuture<List<Map<String, Object>>>> findTasks() {
+  public DataFetcher<CompletableFuture<List<TaskResult>>> searchTasks() {
     return environment ->
         CompletableFuture.supplyAsync(
             () -> {
-              String userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
-              Priority priority = environment.getArgument(Inputs.PRIORITY);
-              Status status = environment.getArgument(Inputs.STATUS);
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              String query = environment.getArgument(Inputs.QUERY);
+              Integer first = environment.getArgument(Inputs.FIRST);
+              String after = environment.getArgument(Inputs.AFTER);
+              boolean cursorRequested = isCursorRequested(environment.getSelectionSet());
 
-              return taskRepository.getTasks(userId, priority, status).stream()
-                  .map(this::convertTaskToMap)
+              return taskRepository
+                  .searchTasks(
+                      userId,
+                      query,
+                      first,
+                      after == null ? null : TaskSearchCursor.decode(after),
+                      getRequestedAttributes(environment.getSelectionSet()))
+                  .stream()
+                  .map(
+                      result ->
+                          new TaskResult(
+                              result.getTask(),
+                              cursorRequested ? result.getCursor().encode() : null))
                   .collect(Collectors.toList());
-            });
+            },
+            dataFetcherExecutor);
+  }
+
+  /**
+   * Returns a page of the changes of the tasks following the given watermark: the changed tasks,
+   * the identifiers of the trashed ones and the watermark of the next page. When there are no more
+   * changes the watermark moves to the end of the settled changes, so it stays recent even if the
+   * tasks of the user do not change.
+   *
+   * <p>The purged tasks leave no trace: if the watermark is older than the trash retention, a task
+   * could have been trashed and purged meanwhile, so the client is asked to sync from scratch.
+   */
+  public DataFetcher<CompletableFuture<Map<String, Object>>> taskChanges() {
+    return environment ->
+        CompletableFuture.supplyAsync(
+            () -> {
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              String since = environment.getArgument(Inputs.SINCE);
+              Integer first = environment.getArgument(Inputs.FIRST);
+
+              TaskWatermark watermark = since == null ? null : TaskWatermark.decode(since);
+              Instant now = clock.instant();
+
+              if (watermark != null
+                  && watermark.getUpdatedAt().isBefore(now.minus(trashRetention))) {
+                return ImmutableMap.<String, Object>builder()
+                    .put(TaskChangeSet.CHANGED, List.of())
+                    .put(TaskChangeSet.TRASHED, List.of())
+                    .put(TaskChangeSet.HAS_MORE, false)
+                    .put(TaskChangeSet.RESYNC_REQUIRED, true)
+                    .build();
+              }
+
+              int pageSize = first == null ? Inputs.MAX_PAGE_SIZE : first;
+              Instant until = now.minus(CHANGES_SETTLE_TIME);
+
+              // One more task is fetched to know if other changes follow the page
+              List<Task> changedTasks =
+                  taskRepository.getTaskChanges(userId, watermark, until, pageSize + 1);
+              boolean hasMore = changedTasks.size() > pageSize;
+              List<Task> page = hasMore ? changedTasks.subList(0, pageSize) : changedTasks;
+
+              TaskWatermark nextWatermark;
+              if (hasMore) {
+                nextWatermark = TaskWatermark.of(page.get(page.size() - 1));
+              } else if (watermark != null && !watermark.getUpdatedAt().isBefore(until)) {
+                // The clock of this node is behind the one of the previous call
+                nextWatermark = watermark;
+              } else {
+                nextWatermark = TaskWatermark.at(until);
+              }
+
+              return ImmutableMap.<String, Object>builder()
+                  .put(
+                      TaskChangeSet.CHANGED,
+                      page.stream()
+                          .filter(task -> task.getStatus() != Status.TRASH)
+                          .map(TaskResult::new)
+                          .collect(Collectors.toList()))
+                  .put(
+                      TaskChangeSet.TRASHED,
+                      page.stream()
+                          .filter(task -> task.getStatus() == Status.TRASH)
+                          .map(Task::getId)
+                          .collect(Collectors.toList()))
+                  .put(TaskChangeSet.WATERMARK, nextWatermark.encode())
+                  .put(TaskChangeSet.HAS_MORE, hasMore)
+                  .put(TaskChangeSet.RESYNC_REQUIRED, false)
+                  .build();
+            },
+            dataFetcherExecutor);
   }
 
   public DataFetcher<CompletableFuture<DataFetcherResult<UUID>>> trashTask() {
     return environment ->
         CompletableFuture.supplyAsync(
             () -> {
-              String userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
               UUID taskId = UUID.fromString(environment.getArgument(Inputs.TASK_ID));
 
-              return taskRepository
-                  .getTask(taskId, userId)
-                  .map(
-                      taskToTrash -> {
-                        taskToTrash.setStatus(Status.TRASH);
-                        taskRepository.updateTask(taskToTrash);
+              return taskRepository.trashTask(taskId, userId)
+                  ? DataFetcherResult.<UUID>newResult().data(taskId).build()
+                  : DataFetcherResult.<UUID>newResult()
+                      .error(buildTaskNotFoundError(taskId.toString()))
+                      .build();
+            },
+            dataFetcherExecutor);
+  }
 
-                        return DataFetcherResult.<UUID>newResult().data(taskId).build();
-                      })
-                  .orElse(
-                      DataFetcherResult.<UUID>newResult()
-                          .error(
-                              GraphqlErrorBuilder.newError()
-                                  .message(String.format(ErrorMessages.TASK_NOT_FOUND, taskId))
-                                  .build())
-                          .build());
-            });
-  }
-
-  private Map<String, Object> convertTaskToMap(Task task) {
-    ImmutableMap.Builder<String, Object> taskMapBuilder =
-        ImmutableMap.<String, Object>builder()
-            .put(GraphQL.Task.ID, task.getId())
-            .put(GraphQL.Task.TITLE, task.getTitle())
-            .put(GraphQL.Task.PRIORITY, task.getPriority())
-            .put(GraphQL.Task.STATUS, task.getStatus())
-            .put(GraphQL.Task.CREATED_AT, task.getCreatedAt().toEpochMilli());
-
-    task.getDescription()
-        .ifPresent(description -> taskMapBuilder.put(GraphQL.Task.DESCRIPTION, description));
-
-    task.getReminderAt()
-        .ifPresent(
-            reminderAt -> {
-              taskMapBuilder.put(GraphQL.Task.REMINDER_AT, reminderAt.toEpochMilli());
-              taskMapBuilder.put(
-                  GraphQL.Task.REMINDER_ALL_DAY, task.getReminderAllDay().orElse(false));
-            });
-
-    return taskMapBuilder.build();
+  /**
+   * Trashes all the requested tasks with a single conditional statement, without reading them
+   * first. The result contains an element for each input in the same order: if a task does not
+   * exist its element is null and a related error is returned, without affecting the other tasks.
+   */
+  public DataFetcher<CompletableFuture<DataFetcherResult<List<UUID>>>> trashTasks() {
+    return environment ->
+        CompletableFuture.supplyAsync(
+            () -> {
+              UUID userId = environment.getGraphQlContext().get(Context.REQUESTER_ID);
+              List<String> taskIds = environment.getArgument(Inputs.TASK_IDS);
+
+              Set<UUID> trashedTaskIds = taskRepository.trashTasks(parseTaskIds(taskIds), userId);
+
+              List<UUID> results = new ArrayList<>(taskIds.size());
+              List<GraphQLError> errors = new ArrayList<>();
+
+              for (String taskId : taskIds) {
+                UUID parsedTaskId = parseTaskId(taskId);
+
+                if (parsedTaskId == null || !trashedTaskIds.contains(parsedTaskId)) {
+                  results.add(null);
+                  errors.add(buildTaskNotFoundError(taskId));
+                } else {
+                  results.add(parsedTaskId);
+                }
+              }
+
+              return DataFetcherResult.<List<UUID>>newResult()
+                  .data(results)
+                  .errors(errors)
+                  .build();
+            },
+            dataFetcherExecutor);
+  }
+
+  private DataFetcherResult<TaskResult> buildGetTaskResult(
+      UUID taskId, Optional<Task> optTask) {
+    return optTask
+        .map(
+            task ->
+                DataFetcherResult.<TaskResult>newResult()
+                    .data(new TaskResult(task))
+                    .build())
+        .orElse(
+            DataFetcherResult.<TaskResult>newResult()
+                .error(buildTaskNotFoundError(taskId.toString()))
+                .build());
+  }
+
+  /**
+   * Converts the input of a task creation in a {@link NewTask} applying the default values of the
+   * attributes not set.
+   */
+  private static NewTask convertMapToNewTask(Map<String, Object> newTask) {
+    String title = (String) newTask.get(TaskInput.TITLE);
+    String description = (String) newTask.get(TaskInput.DESCRIPTION);
+    Priority priority = (Priority) newTask.get(TaskInput.PRIORITY);
+    Status status = (Status) newTask.get(TaskInput.STATUS);
+    // If the reminderAt is zero then it is considered as null because the reset of a
+    // reminder during a creation of a task has any sense
+    Long reminderAt = (Long) newTask.get(TaskInput.REMINDER_AT);
+    Boolean reminderAllDay = (Boolean) newTask.get(TaskInput.REMINDER_ALL_DAY);
+
+    return new NewTask(
+        title,
+        description,
+        priority == null ? Priority.MEDIUM : priority,
+        status == null ? Status.OPEN : status,
+        reminderAt == null || reminderAt == Inputs.REMINDER_AT_RESET_VALUE
+            ? null
+            : Instant.ofEpochMilli(reminderAt),
+        reminderAllDay);
+  }
+
+  /**
+   * Converts the input of a task update in the given {@link TaskChanges}, setting only the
+   * attributes present in the input. If the reminderAt is zero the reminder is removed.
+   *
+   * @return the given {@link TaskChanges}
+   */
+  private static TaskChanges convertMapToTaskChanges(
+      Map<String, Object> updateTask, TaskChanges changes) {
+    String title = (String) updateTask.get(TaskInput.TITLE);
+    String description = (String) updateTask.get(TaskInput.DESCRIPTION);
+    Priority priority = (Priority) updateTask.get(TaskInput.PRIORITY);
+    Status status = (Status) updateTask.get(TaskInput.STATUS);
+    Long reminderAt = (Long) updateTask.get(TaskInput.REMINDER_AT);
+    Boolean reminderAllDay = (Boolean) updateTask.get(TaskInput.REMINDER_ALL_DAY);
+
+    if (title != null) changes.setTitle(title);
+    if (description != null) changes.setDescription(description);
+    if (priority != null) changes.setPriority(priority);
+    if (status != null) changes.setStatus(status);
+
+    if (reminderAt != null && reminderAllDay != null) {
+      if (reminderAt == Inputs.REMINDER_AT_RESET_VALUE) {
+        // Reset the reminderAt and the reminderAllDay
+        changes.setReminder(null, null);
+      } else {
+        changes.setReminder(Instant.ofEpochMilli(reminderAt), reminderAllDay);
+      }
+    }
+
+    return changes;
+  }
+
+  /**
+   * Parses the given task identifiers ignoring the malformed ones, since they cannot match any
+   * task.
+   */
+  private static Set<UUID> parseTaskIds(List<String> taskIds) {
+    return taskIds.stream()
+        .map(TaskDataFetchers::parseTaskId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+
+  @Nullable
+  private static UUID parseTaskId(String taskId) {
+    try {
+      return UUID.fromString(taskId);
+    } catch (IllegalArgumentException exception) {
+      return null;
+    }
+  }
+
+  private static GraphQLError buildTaskNotFoundError(String taskId) {
+    return GraphqlErrorBuilder.newError()
+        .message(String.format(ErrorMessages.TASK_NOT_FOUND, taskId))
+        .build();
+  }
+
+  /**
+   * Maps the fields requested by the client to the {@link Task} attributes to load, so the
+   * repository reads only the necessary columns. The GraphQL fields of a task have the same names
+   * of the {@link Task} attributes.
+   *
+   * @return a mutable {@link Set} of attributes. It is empty, meaning all the attributes, if the
+   *     selection is not available
+   */
+  private static Set<String> getRequestedAttributes(
+      @Nullable DataFetchingFieldSelectionSet selectionSet) {
+    Set<String> attributes = new HashSet<>();
+
+    if (selectionSet != null) {
+      selectionSet.getImmediateFields().stream()
+          .map(SelectedField::getName)
+          .filter(TASK_ATTRIBUTES::contains)
+          .forEach(attributes::add);
+
+      // The reminderAllDay is returned only if the reminderAt is set
+      if (attributes.contains(GraphQL.Task.REMINDER_ALL_DAY)) {
+        attributes.add(GraphQL.Task.REMINDER_AT);
+      }
+
+      // At least the identifier must be selected, otherwise an empty set would load everything
+      attributes.add(GraphQL.Task.ID);
+    }
+
+    return attributes;
+  }
+
+  /**
+   * @return true if the cursor of the tasks is selected, so it is encoded only when the client
+   *     needs it. A missing selection set is considered as selecting everything.
+   */
+  private static boolean isCursorRequested(@Nullable DataFetchingFieldSelectionSet selectionSet) {
+    return selectionSet == null || selectionSet.contains(GraphQL.Task.CURSOR);
   }
 }
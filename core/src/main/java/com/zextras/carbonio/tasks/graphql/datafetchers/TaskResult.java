@@ -0,0 +1,113 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Constants.GraphQL;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.LightDataFetcher;
+import jakarta.annotation.Nullable;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Represents a {@link Task} returned by the data fetchers together with its cursor, if the task is
+ * part of a paginated result. It is the source object of the GraphQL Task type: each field of the
+ * type is resolved by a specialized data fetcher reading the related attribute of the task, so the
+ * tasks do not need to be copied in an intermediate map.
+ *
+ * <p>The task can be partially loaded: the attributes not requested are null and they are
+ * resolved as null too.
+ */
+public final class TaskResult {
+
+  @SuppressWarnings("rawtypes")
+  private static final Map<String, DataFetcher> FIELD_DATA_FETCHERS =
+      ImmutableMap.<String, DataFetcher>builder()
+          .put(GraphQL.Task.ID, new FieldDataFetcher(result -> result.task.getId()))
+          .put(GraphQL.Task.TITLE, new FieldDataFetcher(result -> result.task.getTitle()))
+          .put(
+              GraphQL.Task.DESCRIPTION,
+              new FieldDataFetcher(result -> result.task.getDescription().orElse(null)))
+          .put(GraphQL.Task.PRIORITY, new FieldDataFetcher(result -> result.task.getPriority()))
+          .put(GraphQL.Task.STATUS, new FieldDataFetcher(result -> result.task.getStatus()))
+          .put(GraphQL.Task.CREATED_AT, new FieldDataFetcher(result -> result.task.getCreatedAt()))
+          .put(
+              GraphQL.Task.REMINDER_AT,
+              new FieldDataFetcher(result -> result.task.getReminderAt().orElse(null)))
+          .put(GraphQL.Task.REMINDER_ALL_DAY, new FieldDataFetcher(TaskResult::getReminderAllDay))
+          .put(GraphQL.Task.CURSOR, new FieldDataFetcher(result -> result.cursor))
+          .build();
+
+  private final Task task;
+  private final String cursor;
+
+  public TaskResult(Task task) {
+    this(task, null);
+  }
+
+  public TaskResult(Task task, @Nullable String cursor) {
+    this.task = task;
+    this.cursor = cursor;
+  }
+
+  /**
+   * @return a map binding each field of the GraphQL Task type to the {@link DataFetcher} resolving
+   *     it from a {@link TaskResult}
+   */
+  @SuppressWarnings("rawtypes")
+  public static Map<String, DataFetcher> getFieldDataFetchers() {
+    return FIELD_DATA_FETCHERS;
+  }
+
+  public Task getTask() {
+    return task;
+  }
+
+  /** @return the encoded cursor of the task, or null if it was not requested */
+  @Nullable
+  public String getCursor() {
+    return cursor;
+  }
+
+  /** The reminderAllDay is returned only if the reminderAt is set, and it is false by default. */
+  @Nullable
+  private static Boolean getReminderAllDay(TaskResult result) {
+    return result.task.getReminderAt().isPresent()
+        ? result.task.getReminderAllDay().orElse(Boolean.FALSE)
+        : null;
+  }
+
+  /**
+   * Resolves a field reading it directly from the source {@link TaskResult}. Being a {@link
+   * LightDataFetcher}, the engine can call it without building a {@link DataFetchingEnvironment}
+   * for every field of every task.
+   */
+  private static final class FieldDataFetcher implements LightDataFetcher<Object> {
+
+    private final Function<TaskResult, Object> getter;
+
+    private FieldDataFetcher(Function<TaskResult, Object> getter) {
+      this.getter = getter;
+    }
+
+    @Override
+    public Object get(
+        GraphQLFieldDefinition fieldDefinition,
+        Object sourceObject,
+        Supplier<DataFetchingEnvironment> environmentSupplier) {
+      return getter.apply((TaskResult) sourceObject);
+    }
+
+    @Override
+    public Object get(DataFetchingEnvironment environment) {
+      return getter.apply(environment.getSource());
+    }
+  }
+}
@@ -13,6 +13,7 @@ import graphql.execution.instrumentation.SimpleInstrumentationContext;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 
 public class ContextInstrumentation extends SimpleInstrumentation {
 
@@ -22,7 +23,7 @@ public class ContextInstrumentation extends SimpleInstrumentation {
     HttpServletRequest request = parameters.getGraphQLContext().get(HttpServletRequest.class);
 
     if (request != null) {
-      String requesterId = (String) request.getAttribute(Context.REQUESTER_ID);
+      UUID requesterId = (UUID) request.getAttribute(Context.REQUESTER_ID);
 
       if (requesterId != null) {
         parameters.getGraphQLContext().put(Context.REQUESTER_ID, requesterId);
@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.instrumentations;
+
+import com.google.inject.Inject;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the duration of each GraphQL operation, from the start of its execution to the
+ * completion of all its data fetchers. The durations are recorded in a histogram tagged with the
+ * type of the operation and with the names of its root fields: the client-defined operation name
+ * is ignored since its values are not bounded.
+ */
+public class MetricsInstrumentation extends SimpleInstrumentation {
+
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public MetricsInstrumentation(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters,
+      InstrumentationState instrumentationState) {
+    OperationDefinition operation = parameters.getExecutionContext().getOperationDefinition();
+    String type = operation.getOperation().name().toLowerCase(Locale.ROOT);
+    String rootFields =
+        operation.getSelectionSet().getSelectionsOfType(Field.class).stream()
+            .map(Field::getName)
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(","));
+    long start = System.nanoTime();
+
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, throwable) -> {
+          boolean failed = throwable != null || !result.getErrors().isEmpty();
+
+          Timer.builder(Metrics.GRAPHQL_OPERATION)
+              .description("The duration of the GraphQL operations")
+              .tag("type", type)
+              .tag("operation", rootFields)
+              .tag("outcome", failed ? "error" : "success")
+              .publishPercentileHistogram()
+              .register(meterRegistry)
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+  }
+}
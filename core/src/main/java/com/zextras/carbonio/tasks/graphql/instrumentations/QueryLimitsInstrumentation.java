@@ -0,0 +1,232 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.instrumentations;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import graphql.parser.ParserOptions;
+import graphql.parser.exceptions.ParseCancelledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejects the GraphQL operations too expensive to be executed, before any data fetcher is called,
+ * so a single client cannot tie up the data fetchers and the database connections. An operation
+ * is rejected if it exceeds:
+ *
+ * <ul>
+ *   <li>The maximum depth of its fields
+ *   <li>The maximum complexity: each field costs 1 plus the complexity of its sub-fields, which is
+ *       multiplied by the page size ({@code first}, or {@link Inputs#MAX_PAGE_SIZE} if missing) of
+ *       the paginated fields and by the number of inputs of the bulk mutations
+ *   <li>The maximum number of root fields
+ *   <li>The maximum number of aliases
+ * </ul>
+ *
+ * <p>The limits are checked on every execution, since the page sizes can be variables, and the
+ * fields are counted after the expansion of the fragments. The maximum number of tokens is instead
+ * enforced by the parser, through the {@link #getParserOptions()} put in the context of each
+ * request, which stop parsing as soon as the limit is reached.
+ *
+ * <p>The rejections are counted in the given {@link MeterRegistry}, tagged with the exceeded limit.
+ */
+@Singleton
+public class QueryLimitsInstrumentation extends SimpleInstrumentation {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryLimitsInstrumentation.class);
+
+  private final int maxDepth;
+  private final long maxComplexity;
+  private final int maxRootFields;
+  private final int maxAliases;
+  private final int maxTokens;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public QueryLimitsInstrumentation(TasksConfig tasksConfig, MeterRegistry meterRegistry) {
+    this(
+        tasksConfig.getGraphQLMaxDepth(),
+        tasksConfig.getGraphQLMaxComplexity(),
+        tasksConfig.getGraphQLMaxRootFields(),
+        tasksConfig.getGraphQLMaxAliases(),
+        tasksConfig.getGraphQLMaxTokens(),
+        meterRegistry);
+  }
+
+  public QueryLimitsInstrumentation(
+      int maxDepth,
+      long maxComplexity,
+      int maxRootFields,
+      int maxAliases,
+      int maxTokens,
+      MeterRegistry meterRegistry) {
+    this.maxDepth = maxDepth;
+    this.maxComplexity = maxComplexity;
+    this.maxRootFields = maxRootFields;
+    this.maxAliases = maxAliases;
+    this.maxTokens = maxTokens;
+    this.meterRegistry = meterRegistry;
+
+    logger.info(
+        "GraphQL limits: max depth: {}, max complexity: {}, max root fields: {}, max aliases: {},"
+            + " max tokens: {}",
+        maxDepth,
+        maxComplexity,
+        maxRootFields,
+        maxAliases,
+        maxTokens);
+  }
+
+  /**
+   * @return the {@link ParserOptions} of the operations, stopping the parsing of the documents
+   *     exceeding the maximum number of tokens
+   */
+  public ParserOptions getParserOptions() {
+    return ParserOptions.getDefaultOperationParserOptions()
+        .transform(builder -> builder.maxTokens(maxTokens));
+  }
+
+  @Override
+  public InstrumentationContext<Document> beginParse(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    return SimpleInstrumentationContext.whenCompleted(
+        (document, throwable) -> {
+          if (throwable instanceof ParseCancelledException) {
+            countRejection("tokens");
+          }
+        });
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    ExecutionContext executionContext = parameters.getExecutionContext();
+    OperationCost cost = computeCost(executionContext);
+
+    if (cost.depth > maxDepth) {
+      reject("depth", "The depth of the operation exceeds the limit of " + maxDepth);
+    }
+    if (cost.complexity > maxComplexity) {
+      reject("complexity", "The complexity of the operation exceeds the limit of " + maxComplexity);
+    }
+    if (cost.rootFields > maxRootFields) {
+      reject(
+          "root_fields", "The root fields of the operation exceed the limit of " + maxRootFields);
+    }
+    if (cost.aliases > maxAliases) {
+      reject("aliases", "The aliases of the operation exceed the limit of " + maxAliases);
+    }
+
+    return SimpleInstrumentationContext.noOp();
+  }
+
+  /**
+   * Visits the fields of the operation in post-order, so the complexity of each field is computed
+   * after the one of its sub-fields, which is accumulated by parent field. The root fields have a
+   * null parent.
+   */
+  private OperationCost computeCost(ExecutionContext executionContext) {
+    QueryTraverser queryTraverser =
+        QueryTraverser.newQueryTraverser()
+            .schema(executionContext.getGraphQLSchema())
+            .document(executionContext.getDocument())
+            .operationName(executionContext.getOperationDefinition().getName())
+            .coercedVariables(executionContext.getCoercedVariables())
+            .build();
+
+    OperationCost cost = new OperationCost();
+    Map<QueryVisitorFieldEnvironment, Long> complexityByParent = new HashMap<>();
+
+    queryTraverser.visitPostOrder(
+        new QueryVisitorStub() {
+          @Override
+          public void visitField(QueryVisitorFieldEnvironment environment) {
+            long childrenComplexity = complexityByParent.getOrDefault(environment, 0L);
+            long complexity = 1 + getMultiplier(environment) * childrenComplexity;
+            complexityByParent.merge(environment.getParentEnvironment(), complexity, Long::sum);
+
+            int depth = 1;
+            for (QueryVisitorFieldEnvironment parent = environment.getParentEnvironment();
+                parent != null;
+                parent = parent.getParentEnvironment()) {
+              depth++;
+            }
+            cost.depth = Math.max(cost.depth, depth);
+
+            if (environment.getParentEnvironment() == null) {
+              cost.rootFields++;
+            }
+            if (environment.getField().getAlias() != null) {
+              cost.aliases++;
+            }
+          }
+        });
+
+    cost.complexity = complexityByParent.getOrDefault(null, 0L);
+    return cost;
+  }
+
+  /**
+   * @return the number of times the sub-fields of the given field are resolved: the page size for
+   *     the paginated fields, the size of the largest list argument for the bulk mutations and 1
+   *     for all the other fields
+   */
+  private static long getMultiplier(QueryVisitorFieldEnvironment environment) {
+    Map<String, Object> arguments = environment.getArguments();
+
+    if (environment.getFieldDefinition().getArgument(Inputs.FIRST) != null) {
+      Object first = arguments.get(Inputs.FIRST);
+      return first instanceof Integer ? Math.max((Integer) first, 1) : Inputs.MAX_PAGE_SIZE;
+    }
+
+    return arguments.values().stream()
+        .filter(List.class::isInstance)
+        .mapToLong(argument -> ((List<?>) argument).size())
+        .max()
+        .orElse(1L);
+  }
+
+  private void reject(String limit, String message) {
+    countRejection(limit);
+    throw new AbortExecutionException(message);
+  }
+
+  private void countRejection(String limit) {
+    Counter.builder(Metrics.GRAPHQL_LIMIT_REJECTED)
+        .description("The GraphQL operations rejected because exceeding a limit")
+        .tag("limit", limit)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private static final class OperationCost {
+
+    private int depth;
+    private long complexity;
+    private int rootFields;
+    private int aliases;
+  }
+}
@@ -6,6 +6,9 @@ package com.zextras.carbonio.tasks.graphql.validators;
 
 import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs;
 import com.zextras.carbonio.tasks.Constants.GraphQL.Inputs.TaskInput;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
 import graphql.GraphQLError;
 import graphql.execution.instrumentation.fieldvalidation.FieldAndArguments;
 import graphql.execution.instrumentation.fieldvalidation.FieldValidationEnvironment;
@@ -21,30 +24,126 @@ public class InputFieldsValidator {
       upsertTaskValidator(String inputField) {
 
     return (fieldAndArguments, fieldValidationEnvironment) -> {
-      Map<String, Object> newTaskArguments = fieldAndArguments.getArgumentValue(inputField);
+      Map<String, Object> taskArguments = fieldAndArguments.getArgumentValue(inputField);
+      List<String> errors = validateTaskInput(taskArguments);
+
+      return errors.isEmpty()
+          ? Optional.empty()
+          : Optional.of(fieldValidationEnvironment.mkError(String.join("\n", errors)));
+    };
+  }
+
+  /**
+   * Validates a list of task inputs of a bulk mutation. Each input is checked like in the {@link
+   * #upsertTaskValidator(String)} and every error is prefixed with the position of the invalid
+   * input, so the client knows which ones must be fixed.
+   */
+  public BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      bulkUpsertTasksValidator(String inputField) {
+
+    return (fieldAndArguments, fieldValidationEnvironment) -> {
+      List<Map<String, Object>> tasksArguments = fieldAndArguments.getArgumentValue(inputField);
       List<String> errors = new ArrayList<>();
 
-      // Check title attribute
-      if (newTaskArguments.containsKey(TaskInput.TITLE)) {
-        String title = (String) newTaskArguments.get(TaskInput.TITLE);
-        checkStringLength(TaskInput.TITLE, title, Inputs.TITLE_MAX_LENGTH).ifPresent(errors::add);
+      checkBulkSize(inputField, tasksArguments.size()).ifPresent(errors::add);
+
+      for (int index = 0; index < tasksArguments.size(); index++) {
+        String itemPrefix = String.format("%s[%d]: ", inputField, index);
+        validateTaskInput(tasksArguments.get(index))
+            .forEach(error -> errors.add(itemPrefix + error));
       }
 
-      // Check description attribute
-      if (newTaskArguments.containsKey(TaskInput.DESCRIPTION)) {
-        String description = (String) newTaskArguments.get(TaskInput.DESCRIPTION);
-        checkStringLength(TaskInput.DESCRIPTION, description, Inputs.DESCRIPTION_MAX_LENGTH)
-            .ifPresent(errors::add);
+      return errors.isEmpty()
+          ? Optional.empty()
+          : Optional.of(fieldValidationEnvironment.mkError(String.join("\n", errors)));
+    };
+  }
+
+  public BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      bulkSizeValidator(String inputField) {
+
+    return (fieldAndArguments, fieldValidationEnvironment) -> {
+      List<Object> arguments = fieldAndArguments.getArgumentValue(inputField);
+
+      return checkBulkSize(inputField, arguments.size()).map(fieldValidationEnvironment::mkError);
+    };
+  }
+
+  public BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      paginationValidator() {
+
+    return (fieldAndArguments, fieldValidationEnvironment) -> {
+      Integer first = fieldAndArguments.getArgumentValue(Inputs.FIRST);
+      String after = fieldAndArguments.getArgumentValue(Inputs.AFTER);
+      List<String> errors = new ArrayList<>();
+
+      checkPageSize(first).ifPresent(errors::add);
+
+      if (after != null) {
+        try {
+          TaskCursor.decode(after);
+        } catch (IllegalArgumentException exception) {
+          errors.add(String.format("Invalid %s. The cursor is malformed", Inputs.AFTER));
+        }
+      }
+
+      return errors.isEmpty()
+          ? Optional.empty()
+          : Optional.of(fieldValidationEnvironment.mkError(String.join("\n", errors)));
+    };
+  }
+
+  /**
+   * Validates the arguments of a full-text search: the length of the query and, like the {@link
+   * #paginationValidator()}, the page size and the cursor, which is a {@link TaskSearchCursor}.
+   */
+  public BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      searchValidator() {
+
+    return (fieldAndArguments, fieldValidationEnvironment) -> {
+      String query = fieldAndArguments.getArgumentValue(Inputs.QUERY);
+      Integer first = fieldAndArguments.getArgumentValue(Inputs.FIRST);
+      String after = fieldAndArguments.getArgumentValue(Inputs.AFTER);
+      List<String> errors = new ArrayList<>();
+
+      checkStringLength(Inputs.QUERY, query, Inputs.SEARCH_QUERY_MAX_LENGTH)
+          .ifPresent(errors::add);
+      checkPageSize(first).ifPresent(errors::add);
+
+      if (after != null) {
+        try {
+          TaskSearchCursor.decode(after);
+        } catch (IllegalArgumentException exception) {
+          errors.add(String.format("Invalid %s. The cursor is malformed", Inputs.AFTER));
+        }
       }
 
-      // Check reminderAllDay attribute
-      Long reminderAt = (Long) newTaskArguments.get(TaskInput.REMINDER_AT);
-      Boolean reminderAllDay = (Boolean) newTaskArguments.get(TaskInput.REMINDER_ALL_DAY);
+      return errors.isEmpty()
+          ? Optional.empty()
+          : Optional.of(fieldValidationEnvironment.mkError(String.join("\n", errors)));
+    };
+  }
 
-      // The reminder all day flag must not be set if there is no reminder and vice versa!
-      if ((reminderAt == null && reminderAllDay != null)
-          || (reminderAt != null && reminderAllDay == null)) {
-        errors.add("The reminderAt and the reminderAllDay attributes must be both always set");
+  /**
+   * Validates the arguments of the taskChanges query: like the {@link #paginationValidator()}, the
+   * page size and the watermark, which is a {@link TaskWatermark}.
+   */
+  public BiFunction<FieldAndArguments, FieldValidationEnvironment, Optional<GraphQLError>>
+      changesValidator() {
+
+    return (fieldAndArguments, fieldValidationEnvironment) -> {
+      Integer first = fieldAndArguments.getArgumentValue(Inputs.FIRST);
+      String since = fieldAndArguments.getArgumentValue(Inputs.SINCE);
+      List<String> errors = new ArrayList<>();
+
+      checkPageSize(first).ifPresent(errors::add);
+
+      if (since != null) {
+        try {
+          TaskWatermark.decode(since);
+        } catch (IllegalArgumentException exception) {
+          errors.add(String.format("Invalid %s. The watermark is malformed", Inputs.SINCE));
+        }
       }
 
       return errors.isEmpty()
@@ -53,6 +152,52 @@ public class InputFieldsValidator {
     };
   }
 
+  private List<String> validateTaskInput(Map<String, Object> taskArguments) {
+    List<String> errors = new ArrayList<>();
+
+    // Check title attribute
+    if (taskArguments.containsKey(TaskInput.TITLE)) {
+      String title = (String) taskArguments.get(TaskInput.TITLE);
+      checkStringLength(TaskInput.TITLE, title, Inputs.TITLE_MAX_LENGTH).ifPresent(errors::add);
+    }
+
+    // Check description attribute
+    if (taskArguments.containsKey(TaskInput.DESCRIPTION)) {
+      String description = (String) taskArguments.get(TaskInput.DESCRIPTION);
+      checkStringLength(TaskInput.DESCRIPTION, description, Inputs.DESCRIPTION_MAX_LENGTH)
+          .ifPresent(errors::add);
+    }
+
+    // Check reminderAllDay attribute
+    Long reminderAt = (Long) taskArguments.get(TaskInput.REMINDER_AT);
+    Boolean reminderAllDay = (Boolean) taskArguments.get(TaskInput.REMINDER_ALL_DAY);
+
+    // The reminder all day flag must not be set if there is no reminder and vice versa!
+    if ((reminderAt == null && reminderAllDay != null)
+        || (reminderAt != null && reminderAllDay == null)) {
+      errors.add("The reminderAt and the reminderAllDay attributes must be both always set");
+    }
+
+    return errors;
+  }
+
+  private Optional<String> checkPageSize(Integer first) {
+    return (first != null && (first < 1 || first > Inputs.MAX_PAGE_SIZE))
+        ? Optional.of(
+            String.format(
+                "Invalid %s. It must be between 1 and %s", Inputs.FIRST, Inputs.MAX_PAGE_SIZE))
+        : Optional.empty();
+  }
+
+  private Optional<String> checkBulkSize(String fieldName, int size) {
+    return (size > Inputs.MAX_BULK_SIZE)
+        ? Optional.of(
+            String.format(
+                "Invalid %s. It cannot contain more than %s elements",
+                fieldName, Inputs.MAX_BULK_SIZE))
+        : Optional.empty();
+  }
+
   private Optional<String> checkStringLength(String fieldName, String input, int maxLength) {
     return (input.length() > maxLength)
         ? Optional.of(
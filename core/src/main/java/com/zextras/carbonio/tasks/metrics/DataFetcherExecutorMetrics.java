@@ -0,0 +1,51 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.metrics;
+
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the usage of the {@link DataFetcherExecutor}: how many threads are busy, how many
+ * operations are waiting for a free thread and how many have been rejected because the queue was
+ * full.
+ */
+public class DataFetcherExecutorMetrics implements MeterBinder {
+
+  private final DataFetcherExecutor dataFetcherExecutor;
+
+  public DataFetcherExecutorMetrics(DataFetcherExecutor dataFetcherExecutor) {
+    this.dataFetcherExecutor = dataFetcherExecutor;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    Gauge.builder(
+            Metrics.DATA_FETCHER_POOL_SIZE, dataFetcherExecutor, DataFetcherExecutor::getPoolSize)
+        .description("The maximum number of threads running the data fetchers")
+        .register(meterRegistry);
+
+    Gauge.builder(
+            Metrics.DATA_FETCHER_ACTIVE, dataFetcherExecutor, DataFetcherExecutor::getActiveCount)
+        .description("The number of threads running a data fetcher")
+        .register(meterRegistry);
+
+    Gauge.builder(
+            Metrics.DATA_FETCHER_QUEUED, dataFetcherExecutor, DataFetcherExecutor::getQueueSize)
+        .description("The number of data fetchers waiting for a free thread")
+        .register(meterRegistry);
+
+    FunctionCounter.builder(
+            Metrics.DATA_FETCHER_REJECTED,
+            dataFetcherExecutor,
+            DataFetcherExecutor::getRejectedCount)
+        .description("The number of data fetchers rejected because the queue was full")
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,68 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.metrics;
+
+import com.google.inject.Provider;
+import com.google.inject.matcher.AbstractMatcher;
+import com.google.inject.matcher.Matcher;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Measures the duration of each call to a repository method. The calls are recorded in a timer
+ * tagged with the name of the repository, the name of the method and the outcome of the call.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+  private final Provider<MeterRegistry> meterRegistryProvider;
+
+  public RepositoryMetricsInterceptor(Provider<MeterRegistry> meterRegistryProvider) {
+    this.meterRegistryProvider = meterRegistryProvider;
+  }
+
+  /**
+   * @return a {@link Matcher} selecting only the public methods written in the repositories,
+   *     skipping the bridge methods generated by the compiler
+   */
+  public static Matcher<Method> repositoryMethods() {
+    return new AbstractMatcher<>() {
+      @Override
+      public boolean matches(Method method) {
+        return Modifier.isPublic(method.getModifiers())
+            && !method.isSynthetic()
+            && method.getDeclaringClass() != Object.class;
+      }
+    };
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    long start = System.nanoTime();
+    String outcome = "success";
+
+    try {
+      return invocation.proceed();
+    } catch (Throwable throwable) {
+      outcome = "error";
+      throw throwable;
+    } finally {
+      Method method = invocation.getMethod();
+      Timer.builder(Metrics.REPOSITORY_CALL)
+          .description("The duration of the repository calls")
+          .tag("repository", method.getDeclaringClass().getSimpleName())
+          .tag("method", method.getName())
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistryProvider.get())
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.reminders;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/** Represents the reminder of a {@link Task} that is due and must be delivered to its owner. */
+public final class DueReminder {
+
+  private final UUID taskId;
+  private final UUID userId;
+  private final String title;
+  private final Instant reminderAt;
+  private final boolean reminderAllDay;
+
+  public DueReminder(
+      UUID taskId, UUID userId, String title, Instant reminderAt, boolean reminderAllDay) {
+    this.taskId = Objects.requireNonNull(taskId);
+    this.userId = Objects.requireNonNull(userId);
+    this.title = title;
+    this.reminderAt = Objects.requireNonNull(reminderAt);
+    this.reminderAllDay = reminderAllDay;
+  }
+
+  /**
+   * @param task is a fully loaded {@link Task} having a reminder
+   * @return the {@link DueReminder} of the given task
+   */
+  public static DueReminder of(Task task) {
+    return new DueReminder(
+        task.getId(),
+        task.getUserId(),
+        task.getTitle(),
+        task.getReminderAt().orElseThrow(),
+        task.getReminderAllDay().orElse(false));
+  }
+
+  public UUID getTaskId() {
+    return taskId;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public Instant getReminderAt() {
+    return reminderAt;
+  }
+
+  public boolean isReminderAllDay() {
+    return reminderAllDay;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof DueReminder)) {
+      return false;
+    }
+    DueReminder that = (DueReminder) other;
+    return reminderAllDay == that.reminderAllDay
+        && taskId.equals(that.taskId)
+        && userId.equals(that.userId)
+        && Objects.equals(title, that.title)
+        && reminderAt.equals(that.reminderAt);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(taskId, userId, title, reminderAt, reminderAllDay);
+  }
+}
@@ -0,0 +1,26 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.reminders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents the default {@link ReminderSink}: it only logs the due reminders, since the service
+ * is not connected to any notification service yet.
+ */
+public class LoggingReminderSink implements ReminderSink {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+  @Override
+  public void deliver(DueReminder dueReminder) {
+    logger.debug(
+        "Reminder due at {} for task {} of user {}",
+        dueReminder.getReminderAt(),
+        dueReminder.getTaskId(),
+        dueReminder.getUserId());
+  }
+}
@@ -0,0 +1,381 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.reminders;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChangeListener;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fires the reminders of the open tasks when they are due and delivers them to the {@link
+ * ReminderSink}.
+ *
+ * <p>Only the reminders due in the next window are kept in memory, in a set sorted by due date
+ * working as a priority queue. They are read from the database with a range scan of the partial
+ * index on the pending reminders, at most {@code maxLoaded} at a time, so neither the memory nor
+ * the scans grow with the number of pending reminders. The window is moved forward when half of it
+ * has elapsed.
+ *
+ * <p>The database is not read again when a task changes: the scheduler is a {@link
+ * TaskChangeListener}, so the reminders created, changed or removed on this node are applied
+ * directly to the queue. The changes made on other nodes are seen when the window moves forward.
+ *
+ * <p>Every node of the service runs a scheduler loading the same reminders, so a due reminder is
+ * claimed in the database before being fired (see {@link TaskRepository#claimDueReminders}). The
+ * claim is a conditional update: only one node fires a reminder, and a reminder whose task has
+ * been trashed, completed or rescheduled later on another node is dropped. A reminder moved by a
+ * node into a range already scanned by the others is fired by that node, which either keeps it in
+ * memory or loads it when its own window reaches it.
+ *
+ * <p>The reminders due while the service was stopped are not fired.
+ */
+@Singleton
+public class ReminderScheduler implements TaskChangeListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+  private static final Duration TICK = Duration.ofSeconds(1);
+
+  /** Same order of the reminders index: the uuids are compared like PostgreSQL does. */
+  private static final Comparator<DueReminder> BY_DUE_DATE =
+      Comparator.comparing(DueReminder::getReminderAt)
+          .thenComparing(DueReminder::getTaskId, ReminderScheduler::compareUuids);
+
+  private final Provider<TaskRepository> taskRepositoryProvider;
+  private final ReminderSink reminderSink;
+  private final Clock clock;
+  private final Duration window;
+  private final int maxLoaded;
+  private final Counter firedCounter;
+
+  private final NavigableSet<DueReminder> pendingReminders = new TreeSet<>(BY_DUE_DATE);
+  private final Map<UUID, DueReminder> pendingReminderById = new HashMap<>();
+
+  /**
+   * The reminders preceding this position are all in memory. If the scanAfterId is null the
+   * position is the beginning of the scanFrom instant, otherwise it is the reminder identified by
+   * (scanFrom, scanAfterId), meaning that the last load has been truncated.
+   */
+  private Instant scanFrom;
+
+  private UUID scanAfterId;
+
+  /**
+   * The changes notified while the next reminders are being loaded: for each task, its last
+   * notified reminder or an empty {@link Optional} if it has no pending reminder anymore. They are
+   * more recent than the loaded rows, so they win over them. It is null when no load is running.
+   */
+  private Map<UUID, Optional<DueReminder>> changesDuringLoad;
+
+  private ScheduledExecutorService scheduler;
+
+  @Inject
+  public ReminderScheduler(
+      Provider<TaskRepository> taskRepositoryProvider,
+      ReminderSink reminderSink,
+      TasksConfig tasksConfig,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    this(
+        taskRepositoryProvider,
+        reminderSink,
+        clock,
+        tasksConfig.getRemindersWindow(),
+        tasksConfig.getRemindersMaxLoaded(),
+        meterRegistry);
+  }
+
+  public ReminderScheduler(
+      Provider<TaskRepository> taskRepositoryProvider,
+      ReminderSink reminderSink,
+      Clock clock,
+      Duration window,
+      int maxLoaded,
+      MeterRegistry meterRegistry) {
+    this.taskRepositoryProvider = taskRepositoryProvider;
+    this.reminderSink = reminderSink;
+    this.clock = clock;
+    this.window = window;
+    this.maxLoaded = maxLoaded;
+    this.scanFrom = clock.instant();
+
+    Gauge.builder(Metrics.REMINDERS_PENDING, this, ReminderScheduler::getPendingCount)
+        .description("The number of reminders loaded in memory waiting to be fired")
+        .register(meterRegistry);
+    this.firedCounter =
+        Counter.builder(Metrics.REMINDERS_FIRED)
+            .description("The number of reminders delivered to the sink")
+            .register(meterRegistry);
+  }
+
+  /** Starts firing the reminders in background. Calling it more than once has no effect. */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+
+    logger.info("Reminder scheduler: window: {}, max loaded reminders: {}", window, maxLoaded);
+    scanFrom = clock.instant();
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "reminder-scheduler");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(
+        this::tickInBackground, 0, TICK.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  @Override
+  public synchronized void onTasksSaved(Collection<Task> tasks) {
+    for (Task task : tasks) {
+      boolean hasPendingReminder =
+          task.getStatus() == Status.OPEN
+              && task.getUserId() != null
+              && task.getReminderAt().isPresent();
+
+      applyChange(
+          task.getId(),
+          hasPendingReminder ? Optional.of(DueReminder.of(task)) : Optional.empty());
+    }
+  }
+
+  @Override
+  public synchronized void onTaskTrashed(UUID taskId) {
+    applyChange(taskId, Optional.empty());
+  }
+
+  public synchronized int getPendingCount() {
+    return pendingReminders.size();
+  }
+
+  /**
+   * Delivers the due reminders to the sink and then, if necessary, loads the next reminders from
+   * the database.
+   */
+  void tick() {
+    Instant now = clock.instant();
+
+    for (DueReminder dueReminder : claimDueReminders(pollDueReminders(now), now)) {
+      try {
+        reminderSink.deliver(dueReminder);
+        firedCounter.increment();
+      } catch (RuntimeException exception) {
+        logger.error(
+            "Unable to deliver the reminder of task {}", dueReminder.getTaskId(), exception);
+      }
+    }
+
+    loadNextReminders(now);
+  }
+
+  /**
+   * Claims the given due reminders in the database. If the claim fails the reminders are queued
+   * again, so they are claimed at the next tick: the claim checks again the stored tasks, so a
+   * reminder changed or removed meanwhile is not fired anyway.
+   *
+   * @return a {@link List} of the claimed {@link DueReminder}s, built from the stored tasks
+   */
+  private List<DueReminder> claimDueReminders(List<DueReminder> dueReminders, Instant now) {
+    if (dueReminders.isEmpty()) {
+      return dueReminders;
+    }
+
+    try {
+      return taskRepositoryProvider
+          .get()
+          .claimDueReminders(
+              dueReminders.stream().map(DueReminder::getTaskId).collect(Collectors.toList()), now)
+          .stream()
+          .map(DueReminder::of)
+          .collect(Collectors.toList());
+    } catch (RuntimeException exception) {
+      logger.error("Unable to claim {} due reminders", dueReminders.size(), exception);
+      requeueReminders(dueReminders);
+      return List.of();
+    }
+  }
+
+  private synchronized void requeueReminders(List<DueReminder> dueReminders) {
+    dueReminders.stream()
+        .filter(dueReminder -> !pendingReminderById.containsKey(dueReminder.getTaskId()))
+        .forEach(this::addReminder);
+  }
+
+  private void tickInBackground() {
+    try {
+      tick();
+    } catch (RuntimeException exception) {
+      // An exception would cancel the next executions: the load is retried at the next tick
+      logger.error("Unable to load the pending reminders", exception);
+    }
+  }
+
+  private synchronized List<DueReminder> pollDueReminders(Instant now) {
+    List<DueReminder> dueReminders = new ArrayList<>();
+
+    while (!pendingReminders.isEmpty() && !pendingReminders.first().getReminderAt().isAfter(now)) {
+      DueReminder dueReminder = pendingReminders.pollFirst();
+      pendingReminderById.remove(dueReminder.getTaskId());
+      dueReminders.add(dueReminder);
+    }
+
+    return dueReminders;
+  }
+
+  /**
+   * Loads the reminders following the last scanned one, if the scanned part of the window is
+   * running out. The query runs without holding the lock, so the changes of the tasks are not
+   * blocked by it: the ones notified meanwhile are recorded and merged with the loaded rows, and a
+   * stale row never overwrites them.
+   */
+  private void loadNextReminders(Instant now) {
+    Instant from;
+    UUID afterId;
+    int capacity;
+
+    synchronized (this) {
+      boolean truncated = scanAfterId != null;
+      capacity = maxLoaded - pendingReminders.size();
+
+      if (capacity <= 0
+          || (truncated && pendingReminders.size() > maxLoaded / 2)
+          || (!truncated && scanFrom.isAfter(now.plus(window.dividedBy(2))))) {
+        return;
+      }
+
+      from = scanFrom;
+      afterId = scanAfterId;
+      changesDuringLoad = new HashMap<>();
+    }
+
+    Instant windowEnd = now.plus(window);
+    List<Task> tasks;
+    try {
+      tasks =
+          taskRepositoryProvider
+              .get()
+              .getOpenTasksWithReminder(from, afterId, windowEnd, capacity);
+    } catch (RuntimeException exception) {
+      synchronized (this) {
+        changesDuringLoad = null;
+      }
+      throw exception;
+    }
+
+    mergeLoadedReminders(tasks, capacity, windowEnd);
+  }
+
+  private synchronized void mergeLoadedReminders(
+      List<Task> tasks, int capacity, Instant windowEnd) {
+    Map<UUID, Optional<DueReminder>> changes = changesDuringLoad;
+    changesDuringLoad = null;
+
+    tasks.stream()
+        .filter(task -> !changes.containsKey(task.getId()))
+        .forEach(
+            task -> {
+              removeReminder(task.getId());
+              addReminder(DueReminder.of(task));
+            });
+
+    if (tasks.size() == capacity) {
+      Task lastTask = tasks.get(tasks.size() - 1);
+      scanFrom = lastTask.getReminderAt().orElseThrow();
+      scanAfterId = lastTask.getId();
+    } else {
+      scanFrom = windowEnd;
+      scanAfterId = null;
+    }
+
+    // The scanned range has grown, so it can cover reminders notified during the load that were
+    // not added when they were notified
+    changes.forEach(this::applyChange);
+  }
+
+  /**
+   * Replaces the pending reminder of a task. Only the reminders already covered by the scans are
+   * added, the others will be loaded when the window reaches them.
+   */
+  private void applyChange(UUID taskId, Optional<DueReminder> dueReminder) {
+    removeReminder(taskId);
+    dueReminder.filter(this::isScanned).ifPresent(this::addReminder);
+
+    if (changesDuringLoad != null) {
+      changesDuringLoad.put(taskId, dueReminder);
+    }
+  }
+
+  private boolean isScanned(DueReminder dueReminder) {
+    Instant reminderAt = dueReminder.getReminderAt();
+
+    if (scanAfterId == null) {
+      return reminderAt.isBefore(scanFrom);
+    }
+
+    int comparison = reminderAt.compareTo(scanFrom);
+    return comparison < 0
+        || (comparison == 0 && compareUuids(dueReminder.getTaskId(), scanAfterId) <= 0);
+  }
+
+  private void addReminder(DueReminder dueReminder) {
+    pendingReminders.add(dueReminder);
+    pendingReminderById.put(dueReminder.getTaskId(), dueReminder);
+  }
+
+  private void removeReminder(UUID taskId) {
+    DueReminder dueReminder = pendingReminderById.remove(taskId);
+    if (dueReminder != null) {
+      pendingReminders.remove(dueReminder);
+    }
+  }
+
+  /**
+   * Compares two uuids as unsigned 128-bit numbers, like PostgreSQL does, while the {@link
+   * UUID#compareTo(UUID)} compares their signed halves.
+   */
+  private static int compareUuids(UUID first, UUID second) {
+    int comparison =
+        Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+    return comparison != 0
+        ? comparison
+        : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+  }
+}
@@ -0,0 +1,16 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.reminders;
+
+/**
+ * Represents the destination of the reminders fired by the {@link ReminderScheduler}, for example
+ * a notification service. The reminders are delivered one at a time on the scheduler thread, so
+ * an implementation should hand them off quickly instead of blocking.
+ */
+public interface ReminderSink {
+
+  /** @param dueReminder is the {@link DueReminder} to deliver */
+  void deliver(DueReminder dueReminder);
+}
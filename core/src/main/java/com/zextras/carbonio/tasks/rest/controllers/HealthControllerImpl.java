@@ -5,34 +5,42 @@
 package com.zextras.carbonio.tasks.rest.controllers;
 
 import com.google.inject.Inject;
-import com.zextras.carbonio.tasks.rest.services.HealthService;
-import com.zextras.carbonio.tasks.rest.types.health.HealthStatus;
+import com.zextras.carbonio.tasks.rest.services.HealthMonitor;
+import com.zextras.carbonio.tasks.rest.services.HealthSnapshot;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Serves the health probes. The health of the dependencies is read from the last {@link
+ * HealthSnapshot} published by the {@link HealthMonitor}, and the {@link HttpHeaders#AGE} header
+ * of the responses contains its age in seconds.
+ */
 public class HealthControllerImpl implements HealthController {
 
   private static final Logger logger = LoggerFactory.getLogger(HealthControllerImpl.class);
 
-  private final HealthService healthService;
+  private final HealthMonitor healthMonitor;
 
   @Inject
-  public HealthControllerImpl(HealthService healthService) {
-    this.healthService = healthService;
+  public HealthControllerImpl(HealthMonitor healthMonitor) {
+    this.healthMonitor = healthMonitor;
   }
 
   public Response health() {
-    HealthStatus serviceHealthStatus = healthService.getServiceHealthStatus();
+    HealthSnapshot healthSnapshot = healthMonitor.getSnapshot();
 
-    return serviceHealthStatus.isReady()
-        ? Response.ok().entity(serviceHealthStatus).build()
-        : Response.status(Status.BAD_GATEWAY).entity(serviceHealthStatus).build();
+    return (healthSnapshot.isReady() ? Response.ok() : Response.status(Status.BAD_GATEWAY))
+        .entity(healthSnapshot.toHealthStatus())
+        .header(HttpHeaders.AGE, healthMonitor.getAge(healthSnapshot).toSeconds())
+        .build();
   }
 
   /**
-   * @return a {@link Response#noContent()} representing the liveness of the service
+   * @return a {@link Response#noContent()} representing the liveness of the service. It never
+   *     checks the dependencies
    */
   public Response healthLive() {
     logger.debug("carbonio-tasks is live");
@@ -40,11 +48,18 @@ public class HealthControllerImpl implements HealthController {
     return Response.noContent().build();
   }
 
+  /**
+   * @return a {@link Response#noContent()} if all the dependencies were live at the last check,
+   *     otherwise a {@link Status#BAD_GATEWAY} response. The service is not ready even when the
+   *     last check is stale, since the health checks are stuck
+   */
   public Response healthReady() {
-    boolean dependenciesAreReady = healthService.areServiceDependenciesReady();
+    HealthSnapshot healthSnapshot = healthMonitor.getSnapshot();
+    boolean dependenciesAreReady =
+        healthSnapshot.areDependenciesLive() && !healthMonitor.isStale(healthSnapshot);
 
-    return dependenciesAreReady
-        ? Response.noContent().build()
-        : Response.status(Status.BAD_GATEWAY).build();
+    return (dependenciesAreReady ? Response.noContent() : Response.status(Status.BAD_GATEWAY))
+        .header(HttpHeaders.AGE, healthMonitor.getAge(healthSnapshot).toSeconds())
+        .build();
   }
 }
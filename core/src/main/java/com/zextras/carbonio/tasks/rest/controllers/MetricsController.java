@@ -0,0 +1,19 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.controllers;
+
+import io.prometheus.client.exporter.common.TextFormat;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+@Path("/metrics")
+public interface MetricsController {
+
+  @GET
+  @Produces(TextFormat.CONTENT_TYPE_004)
+  Response metrics();
+}
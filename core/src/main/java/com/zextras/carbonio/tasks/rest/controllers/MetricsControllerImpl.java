@@ -0,0 +1,27 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.controllers;
+
+import com.google.inject.Inject;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.ws.rs.core.Response;
+
+public class MetricsControllerImpl implements MetricsController {
+
+  private final PrometheusMeterRegistry meterRegistry;
+
+  @Inject
+  public MetricsControllerImpl(PrometheusMeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * @return a {@link Response#ok()} containing all the metrics of the service in the Prometheus
+   *     text format
+   */
+  public Response metrics() {
+    return Response.ok().entity(meterRegistry.scrape()).build();
+  }
+}
@@ -0,0 +1,131 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.services;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the health of the dependencies in background and publishes the result as a {@link
+ * HealthSnapshot}, so the health probes never wait for the dependencies and they do not pile up
+ * when a dependency is slow.
+ *
+ * <p>Once {@link #start()}ed, a single thread refreshes the snapshot at the configured interval.
+ * If the monitor is not running, the snapshot is refreshed by the caller when it is older than
+ * the interval.
+ */
+@Singleton
+public class HealthMonitor {
+
+  private static final Logger logger = LoggerFactory.getLogger(HealthMonitor.class);
+
+  /** Number of refresh intervals after which a snapshot is considered stale. */
+  private static final int STALE_INTERVALS = 3;
+
+  private final HealthService healthService;
+  private final Duration refreshInterval;
+  private final Clock clock;
+
+  private volatile HealthSnapshot snapshot;
+  private volatile ScheduledExecutorService scheduler;
+
+  @Inject
+  public HealthMonitor(HealthService healthService, TasksConfig tasksConfig, Clock clock) {
+    this(healthService, tasksConfig.getHealthRefreshInterval(), clock);
+  }
+
+  public HealthMonitor(HealthService healthService, Duration refreshInterval, Clock clock) {
+    this.healthService = healthService;
+    this.refreshInterval = refreshInterval;
+    this.clock = clock;
+  }
+
+  /** Starts refreshing the snapshot in background. Calling it more than once has no effect. */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+
+    logger.info("Health monitor: refresh interval: {}", refreshInterval);
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "health-monitor");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(
+        this::refreshInBackground, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /** @return the last published {@link HealthSnapshot} */
+  public HealthSnapshot getSnapshot() {
+    HealthSnapshot currentSnapshot = snapshot;
+
+    if (currentSnapshot == null
+        || (!isRunning() && isOlderThan(currentSnapshot, refreshInterval))) {
+      return refresh();
+    }
+
+    return currentSnapshot;
+  }
+
+  /**
+   * @param healthSnapshot is a {@link HealthSnapshot} published by this monitor
+   * @return the time elapsed since the health check of the given snapshot
+   */
+  public Duration getAge(HealthSnapshot healthSnapshot) {
+    return Duration.between(healthSnapshot.getCheckedAt(), clock.instant());
+  }
+
+  /**
+   * @param healthSnapshot is a {@link HealthSnapshot} published by this monitor
+   * @return true if the snapshot has not been refreshed for several intervals, meaning that the
+   *     health checks are stuck and the snapshot cannot be trusted anymore
+   */
+  public boolean isStale(HealthSnapshot healthSnapshot) {
+    return isOlderThan(healthSnapshot, refreshInterval.multipliedBy(STALE_INTERVALS));
+  }
+
+  /** Checks the health of the dependencies and publishes the result. */
+  synchronized HealthSnapshot refresh() {
+    HealthSnapshot refreshedSnapshot =
+        new HealthSnapshot(healthService.getServiceHealthStatus(), clock.instant());
+    snapshot = refreshedSnapshot;
+    return refreshedSnapshot;
+  }
+
+  private void refreshInBackground() {
+    try {
+      refresh();
+    } catch (RuntimeException exception) {
+      // An exception would cancel the next executions: the old snapshot becomes stale instead
+      logger.error("Unable to check the health of the dependencies", exception);
+    }
+  }
+
+  private boolean isRunning() {
+    return scheduler != null;
+  }
+
+  private boolean isOlderThan(HealthSnapshot healthSnapshot, Duration duration) {
+    return getAge(healthSnapshot).compareTo(duration) > 0;
+  }
+}
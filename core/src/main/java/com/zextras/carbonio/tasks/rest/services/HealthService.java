@@ -13,6 +13,10 @@ import com.zextras.carbonio.usermanagement.UserManagementClient;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Checks the health of the service dependencies. Every check calls the dependencies, so the health
+ * endpoints do not use it directly: they serve the result published by the {@link HealthMonitor}.
+ */
 public class HealthService {
 
   private final DatabaseManager databaseManager;
@@ -24,10 +28,6 @@ public class HealthService {
     this.userManagementClient = userManagementClient;
   }
 
-  public boolean areServiceDependenciesReady() {
-    return databaseManager.isDatabaseLive() && userManagementClient.healthCheck();
-  }
-
   public HealthStatus getServiceHealthStatus() {
     List<ServiceHealth> dependencies = new ArrayList<>();
     dependencies.add(getDatabaseHealth());
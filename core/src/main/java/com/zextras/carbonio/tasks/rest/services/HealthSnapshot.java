@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.services;
+
+import com.zextras.carbonio.tasks.rest.types.health.HealthStatus;
+import com.zextras.carbonio.tasks.rest.types.health.ServiceHealth;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the health of the service and of its dependencies at a given instant. It is
+ * immutable, so it can be shared by all the requests served until the next check: the {@link
+ * #toHealthStatus()} returns a new copy every time.
+ */
+public final class HealthSnapshot {
+
+  private final boolean ready;
+  private final boolean dependenciesLive;
+  private final List<ServiceHealth> dependencies;
+  private final Instant checkedAt;
+
+  public HealthSnapshot(HealthStatus healthStatus, Instant checkedAt) {
+    this.ready = healthStatus.isReady();
+    this.dependencies = copyDependencies(healthStatus.getDependencies());
+    this.dependenciesLive = dependencies.stream().allMatch(ServiceHealth::isLive);
+    this.checkedAt = checkedAt;
+  }
+
+  /** @return true if all the required dependencies are ready */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /** @return true if all the dependencies are reachable */
+  public boolean areDependenciesLive() {
+    return dependenciesLive;
+  }
+
+  public Instant getCheckedAt() {
+    return checkedAt;
+  }
+
+  /** @return a new {@link HealthStatus} with the health of the service and its dependencies */
+  public HealthStatus toHealthStatus() {
+    return new HealthStatus().setReady(ready).setDependencies(copyDependencies(dependencies));
+  }
+
+  private static List<ServiceHealth> copyDependencies(List<ServiceHealth> dependencies) {
+    if (dependencies == null) {
+      return List.of();
+    }
+
+    return dependencies.stream()
+        .map(
+            dependency ->
+                new ServiceHealth()
+                    .setName(dependency.getName())
+                    .setType(dependency.getType())
+                    .setLive(dependency.isLive())
+                    .setReady(dependency.isReady()))
+        .collect(Collectors.toUnmodifiableList());
+  }
+}
@@ -0,0 +1,246 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.trash;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes in background the tasks trashed longer than the retention, so the trashed tasks do not
+ * pile up in the task table and in its indexes.
+ *
+ * <p>The tasks are deleted in small batches, each one in its own short transaction, with a pause
+ * between two batches: the purge never holds many locks for long and it does not flood the
+ * write-ahead log. The tasks trashed before the trash date existed are stamped with the date of the
+ * first purge, in batches too, so their retention starts from there.
+ *
+ * <p>The purge can be stopped without a restart by disabling it in the service discover: the kill
+ * switch is read at the beginning of each run and again, during a long run, at least once a minute.
+ */
+@Singleton
+public class TrashPurger {
+
+  private static final Logger logger = LoggerFactory.getLogger(TrashPurger.class);
+  private static final Duration INITIAL_DELAY = Duration.ofMinutes(1);
+  private static final Duration KILL_SWITCH_CHECK_INTERVAL = Duration.ofMinutes(1);
+
+  private final TaskRepository taskRepository;
+  private final TasksConfig tasksConfig;
+  private final Clock clock;
+  private final Duration retention;
+  private final Duration interval;
+  private final int batchSize;
+  private final Duration batchPause;
+  private final Counter deletedCounter;
+  private final Timer stampBatchTimer;
+  private final Timer deleteBatchTimer;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private Instant killSwitchCheckedAt;
+  private ScheduledExecutorService scheduler;
+
+  @Inject
+  public TrashPurger(
+      TaskRepository taskRepository,
+      TasksConfig tasksConfig,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    this(
+        taskRepository,
+        tasksConfig,
+        clock,
+        tasksConfig.getTrashPurgeRetention(),
+        tasksConfig.getTrashPurgeInterval(),
+        tasksConfig.getTrashPurgeBatchSize(),
+        tasksConfig.getTrashPurgeBatchPause(),
+        meterRegistry);
+  }
+
+  public TrashPurger(
+      TaskRepository taskRepository,
+      TasksConfig tasksConfig,
+      Clock clock,
+      Duration retention,
+      Duration interval,
+      int batchSize,
+      Duration batchPause,
+      MeterRegistry meterRegistry) {
+    this.taskRepository = taskRepository;
+    this.tasksConfig = tasksConfig;
+    this.clock = clock;
+    this.retention = retention;
+    this.interval = interval;
+    this.batchSize = batchSize;
+    this.batchPause = batchPause;
+
+    this.deletedCounter =
+        Counter.builder(Metrics.TRASH_PURGE_DELETED)
+            .description("The number of trashed tasks deleted by the purge")
+            .register(meterRegistry);
+    this.stampBatchTimer =
+        Timer.builder(Metrics.TRASH_PURGE_BATCH)
+            .description("The duration of the batches of the trash purge")
+            .tag("operation", "stamp")
+            .register(meterRegistry);
+    this.deleteBatchTimer =
+        Timer.builder(Metrics.TRASH_PURGE_BATCH)
+            .description("The duration of the batches of the trash purge")
+            .tag("operation", "delete")
+            .register(meterRegistry);
+    Gauge.builder(Metrics.TRASH_PURGE_RUNNING, running, value -> value.get() ? 1 : 0)
+        .description("1 while the trash purge is running, 0 otherwise")
+        .register(meterRegistry);
+  }
+
+  /** Starts purging the trash in background. Calling it more than once has no effect. */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+
+    logger.info(
+        "Trash purge: retention: {}, interval: {}, batch size: {}, pause between batches: {}",
+        retention,
+        interval,
+        batchSize,
+        batchPause);
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "trash-purger");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(
+        this::purgeInBackground,
+        INITIAL_DELAY.toMillis(),
+        interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the purge: a running batch is completed, the next ones are not executed. */
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /**
+   * Stamps the trashed tasks without a trash date and then deletes the tasks trashed longer than
+   * the retention, unless the purge is disabled.
+   */
+  void purge() {
+    killSwitchCheckedAt = clock.instant();
+    if (!tasksConfig.isTrashPurgeEnabled()) {
+      logger.debug("Trash purge disabled");
+      return;
+    }
+
+    running.set(true);
+    try {
+      Instant startedAt = killSwitchCheckedAt;
+      Instant trashedBefore = startedAt.minus(retention);
+
+      int stamped =
+          runBatches(stampBatchTimer, () -> taskRepository.stampTrashedTasks(startedAt, batchSize));
+      if (stamped > 0) {
+        logger.info("Trash purge: {} trashed tasks stamped with the trash date", stamped);
+      }
+
+      int deleted =
+          runBatches(
+              deleteBatchTimer,
+              () -> {
+                int deletedTasks = taskRepository.deleteTrashedTasks(trashedBefore, batchSize);
+                deletedCounter.increment(deletedTasks);
+                return deletedTasks;
+              });
+      logger.info("Trash purge: {} tasks trashed before {} deleted", deleted, trashedBefore);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * Executes the given batch until it processes fewer tasks than the batch size, pausing between
+   * two batches. It stops earlier if the purge is disabled or the thread is interrupted.
+   *
+   * @return the total number of processed tasks
+   */
+  private int runBatches(Timer batchTimer, IntSupplier batch) {
+    int total = 0;
+
+    while (isStillEnabled()) {
+      int processed = batchTimer.record(batch);
+      total += processed;
+
+      if (processed < batchSize || !pause()) {
+        break;
+      }
+    }
+
+    return total;
+  }
+
+  /** @return false if the thread has been interrupted while pausing */
+  private boolean pause() {
+    if (batchPause.isZero()) {
+      return !Thread.currentThread().isInterrupted();
+    }
+
+    try {
+      Thread.sleep(batchPause.toMillis());
+      return true;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private boolean isStillEnabled() {
+    Instant now = clock.instant();
+    if (Duration.between(killSwitchCheckedAt, now).compareTo(KILL_SWITCH_CHECK_INTERVAL) < 0) {
+      return true;
+    }
+
+    killSwitchCheckedAt = now;
+    boolean enabled = tasksConfig.isTrashPurgeEnabled();
+    if (!enabled) {
+      logger.info("Trash purge disabled while running: the remaining batches are skipped");
+    }
+    return enabled;
+  }
+
+  private void purgeInBackground() {
+    try {
+      purge();
+    } catch (RuntimeException exception) {
+      // An exception would cancel the next executions: the purge is retried at the next interval
+      logger.error("Unable to purge the trashed tasks", exception);
+    }
+  }
+}
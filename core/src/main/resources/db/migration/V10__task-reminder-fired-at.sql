@@ -0,0 +1,10 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- When the reminder of a task has been fired (reminder engine). Every node of the service loads
+-- the reminders due in its window, so before firing a reminder a node claims it setting this date
+-- with a conditional update: only the node whose update succeeds fires it. Changing the reminder
+-- clears the date, so the new one is fired too. A nullable column without a default is added
+-- without rewriting the table.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS reminder_fired_at TIMESTAMP;
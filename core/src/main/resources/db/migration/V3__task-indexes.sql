@@ -0,0 +1,32 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- The indexes are created and dropped CONCURRENTLY, so the task table is never locked while the
+-- service is upgraded. These statements cannot be executed inside a transaction block, so this
+-- migration is executed outside a transaction (see V3__task-indexes.sql.conf) and it must not
+-- contain explicit BEGIN/COMMIT statements.
+--
+-- Each index is dropped before being created: if a previous execution failed and left an INVALID
+-- index behind, a new execution rebuilds it from scratch.
+
+-- Tasks of a user that are not trashed, sorted from the newest to the oldest (findTasks without a
+-- status filter). The id makes the sorting total for the keyset pagination.
+DROP INDEX CONCURRENTLY IF EXISTS task_user_id_created_at_not_trashed_index;
+CREATE INDEX CONCURRENTLY task_user_id_created_at_not_trashed_index
+    ON task (user_id, created_at DESC, id DESC)
+    WHERE status <> 'TRASH';
+
+-- Tasks of a user filtered by status and by priority, sorted from the newest to the oldest
+DROP INDEX CONCURRENTLY IF EXISTS task_user_id_status_priority_created_at_index;
+CREATE INDEX CONCURRENTLY task_user_id_status_priority_created_at_index
+    ON task (user_id, status, priority, created_at DESC, id DESC);
+
+-- Duplicate of the primary key index
+DROP INDEX CONCURRENTLY IF EXISTS task_table_index_id;
+
+-- Covered by the composite indexes having the user_id as first column
+DROP INDEX CONCURRENTLY IF EXISTS task_table_index_user_id;
+
+-- Too few distinct values to be selective, every query filters by user_id first
+DROP INDEX CONCURRENTLY IF EXISTS task_table_index_status;
@@ -0,0 +1,85 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Full-text search over the title and the description of the tasks (searchTasks). Like the
+-- V3__task-indexes.sql, the task table is never locked for longer than a catalog change: the
+-- search document is a plain column kept up to date by a trigger, the existing tasks are filled in
+-- batches and the column is indexed CONCURRENTLY. A stored generated column would rewrite the
+-- whole table holding an exclusive lock.
+--
+-- This migration is executed outside a transaction (see V4__task-search.sql.conf): the index is
+-- created CONCURRENTLY and the batches are committed one by one. Every step can be executed again
+-- if a previous execution failed.
+
+-- The title weighs more than the description in the ranking. The 'simple' configuration does not
+-- stem the words, so it works the same way whatever the language of the tasks: the same
+-- configuration must be used to parse the search queries.
+CREATE OR REPLACE FUNCTION task_search_vector(title VARCHAR, description VARCHAR)
+    RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('simple', title), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B');
+$$ LANGUAGE SQL IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION task_sync_search_vector() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := task_search_vector(NEW.title, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Adding a nullable column and a trigger changes only the catalog, but it still needs a short
+-- exclusive lock. Like in the V8__task-user-id-uuid.sql, the lock is requested with a timeout, so a
+-- long transaction on the table does not queue all the other queries behind the migration, and it
+-- is retried a few times before giving up.
+DO $$
+BEGIN
+    PERFORM set_config('lock_timeout', '5s', true);
+
+    FOR attempt IN 1..10 LOOP
+        BEGIN
+            ALTER TABLE task ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+
+            DROP TRIGGER IF EXISTS task_sync_search_vector_trigger ON task;
+            CREATE TRIGGER task_sync_search_vector_trigger
+                BEFORE INSERT OR UPDATE OF title, description ON task
+                FOR EACH ROW EXECUTE FUNCTION task_sync_search_vector();
+            RETURN;
+        EXCEPTION WHEN lock_not_available THEN
+            RAISE NOTICE 'Unable to lock the task table (attempt %), retrying', attempt;
+            PERFORM pg_sleep(1);
+        END;
+    END LOOP;
+
+    RAISE EXCEPTION 'Unable to lock the task table to add the search_vector column';
+END;
+$$;
+
+-- The existing tasks are filled in batches walking the primary key, like in the
+-- V8__task-user-id-uuid.sql
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last_id UUID;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_last_id
+        FROM (SELECT id FROM task WHERE id > last_id ORDER BY id LIMIT 5000) AS batch;
+        EXIT WHEN batch_last_id IS NULL;
+
+        UPDATE task SET search_vector = task_search_vector(title, description)
+        WHERE id > last_id AND id <= batch_last_id AND search_vector IS NULL;
+        COMMIT;
+
+        last_id := batch_last_id;
+    END LOOP;
+END;
+$$;
+
+UPDATE task SET search_vector = task_search_vector(title, description)
+WHERE search_vector IS NULL;
+
+DROP INDEX CONCURRENTLY IF EXISTS task_search_vector_index;
+CREATE INDEX CONCURRENTLY task_search_vector_index
+    ON task USING GIN (search_vector)
+    WHERE status <> 'TRASH';
@@ -0,0 +1,14 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Like the V3__task-indexes.sql, this migration is executed outside a transaction (see
+-- V5__task-reminders-index.sql.conf) because the index is created CONCURRENTLY.
+
+-- Pending reminders of all the users sorted by due date (reminder engine). The engine reads only
+-- the reminders due in the next window, so the scan is a range of this index whatever the number
+-- of tasks. The id makes the sorting total for the keyset pagination.
+DROP INDEX CONCURRENTLY IF EXISTS task_reminder_at_open_index;
+CREATE INDEX CONCURRENTLY task_reminder_at_open_index
+    ON task (reminder_at, id)
+    WHERE reminder_at IS NOT NULL AND status = 'OPEN';
@@ -0,0 +1,19 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Like the V3__task-indexes.sql, this migration is executed outside a transaction (see
+-- V6__task-trashed-at.sql.conf) because the index is created CONCURRENTLY.
+
+-- When a task has been trashed: the trash purge deletes the tasks trashed longer than the
+-- retention. A nullable column without a default is added without rewriting the table. The tasks
+-- trashed before this migration have no date: the purge stamps them, in batches, when it runs.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS trashed_at TIMESTAMP;
+
+-- Trashed tasks sorted by trash date (trash purge). Each batch of the purge is a range scan of
+-- this index, so it does not read the tasks still in use. The null dates are indexed too, so the
+-- tasks to stamp are found the same way.
+DROP INDEX CONCURRENTLY IF EXISTS task_trashed_at_index;
+CREATE INDEX CONCURRENTLY task_trashed_at_index
+    ON task (trashed_at)
+    WHERE status = 'TRASH';
@@ -0,0 +1,17 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Like the V3__task-indexes.sql, this migration is executed outside a transaction (see
+-- V7__task-updated-at.sql.conf) because the index is created CONCURRENTLY.
+
+-- When a task has been created, changed or trashed for the last time (taskChanges). The constant
+-- default is stored only in the catalog, so the column is added without rewriting the table: the
+-- existing tasks are considered unchanged since the epoch.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT 'epoch';
+
+-- Tasks of a user sorted by change date (taskChanges). The trashed tasks are indexed too because
+-- they are returned as tombstones. The id makes the sorting total for the keyset pagination.
+DROP INDEX CONCURRENTLY IF EXISTS task_user_id_updated_at_index;
+CREATE INDEX CONCURRENTLY task_user_id_updated_at_index
+    ON task (user_id, updated_at, id);
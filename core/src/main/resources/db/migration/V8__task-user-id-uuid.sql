@@ -0,0 +1,107 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Converts the user_id column from CHARACTER(36) to UUID: 16 bytes instead of 37 in the table and
+-- in every index starting with the user. An ALTER COLUMN ... TYPE would rewrite the table and all
+-- its indexes holding an exclusive lock, so the column is migrated online instead: a new column is
+-- added, kept in sync by a trigger, filled in batches and indexed CONCURRENTLY, then it replaces
+-- the old one in a short transaction.
+--
+-- Like the V3__task-indexes.sql, this migration is executed outside a transaction (see
+-- V8__task-user-id-uuid.sql.conf): the indexes are created CONCURRENTLY and the batches are
+-- committed one by one. Every step can be executed again if a previous execution failed.
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS user_uuid UUID;
+
+-- The tasks created while the migration runs already have the new column filled
+CREATE OR REPLACE FUNCTION task_sync_user_uuid() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.user_uuid := NEW.user_id::UUID;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS task_sync_user_uuid_trigger ON task;
+CREATE TRIGGER task_sync_user_uuid_trigger
+    BEFORE INSERT OR UPDATE OF user_id ON task
+    FOR EACH ROW EXECUTE FUNCTION task_sync_user_uuid();
+
+-- The existing tasks are filled in batches walking the primary key, each batch is committed on its
+-- own so the rows are locked only for a short time.
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last_id UUID;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_last_id
+        FROM (SELECT id FROM task WHERE id > last_id ORDER BY id LIMIT 5000) AS batch;
+        EXIT WHEN batch_last_id IS NULL;
+
+        UPDATE task SET user_uuid = user_id::UUID
+        WHERE id > last_id AND id <= batch_last_id AND user_uuid IS NULL;
+        COMMIT;
+
+        last_id := batch_last_id;
+    END LOOP;
+END;
+$$;
+
+-- The walk starts after the nil uuid: this catches a task having it as identifier, if any
+UPDATE task SET user_uuid = user_id::UUID WHERE user_uuid IS NULL;
+
+-- Same indexes of the V3__task-indexes.sql and of the V7__task-updated-at.sql on the new column
+DROP INDEX CONCURRENTLY IF EXISTS task_user_uuid_created_at_not_trashed_index;
+CREATE INDEX CONCURRENTLY task_user_uuid_created_at_not_trashed_index
+    ON task (user_uuid, created_at DESC, id DESC)
+    WHERE status <> 'TRASH';
+
+DROP INDEX CONCURRENTLY IF EXISTS task_user_uuid_status_priority_created_at_index;
+CREATE INDEX CONCURRENTLY task_user_uuid_status_priority_created_at_index
+    ON task (user_uuid, status, priority, created_at DESC, id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS task_user_uuid_updated_at_index;
+CREATE INDEX CONCURRENTLY task_user_uuid_updated_at_index
+    ON task (user_uuid, updated_at, id);
+
+-- A validated check lets the SET NOT NULL below skip the scan of the table. The validation scans
+-- the table without blocking the reads and the writes.
+ALTER TABLE task DROP CONSTRAINT IF EXISTS task_user_uuid_not_null;
+ALTER TABLE task ADD CONSTRAINT task_user_uuid_not_null CHECK (user_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE task VALIDATE CONSTRAINT task_user_uuid_not_null;
+
+-- The new column replaces the old one in a single transaction: only catalog changes are made while
+-- the table is locked. Dropping the old column drops its indexes too. The lock is requested with a
+-- timeout, so a long transaction on the table does not queue all the other queries behind the
+-- migration: the swap is retried a few times before giving up.
+DO $$
+BEGIN
+    PERFORM set_config('lock_timeout', '5s', true);
+
+    FOR attempt IN 1..10 LOOP
+        BEGIN
+            ALTER TABLE task ALTER COLUMN user_uuid SET NOT NULL;
+            ALTER TABLE task DROP CONSTRAINT task_user_uuid_not_null;
+            DROP TRIGGER task_sync_user_uuid_trigger ON task;
+            DROP FUNCTION task_sync_user_uuid();
+
+            ALTER TABLE task DROP COLUMN user_id;
+            ALTER TABLE task RENAME COLUMN user_uuid TO user_id;
+
+            ALTER INDEX task_user_uuid_created_at_not_trashed_index
+                RENAME TO task_user_id_created_at_not_trashed_index;
+            ALTER INDEX task_user_uuid_status_priority_created_at_index
+                RENAME TO task_user_id_status_priority_created_at_index;
+            ALTER INDEX task_user_uuid_updated_at_index
+                RENAME TO task_user_id_updated_at_index;
+            RETURN;
+        EXCEPTION WHEN lock_not_available THEN
+            RAISE NOTICE 'Unable to lock the task table (attempt %), retrying', attempt;
+            PERFORM pg_sleep(1);
+        END;
+    END LOOP;
+
+    RAISE EXCEPTION 'Unable to lock the task table to replace the user_id column';
+END;
+$$;
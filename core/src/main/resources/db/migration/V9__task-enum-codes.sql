@@ -0,0 +1,153 @@
+-- SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+--
+-- SPDX-License-Identifier: AGPL-3.0-only
+
+-- Converts the priority and the status columns from VARCHAR(25) to the SMALLINT codes of the
+-- Priority and Status enums: 2 bytes instead of the name of the value, in the table and in the
+-- indexes filtering or sorting on them, and integer comparisons instead of string ones.
+--
+-- Codes: priority LOW = 0, MEDIUM = 1, HIGH = 2 (the never used NORMAL default becomes MEDIUM),
+--        status OPEN = 0, COMPLETE = 1, TRASH = 2.
+--
+-- Like the V8__task-user-id-uuid.sql, the columns are migrated online: the new columns are added,
+-- kept in sync by a trigger, filled in batches and indexed CONCURRENTLY, then they replace the old
+-- ones in a short transaction. This migration is executed outside a transaction (see
+-- V9__task-enum-codes.sql.conf) and every step can be executed again if a previous execution
+-- failed.
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS priority_code SMALLINT;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS status_code SMALLINT;
+
+CREATE OR REPLACE FUNCTION task_priority_code(priority VARCHAR) RETURNS SMALLINT AS $$
+    SELECT CASE priority
+        WHEN 'LOW' THEN 0
+        WHEN 'MEDIUM' THEN 1
+        WHEN 'NORMAL' THEN 1
+        WHEN 'HIGH' THEN 2
+    END::SMALLINT;
+$$ LANGUAGE SQL IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION task_status_code(status VARCHAR) RETURNS SMALLINT AS $$
+    SELECT CASE status
+        WHEN 'OPEN' THEN 0
+        WHEN 'COMPLETE' THEN 1
+        WHEN 'TRASH' THEN 2
+    END::SMALLINT;
+$$ LANGUAGE SQL IMMUTABLE;
+
+-- The tasks created or changed while the migration runs already have the new columns filled
+CREATE OR REPLACE FUNCTION task_sync_enum_codes() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.priority_code := task_priority_code(NEW.priority);
+    NEW.status_code := task_status_code(NEW.status);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS task_sync_enum_codes_trigger ON task;
+CREATE TRIGGER task_sync_enum_codes_trigger
+    BEFORE INSERT OR UPDATE OF priority, status ON task
+    FOR EACH ROW EXECUTE FUNCTION task_sync_enum_codes();
+
+-- The existing tasks are filled in batches walking the primary key, like in the
+-- V8__task-user-id-uuid.sql
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last_id UUID;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_last_id
+        FROM (SELECT id FROM task WHERE id > last_id ORDER BY id LIMIT 5000) AS batch;
+        EXIT WHEN batch_last_id IS NULL;
+
+        UPDATE task
+        SET priority_code = task_priority_code(priority), status_code = task_status_code(status)
+        WHERE id > last_id AND id <= batch_last_id
+          AND (priority_code IS NULL OR status_code IS NULL);
+        COMMIT;
+
+        last_id := batch_last_id;
+    END LOOP;
+END;
+$$;
+
+UPDATE task
+SET priority_code = task_priority_code(priority), status_code = task_status_code(status)
+WHERE priority_code IS NULL OR status_code IS NULL;
+
+-- Same indexes of the previous migrations on the new columns. The literals of the partial indexes
+-- are the codes used by the queries of the TaskRepositoryEbean.
+DROP INDEX CONCURRENTLY IF EXISTS task_user_id_created_at_not_trashed_code_index;
+CREATE INDEX CONCURRENTLY task_user_id_created_at_not_trashed_code_index
+    ON task (user_id, created_at DESC, id DESC)
+    WHERE status_code <> 2;
+
+DROP INDEX CONCURRENTLY IF EXISTS task_user_id_status_priority_created_at_code_index;
+CREATE INDEX CONCURRENTLY task_user_id_status_priority_created_at_code_index
+    ON task (user_id, status_code, priority_code, created_at DESC, id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS task_search_vector_code_index;
+CREATE INDEX CONCURRENTLY task_search_vector_code_index
+    ON task USING GIN (search_vector)
+    WHERE status_code <> 2;
+
+DROP INDEX CONCURRENTLY IF EXISTS task_reminder_at_open_code_index;
+CREATE INDEX CONCURRENTLY task_reminder_at_open_code_index
+    ON task (reminder_at, id)
+    WHERE reminder_at IS NOT NULL AND status_code = 0;
+
+DROP INDEX CONCURRENTLY IF EXISTS task_trashed_at_code_index;
+CREATE INDEX CONCURRENTLY task_trashed_at_code_index
+    ON task (trashed_at)
+    WHERE status_code = 2;
+
+ALTER TABLE task DROP CONSTRAINT IF EXISTS task_enum_codes_not_null;
+ALTER TABLE task ADD CONSTRAINT task_enum_codes_not_null
+    CHECK (priority_code IS NOT NULL AND status_code IS NOT NULL) NOT VALID;
+ALTER TABLE task VALIDATE CONSTRAINT task_enum_codes_not_null;
+
+-- Like in the V8__task-user-id-uuid.sql, the new columns replace the old ones in a single
+-- transaction, requesting the lock with a timeout and retrying a few times. Dropping the old
+-- columns drops their indexes too, including the partial ones filtering on the status.
+DO $$
+BEGIN
+    PERFORM set_config('lock_timeout', '5s', true);
+
+    FOR attempt IN 1..10 LOOP
+        BEGIN
+            ALTER TABLE task
+                ALTER COLUMN priority_code SET NOT NULL,
+                ALTER COLUMN priority_code SET DEFAULT 1,
+                ALTER COLUMN status_code SET NOT NULL,
+                ALTER COLUMN status_code SET DEFAULT 0,
+                DROP CONSTRAINT task_enum_codes_not_null;
+            DROP TRIGGER task_sync_enum_codes_trigger ON task;
+            DROP FUNCTION task_sync_enum_codes();
+            DROP FUNCTION task_priority_code(VARCHAR);
+            DROP FUNCTION task_status_code(VARCHAR);
+
+            ALTER TABLE task DROP COLUMN priority, DROP COLUMN status;
+            ALTER TABLE task RENAME COLUMN priority_code TO priority;
+            ALTER TABLE task RENAME COLUMN status_code TO status;
+
+            ALTER INDEX task_user_id_created_at_not_trashed_code_index
+                RENAME TO task_user_id_created_at_not_trashed_index;
+            ALTER INDEX task_user_id_status_priority_created_at_code_index
+                RENAME TO task_user_id_status_priority_created_at_index;
+            ALTER INDEX task_search_vector_code_index
+                RENAME TO task_search_vector_index;
+            ALTER INDEX task_reminder_at_open_code_index
+                RENAME TO task_reminder_at_open_index;
+            ALTER INDEX task_trashed_at_code_index
+                RENAME TO task_trashed_at_index;
+            RETURN;
+        EXCEPTION WHEN lock_not_available THEN
+            RAISE NOTICE 'Unable to lock the task table (attempt %), retrying', attempt;
+            PERFORM pg_sleep(1);
+        END;
+    END LOOP;
+
+    RAISE EXCEPTION 'Unable to lock the task table to replace the priority and status columns';
+END;
+$$;
@@ -10,16 +10,22 @@ import com.google.inject.servlet.GuiceFilter;
 import com.zextras.carbonio.tasks.Constants.Config.Database;
 import com.zextras.carbonio.tasks.Constants.Config.Properties;
 import com.zextras.carbonio.tasks.Constants.Config.UserService;
+import com.zextras.carbonio.tasks.config.LifecycleManager;
 import com.zextras.carbonio.tasks.config.TasksModule;
 import com.zextras.carbonio.tasks.dal.DatabaseManager;
 import jakarta.servlet.DispatcherType;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.EnumSet;
 import java.util.Map;
+import org.eclipse.jetty.ee10.servlet.FilterHolder;
 import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHandler.Default404Servlet;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.server.LocalConnector;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.jboss.resteasy.plugins.guice.GuiceResteasyBootstrapServletContextListener;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
@@ -44,6 +50,7 @@ public class Simulator implements AutoCloseable {
   private Server jettyServer;
   private LocalConnector httpLocalConnector;
   private boolean isJettyServerEnabled;
+  private int jettyServerMaxThreads;
 
   public Simulator() {
     isJettyServerEnabled = false;
@@ -77,6 +84,14 @@ public class Simulator implements AutoCloseable {
   }
 
   private Simulator startServiceDiscover() {
+    return startServiceDiscover(Map.of());
+  }
+
+  /**
+   * @param configs are the configs, other than the database credentials, exposed by the service
+   *     discover. They are indexed by their key without the service prefix.
+   */
+  private Simulator startServiceDiscover(Map<String, String> configs) {
 
     startMockServer();
     serviceDiscoverMock = new MockServerClient("localhost", 8500);
@@ -102,45 +117,40 @@ public class Simulator implements AutoCloseable {
     String encodedDbName = new String(Base64.encode(dbName.getBytes()));
     String encodedDbUsername = new String(Base64.encode(dbUsername.getBytes()));
     String encodedDbPassword = new String(Base64.encode(dbPassword.getBytes()));
-    String bodyPayloadFormat = "[{\"Key\":\"%s\",\"Value\":\"%s\"}]";
-
-    serviceDiscoverMock
-        .when(
-            HttpRequest.request()
-                .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-name")
-                .withHeader("X-Consul-Token", ""))
-        .respond(
-            HttpResponse.response()
-                .withStatusCode(200)
-                .withBody(
-                    String.format(bodyPayloadFormat, "carbonio-tasks/db-name", encodedDbName)));
-
-    serviceDiscoverMock
-        .when(
-            HttpRequest.request()
-                .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-username")
-                .withHeader("X-Consul-Token", ""))
-        .respond(
-            HttpResponse.response()
-                .withStatusCode(200)
-                .withBody(
+    String configFormat = "{\"Key\":\"%s\",\"Value\":\"%s\"}";
+
+    StringBuilder otherConfigs = new StringBuilder();
+    configs.forEach(
+        (key, value) ->
+            otherConfigs
+                .append(",")
+                .append(
                     String.format(
-                        bodyPayloadFormat, "carbonio-tasks/db-username", encodedDbUsername)));
+                        configFormat,
+                        "carbonio-tasks/" + key,
+                        new String(Base64.encode(value.getBytes())))));
 
     serviceDiscoverMock
         .when(
             HttpRequest.request()
                 .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-password")
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true")
                 .withHeader("X-Consul-Token", ""))
         .respond(
             HttpResponse.response()
                 .withStatusCode(200)
                 .withBody(
-                    String.format(
-                        bodyPayloadFormat, "carbonio-tasks/db-password", encodedDbPassword)));
+                    "["
+                        + String.format(configFormat, "carbonio-tasks/db-name", encodedDbName)
+                        + ","
+                        + String.format(
+                            configFormat, "carbonio-tasks/db-username", encodedDbUsername)
+                        + ","
+                        + String.format(
+                            configFormat, "carbonio-tasks/db-password", encodedDbPassword)
+                        + otherConfigs
+                        + "]"));
 
     return this;
   }
@@ -165,12 +175,22 @@ public class Simulator implements AutoCloseable {
   }
 
   public Simulator enableJettyServer() {
+    return enableJettyServer(0);
+  }
+
+  /**
+   * @param maxThreads is the maximum number of threads of the server, or 0 to use the default of
+   *     Jetty
+   */
+  public Simulator enableJettyServer(int maxThreads) {
     isJettyServerEnabled = true;
+    jettyServerMaxThreads = maxThreads;
     return this;
   }
 
   public void stopAll() {
     stopJettyServer();
+    stopService();
     stopUserManagement();
     stopServiceDiscover();
     stopDatabase();
@@ -195,6 +215,14 @@ public class Simulator implements AutoCloseable {
     return this;
   }
 
+  private Simulator stopService() {
+    if (injector != null) {
+      injector.getInstance(LifecycleManager.class).stop();
+    }
+
+    return this;
+  }
+
   private Simulator stopServiceDiscover() {
     if (serviceDiscoverMock != null && serviceDiscoverMock.hasStarted()) {
       serviceDiscoverMock.stop();
@@ -243,14 +271,26 @@ public class Simulator implements AutoCloseable {
 
   private void startJettyServer() {
     try {
-      jettyServer = new Server();
+      jettyServer =
+          jettyServerMaxThreads > 0
+              ? new Server(new QueuedThreadPool(jettyServerMaxThreads))
+              : new Server();
       httpLocalConnector = new LocalConnector(jettyServer);
       jettyServer.addConnector(httpLocalConnector);
 
       ServletContextHandler servletContextHandler =
           new ServletContextHandler("/", ServletContextHandler.SESSIONS);
 
-      servletContextHandler.addFilter(GuiceFilter.class, "/*", EnumSet.allOf(DispatcherType.class));
+      // The GraphQL requests are executed asynchronously, releasing the Jetty thread while the
+      // data fetchers wait for the database: the request supports it only if all the filters and
+      // the servlet matching it support it
+      FilterHolder guiceFilterHolder = new FilterHolder(GuiceFilter.class);
+      guiceFilterHolder.setAsyncSupported(true);
+      servletContextHandler.addFilter(guiceFilterHolder, "/*", EnumSet.allOf(DispatcherType.class));
+
+      ServletHolder defaultServletHolder = new ServletHolder(Default404Servlet.class);
+      defaultServletHolder.setAsyncSupported(true);
+      servletContextHandler.addServlet(defaultServletHolder, "/");
       servletContextHandler.addEventListener(
           injector.getInstance(GuiceResteasyBootstrapServletContextListener.class));
 
@@ -261,6 +301,14 @@ public class Simulator implements AutoCloseable {
     }
   }
 
+  /**
+   * @return a new {@link Connection} to the database, outside the pool of the service, useful to
+   *     hold locks slowing down the requests
+   */
+  public Connection createDatabaseConnection() throws SQLException {
+    return postgreSQLContainer.createConnection("");
+  }
+
   public void resetDatabase() {
     try {
       postgreSQLContainer.createConnection("").createStatement().execute("DELETE FROM task;");
@@ -298,6 +346,11 @@ public class Simulator implements AutoCloseable {
       return this;
     }
 
+    public SimulatorBuilder withServiceDiscover(Map<String, String> configs) {
+      simulator.startServiceDiscover(configs);
+      return this;
+    }
+
     public SimulatorBuilder withUserManagement(Map<String, String> users) {
       simulator.startUserManagement();
       users.forEach((cookie, userId) -> simulator.validateUser(cookie, userId));
@@ -309,6 +362,11 @@ public class Simulator implements AutoCloseable {
       return this;
     }
 
+    public SimulatorBuilder withServer(int maxThreads) {
+      simulator.enableJettyServer(maxThreads);
+      return this;
+    }
+
     public Simulator build() {
       simulator.createInjector();
       boolean postgreIsRunning = simulator.postgreSQLContainer != null && simulator.postgreSQLContainer.isRunning();
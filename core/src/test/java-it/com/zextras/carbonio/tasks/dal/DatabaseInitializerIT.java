@@ -15,7 +15,10 @@ import com.zextras.carbonio.tasks.dal.dao.Task;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import java.io.FileNotFoundException;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,7 +91,14 @@ class DatabaseInitializerIT {
     // Insert a new task
     injector
         .getInstance(TaskRepository.class)
-        .createTask("user-id", "title", null, Priority.HIGH, Status.OPEN, null, null);
+        .createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            null,
+            null);
 
     // When
     // Second initialization
@@ -104,4 +114,199 @@ class DatabaseInitializerIT {
     List<Task> tasks = dbConnection.getEbeanDatabase().find(Task.class).findList();
     Assertions.assertThat(tasks).hasSize(1);
   }
+
+  @Test
+  void givenAReachableDatabaseTheInitializerShouldCreateTheTaskIndexes() {
+    // Given
+    Injector injector = simulator.getInjector();
+
+    DatabaseManager databaseManager = injector.getInstance(DatabaseManager.class);
+    DatabaseConnectionManager dbConnection = injector.getInstance(DatabaseConnectionManager.class);
+
+    // When
+    databaseManager.initialize();
+
+    // Then
+    List<String> indexes =
+        dbConnection
+            .getEbeanDatabase()
+            .sqlQuery("SELECT indexname FROM pg_indexes WHERE tablename = 'task'")
+            .mapToScalar(String.class)
+            .findList();
+
+    Assertions.assertThat(indexes)
+        .contains(
+            "task_user_id_created_at_not_trashed_index",
+            "task_user_id_status_priority_created_at_index")
+        .doesNotContain(
+            "task_table_index_id", "task_table_index_user_id", "task_table_index_status");
+  }
+
+  @Test
+  void givenTasksStoredBeforeTheSearchMigrationTheInitializerShouldFillTheirSearchVector() {
+    // Given
+    Injector injector = simulator.getInjector();
+
+    DatabaseManager databaseManager = injector.getInstance(DatabaseManager.class);
+    DatabaseConnectionManager dbConnection = injector.getInstance(DatabaseConnectionManager.class);
+
+    Flyway.configure()
+        .configuration(injector.getInstance(Flyway.class).getConfiguration())
+        .target("3")
+        .load()
+        .migrate();
+    dbConnection
+        .getEbeanDatabase()
+        .sqlUpdate(
+            "INSERT INTO task (id, user_id, title, description, created_at) VALUES"
+                + " ('6d162bee-3186-0000-bf31-59746a41600e',"
+                + " '00000000-0000-0000-0000-000000000001', 'quarterly report', 'draft', now())")
+        .execute();
+
+    // When
+    databaseManager.initialize();
+
+    // Then
+    String matchingQuery =
+        "SELECT count(*) FROM task WHERE search_vector @@ to_tsquery('simple', :query)";
+    Assertions.assertThat(
+            dbConnection
+                .getEbeanDatabase()
+                .sqlQuery(matchingQuery)
+                .setParameter("query", "report & draft")
+                .mapToScalar(Long.class)
+                .findOne())
+        .isEqualTo(1L);
+
+    // The trigger keeps the search vector up to date once the migration is over
+    dbConnection
+        .getEbeanDatabase()
+        .sqlUpdate("UPDATE task SET title = 'yearly budget'")
+        .execute();
+    Assertions.assertThat(
+            dbConnection
+                .getEbeanDatabase()
+                .sqlQuery(matchingQuery)
+                .setParameter("query", "budget")
+                .mapToScalar(Long.class)
+                .findOne())
+        .isEqualTo(1L);
+  }
+
+  @Test
+  void givenTasksStoredBeforeTheUserIdMigrationTheInitializerShouldConvertTheirOwnerToUuid() {
+    // Given
+    Injector injector = simulator.getInjector();
+
+    DatabaseManager databaseManager = injector.getInstance(DatabaseManager.class);
+    DatabaseConnectionManager dbConnection = injector.getInstance(DatabaseConnectionManager.class);
+
+    Flyway.configure()
+        .configuration(injector.getInstance(Flyway.class).getConfiguration())
+        .target("7")
+        .load()
+        .migrate();
+    dbConnection
+        .getEbeanDatabase()
+        .sqlUpdate(
+            "INSERT INTO task (id, user_id, title, created_at) VALUES"
+                + " ('6d162bee-3186-0000-bf31-59746a41600e',"
+                + " '00000000-0000-0000-0000-000000000001', 'title', now())")
+        .execute();
+
+    // When
+    databaseManager.initialize();
+
+    // Then
+    String userIdType =
+        dbConnection
+            .getEbeanDatabase()
+            .sqlQuery(
+                "SELECT data_type FROM information_schema.columns"
+                    + " WHERE table_name = 'task' AND column_name = 'user_id'")
+            .mapToScalar(String.class)
+            .findOne();
+    Assertions.assertThat(userIdType).isEqualTo("uuid");
+
+    List<String> indexes =
+        dbConnection
+            .getEbeanDatabase()
+            .sqlQuery("SELECT indexname FROM pg_indexes WHERE tablename = 'task'")
+            .mapToScalar(String.class)
+            .findList();
+    Assertions.assertThat(indexes)
+        .contains(
+            "task_user_id_created_at_not_trashed_index",
+            "task_user_id_status_priority_created_at_index",
+            "task_user_id_updated_at_index");
+
+    Optional<Task> task =
+        injector
+            .getInstance(TaskRepository.class)
+            .getTask(
+                UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+                UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    Assertions.assertThat(task).isPresent();
+    Assertions.assertThat(task.get().getTitle()).isEqualTo("title");
+  }
+
+  @Test
+  void givenTasksStoredBeforeTheEnumCodesMigrationTheInitializerShouldConvertTheirEnumsToCodes() {
+    // Given
+    Injector injector = simulator.getInjector();
+
+    DatabaseManager databaseManager = injector.getInstance(DatabaseManager.class);
+    DatabaseConnectionManager dbConnection = injector.getInstance(DatabaseConnectionManager.class);
+
+    Flyway.configure()
+        .configuration(injector.getInstance(Flyway.class).getConfiguration())
+        .target("8")
+        .load()
+        .migrate();
+    dbConnection
+        .getEbeanDatabase()
+        .sqlUpdate(
+            "INSERT INTO task (id, user_id, title, priority, status, created_at) VALUES"
+                + " ('6d162bee-3186-0000-bf31-59746a41600e',"
+                + " '00000000-0000-0000-0000-000000000001', 'title', 'HIGH', 'COMPLETE', now())")
+        .execute();
+
+    // When
+    databaseManager.initialize();
+
+    // Then
+    List<String> enumTypes =
+        dbConnection
+            .getEbeanDatabase()
+            .sqlQuery(
+                "SELECT data_type FROM information_schema.columns"
+                    + " WHERE table_name = 'task' AND column_name IN ('priority', 'status')")
+            .mapToScalar(String.class)
+            .findList();
+    Assertions.assertThat(enumTypes).containsExactly("smallint", "smallint");
+
+    List<String> indexes =
+        dbConnection
+            .getEbeanDatabase()
+            .sqlQuery("SELECT indexname FROM pg_indexes WHERE tablename = 'task'")
+            .mapToScalar(String.class)
+            .findList();
+    Assertions.assertThat(indexes)
+        .contains(
+            "task_user_id_created_at_not_trashed_index",
+            "task_user_id_status_priority_created_at_index",
+            "task_search_vector_index",
+            "task_reminder_at_open_index",
+            "task_trashed_at_index");
+
+    Optional<Task> task =
+        injector
+            .getInstance(TaskRepository.class)
+            .getTask(
+                UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+                UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    Assertions.assertThat(task).isPresent();
+    Assertions.assertThat(task.get().getPriority()).isEqualTo(Priority.HIGH);
+    Assertions.assertThat(task.get().getStatus()).isEqualTo(Status.COMPLETE);
+  }
 }
@@ -0,0 +1,199 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Constants.ServiceDiscover.Config.Key;
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import com.zextras.carbonio.tasks.TestUtils;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the asynchronous execution of the GraphQL requests. The requests are slowed down by
+ * locking the task table from a connection outside the pool of the service, so their data fetchers
+ * wait for the database until the lock is released.
+ */
+class AsyncExecutionApiIT {
+
+  /** Fewer threads than the concurrent requests of the tests. */
+  private static final int SERVER_MAX_THREADS = 8;
+
+  private static final int ASYNC_TIMEOUT_SECONDS = 5;
+
+  private static Simulator simulator;
+  private static LocalConnector httpLocalConnector;
+  private static TaskRepository taskRepository;
+  private static DataFetcherExecutor dataFetcherExecutor;
+
+  @BeforeAll
+  static void init() {
+    simulator =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover(
+                Map.of(Key.GRAPHQL_ASYNC_TIMEOUT_SECONDS, String.valueOf(ASYNC_TIMEOUT_SECONDS)))
+            .withUserManagement(
+                ImmutableMap.<String, String>builder()
+                    .put("fake-user-cookie", "00000000-0000-0000-0000-000000000000")
+                    .build())
+            .withServer(SERVER_MAX_THREADS)
+            .build()
+            .start();
+
+    httpLocalConnector = simulator.getHttpLocalConnector();
+    taskRepository = simulator.getInjector().getInstance(TaskRepository.class);
+    dataFetcherExecutor = simulator.getInjector().getInstance(DataFetcherExecutor.class);
+  }
+
+  @AfterAll
+  static void cleanUpAll() {
+    simulator.stopAll();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    simulator.resetDatabase();
+  }
+
+  @Test
+  void givenMoreConcurrentSlowRequestsThanServerThreadsTheGraphQLServletShouldCompleteThemAll()
+      throws Exception {
+    // Given
+    Task task = createTask();
+    int requests = SERVER_MAX_THREADS * 3;
+    ExecutorService clients = Executors.newFixedThreadPool(requests);
+    List<Future<HttpTester.Response>> responses = new ArrayList<>();
+
+    try (Connection lockingConnection = simulator.createDatabaseConnection()) {
+      lockTaskTable(lockingConnection);
+
+      // When
+      for (int index = 0; index < requests; index++) {
+        responses.add(clients.submit(() -> sendGetTaskRequest(task.getId())));
+      }
+
+      // With a synchronous execution the requests waiting for the database would hold all the
+      // server threads, and the other ones would never reach the data fetchers
+      awaitPendingDataFetchers(requests);
+      lockingConnection.rollback();
+    }
+
+    // Then
+    try {
+      for (Future<HttpTester.Response> futureResponse : responses) {
+        HttpTester.Response response = futureResponse.get(ASYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+        Assertions.assertThat(TestUtils.jsonResponseToMap(response.getContent(), "getTask"))
+            .containsEntry("id", task.getId().toString());
+      }
+    } finally {
+      clients.shutdownNow();
+    }
+  }
+
+  @Test
+  void givenADataFetcherSlowerThanTheAsyncTimeoutTheGraphQLServletShouldCompleteTheRequest()
+      throws Exception {
+    // Given
+    Task task = createTask();
+    HttpTester.Response response;
+    Duration elapsed;
+
+    try (Connection lockingConnection = simulator.createDatabaseConnection()) {
+      lockTaskTable(lockingConnection);
+
+      // When
+      long start = System.nanoTime();
+      response = sendGetTaskRequest(task.getId());
+      elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      lockingConnection.rollback();
+    }
+
+    // Then
+    // The response is sent while the table is still locked, so only the timeout can complete it
+    Assertions.assertThat(response).isNotNull();
+    Assertions.assertThat(elapsed)
+        .isGreaterThanOrEqualTo(Duration.ofSeconds(ASYNC_TIMEOUT_SECONDS));
+    Assertions.assertThat(response.getStatus()).isNotEqualTo(HttpStatus.OK_200);
+    Assertions.assertThat(TestUtils.jsonResponseToMap(response.getContent(), "getTask")).isEmpty();
+  }
+
+  private Task createTask() {
+    return taskRepository.createTask(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        "title",
+        null,
+        Priority.MEDIUM,
+        Status.OPEN,
+        null,
+        null);
+  }
+
+  /** Locks the task table until the transaction of the given connection is rolled back. */
+  private void lockTaskTable(Connection connection) throws SQLException {
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("LOCK TABLE task IN ACCESS EXCLUSIVE MODE");
+    }
+  }
+
+  private void awaitPendingDataFetchers(int expectedDataFetchers) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ASYNC_TIMEOUT_SECONDS);
+    while (dataFetcherExecutor.getActiveCount() + dataFetcherExecutor.getQueueSize()
+        < expectedDataFetchers) {
+      if (System.nanoTime() > deadline) {
+        Assertions.fail(
+            "Only %d of %d requests reached the data fetchers",
+            dataFetcherExecutor.getActiveCount() + dataFetcherExecutor.getQueueSize(),
+            expectedDataFetchers);
+      }
+      Thread.sleep(50);
+    }
+  }
+
+  private HttpTester.Response sendGetTaskRequest(UUID taskId) throws Exception {
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(
+        TestUtils.queryPayload("query{getTask(taskId: \\\"" + taskId + "\\\"){id title}}"));
+
+    return HttpTester.parseResponse(
+        HttpTester.from(
+            httpLocalConnector.getResponse(request.generate(), 30, TimeUnit.SECONDS)));
+  }
+}
@@ -0,0 +1,190 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import com.zextras.carbonio.tasks.TestUtils;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.HttpTester.Response;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class BulkTasksApiIT {
+
+  private static final String REQUESTER_ID = "00000000-0000-0000-0000-000000000000";
+  private static final UUID REQUESTER_UUID = UUID.fromString(REQUESTER_ID);
+
+  private static Simulator simulator;
+  private static LocalConnector httpLocalConnector;
+  private static TaskRepository taskRepository;
+
+  @BeforeAll
+  static void init() {
+    simulator =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover()
+            .withUserManagement(ImmutableMap.of("fake-user-cookie", REQUESTER_ID))
+            .withServer()
+            .build()
+            .start();
+
+    httpLocalConnector = simulator.getHttpLocalConnector();
+    taskRepository = simulator.getInjector().getInstance(TaskRepository.class);
+  }
+
+  @AfterAll
+  static void cleanUpAll() {
+    simulator.stopAll();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    simulator.resetDatabase();
+  }
+
+  @Test
+  void givenAListOfNewTasksTheCreateTasksShouldCreateAllOfThemAndReturnThemInTheSameOrder()
+      throws Exception {
+    // Given
+    HttpTester.Request request =
+        createRequest(
+            "mutation{createTasks(newTasks: ["
+                + "{title: \\\"title1\\\", priority: HIGH},"
+                + "{title: \\\"title2\\\", reminderAt: 100, reminderAllDay: true}"
+                + "]){id title priority status reminderAt reminderAllDay}}");
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> createdTasks =
+        TestUtils.jsonResponseToList(response.getContent(), "createTasks");
+
+    Assertions.assertThat(createdTasks).hasSize(2);
+    Assertions.assertThat(createdTasks.get(0))
+        .containsEntry("title", "title1")
+        .containsEntry("priority", "HIGH")
+        .containsEntry("status", "OPEN")
+        .containsEntry("reminderAt", null);
+    Assertions.assertThat(createdTasks.get(1))
+        .containsEntry("title", "title2")
+        .containsEntry("priority", "MEDIUM")
+        .containsEntry("reminderAt", 100)
+        .containsEntry("reminderAllDay", true);
+
+    // The tasks are returned by the findTasks from the newest to the oldest
+    List<Task> tasks = taskRepository.getTasks(REQUESTER_UUID, null, null, null, null);
+    Assertions.assertThat(tasks).hasSize(2);
+    Assertions.assertThat(tasks.get(0).getTitle()).isEqualTo("title2");
+    Assertions.assertThat(tasks.get(1).getTitle()).isEqualTo("title1");
+  }
+
+  @Test
+  void givenAnExistingAndANotExistingTaskTheUpdateTasksShouldUpdateTheFirstAndReturnAnError()
+      throws Exception {
+    // Given
+    Task task =
+        taskRepository.createTask(
+            REQUESTER_UUID, "title1", null, Priority.LOW, Status.OPEN, null, null);
+
+    HttpTester.Request request =
+        createRequest(
+            "mutation{updateTasks(updateTasks: ["
+                + "{id: \\\""
+                + task.getId()
+                + "\\\", status: COMPLETE},"
+                + "{id: \\\"1e39756c-bd40-4381-8415-af4244d7a3e8\\\", status: COMPLETE}"
+                + "]){id status}}");
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> updatedTasks =
+        TestUtils.jsonResponseToList(response.getContent(), "updateTasks");
+
+    Assertions.assertThat(updatedTasks).hasSize(2);
+    Assertions.assertThat(updatedTasks.get(0))
+        .containsEntry("id", task.getId().toString())
+        .containsEntry("status", "COMPLETE");
+    Assertions.assertThat(updatedTasks.get(1)).isNull();
+
+    Assertions.assertThat(TestUtils.jsonResponseToErrors(response.getContent()))
+        .containsExactly("Could not find task with id 1e39756c-bd40-4381-8415-af4244d7a3e8");
+
+    Optional<Task> optTask = taskRepository.getTask(task.getId(), REQUESTER_UUID);
+    Assertions.assertThat(optTask).isPresent();
+    Assertions.assertThat(optTask.get().getStatus()).isEqualTo(Status.COMPLETE);
+  }
+
+  @Test
+  void givenAListOfExistingTaskIdsTheTrashTasksShouldTrashAllOfThem() throws Exception {
+    // Given
+    Task task1 =
+        taskRepository.createTask(
+            REQUESTER_UUID, "title1", null, Priority.LOW, Status.OPEN, null, null);
+    Task task2 =
+        taskRepository.createTask(
+            REQUESTER_UUID, "title2", null, Priority.LOW, Status.COMPLETE, null, null);
+
+    HttpTester.Request request =
+        createRequest(
+            "mutation{trashTasks(taskIds: [\\\""
+                + task1.getId()
+                + "\\\", \\\""
+                + task2.getId()
+                + "\\\"])}");
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    Assertions.assertThat(TestUtils.jsonResponseToErrors(response.getContent())).isEmpty();
+    Assertions.assertThat(response.getContent())
+        .contains(task1.getId().toString())
+        .contains(task2.getId().toString());
+
+    Assertions.assertThat(taskRepository.getTask(task1.getId(), REQUESTER_UUID)).isEmpty();
+    Assertions.assertThat(taskRepository.getTask(task2.getId(), REQUESTER_UUID)).isEmpty();
+  }
+
+  private HttpTester.Request createRequest(String query) {
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(TestUtils.queryPayload(query));
+    return request;
+  }
+}
@@ -14,6 +14,7 @@ import com.zextras.carbonio.tasks.dal.dao.Task;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
@@ -67,7 +68,7 @@ class FindTasksApiIT {
     // Given
     Task task1 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title1",
             null,
             Priority.MEDIUM,
@@ -77,7 +78,7 @@ class FindTasksApiIT {
 
     Task task2 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title2",
             null,
             Priority.LOW,
@@ -86,7 +87,7 @@ class FindTasksApiIT {
             null);
 
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title3",
         null,
         Priority.HIGH,
@@ -95,7 +96,7 @@ class FindTasksApiIT {
         null);
 
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "titleX",
         null,
         Priority.LOW,
@@ -155,7 +156,7 @@ class FindTasksApiIT {
     // Given
     Task task1 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title1",
             null,
             Priority.MEDIUM,
@@ -165,7 +166,7 @@ class FindTasksApiIT {
 
     Task task2 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title2",
             null,
             Priority.LOW,
@@ -175,7 +176,7 @@ class FindTasksApiIT {
 
     Task task3 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title3",
             null,
             Priority.HIGH,
@@ -184,7 +185,7 @@ class FindTasksApiIT {
             null);
 
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "Trash task",
         null,
         Priority.LOW,
@@ -193,7 +194,7 @@ class FindTasksApiIT {
         null);
 
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "titleX",
         null,
         Priority.LOW,
@@ -263,7 +264,7 @@ class FindTasksApiIT {
       throws Exception {
     // Given
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title1",
         null,
         Priority.MEDIUM,
@@ -273,7 +274,7 @@ class FindTasksApiIT {
 
     Task task1 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title2",
             null,
             Priority.LOW,
@@ -283,7 +284,7 @@ class FindTasksApiIT {
 
     Task task2 =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title3",
             null,
             Priority.LOW,
@@ -292,7 +293,7 @@ class FindTasksApiIT {
             null);
 
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "Trash task",
         null,
         Priority.LOW,
@@ -301,7 +302,7 @@ class FindTasksApiIT {
         null);
 
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "titleX",
         null,
         Priority.LOW,
@@ -360,7 +361,7 @@ class FindTasksApiIT {
       throws Exception {
     // Given
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title2",
         null,
         Priority.LOW,
@@ -370,7 +371,7 @@ class FindTasksApiIT {
 
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title3",
             null,
             Priority.HIGH,
@@ -379,7 +380,7 @@ class FindTasksApiIT {
             null);
 
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "titleX",
         null,
         Priority.LOW,
@@ -427,7 +428,7 @@ class FindTasksApiIT {
       throws Exception {
     // Given
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title2",
         null,
         Priority.LOW,
@@ -436,7 +437,7 @@ class FindTasksApiIT {
         null);
 
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title3",
         null,
         Priority.HIGH,
@@ -445,7 +446,7 @@ class FindTasksApiIT {
         null);
 
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "Trash task",
         null,
         Priority.MEDIUM,
@@ -476,4 +477,111 @@ class FindTasksApiIT {
 
     Assertions.assertThat(findTasks).isNotNull().isEmpty();
   }
+
+  @Test
+  void givenAPageSizeAndACursorTheFindTasksShouldReturnTheTasksOfTheRequesterPageByPage()
+      throws Exception {
+    // Given
+    Task task1 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title1",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            null,
+            null);
+
+    Task task2 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title2",
+            null,
+            Priority.LOW,
+            Status.COMPLETE,
+            null,
+            null);
+
+    Task task3 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title3",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            null,
+            null);
+
+    HttpTester.Request firstPageRequest = HttpTester.newRequest();
+    firstPageRequest.setMethod(HttpMethod.POST.toString());
+    firstPageRequest.setURI("/graphql/");
+    firstPageRequest.setHeader(HttpHeader.HOST.toString(), "test");
+    firstPageRequest.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    firstPageRequest.setContent(
+        TestUtils.queryPayload("query{findTasks(first: 2){id title cursor}}"));
+
+    // When
+    Response firstPageResponse =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(firstPageRequest.generate())));
+
+    // Then
+    Assertions.assertThat(firstPageResponse.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> firstPage =
+        TestUtils.jsonResponseToList(firstPageResponse.getContent(), "findTasks");
+
+    Assertions.assertThat(firstPage).hasSize(2);
+    Assertions.assertThat(firstPage.get(0)).containsEntry("id", task3.getId().toString());
+    Assertions.assertThat(firstPage.get(1)).containsEntry("id", task2.getId().toString());
+
+    // Given
+    String cursor = (String) firstPage.get(1).get("cursor");
+    Assertions.assertThat(cursor).isNotBlank();
+
+    HttpTester.Request secondPageRequest = HttpTester.newRequest();
+    secondPageRequest.setMethod(HttpMethod.POST.toString());
+    secondPageRequest.setURI("/graphql/");
+    secondPageRequest.setHeader(HttpHeader.HOST.toString(), "test");
+    secondPageRequest.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    secondPageRequest.setContent(
+        TestUtils.queryPayload(
+            "query{findTasks(first: 2, after: \\\"" + cursor + "\\\"){id title cursor}}"));
+
+    // When
+    Response secondPageResponse =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(secondPageRequest.generate())));
+
+    // Then
+    Assertions.assertThat(secondPageResponse.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> secondPage =
+        TestUtils.jsonResponseToList(secondPageResponse.getContent(), "findTasks");
+
+    Assertions.assertThat(secondPage).hasSize(1);
+    Assertions.assertThat(secondPage.get(0))
+        .containsEntry("id", task1.getId().toString())
+        .containsEntry("title", "title1");
+  }
+
+  @Test
+  void givenAPageSizeGreaterThanTheMaximumTheFindTasksShouldReturnAnError() throws Exception {
+    // Given
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(TestUtils.queryPayload("query{findTasks(first: 501){id}}"));
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    Assertions.assertThat(TestUtils.jsonResponseToErrors(response.getContent()))
+        .hasSize(1)
+        .allMatch(error -> error.contains("Invalid first. It must be between 1 and 500"));
+  }
 }
@@ -14,6 +14,7 @@ import com.zextras.carbonio.tasks.dal.dao.Task;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
@@ -63,7 +64,7 @@ class GetTaskApiIT {
   void givenAnExistingTaskIdTheGetTaskShouldReturnTheRequestedTask() throws Exception {
     // Given
     taskRepository.createTask(
-        "00000000-0000-0000-0000-000000000000",
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         "title1",
         null,
         Priority.HIGH,
@@ -73,7 +74,7 @@ class GetTaskApiIT {
 
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title2",
             "description",
             Priority.LOW,
@@ -82,7 +83,7 @@ class GetTaskApiIT {
             null);
 
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "task",
         null,
         Priority.LOW,
@@ -127,7 +128,7 @@ class GetTaskApiIT {
   void givenANonExistingTaskIdTheGetTaskShouldReturn200CodeWithAnErrorMessage() throws Exception {
     // Given
     taskRepository.createTask(
-        "11111111-1111-1111-1111-111111111111",
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
         "task",
         null,
         Priority.LOW,
@@ -170,7 +171,7 @@ class GetTaskApiIT {
     // Given
     Task task =
         taskRepository.createTask(
-            "11111111-1111-1111-1111-111111111111",
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
             "task",
             null,
             Priority.LOW,
@@ -215,7 +216,7 @@ class GetTaskApiIT {
     // Given
     Task trashedTask =
         taskRepository.createTask(
-            "11111111-1111-1111-1111-111111111111",
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
             "task",
             null,
             Priority.LOW,
@@ -249,4 +250,65 @@ class GetTaskApiIT {
         .hasSize(1)
         .contains(String.format("Could not find task with id %s", trashedTask.getId().toString()));
   }
+
+  @Test
+  void givenManyAliasedGetTaskFieldsTheGetTaskShouldReturnAllTheRequestedTasks() throws Exception {
+    // Given
+    Task task1 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title1",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            null,
+            null);
+
+    Task task2 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title2",
+            null,
+            Priority.LOW,
+            Status.OPEN,
+            null,
+            null);
+
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(
+        TestUtils.queryPayload(
+            "query{"
+                + "first: getTask(taskId: \\\""
+                + task1.getId().toString()
+                + "\\\"){id title} "
+                + "second: getTask(taskId: \\\""
+                + task2.getId().toString()
+                + "\\\"){id title} "
+                + "missing: getTask(taskId: \\\"1e39756c-bd40-4381-8415-af4244d7a3e8\\\"){id}"
+                + "}"));
+
+    // When
+    HttpTester.Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(TestUtils.jsonResponseToMap(response.getContent(), "first"))
+        .containsEntry("id", task1.getId().toString())
+        .containsEntry("title", "title1");
+
+    Assertions.assertThat(TestUtils.jsonResponseToMap(response.getContent(), "second"))
+        .containsEntry("id", task2.getId().toString())
+        .containsEntry("title", "title2");
+
+    Assertions.assertThat(TestUtils.jsonResponseToMap(response.getContent(), "missing")).isEmpty();
+
+    List<String> errors = TestUtils.jsonResponseToErrors(response.getContent());
+    Assertions.assertThat(errors)
+        .containsExactly("Could not find task with id 1e39756c-bd40-4381-8415-af4244d7a3e8");
+  }
 }
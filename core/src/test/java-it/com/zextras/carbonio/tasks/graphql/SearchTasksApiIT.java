@@ -0,0 +1,263 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import com.zextras.carbonio.tasks.TestUtils;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.HttpTester.Response;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SearchTasksApiIT {
+
+  private static Simulator simulator;
+  private static LocalConnector httpLocalConnector;
+  private static TaskRepository taskRepository;
+
+  @BeforeAll
+  static void init() {
+    simulator =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover()
+            .withUserManagement(
+                ImmutableMap.<String, String>builder()
+                    .put("fake-user-cookie", "00000000-0000-0000-0000-000000000000")
+                    .build())
+            .withServer()
+            .build()
+            .start();
+
+    httpLocalConnector = simulator.getHttpLocalConnector();
+    taskRepository = simulator.getInjector().getInstance(TaskRepository.class);
+  }
+
+  @AfterAll
+  static void cleanUpAll() {
+    simulator.stopAll();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    simulator.resetDatabase();
+  }
+
+  @Test
+  void givenSomeTasksTheSearchTasksShouldReturnTheMatchingTasksOfTheRequesterSortedByRelevance()
+      throws Exception {
+    // Given
+    Task descriptionMatch =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "Prepare the slides",
+            "Use the numbers of the quarterly Report",
+            Priority.MEDIUM,
+            Status.OPEN,
+            null,
+            null);
+
+    Task titleMatch =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "Write the quarterly report",
+            null,
+            Priority.HIGH,
+            Status.COMPLETE,
+            null,
+            null);
+
+    taskRepository.createTask(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        "Write the yearly report",
+        null,
+        Priority.LOW,
+        Status.TRASH,
+        null,
+        null);
+
+    taskRepository.createTask(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        "Book the flight",
+        "quarterly meeting",
+        Priority.LOW,
+        Status.OPEN,
+        null,
+        null);
+
+    taskRepository.createTask(
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
+        "Quarterly report of another user",
+        null,
+        Priority.LOW,
+        Status.OPEN,
+        null,
+        null);
+
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(
+        TestUtils.queryPayload(
+            "query{searchTasks(query: \\\"quarterly report\\\"){id title description status}}"));
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> searchTasks =
+        TestUtils.jsonResponseToList(response.getContent(), "searchTasks");
+
+    Assertions.assertThat(searchTasks).hasSize(2);
+    Assertions.assertThat(searchTasks.get(0))
+        .containsEntry("id", titleMatch.getId().toString())
+        .containsEntry("title", "Write the quarterly report")
+        .containsEntry("status", "COMPLETE");
+    Assertions.assertThat(searchTasks.get(1))
+        .containsEntry("id", descriptionMatch.getId().toString())
+        .containsEntry("description", "Use the numbers of the quarterly Report");
+  }
+
+  @Test
+  void givenAPageSizeAndACursorTheSearchTasksShouldReturnTheFollowingMatchingTasks()
+      throws Exception {
+    // Given
+    Task task1 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "groceries 1",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            null,
+            null);
+
+    Task task2 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "groceries 2",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            null,
+            null);
+
+    Task task3 =
+        taskRepository.createTask(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "groceries 3",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            null,
+            null);
+
+    HttpTester.Request firstPageRequest = HttpTester.newRequest();
+    firstPageRequest.setMethod(HttpMethod.POST.toString());
+    firstPageRequest.setURI("/graphql/");
+    firstPageRequest.setHeader(HttpHeader.HOST.toString(), "test");
+    firstPageRequest.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    firstPageRequest.setContent(
+        TestUtils.queryPayload(
+            "query{searchTasks(query: \\\"groceries\\\", first: 2){id title cursor}}"));
+
+    // When
+    Response firstPageResponse =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(firstPageRequest.generate())));
+
+    // Then
+    Assertions.assertThat(firstPageResponse.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> firstPage =
+        TestUtils.jsonResponseToList(firstPageResponse.getContent(), "searchTasks");
+
+    // The tasks have the same rank, so they are sorted from the newest to the oldest
+    Assertions.assertThat(firstPage).hasSize(2);
+    Assertions.assertThat(firstPage.get(0)).containsEntry("id", task3.getId().toString());
+    Assertions.assertThat(firstPage.get(1)).containsEntry("id", task2.getId().toString());
+
+    // Given
+    String cursor = (String) firstPage.get(1).get("cursor");
+    Assertions.assertThat(cursor).isNotBlank();
+
+    HttpTester.Request secondPageRequest = HttpTester.newRequest();
+    secondPageRequest.setMethod(HttpMethod.POST.toString());
+    secondPageRequest.setURI("/graphql/");
+    secondPageRequest.setHeader(HttpHeader.HOST.toString(), "test");
+    secondPageRequest.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    secondPageRequest.setContent(
+        TestUtils.queryPayload(
+            "query{searchTasks(query: \\\"groceries\\\", first: 2, after: \\\""
+                + cursor
+                + "\\\"){id title cursor}}"));
+
+    // When
+    Response secondPageResponse =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(secondPageRequest.generate())));
+
+    // Then
+    Assertions.assertThat(secondPageResponse.getStatus()).isEqualTo(HttpStatus.OK_200);
+    List<Map<String, Object>> secondPage =
+        TestUtils.jsonResponseToList(secondPageResponse.getContent(), "searchTasks");
+
+    Assertions.assertThat(secondPage).hasSize(1);
+    Assertions.assertThat(secondPage.get(0))
+        .containsEntry("id", task1.getId().toString())
+        .containsEntry("title", "groceries 1");
+  }
+
+  @Test
+  void givenABlankQueryTheSearchTasksShouldReturnAnEmptyList() throws Exception {
+    // Given
+    taskRepository.createTask(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        "title",
+        null,
+        Priority.MEDIUM,
+        Status.OPEN,
+        null,
+        null);
+
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(TestUtils.queryPayload("query{searchTasks(query: \\\" \\\"){id}}"));
+
+    // When
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+
+    // Then
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+    Assertions.assertThat(TestUtils.jsonResponseToList(response.getContent(), "searchTasks"))
+        .isEmpty();
+  }
+}
@@ -30,6 +30,7 @@ class ServiceInfoApiIT {
     simulator =
         SimulatorBuilder.aSimulator()
             .init()
+            .withServiceDiscover()
             .withServer()
             .withUserManagement(
                 ImmutableMap.<String, String>builder()
@@ -0,0 +1,195 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import com.zextras.carbonio.tasks.TestUtils;
+import com.zextras.carbonio.tasks.dal.DatabaseConnectionManager;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.HttpTester.Response;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TaskChangesApiIT {
+
+  /** A bit more than the time after which the taskChanges query returns a change. */
+  private static final long SETTLE_TIME_MILLIS = 6_000;
+
+  private static Simulator simulator;
+  private static LocalConnector httpLocalConnector;
+  private static TaskRepository taskRepository;
+  private static DatabaseConnectionManager databaseConnectionManager;
+
+  @BeforeAll
+  static void init() {
+    simulator =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover()
+            .withUserManagement(
+                ImmutableMap.<String, String>builder()
+                    .put("fake-user-cookie", "00000000-0000-0000-0000-000000000000")
+                    .build())
+            .withServer()
+            .build()
+            .start();
+
+    httpLocalConnector = simulator.getHttpLocalConnector();
+    taskRepository = simulator.getInjector().getInstance(TaskRepository.class);
+    databaseConnectionManager =
+        simulator.getInjector().getInstance(DatabaseConnectionManager.class);
+  }
+
+  @AfterAll
+  static void cleanUpAll() {
+    simulator.stopAll();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    simulator.resetDatabase();
+  }
+
+  @Test
+  void givenAWatermarkTheTaskChangesShouldReturnOnlyTheTasksChangedOrTrashedAfterIt()
+      throws Exception {
+    // Given
+    Task unchangedTask = createTask("unchanged");
+    Task updatedTask = createTask("to update");
+    Task trashedTask = createTask("to trash");
+    taskRepository.createTask(
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
+        "task of another user",
+        null,
+        Priority.LOW,
+        Status.OPEN,
+        null,
+        null);
+    settleChanges();
+
+    Map<String, Object> initialSync = queryTaskChanges("query{taskChanges{%s}}");
+    String watermark = (String) initialSync.get("watermark");
+
+    taskRepository.updateTask(
+        updatedTask.getId(),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        new TaskChanges().setTitle("updated"));
+    taskRepository.trashTask(
+        trashedTask.getId(), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // The changes cannot be moved back in time: they must follow the watermark of the initial sync
+    Thread.sleep(SETTLE_TIME_MILLIS);
+
+    // When
+    Map<String, Object> deltaSync =
+        queryTaskChanges(
+            "query{taskChanges(since: \\\"" + watermark + "\\\", first: 10){%s}}");
+
+    // Then
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> initialTasks = (List<Map<String, Object>>) initialSync.get("changed");
+    Assertions.assertThat(initialTasks)
+        .extracting(task -> task.get("id"))
+        .containsExactly(
+            unchangedTask.getId().toString(),
+            updatedTask.getId().toString(),
+            trashedTask.getId().toString());
+    Assertions.assertThat(initialSync)
+        .containsEntry("hasMore", false)
+        .containsEntry("resyncRequired", false);
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> changedTasks = (List<Map<String, Object>>) deltaSync.get("changed");
+    Assertions.assertThat(changedTasks).hasSize(1);
+    Assertions.assertThat(changedTasks.get(0))
+        .containsEntry("id", updatedTask.getId().toString())
+        .containsEntry("title", "updated");
+    Assertions.assertThat(deltaSync.get("trashed"))
+        .isEqualTo(List.of(trashedTask.getId().toString()));
+    Assertions.assertThat(deltaSync.get("watermark")).isNotEqualTo(watermark);
+  }
+
+  @Test
+  void givenAPageSizeTheTaskChangesShouldReturnTheChangesInPages() throws Exception {
+    // Given
+    Task firstTask = createTask("first");
+    Task secondTask = createTask("second");
+    settleChanges();
+
+    // When
+    Map<String, Object> firstPage = queryTaskChanges("query{taskChanges(first: 1){%s}}");
+    Map<String, Object> secondPage =
+        queryTaskChanges(
+            "query{taskChanges(since: \\\""
+                + firstPage.get("watermark")
+                + "\\\", first: 1){%s}}");
+
+    // Then
+    Assertions.assertThat(firstPage).containsEntry("hasMore", true);
+    Assertions.assertThat(firstPage.get("changed"))
+        .isEqualTo(List.of(Map.of("id", firstTask.getId().toString(), "title", "first")));
+    Assertions.assertThat(secondPage).containsEntry("hasMore", false);
+    Assertions.assertThat(secondPage.get("changed"))
+        .isEqualTo(List.of(Map.of("id", secondTask.getId().toString(), "title", "second")));
+  }
+
+  private Task createTask(String title) {
+    return taskRepository.createTask(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        title,
+        null,
+        Priority.MEDIUM,
+        Status.OPEN,
+        null,
+        null);
+  }
+
+  /**
+   * Moves the changes one minute back in time, so they are returned right away instead of after
+   * the settle time of the taskChanges query.
+   */
+  private void settleChanges() {
+    databaseConnectionManager
+        .getEbeanDatabase()
+        .sqlUpdate("UPDATE task SET updated_at = updated_at - INTERVAL '1 minute'")
+        .execute();
+  }
+
+  private Map<String, Object> queryTaskChanges(String query) throws Exception {
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=fake-user-cookie");
+    request.setContent(
+        TestUtils.queryPayload(
+            String.format(query, "changed{id title} trashed watermark hasMore resyncRequired")));
+
+    Response response =
+        HttpTester.parseResponse(
+            HttpTester.from(httpLocalConnector.getResponse(request.generate())));
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+
+    return TestUtils.jsonResponseToMap(response.getContent(), "taskChanges");
+  }
+}
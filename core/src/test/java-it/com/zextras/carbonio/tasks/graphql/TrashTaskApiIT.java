@@ -13,6 +13,7 @@ import com.zextras.carbonio.tasks.dal.dao.Task;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
@@ -31,6 +32,7 @@ public class TrashTaskApiIT {
   static TaskRepository taskRepository;
   static String REQUESTER_COOKIE = "ZM_AUTH_TOKEN=fake-user-cookie";
   static String REQUESTER_ID = "0c07cb53-f942-4644-8166-fb1d3e41faf3";
+  static UUID REQUESTER_UUID = UUID.fromString(REQUESTER_ID);
 
   @BeforeAll
   static void init() {
@@ -65,7 +67,7 @@ public class TrashTaskApiIT {
     // Given
     Task taskToTrash =
         taskRepository.createTask(
-            REQUESTER_ID, "title1", "description", Priority.HIGH, Status.OPEN, null, null);
+            REQUESTER_UUID, "title1", "description", Priority.HIGH, Status.OPEN, null, null);
 
     HttpTester.Request request = HttpTester.newRequest();
     request.setMethod(HttpMethod.POST.toString());
@@ -123,7 +125,7 @@ public class TrashTaskApiIT {
 
     Task taskToTrash =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title1",
             "description",
             Priority.HIGH,
@@ -14,6 +14,7 @@ import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
@@ -80,7 +81,7 @@ class UpdateTaskApiIT {
     // Given
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Title",
             "Description",
             Priority.HIGH,
@@ -138,7 +139,7 @@ class UpdateTaskApiIT {
     // Given
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Title",
             "Description",
             Priority.HIGH,
@@ -261,7 +262,7 @@ class UpdateTaskApiIT {
     // Given
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Title",
             "Description",
             Priority.HIGH,
@@ -350,7 +351,7 @@ class UpdateTaskApiIT {
     String description = string1024chars + string1024chars + string1024chars + string1024chars;
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Title",
             "Description",
             Priority.HIGH,
@@ -470,7 +471,7 @@ class UpdateTaskApiIT {
     // Given
     Task task =
         taskRepository.createTask(
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Title",
             "Description",
             Priority.HIGH,
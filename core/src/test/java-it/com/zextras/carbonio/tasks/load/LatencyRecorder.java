@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Collects the latencies and the errors of the requests of each {@link Operation}. The latencies
+ * are recorded in microseconds in HdrHistograms, so the percentiles are exact up to three
+ * significant digits whatever the number of requests, and the recording is safe from concurrent
+ * clients.
+ */
+public class LatencyRecorder {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+  public LatencyRecorder() {
+    for (Operation operation : Operation.values()) {
+      latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+      errors.put(operation, new LongAdder());
+    }
+  }
+
+  /**
+   * @param operation is the executed {@link Operation}
+   * @param latencyNanos is the time elapsed between the request and the response
+   * @param succeeded is true if the response has no errors
+   */
+  public void record(Operation operation, long latencyNanos, boolean succeeded) {
+    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+    latencies.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+
+    if (!succeeded) {
+      errors.get(operation).increment();
+    }
+  }
+
+  public long getTotalCount() {
+    return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+  }
+
+  public long getTotalErrors() {
+    return errors.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /**
+   * Builds the report of a run. Other than the overall throughput, it contains the throughput per
+   * core and per database connection, and the throughput and the latency percentiles (in
+   * milliseconds) of each operation.
+   *
+   * @param config is the {@link LoadTestConfig} of the run
+   * @param elapsed is the duration of the measured part of the run
+   * @param cores is the number of cores available to the service
+   * @param poolConnections is the maximum size of the database connection pool
+   * @return a {@link Map} ready to be serialized as JSON
+   */
+  public Map<String, Object> toReport(
+      LoadTestConfig config, Duration elapsed, int cores, int poolConnections) {
+    double seconds = elapsed.toNanos() / 1_000_000_000.0;
+    double throughput = getTotalCount() / seconds;
+
+    Map<String, Object> configReport = new LinkedHashMap<>();
+    configReport.put("users", config.getUsers());
+    configReport.put("tasksPerUser", config.getTasksPerUser());
+    configReport.put("clients", config.getClients());
+    configReport.put("warmupSeconds", config.getWarmup().toSeconds());
+    configReport.put("durationSeconds", config.getDuration().toSeconds());
+    Map<String, Integer> mixReport = new LinkedHashMap<>();
+    config
+        .getMix()
+        .forEach((operation, weight) -> mixReport.put(operation.getGraphQLName(), weight));
+    configReport.put("mix", mixReport);
+
+    Map<String, Object> totalsReport = new LinkedHashMap<>();
+    totalsReport.put("requests", getTotalCount());
+    totalsReport.put("errors", getTotalErrors());
+    totalsReport.put("throughput", throughput);
+    totalsReport.put("throughputPerCore", throughput / cores);
+    totalsReport.put("throughputPerConnection", throughput / poolConnections);
+
+    Map<String, Object> operationsReport = new LinkedHashMap<>();
+    latencies.forEach(
+        (operation, histogram) -> {
+          if (histogram.getTotalCount() > 0) {
+            Map<String, Object> operationReport = new LinkedHashMap<>();
+            operationReport.put("requests", histogram.getTotalCount());
+            operationReport.put("errors", errors.get(operation).sum());
+            operationReport.put("throughput", histogram.getTotalCount() / seconds);
+            operationReport.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+            operationReport.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+            operationReport.put("p999Ms", toMillis(histogram.getValueAtPercentile(99.9)));
+            operationReport.put("maxMs", toMillis(histogram.getMaxValue()));
+            operationsReport.put(operation.getGraphQLName(), operationReport);
+          }
+        });
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("config", configReport);
+    report.put("cores", cores);
+    report.put("poolConnections", poolConnections);
+    report.put("totals", totalsReport);
+    report.put("operations", operationsReport);
+    return report;
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000.0;
+  }
+}
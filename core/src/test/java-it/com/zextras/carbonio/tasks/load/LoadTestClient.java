@@ -0,0 +1,156 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import com.zextras.carbonio.tasks.TestUtils;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.server.LocalConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents a client of the load test: it sends the GraphQL requests of a {@link LoadTestUser}
+ * one after the other, picking each operation from the mix of the {@link LoadTestConfig}, until
+ * the end of the run. The requests sent before the end of the warmup are not recorded.
+ */
+public class LoadTestClient implements Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTestClient.class);
+  private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+  private static final String[] STATUSES = {"OPEN", "COMPLETE"};
+
+  private final LocalConnector httpLocalConnector;
+  private final LoadTestConfig config;
+  private final LoadTestUser user;
+  private final LatencyRecorder latencyRecorder;
+  private final long measureStartNanos;
+  private final long endNanos;
+
+  public LoadTestClient(
+      LocalConnector httpLocalConnector,
+      LoadTestConfig config,
+      LoadTestUser user,
+      LatencyRecorder latencyRecorder,
+      long measureStartNanos,
+      long endNanos) {
+    this.httpLocalConnector = httpLocalConnector;
+    this.config = config;
+    this.user = user;
+    this.latencyRecorder = latencyRecorder;
+    this.measureStartNanos = measureStartNanos;
+    this.endNanos = endNanos;
+  }
+
+  @Override
+  public void run() {
+    while (System.nanoTime() < endNanos) {
+      Operation operation = config.nextOperation();
+      String payload = buildPayload(operation);
+
+      long start = System.nanoTime();
+      Optional<HttpTester.Response> response = send(payload);
+      long latency = System.nanoTime() - start;
+
+      boolean succeeded =
+          response
+              .filter(httpResponse -> httpResponse.getStatus() == HttpStatus.OK_200)
+              .filter(
+                  httpResponse ->
+                      TestUtils.jsonResponseToErrors(httpResponse.getContent()).isEmpty())
+              .isPresent();
+
+      if (succeeded && operation == Operation.CREATE_TASK) {
+        Object taskId =
+            TestUtils.jsonResponseToMap(response.get().getContent(), "createTask").get("id");
+        if (taskId != null) {
+          user.addTaskId((String) taskId);
+        }
+      }
+
+      if (start >= measureStartNanos) {
+        latencyRecorder.record(operation, latency, succeeded);
+      }
+    }
+  }
+
+  /**
+   * Builds the GraphQL payload of the given {@link Operation}. The operations on a single task
+   * fall back to the creation of a task when the user has no tasks left.
+   */
+  private String buildPayload(Operation operation) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    switch (operation) {
+      case FIND_TASKS:
+        return TestUtils.queryPayload(
+            "query{findTasks(first: 50){id title priority status createdAt reminderAt cursor}}");
+      case GET_TASK:
+        return user.randomTaskId()
+            .map(
+                taskId ->
+                    TestUtils.queryPayload(
+                        "query{getTask(taskId: \\\""
+                            + taskId
+                            + "\\\"){id title description priority status createdAt}}"))
+            .orElseGet(() -> buildPayload(Operation.CREATE_TASK));
+      case UPDATE_TASK:
+        return user.randomTaskId()
+            .map(
+                taskId ->
+                    TestUtils.queryPayload(
+                        "mutation{updateTask(updateTask: {id: \\\""
+                            + taskId
+                            + "\\\", title: \\\"Updated "
+                            + UUID.randomUUID()
+                            + "\\\", status: "
+                            + STATUSES[random.nextInt(STATUSES.length)]
+                            + "}){id title status}}"))
+            .orElseGet(() -> buildPayload(Operation.CREATE_TASK));
+      case TRASH_TASK:
+        return user.removeRandomTaskId()
+            .map(
+                taskId ->
+                    TestUtils.queryPayload(
+                        "mutation{trashTask(taskId: \\\"" + taskId + "\\\")}"))
+            .orElseGet(() -> buildPayload(Operation.CREATE_TASK));
+      case CREATE_TASK:
+      default:
+        return TestUtils.queryPayload(
+            "mutation{createTask(newTask: {title: \\\"Load test "
+                + UUID.randomUUID()
+                + "\\\", description: \\\"Created by the load test\\\", priority: "
+                + PRIORITIES[random.nextInt(PRIORITIES.length)]
+                + "}){id title description priority status createdAt}}");
+    }
+  }
+
+  private Optional<HttpTester.Response> send(String payload) {
+    HttpTester.Request request = HttpTester.newRequest();
+    request.setMethod(HttpMethod.POST.toString());
+    request.setURI("/graphql/");
+    request.setHeader(HttpHeader.HOST.toString(), "test");
+    request.setHeader(HttpHeader.COOKIE.toString(), "ZM_AUTH_TOKEN=" + user.getCookie());
+    request.setContent(payload);
+
+    try {
+      ByteBuffer response =
+          httpLocalConnector.getResponse(request.generate(), 30, TimeUnit.SECONDS);
+      return response == null
+          ? Optional.empty()
+          : Optional.of(HttpTester.parseResponse(HttpTester.from(response)));
+    } catch (Exception exception) {
+      logger.warn("Unable to send the load test request", exception);
+      return Optional.empty();
+    }
+  }
+}
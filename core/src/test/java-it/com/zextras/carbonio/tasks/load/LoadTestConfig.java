@@ -0,0 +1,135 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents the parameters of a load test run. Each one can be overridden with a system property,
+ * so the same test can be run with different workloads:
+ *
+ * <ul>
+ *   <li>{@code load.users}: the number of users owning the tasks
+ *   <li>{@code load.tasks-per-user}: the number of tasks created for each user before the run
+ *   <li>{@code load.clients}: the number of concurrent clients
+ *   <li>{@code load.warmup-seconds}: the duration of the warmup, whose requests are not measured
+ *   <li>{@code load.duration-seconds}: the duration of the measured run
+ *   <li>{@code load.mix}: the weight of each operation, for example {@code
+ *       findTasks=50,getTask=25,createTask=10,updateTask=10,trashTask=5}
+ *   <li>{@code load.report}: the path of the JSON file where the report is written
+ * </ul>
+ */
+public final class LoadTestConfig {
+
+  private static final String DEFAULT_MIX =
+      "findTasks=50,getTask=25,createTask=10,updateTask=10,trashTask=5";
+
+  private final int users;
+  private final int tasksPerUser;
+  private final int clients;
+  private final Duration warmup;
+  private final Duration duration;
+  private final Map<Operation, Integer> mix;
+  private final int totalWeight;
+  private final Path reportPath;
+
+  private LoadTestConfig(
+      int users,
+      int tasksPerUser,
+      int clients,
+      Duration warmup,
+      Duration duration,
+      Map<Operation, Integer> mix,
+      Path reportPath) {
+    this.users = users;
+    this.tasksPerUser = tasksPerUser;
+    this.clients = clients;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.mix = Collections.unmodifiableMap(mix);
+    this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    this.reportPath = reportPath;
+
+    if (totalWeight <= 0) {
+      throw new IllegalArgumentException("The load test mix must have at least a positive weight");
+    }
+  }
+
+  /** @return a {@link LoadTestConfig} built from the system properties and the default values */
+  public static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(
+        Integer.getInteger("load.users", 10),
+        Integer.getInteger("load.tasks-per-user", 100),
+        Integer.getInteger("load.clients", 50),
+        Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10)),
+        Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30)),
+        parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+        Path.of(System.getProperty("load.report", "target/load-test-report.json")));
+  }
+
+  static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    for (String entry : mix.split(",")) {
+      String[] operationAndWeight = entry.trim().split("=");
+      if (operationAndWeight.length != 2) {
+        throw new IllegalArgumentException("Invalid load test mix entry: " + entry);
+      }
+
+      weights.put(
+          Operation.fromGraphQLName(operationAndWeight[0].trim()),
+          Integer.parseInt(operationAndWeight[1].trim()));
+    }
+
+    return weights;
+  }
+
+  /** @return a random {@link Operation} picked with a probability proportional to its weight */
+  public Operation nextOperation() {
+    int value = ThreadLocalRandom.current().nextInt(totalWeight);
+
+    for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+      value -= weight.getValue();
+      if (value < 0) {
+        return weight.getKey();
+      }
+    }
+
+    throw new IllegalStateException("Unable to pick an operation from the load test mix");
+  }
+
+  public int getUsers() {
+    return users;
+  }
+
+  public int getTasksPerUser() {
+    return tasksPerUser;
+  }
+
+  public int getClients() {
+    return clients;
+  }
+
+  public Duration getWarmup() {
+    return warmup;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public Map<Operation, Integer> getMix() {
+    return mix;
+  }
+
+  public Path getReportPath() {
+    return reportPath;
+  }
+}
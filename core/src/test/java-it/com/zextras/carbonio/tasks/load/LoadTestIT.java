@@ -0,0 +1,158 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.NewTask;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a mixed GraphQL workload against the whole service started by the {@link Simulator} and
+ * writes a JSON report with the throughput and the latency percentiles of each operation.
+ *
+ * <p>It is skipped unless the {@code load.enabled} system property is true, and it is configured
+ * with the system properties described in the {@link LoadTestConfig}. For example:
+ *
+ * <pre>
+ * mvn verify -pl core -Dskip.integration.tests=false -Dit.test=LoadTestIT -Dload.enabled=true \
+ *   -Dload.clients=200 -Dload.duration-seconds=60
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+class LoadTestIT {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTestIT.class);
+  private static final int SEED_BATCH_SIZE = 500;
+
+  @Test
+  void givenAMixedWorkloadTheServiceShouldServeItAndReportTheThroughputAndTheLatencies()
+      throws Exception {
+    // Given
+    LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+    List<LoadTestUser> users = new ArrayList<>();
+    Map<String, String> cookieToUserId = new LinkedHashMap<>();
+    for (int index = 0; index < config.getUsers(); index++) {
+      LoadTestUser user =
+          new LoadTestUser("load-user-cookie-" + index, UUID.randomUUID().toString());
+      users.add(user);
+      cookieToUserId.put(user.getCookie(), user.getUserId());
+    }
+
+    SimulatorBuilder simulatorBuilder =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover()
+            .withUserManagement(cookieToUserId)
+            .withServer();
+
+    try (Simulator simulator = simulatorBuilder.build().start()) {
+      LocalConnector httpLocalConnector = simulator.getHttpLocalConnector();
+      TaskRepository taskRepository = simulator.getInjector().getInstance(TaskRepository.class);
+      TasksConfig tasksConfig = simulator.getInjector().getInstance(TasksConfig.class);
+
+      users.forEach(user -> seedTasks(taskRepository, user, config.getTasksPerUser()));
+
+      LatencyRecorder latencyRecorder = new LatencyRecorder();
+      long measureStartNanos = System.nanoTime() + config.getWarmup().toNanos();
+      long endNanos = measureStartNanos + config.getDuration().toNanos();
+
+      // When
+      ExecutorService clientsExecutor = newClientsExecutor();
+      for (int index = 0; index < config.getClients(); index++) {
+        clientsExecutor.execute(
+            new LoadTestClient(
+                httpLocalConnector,
+                config,
+                users.get(index % users.size()),
+                latencyRecorder,
+                measureStartNanos,
+                endNanos));
+      }
+      clientsExecutor.shutdown();
+      boolean terminated =
+          clientsExecutor.awaitTermination(
+              config.getWarmup().plus(config.getDuration()).toSeconds() + 60, TimeUnit.SECONDS);
+
+      // Then
+      Map<String, Object> report =
+          latencyRecorder.toReport(
+              config,
+              config.getDuration(),
+              Runtime.getRuntime().availableProcessors(),
+              tasksConfig.getHikariMaxPoolSize());
+
+      String jsonReport =
+          new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report);
+      if (config.getReportPath().getParent() != null) {
+        Files.createDirectories(config.getReportPath().getParent());
+      }
+      Files.writeString(config.getReportPath(), jsonReport);
+      logger.info("Load test report written in {}:\n{}", config.getReportPath(), jsonReport);
+
+      Assertions.assertThat(terminated).isTrue();
+      Assertions.assertThat(latencyRecorder.getTotalCount()).isPositive();
+    }
+  }
+
+  private static void seedTasks(TaskRepository taskRepository, LoadTestUser user, int tasks) {
+    Priority[] priorities = Priority.values();
+
+    for (int created = 0; created < tasks; created += SEED_BATCH_SIZE) {
+      List<NewTask> newTasks = new ArrayList<>();
+      for (int index = created; index < Math.min(tasks, created + SEED_BATCH_SIZE); index++) {
+        newTasks.add(
+            new NewTask(
+                "Seeded task " + index,
+                index % 2 == 0 ? "Description of the seeded task " + index : null,
+                priorities[index % priorities.length],
+                index % 5 == 0 ? Status.COMPLETE : Status.OPEN,
+                null,
+                null));
+      }
+
+      taskRepository.createTasks(UUID.fromString(user.getUserId()), newTasks).stream()
+          .map(Task::getId)
+          .forEach(taskId -> user.addTaskId(taskId.toString()));
+    }
+  }
+
+  /**
+   * The service is compiled for Java 17, so the virtual threads are created by reflection when the
+   * tests run on a JVM supporting them (Java 21 or later). Otherwise, each client runs on its own
+   * platform thread.
+   */
+  private static ExecutorService newClientsExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException exception) {
+      logger.warn("Virtual threads are not supported: the clients run on platform threads");
+      return Executors.newCachedThreadPool();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents a user of the load test with the identifiers of its tasks not trashed. The clients of
+ * the same user share it, so the identifiers are accessed only through its synchronized methods.
+ */
+public class LoadTestUser {
+
+  private final String cookie;
+  private final String userId;
+  private final List<String> taskIds = new ArrayList<>();
+
+  public LoadTestUser(String cookie, String userId) {
+    this.cookie = cookie;
+    this.userId = userId;
+  }
+
+  public String getCookie() {
+    return cookie;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public synchronized void addTaskId(String taskId) {
+    taskIds.add(taskId);
+  }
+
+  /** @return an {@link Optional} containing the identifier of a random task of the user */
+  public synchronized Optional<String> randomTaskId() {
+    return taskIds.isEmpty()
+        ? Optional.empty()
+        : Optional.of(taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size())));
+  }
+
+  /**
+   * Removes the identifier of a random task, so the other clients do not use it after it has been
+   * trashed.
+   *
+   * @return an {@link Optional} containing the removed identifier
+   */
+  public synchronized Optional<String> removeRandomTaskId() {
+    if (taskIds.isEmpty()) {
+      return Optional.empty();
+    }
+
+    int index = ThreadLocalRandom.current().nextInt(taskIds.size());
+    // Swaps the element to remove with the last one, so the removal does not shift the list
+    String taskId = taskIds.get(index);
+    taskIds.set(index, taskIds.get(taskIds.size() - 1));
+    taskIds.remove(taskIds.size() - 1);
+    return Optional.of(taskId);
+  }
+}
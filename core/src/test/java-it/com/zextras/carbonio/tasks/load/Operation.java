@@ -0,0 +1,39 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.load;
+
+import java.util.Arrays;
+
+/** Represents the GraphQL operations executed by the load test clients. */
+public enum Operation {
+  FIND_TASKS("findTasks"),
+  GET_TASK("getTask"),
+  CREATE_TASK("createTask"),
+  UPDATE_TASK("updateTask"),
+  TRASH_TASK("trashTask");
+
+  private final String graphQLName;
+
+  Operation(String graphQLName) {
+    this.graphQLName = graphQLName;
+  }
+
+  public String getGraphQLName() {
+    return graphQLName;
+  }
+
+  /**
+   * @param graphQLName is the name of the operation in the GraphQL schema
+   * @return the related {@link Operation}
+   * @throws IllegalArgumentException if there is no operation with the given name
+   */
+  public static Operation fromGraphQLName(String graphQLName) {
+    return Arrays.stream(values())
+        .filter(operation -> operation.graphQLName.equals(graphQLName))
+        .findFirst()
+        .orElseThrow(
+            () -> new IllegalArgumentException("Unknown load test operation: " + graphQLName));
+  }
+}
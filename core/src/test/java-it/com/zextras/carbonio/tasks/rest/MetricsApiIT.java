@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest;
+
+import com.zextras.carbonio.tasks.Simulator;
+import com.zextras.carbonio.tasks.Simulator.SimulatorBuilder;
+import java.util.Collections;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.HttpTester.Response;
+import org.eclipse.jetty.server.LocalConnector;
+import org.junit.jupiter.api.Test;
+
+class MetricsApiIT {
+
+  @Test
+  void givenARunningServiceTheMetricsShouldReturn200CodeWithTheMetricsInPrometheusFormat()
+      throws Exception {
+    // Given
+    SimulatorBuilder simulatorBuilder =
+        SimulatorBuilder.aSimulator()
+            .init()
+            .withDatabase()
+            .withServiceDiscover()
+            .withUserManagement(Collections.emptyMap())
+            .withServer();
+
+    try (Simulator simulator = simulatorBuilder.build().start()) {
+
+      LocalConnector localConnector = simulator.getHttpLocalConnector();
+
+      HttpTester.Request request = HttpTester.newRequest();
+      request.setMethod(HttpMethod.GET.toString());
+      request.setHeader(HttpHeader.HOST.toString(), "test");
+      request.setURI("/rest/metrics");
+
+      // When
+      Response httpFields =
+          HttpTester.parseResponse(HttpTester.from(localConnector.getResponse(request.generate())));
+
+      // Then
+      Assertions.assertThat(httpFields.getStatus()).isEqualTo(HttpStatus.OK_200);
+      Assertions.assertThat(httpFields.get(HttpHeader.CONTENT_TYPE)).startsWith("text/plain");
+      Assertions.assertThat(httpFields.getContent()).contains("jvm_memory_used_bytes");
+    }
+  }
+}
@@ -4,9 +4,11 @@
 
 package com.zextras.carbonio.tasks.auth;
 
+import com.google.common.base.Ticker;
 import com.zextras.carbonio.usermanagement.UserManagementClient;
 import com.zextras.carbonio.usermanagement.entities.UserId;
 import com.zextras.carbonio.usermanagement.exceptions.UnAuthorized;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.control.Try;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -18,6 +20,9 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -25,10 +30,19 @@ import org.mockito.Mockito;
 class AuthenticationServletFilterTest {
 
   private UserManagementClient userManagementClientMock;
+  private TokenValidationCache tokenValidationCache;
 
   @BeforeEach
   void setUp() {
     userManagementClientMock = Mockito.mock(UserManagementClient.class);
+    tokenValidationCache =
+        new TokenValidationCache(
+            userManagementClientMock,
+            100,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(5),
+            Ticker.systemTicker(),
+            new SimpleMeterRegistry());
   }
 
   @Test
@@ -38,7 +52,7 @@ class AuthenticationServletFilterTest {
     Mockito.when(filterConfigMock.getServletContext())
         .thenReturn(Mockito.mock(ServletContext.class));
     AuthenticationServletFilter authenticationServletFilter =
-        new AuthenticationServletFilter(userManagementClientMock);
+        new AuthenticationServletFilter(tokenValidationCache);
 
     // When
     authenticationServletFilter.init(filterConfigMock);
@@ -67,7 +81,7 @@ class AuthenticationServletFilterTest {
         .thenReturn(Try.success(userId));
 
     AuthenticationServletFilter authenticationServletFilter =
-        new AuthenticationServletFilter(userManagementClientMock);
+        new AuthenticationServletFilter(tokenValidationCache);
 
     // When
     authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
@@ -78,7 +92,7 @@ class AuthenticationServletFilterTest {
     Mockito.verify(userManagementClientMock, Mockito.times(1)).validateUserToken("zm-token");
 
     Mockito.verify(httpRequestMock, Mockito.times(1))
-        .setAttribute("requesterId", "00000000-0000-0000-0000-000000000000");
+        .setAttribute("requesterId", UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     Mockito.verify(filterChainMock, Mockito.times(1)).doFilter(httpRequestMock, httpResponseMock);
   }
@@ -91,7 +105,7 @@ class AuthenticationServletFilterTest {
     FilterChain filterChainMock = Mockito.mock(FilterChain.class);
 
     AuthenticationServletFilter authenticationServletFilter =
-        new AuthenticationServletFilter(userManagementClientMock);
+        new AuthenticationServletFilter(tokenValidationCache);
 
     // When
     authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
@@ -114,7 +128,7 @@ class AuthenticationServletFilterTest {
     FilterChain filterChainMock = Mockito.mock(FilterChain.class);
 
     AuthenticationServletFilter authenticationServletFilter =
-        new AuthenticationServletFilter(userManagementClientMock);
+        new AuthenticationServletFilter(tokenValidationCache);
 
     // When
     authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
@@ -126,7 +140,7 @@ class AuthenticationServletFilterTest {
 
     Mockito.verifyNoInteractions(userManagementClientMock);
     Mockito.verify(httpRequestMock, Mockito.never())
-        .setAttribute(Mockito.anyString(), Mockito.anyString());
+        .setAttribute(Mockito.anyString(), Mockito.any());
     Mockito.verifyNoInteractions(filterChainMock);
   }
 
@@ -144,7 +158,7 @@ class AuthenticationServletFilterTest {
         .thenReturn(Try.failure(new UnAuthorized()));
 
     AuthenticationServletFilter authenticationServletFilter =
-        new AuthenticationServletFilter(userManagementClientMock);
+        new AuthenticationServletFilter(tokenValidationCache);
 
     // When
     authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
@@ -158,7 +172,65 @@ class AuthenticationServletFilterTest {
         .setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 
     Mockito.verify(httpRequestMock, Mockito.never())
-        .setAttribute(Mockito.anyString(), Mockito.anyString());
+        .setAttribute(Mockito.anyString(), Mockito.any());
+    Mockito.verifyNoInteractions(filterChainMock);
+  }
+
+  @Test
+  void givenAnUnreachableUserManagementTheDoFilterShouldRespondWithA503StatusCode()
+      throws ServletException, IOException {
+    // Given
+    Cookie[] cookies = {new Cookie("ZM_AUTH_TOKEN", "zm-token")};
+    HttpServletRequest httpRequestMock = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(httpRequestMock.getCookies()).thenReturn(cookies);
+    HttpServletResponse httpResponseMock = Mockito.mock(HttpServletResponse.class);
+    FilterChain filterChainMock = Mockito.mock(FilterChain.class);
+
+    Mockito.when(userManagementClientMock.validateUserToken("zm-token"))
+        .thenReturn(Try.failure(new ConnectException("Connection refused")));
+
+    AuthenticationServletFilter authenticationServletFilter =
+        new AuthenticationServletFilter(tokenValidationCache);
+
+    // When
+    authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
+
+    // Then
+    Mockito.verify(httpResponseMock, Mockito.times(1))
+        .setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+    Mockito.verify(httpRequestMock, Mockito.never())
+        .setAttribute(Mockito.anyString(), Mockito.any());
+    Mockito.verifyNoInteractions(filterChainMock);
+  }
+
+  @Test
+  void givenAValidCookieOfAUserWithoutAUuidTheDoFilterShouldRespondWithA401StatusCode()
+      throws ServletException, IOException {
+    // Given
+    Cookie[] cookies = {new Cookie("ZM_AUTH_TOKEN", "zm-token")};
+    HttpServletRequest httpRequestMock = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(httpRequestMock.getCookies()).thenReturn(cookies);
+    HttpServletResponse httpResponseMock = Mockito.mock(HttpServletResponse.class);
+    FilterChain filterChainMock = Mockito.mock(FilterChain.class);
+
+    UserId userId = new UserId();
+    userId.setUserId("not-a-uuid");
+    Mockito.when(userManagementClientMock.validateUserToken("zm-token"))
+        .thenReturn(Try.success(userId));
+
+    AuthenticationServletFilter authenticationServletFilter =
+        new AuthenticationServletFilter(tokenValidationCache);
+
+    // When
+    authenticationServletFilter.doFilter(httpRequestMock, httpResponseMock, filterChainMock);
+
+    // Then
+    Mockito.verify(httpResponseMock, Mockito.times(1))
+        .setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+
+    Mockito.verify(httpRequestMock, Mockito.never())
+        .setAttribute(Mockito.anyString(), Mockito.any());
     Mockito.verifyNoInteractions(filterChainMock);
   }
 }
@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.auth;
+
+import com.google.common.base.Ticker;
+import com.zextras.carbonio.usermanagement.UserManagementClient;
+import com.zextras.carbonio.usermanagement.entities.UserId;
+import com.zextras.carbonio.usermanagement.exceptions.UnAuthorized;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.control.Try;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TokenValidationCacheTest {
+
+  private UserManagementClient userManagementClientMock;
+  private AtomicLong nanos;
+  private TokenValidationCache tokenValidationCache;
+
+  @BeforeEach
+  void setUp() {
+    userManagementClientMock = Mockito.mock(UserManagementClient.class);
+    nanos = new AtomicLong();
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        };
+
+    tokenValidationCache =
+        new TokenValidationCache(
+            userManagementClientMock,
+            100,
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(5),
+            ticker,
+            new SimpleMeterRegistry());
+  }
+
+  @Test
+  void givenAValidTokenTheValidateUserTokenShouldCallTheUserManagementOncePerTtl() {
+    // Given
+    UserId userId = new UserId();
+    userId.setUserId("00000000-0000-0000-0000-000000000000");
+    Mockito.when(userManagementClientMock.validateUserToken("zm-token"))
+        .thenReturn(Try.success(userId));
+
+    // When
+    Try<UserId> firstResult = tokenValidationCache.validateUserToken("zm-token");
+    nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+    Try<UserId> secondResult = tokenValidationCache.validateUserToken("zm-token");
+    nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+    Try<UserId> thirdResult = tokenValidationCache.validateUserToken("zm-token");
+
+    // Then
+    Assertions.assertThat(firstResult.get().getUserId())
+        .isEqualTo("00000000-0000-0000-0000-000000000000");
+    Assertions.assertThat(secondResult.get()).isEqualTo(userId);
+    Assertions.assertThat(thirdResult.get()).isEqualTo(userId);
+
+    Mockito.verify(userManagementClientMock, Mockito.times(2)).validateUserToken("zm-token");
+    Assertions.assertThat(tokenValidationCache.getHitCount()).isEqualTo(1L);
+    Assertions.assertThat(tokenValidationCache.getMissCount()).isEqualTo(2L);
+  }
+
+  @Test
+  void givenAnInvalidTokenTheValidateUserTokenShouldCacheTheFailureOnlyForTheNegativeTtl() {
+    // Given
+    Mockito.when(userManagementClientMock.validateUserToken("invalid-token"))
+        .thenReturn(Try.failure(new UnAuthorized()));
+
+    // When
+    Try<UserId> firstResult = tokenValidationCache.validateUserToken("invalid-token");
+    nanos.addAndGet(Duration.ofSeconds(4).toNanos());
+    Try<UserId> secondResult = tokenValidationCache.validateUserToken("invalid-token");
+    nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+    Try<UserId> thirdResult = tokenValidationCache.validateUserToken("invalid-token");
+
+    // Then
+    Assertions.assertThat(firstResult.isFailure()).isTrue();
+    Assertions.assertThat(secondResult.isFailure()).isTrue();
+    Assertions.assertThat(thirdResult.isFailure()).isTrue();
+
+    Mockito.verify(userManagementClientMock, Mockito.times(2)).validateUserToken("invalid-token");
+  }
+
+  @Test
+  void givenAnUnreachableUserManagementTheValidateUserTokenShouldNotCacheTheFailure() {
+    // Given
+    UserId userId = new UserId();
+    userId.setUserId("00000000-0000-0000-0000-000000000000");
+    Mockito.when(userManagementClientMock.validateUserToken("zm-token"))
+        .thenReturn(Try.failure(new ConnectException("Connection refused")))
+        .thenReturn(Try.success(userId));
+
+    // When
+    Try<UserId> firstResult = tokenValidationCache.validateUserToken("zm-token");
+    Try<UserId> secondResult = tokenValidationCache.validateUserToken("zm-token");
+
+    // Then
+    Assertions.assertThat(firstResult.isFailure()).isTrue();
+    Assertions.assertThat(firstResult.getCause()).isInstanceOf(ConnectException.class);
+    Assertions.assertThat(secondResult.get()).isEqualTo(userId);
+
+    Mockito.verify(userManagementClientMock, Mockito.times(2)).validateUserToken("zm-token");
+    Assertions.assertThat(tokenValidationCache.getSize()).isEqualTo(1L);
+  }
+
+  @Test
+  void givenConcurrentValidationsOfTheSameTokenTheValidateUserTokenShouldCallTheUserManagementOnce()
+      throws Exception {
+    // Given
+    UserId userId = new UserId();
+    userId.setUserId("00000000-0000-0000-0000-000000000000");
+    CountDownLatch validationStarted = new CountDownLatch(1);
+    CountDownLatch validationReleased = new CountDownLatch(1);
+    Mockito.when(userManagementClientMock.validateUserToken("zm-token"))
+        .thenAnswer(
+            invocation -> {
+              validationStarted.countDown();
+              validationReleased.await(5, TimeUnit.SECONDS);
+              return Try.success(userId);
+            });
+
+    // When
+    CompletableFuture<Try<UserId>> firstResult =
+        CompletableFuture.supplyAsync(() -> tokenValidationCache.validateUserToken("zm-token"));
+    validationStarted.await(5, TimeUnit.SECONDS);
+    CompletableFuture<Try<UserId>> secondResult =
+        CompletableFuture.supplyAsync(() -> tokenValidationCache.validateUserToken("zm-token"));
+    validationReleased.countDown();
+
+    // Then
+    Assertions.assertThat(firstResult.get(5, TimeUnit.SECONDS).get()).isEqualTo(userId);
+    Assertions.assertThat(secondResult.get(5, TimeUnit.SECONDS).get()).isEqualTo(userId);
+
+    Mockito.verify(userManagementClientMock, Mockito.times(1)).validateUserToken("zm-token");
+  }
+}
@@ -5,6 +5,8 @@
 package com.zextras.carbonio.tasks.clients;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ThrowableAssert;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Delay;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.verify.VerificationTimes;
@@ -194,6 +197,93 @@ class ServiceDiscoverHttpClientTest {
         VerificationTimes.once());
   }
 
+  @Test
+  void givenSomeConfigsTheGetConfigsShouldReturnAllOfThemWithASingleRequest() {
+    // Given
+    String encodedFirstValue =
+        new String(Base64.encode("first-value".getBytes(StandardCharsets.UTF_8)));
+    String encodedSecondValue =
+        new String(Base64.encode("second-value".getBytes(StandardCharsets.UTF_8)));
+
+    serviceDiscoverMock
+        .when(
+            HttpRequest.request()
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true")
+                .withMethod(HttpMethod.GET.toString())
+                .withHeader("X-Consul-Token", ""))
+        .respond(
+            HttpResponse.response()
+                .withStatusCode(HttpStatus.OK_200)
+                .withBody(
+                    "[{\"Key\":\"carbonio-tasks/\",\"Value\":null},"
+                        + String.format(
+                            "{\"Key\":\"carbonio-tasks/first-key\",\"Value\":\"%s\"},",
+                            encodedFirstValue)
+                        + String.format(
+                            "{\"Key\":\"carbonio-tasks/second-key\",\"Value\":\"%s\"}]",
+                            encodedSecondValue)));
+
+    // When
+    Optional<Map<String, String>> optConfigs =
+        ServiceDiscoverHttpClient.defaultURL("carbonio-tasks").getConfigs();
+
+    // Then
+    Assertions.assertThat(optConfigs).isPresent();
+    Assertions.assertThat(optConfigs.get())
+        .hasSize(2)
+        .containsEntry("first-key", "first-value")
+        .containsEntry("second-key", "second-value");
+
+    serviceDiscoverMock.verify(
+        HttpRequest.request()
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true")
+            .withMethod(HttpMethod.GET.toString())
+            .withHeader("X-Consul-Token", ""),
+        VerificationTimes.once());
+  }
+
+  @Test
+  void givenNoConfigsTheGetConfigsShouldReturnAnEmptyMap() {
+    // Given
+    serviceDiscoverMock
+        .when(
+            HttpRequest.request()
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true")
+                .withMethod(HttpMethod.GET.toString())
+                .withHeader("X-Consul-Token", ""))
+        .respond(HttpResponse.response().withStatusCode(HttpStatus.NOT_FOUND_404));
+
+    // When
+    Optional<Map<String, String>> optConfigs =
+        ServiceDiscoverHttpClient.defaultURL("carbonio-tasks").getConfigs();
+
+    // Then
+    Assertions.assertThat(optConfigs).isPresent().contains(Map.of());
+  }
+
+  @Test
+  void givenAnUnreachableServiceDiscoverTheGetConfigsShouldReturnAnEmptyOptional() {
+    // Given
+    serviceDiscoverMock
+        .when(
+            HttpRequest.request()
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true")
+                .withMethod(HttpMethod.GET.toString())
+                .withHeader("X-Consul-Token", ""))
+        .respond(HttpResponse.response().withStatusCode(HttpStatus.INTERNAL_SERVER_ERROR_500));
+
+    // When
+    Optional<Map<String, String>> optConfigs =
+        ServiceDiscoverHttpClient.defaultURL("carbonio-tasks").getConfigs();
+
+    // Then
+    Assertions.assertThat(optConfigs).isEmpty();
+  }
+
   @Test
   void givenAMalformedServiceDiscoverUrlTheGetConfigShouldThrownNullPointerException() {
     // Given
@@ -219,4 +309,65 @@ class ServiceDiscoverHttpClientTest {
             .withHeader("X-Consul-Token", ""),
         VerificationTimes.never());
   }
+
+  @Test
+  void givenTheSameClientTheGetConfigShouldServeEveryRequestUntilTheClientIsClosed() {
+    // Given
+    String encodedConfigValue =
+        new String(Base64.encode("valid-value".getBytes(StandardCharsets.UTF_8)));
+
+    serviceDiscoverMock
+        .when(
+            HttpRequest.request()
+                .withPath("/v1/kv/carbonio-tasks/config-key")
+                .withMethod(HttpMethod.GET.toString()))
+        .respond(
+            HttpResponse.response()
+                .withStatusCode(HttpStatus.OK_200)
+                .withBody(String.format(bodyPayloadFormat, "config-key", encodedConfigValue)));
+
+    ServiceDiscoverHttpClient serviceDiscoverHttpClient =
+        ServiceDiscoverHttpClient.defaultURL("carbonio-tasks");
+
+    // When
+    Optional<String> optFirstValue = serviceDiscoverHttpClient.getConfig("config-key");
+    Optional<String> optSecondValue = serviceDiscoverHttpClient.getConfig("config-key");
+    serviceDiscoverHttpClient.close();
+
+    // Then
+    Assertions.assertThat(optFirstValue).isPresent().contains("valid-value");
+    Assertions.assertThat(optSecondValue).isPresent().contains("valid-value");
+    Assertions.assertThatIllegalStateException()
+        .isThrownBy(() -> serviceDiscoverHttpClient.getConfig("config-key"));
+
+    serviceDiscoverMock.verify(
+        HttpRequest.request()
+            .withPath("/v1/kv/carbonio-tasks/config-key")
+            .withMethod(HttpMethod.GET.toString()),
+        VerificationTimes.exactly(2));
+  }
+
+  @Test
+  void givenAServiceDiscoverNotAnsweringTheGetConfigShouldReturnAnOptionalEmptyAfterTheTimeout() {
+    // Given
+    serviceDiscoverMock
+        .when(
+            HttpRequest.request()
+                .withPath("/v1/kv/carbonio-tasks/config-key")
+                .withMethod(HttpMethod.GET.toString()))
+        .respond(
+            HttpResponse.response()
+                .withStatusCode(HttpStatus.OK_200)
+                .withDelay(Delay.seconds(30)));
+
+    // When
+    long start = System.nanoTime();
+    Optional<String> optConfigValue =
+        ServiceDiscoverHttpClient.defaultURL("carbonio-tasks").getConfig("config-key");
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    // Then
+    Assertions.assertThat(optConfigValue).isEmpty();
+    Assertions.assertThat(elapsed).isLessThan(Duration.ofSeconds(30));
+  }
 }
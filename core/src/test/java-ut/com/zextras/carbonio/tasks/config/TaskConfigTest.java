@@ -5,11 +5,14 @@
 package com.zextras.carbonio.tasks.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zextras.carbonio.tasks.clients.ServiceDiscoverHttpClient;
 import com.zextras.carbonio.tasks.dal.dao.Task;
 import io.ebean.config.DatabaseConfig;
+import java.time.Duration;
 import java.util.Properties;
 import java.util.Set;
 import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert;
 import org.eclipse.jetty.http.HttpMethod;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.verify.VerificationTimes;
@@ -58,25 +62,16 @@ class TaskConfigTest {
     Assertions.assertThat(dataSource.getPassword()).isEqualTo("fake-db-password");
 
     Properties dataSourceProperties = dataSource.getDataSourceProperties();
-    Assertions.assertThat(dataSourceProperties).hasSize(1);
+    Assertions.assertThat(dataSourceProperties).hasSize(2);
     Assertions.assertThat(dataSourceProperties.getProperty("sslmode")).isEqualTo("disable");
+    Assertions.assertThat(dataSourceProperties.getProperty("reWriteBatchedInserts"))
+        .isEqualTo("true");
 
     serviceDiscoverMock.verify(
         HttpRequest.request()
             .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-name"),
-        VerificationTimes.once());
-
-    serviceDiscoverMock.verify(
-        HttpRequest.request()
-            .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-username"),
-        VerificationTimes.once());
-
-    serviceDiscoverMock.verify(
-        HttpRequest.request()
-            .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-password"),
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true"),
         VerificationTimes.once());
   }
 
@@ -94,8 +89,10 @@ class TaskConfigTest {
     Assertions.assertThat(dataSource.getPassword()).isEmpty();
 
     Properties dataSourceProperties = dataSource.getDataSourceProperties();
-    Assertions.assertThat(dataSourceProperties).hasSize(1);
+    Assertions.assertThat(dataSourceProperties).hasSize(2);
     Assertions.assertThat(dataSourceProperties.getProperty("sslmode")).isEqualTo("disable");
+    Assertions.assertThat(dataSourceProperties.getProperty("reWriteBatchedInserts"))
+        .isEqualTo("true");
   }
 
   @Test
@@ -125,19 +122,14 @@ class TaskConfigTest {
     serviceDiscoverMock.verify(
         HttpRequest.request()
             .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-name"),
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true"),
         VerificationTimes.once());
 
     serviceDiscoverMock.verify(
         HttpRequest.request()
             .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-username"),
-        VerificationTimes.never());
-
-    serviceDiscoverMock.verify(
-        HttpRequest.request()
-            .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-password"),
+            .withPath("/v1/kv/carbonio-tasks/db-name"),
         VerificationTimes.never());
   }
 
@@ -154,17 +146,21 @@ class TaskConfigTest {
   void havingAnAvailableServiceDiscoverTheTasksConfigShouldReturnAnEbeanDatabaseConfig() {
     // Given
     createServiceDiscoverMock();
+    TasksConfig tasksConfig = new TasksConfig();
+    HikariDataSource tasksDataSource = tasksConfig.getDataSource();
+
     // When
-    DatabaseConfig databaseConfig = new TasksConfig().getEbeanDatabaseConfig();
+    DatabaseConfig databaseConfig = tasksConfig.getEbeanDatabaseConfig(tasksDataSource);
 
     // Then
     Assertions.assertThat(databaseConfig.getName()).isEqualTo("carbonio-tasks-postgres");
     Assertions.assertThat(databaseConfig.isDefaultServer()).isTrue();
+    Assertions.assertThat(databaseConfig.getPersistBatchSize()).isEqualTo(100);
 
     Set<Class<?>> entityClasses = databaseConfig.classes();
     Assertions.assertThat(entityClasses).hasSize(1).contains(Task.class);
 
-    Assertions.assertThat(databaseConfig.getDataSource()).isInstanceOf(HikariDataSource.class);
+    Assertions.assertThat(databaseConfig.getDataSource()).isSameAs(tasksDataSource);
     HikariDataSource dataSource = (HikariDataSource) databaseConfig.getDataSource();
 
     Assertions.assertThat(dataSource.getJdbcUrl())
@@ -173,43 +169,37 @@ class TaskConfigTest {
     Assertions.assertThat(dataSource.getPassword()).isEqualTo("fake-db-password");
 
     Properties dataSourceProperties = dataSource.getDataSourceProperties();
-    Assertions.assertThat(dataSourceProperties).hasSize(1);
+    Assertions.assertThat(dataSourceProperties).hasSize(2);
     Assertions.assertThat(dataSourceProperties.getProperty("sslmode")).isEqualTo("disable");
+    Assertions.assertThat(dataSourceProperties.getProperty("reWriteBatchedInserts"))
+        .isEqualTo("true");
 
     serviceDiscoverMock.verify(
         HttpRequest.request()
             .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-name"),
-        VerificationTimes.once());
-
-    serviceDiscoverMock.verify(
-        HttpRequest.request()
-            .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-username"),
-        VerificationTimes.once());
-
-    serviceDiscoverMock.verify(
-        HttpRequest.request()
-            .withMethod(HttpMethod.GET.toString())
-            .withPath("/v1/kv/carbonio-tasks/db-password"),
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true"),
         VerificationTimes.once());
   }
 
   @Test
   void withoutAnAvailableServiceDiscoverTheTasksConfigShouldReturnAnEbeanDatabaseConfig() {
     // Given
+    TasksConfig tasksConfig = new TasksConfig();
+    HikariDataSource tasksDataSource = tasksConfig.getDataSource();
 
     // When
-    DatabaseConfig databaseConfig = new TasksConfig().getEbeanDatabaseConfig();
+    DatabaseConfig databaseConfig = tasksConfig.getEbeanDatabaseConfig(tasksDataSource);
 
     // Then
     Assertions.assertThat(databaseConfig.getName()).isEqualTo("carbonio-tasks-postgres");
     Assertions.assertThat(databaseConfig.isDefaultServer()).isTrue();
+    Assertions.assertThat(databaseConfig.getPersistBatchSize()).isEqualTo(500);
 
     Set<Class<?>> entityClasses = databaseConfig.classes();
     Assertions.assertThat(entityClasses).hasSize(1).contains(Task.class);
 
-    Assertions.assertThat(databaseConfig.getDataSource()).isInstanceOf(HikariDataSource.class);
+    Assertions.assertThat(databaseConfig.getDataSource()).isSameAs(tasksDataSource);
     HikariDataSource dataSource = (HikariDataSource) databaseConfig.getDataSource();
 
     Assertions.assertThat(dataSource.getJdbcUrl())
@@ -218,52 +208,101 @@ class TaskConfigTest {
     Assertions.assertThat(dataSource.getPassword()).isEmpty();
 
     Properties dataSourceProperties = dataSource.getDataSourceProperties();
-    Assertions.assertThat(dataSourceProperties).hasSize(1);
+    Assertions.assertThat(dataSourceProperties).hasSize(2);
     Assertions.assertThat(dataSourceProperties.getProperty("sslmode")).isEqualTo("disable");
+    Assertions.assertThat(dataSourceProperties.getProperty("reWriteBatchedInserts"))
+        .isEqualTo("true");
   }
 
-  private void createServiceDiscoverMock() {
-    String encodedDbName = new String(Base64.encode("fake-db-name".getBytes()));
-    String encodedDbUsername = new String(Base64.encode("fake-db-username".getBytes()));
-    String encodedDbPassword = new String(Base64.encode("fake-db-password".getBytes()));
-    String bodyPayloadFormat = "[{\"Key\":\"%s\",\"Value\":\"%s\"}]";
-
+  @Test
+  void givenAServiceDiscoverFailingOnceTheTasksConfigShouldRetryToLoadTheConfigs() {
+    // Given
     serviceDiscoverMock
         .when(
             HttpRequest.request()
                 .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-name")
-                .withHeader("X-Consul-Token", ""))
-        .respond(
-            HttpResponse.response()
-                .withStatusCode(200)
-                .withBody(
-                    String.format(bodyPayloadFormat, "carbonio-tasks/db-name", encodedDbName)));
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true"),
+            Times.once())
+        .respond(HttpResponse.response().withStatusCode(500));
+    createServiceDiscoverMock();
+
+    // When
+    TasksConfig tasksConfig =
+        new TasksConfig(
+            ServiceDiscoverHttpClient.defaultURL("carbonio-tasks"), 3, Duration.ofMillis(1));
+
+    // Then
+    Assertions.assertThat(tasksConfig.getDatabaseName()).isEqualTo("fake-db-name");
 
+    serviceDiscoverMock.verify(
+        HttpRequest.request()
+            .withMethod(HttpMethod.GET.toString())
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true"),
+        VerificationTimes.exactly(2));
+  }
+
+  @Test
+  void givenAnUnreachableServiceDiscoverTheTasksConfigShouldFailAfterTheMaxAttempts() {
+    // Given
     serviceDiscoverMock
         .when(
             HttpRequest.request()
                 .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-username")
-                .withHeader("X-Consul-Token", ""))
-        .respond(
-            HttpResponse.response()
-                .withStatusCode(200)
-                .withBody(
-                    String.format(
-                        bodyPayloadFormat, "carbonio-tasks/db-username", encodedDbUsername)));
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true"))
+        .respond(HttpResponse.response().withStatusCode(500));
+
+    // When
+    ThrowableAssert.ThrowingCallable throwable =
+        () ->
+            new TasksConfig(
+                ServiceDiscoverHttpClient.defaultURL("carbonio-tasks"), 3, Duration.ofMillis(1));
+
+    // Then
+    Assertions.assertThatIllegalStateException()
+        .isThrownBy(throwable)
+        .withMessage("Unable to load the configs from the service discover after 3 attempts");
+
+    serviceDiscoverMock.verify(
+        HttpRequest.request()
+            .withMethod(HttpMethod.GET.toString())
+            .withPath("/v1/kv/carbonio-tasks/")
+            .withQueryStringParameter("recurse", "true"),
+        VerificationTimes.exactly(3));
+  }
+
+  private void createServiceDiscoverMock() {
+    String encodedDbName = new String(Base64.encode("fake-db-name".getBytes()));
+    String encodedDbUsername = new String(Base64.encode("fake-db-username".getBytes()));
+    String encodedDbPassword = new String(Base64.encode("fake-db-password".getBytes()));
+    String encodedDbBatchSize = new String(Base64.encode("100".getBytes()));
+    String configFormat = "{\"Key\":\"%s\",\"Value\":\"%s\"}";
 
     serviceDiscoverMock
         .when(
             HttpRequest.request()
                 .withMethod(HttpMethod.GET.toString())
-                .withPath("/v1/kv/carbonio-tasks/db-password")
+                .withPath("/v1/kv/carbonio-tasks/")
+                .withQueryStringParameter("recurse", "true")
                 .withHeader("X-Consul-Token", ""))
         .respond(
             HttpResponse.response()
                 .withStatusCode(200)
                 .withBody(
-                    String.format(
-                        bodyPayloadFormat, "carbonio-tasks/db-password", encodedDbPassword)));
+                    "["
+                        + "{\"Key\":\"carbonio-tasks/\",\"Value\":null},"
+                        + String.format(configFormat, "carbonio-tasks/db-name", encodedDbName)
+                        + ","
+                        + String.format(
+                            configFormat, "carbonio-tasks/db-username", encodedDbUsername)
+                        + ","
+                        + String.format(
+                            configFormat, "carbonio-tasks/db-password", encodedDbPassword)
+                        + ","
+                        + String.format(
+                            configFormat, "carbonio-tasks/db-batch-size", encodedDbBatchSize)
+                        + "]"));
   }
 }
@@ -17,7 +17,7 @@ class TaskTest {
     Task task =
         new Task(
             UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
-            "6d162bee-3186-0000-bf31-59746a41600e",
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
             "fake-title",
             "fake-description",
             Priority.HIGH,
@@ -29,7 +29,8 @@ class TaskTest {
     // Then
     Assertions.assertThat(task.getId())
         .isEqualTo(UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
-    Assertions.assertThat(task.getUserId()).isEqualTo("6d162bee-3186-0000-bf31-59746a41600e");
+    Assertions.assertThat(task.getUserId())
+        .isEqualTo(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
     Assertions.assertThat(task.getTitle()).isEqualTo("fake-title");
     Assertions.assertThat(task.getDescription()).isPresent().contains("fake-description");
     Assertions.assertThat(task.getPriority()).isEqualTo(Priority.HIGH);
@@ -45,7 +46,7 @@ class TaskTest {
     Task task =
         new Task(
             UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
-            "6d162bee-3186-0000-bf31-59746a41600e",
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
             "fake-title",
             null,
             Priority.LOW,
@@ -57,7 +58,8 @@ class TaskTest {
     // Then
     Assertions.assertThat(task.getId())
         .isEqualTo(UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
-    Assertions.assertThat(task.getUserId()).isEqualTo("6d162bee-3186-0000-bf31-59746a41600e");
+    Assertions.assertThat(task.getUserId())
+        .isEqualTo(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
     Assertions.assertThat(task.getTitle()).isEqualTo("fake-title");
     Assertions.assertThat(task.getDescription()).isEmpty();
     Assertions.assertThat(task.getPriority()).isEqualTo(Priority.LOW);
@@ -73,7 +75,7 @@ class TaskTest {
     Task task =
         new Task(
             UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "Fake title",
             "Fake description",
             Priority.LOW,
@@ -93,7 +95,8 @@ class TaskTest {
     // Then
     Assertions.assertThat(task.getId())
         .isEqualTo(UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
-    Assertions.assertThat(task.getUserId()).isEqualTo("00000000-0000-0000-0000-000000000000");
+    Assertions.assertThat(task.getUserId())
+        .isEqualTo(UUID.fromString("00000000-0000-0000-0000-000000000000"));
     Assertions.assertThat(task.getTitle()).isEqualTo("New title");
     Assertions.assertThat(task.getDescription()).isPresent().contains("New description");
     Assertions.assertThat(task.getPriority()).isEqualTo(Priority.MEDIUM);
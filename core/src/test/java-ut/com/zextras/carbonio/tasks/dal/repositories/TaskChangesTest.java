@@ -0,0 +1,83 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.time.Instant;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskChangesTest {
+
+  @Test
+  void givenSomeChangesTheApplyToShouldChangeOnlyTheSetAttributes() {
+    // Given
+    Task task =
+        new Task(
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            "description",
+            Priority.LOW,
+            Status.OPEN,
+            Instant.ofEpochMilli(0),
+            Instant.ofEpochMilli(10),
+            true);
+
+    TaskChanges changes = new TaskChanges().setTitle("new title").setStatus(Status.COMPLETE);
+
+    // When
+    changes.applyTo(task);
+
+    // Then
+    Assertions.assertThat(changes.isEmpty()).isFalse();
+    Assertions.assertThat(changes.isReminderChanged()).isFalse();
+    Assertions.assertThat(task.getTitle()).isEqualTo("new title");
+    Assertions.assertThat(task.getDescription()).isPresent().contains("description");
+    Assertions.assertThat(task.getPriority()).isEqualTo(Priority.LOW);
+    Assertions.assertThat(task.getStatus()).isEqualTo(Status.COMPLETE);
+    Assertions.assertThat(task.getReminderAt()).isPresent().contains(Instant.ofEpochMilli(10));
+    Assertions.assertThat(task.getReminderAllDay()).isPresent().contains(Boolean.TRUE);
+  }
+
+  @Test
+  void givenAReminderResetTheApplyToShouldRemoveTheReminder() {
+    // Given
+    Task task =
+        new Task(
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            null,
+            Priority.LOW,
+            Status.OPEN,
+            Instant.ofEpochMilli(0),
+            Instant.ofEpochMilli(10),
+            true);
+
+    TaskChanges changes = new TaskChanges().setReminder(null, null);
+
+    // When
+    changes.applyTo(task);
+
+    // Then
+    Assertions.assertThat(changes.isEmpty()).isFalse();
+    Assertions.assertThat(changes.isReminderChanged()).isTrue();
+    Assertions.assertThat(task.getReminderAt()).isEmpty();
+    Assertions.assertThat(task.getReminderAllDay()).isEmpty();
+  }
+
+  @Test
+  void givenNoChangesTheIsEmptyShouldReturnTrue() {
+    // Given & When
+    TaskChanges changes = new TaskChanges();
+
+    // Then
+    Assertions.assertThat(changes.isEmpty()).isTrue();
+  }
+}
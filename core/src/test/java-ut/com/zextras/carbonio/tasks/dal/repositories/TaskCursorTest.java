@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import java.time.Instant;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskCursorTest {
+
+  @Test
+  void givenATaskTheCursorShouldPointToItsCreationDateAndId() {
+    // Given
+    Task task =
+        new Task(
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            "fake-title",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            Instant.ofEpochSecond(10, 123_456_000),
+            null,
+            null);
+
+    // When
+    TaskCursor cursor = TaskCursor.of(task);
+
+    // Then
+    Assertions.assertThat(cursor.getCreatedAt()).isEqualTo(Instant.ofEpochSecond(10, 123_456_000));
+    Assertions.assertThat(cursor.getId())
+        .isEqualTo(UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
+  }
+
+  @Test
+  void givenAnEncodedCursorTheDecodeShouldReturnTheOriginalCursor() {
+    // Given
+    TaskCursor cursor =
+        new TaskCursor(
+            Instant.ofEpochSecond(1_700_000_000, 999_999_000),
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
+
+    // When
+    String encodedCursor = cursor.encode();
+
+    // Then
+    Assertions.assertThat(encodedCursor).doesNotContain("6d162bee");
+    Assertions.assertThat(TaskCursor.decode(encodedCursor)).isEqualTo(cursor);
+  }
+
+  @Test
+  void givenAMalformedCursorTheDecodeShouldThrowAnIllegalArgumentException() {
+    // Given & When & Then
+    Assertions.assertThatThrownBy(() -> TaskCursor.decode("not-a-cursor!"))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    Assertions.assertThatThrownBy(() -> TaskCursor.decode("aW52YWxpZA"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
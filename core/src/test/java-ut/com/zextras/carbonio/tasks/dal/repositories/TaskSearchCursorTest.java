@@ -0,0 +1,46 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskSearchCursorTest {
+
+  @Test
+  void givenAnEncodedCursorTheDecodeShouldReturnTheOriginalCursor() {
+    // Given
+    TaskSearchCursor cursor =
+        new TaskSearchCursor(
+            0.0607927f,
+            Instant.ofEpochSecond(1_700_000_000, 999_999_000),
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
+
+    // When
+    String encodedCursor = cursor.encode();
+
+    // Then
+    Assertions.assertThat(encodedCursor).doesNotContain("6d162bee");
+    Assertions.assertThat(TaskSearchCursor.decode(encodedCursor)).isEqualTo(cursor);
+  }
+
+  @Test
+  void givenAMalformedCursorTheDecodeShouldThrowAnIllegalArgumentException() {
+    // Given
+    String findTasksCursor =
+        new TaskCursor(
+                Instant.ofEpochSecond(10), UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"))
+            .encode();
+
+    // When & Then
+    Assertions.assertThatThrownBy(() -> TaskSearchCursor.decode("not-a-cursor!"))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    Assertions.assertThatThrownBy(() -> TaskSearchCursor.decode(findTasksCursor))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
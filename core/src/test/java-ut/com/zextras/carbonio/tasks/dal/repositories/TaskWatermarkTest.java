@@ -0,0 +1,50 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskWatermarkTest {
+
+  @Test
+  void givenAnInstantTheWatermarkShouldPointToItsBeginning() {
+    // Given & When
+    TaskWatermark watermark = TaskWatermark.at(Instant.ofEpochSecond(10));
+
+    // Then
+    Assertions.assertThat(watermark.getUpdatedAt()).isEqualTo(Instant.ofEpochSecond(10));
+    Assertions.assertThat(watermark.getId())
+        .isEqualTo(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+  }
+
+  @Test
+  void givenAnEncodedWatermarkTheDecodeShouldReturnTheOriginalWatermark() {
+    // Given
+    TaskWatermark watermark =
+        new TaskWatermark(
+            Instant.ofEpochSecond(1_700_000_000, 999_999_000),
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"));
+
+    // When
+    String encodedWatermark = watermark.encode();
+
+    // Then
+    Assertions.assertThat(encodedWatermark).doesNotContain("6d162bee");
+    Assertions.assertThat(TaskWatermark.decode(encodedWatermark)).isEqualTo(watermark);
+  }
+
+  @Test
+  void givenAMalformedWatermarkTheDecodeShouldThrowAnIllegalArgumentException() {
+    // Given & When & Then
+    Assertions.assertThatThrownBy(() -> TaskWatermark.decode("not-a-watermark!"))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    Assertions.assertThatThrownBy(() -> TaskWatermark.decode("aW52YWxpZA"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
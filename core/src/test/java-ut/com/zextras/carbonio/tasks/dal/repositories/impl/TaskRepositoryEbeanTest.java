@@ -8,17 +8,31 @@ import com.zextras.carbonio.tasks.dal.DatabaseConnectionManager;
 import com.zextras.carbonio.tasks.dal.dao.Priority;
 import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.NewTask;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChangeListener;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchResult;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
 import io.ebean.Database;
 import io.ebean.ExpressionList;
-import io.ebean.OrderBy;
 import io.ebean.Query;
+import io.ebean.SqlQuery;
+import io.ebean.SqlRow;
+import io.ebean.SqlUpdate;
+import io.ebean.Transaction;
+import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,9 +42,12 @@ import org.mockito.Mockito;
 
 class TaskRepositoryEbeanTest {
 
+  private static final UUID USER_ID = UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e");
+
   private Database ebeanDatabaseMock;
   private TaskRepository taskRepository;
   private Clock fakeClock;
+  private TaskChangeListener taskChangeListenerMock;
 
   @BeforeEach
   void setup() {
@@ -38,7 +55,9 @@ class TaskRepositoryEbeanTest {
     DatabaseConnectionManager connectionManagerMock = Mockito.mock(DatabaseConnectionManager.class);
     Mockito.when(connectionManagerMock.getEbeanDatabase()).thenReturn(ebeanDatabaseMock);
     fakeClock = Mockito.mock(Clock.class);
-    taskRepository = new TaskRepositoryEbean(connectionManagerMock, fakeClock);
+    taskChangeListenerMock = Mockito.mock(TaskChangeListener.class);
+    taskRepository =
+        new TaskRepositoryEbean(connectionManagerMock, fakeClock, taskChangeListenerMock);
   }
 
   @Test
@@ -48,7 +67,7 @@ class TaskRepositoryEbeanTest {
 
     Task newTask =
         taskRepository.createTask(
-            "6d162bee-3186-1111-bf31-59746a41600e",
+            USER_ID,
             "fake-title",
             "super description",
             Priority.MEDIUM,
@@ -61,9 +80,10 @@ class TaskRepositoryEbeanTest {
     Mockito.verify(ebeanDatabaseMock, Mockito.times(1)).insert(taskCaptor.capture());
 
     Assertions.assertThat(taskCaptor.getValue()).isEqualTo(newTask);
+    Mockito.verify(taskChangeListenerMock, Mockito.times(1)).onTasksSaved(List.of(newTask));
 
     Assertions.assertThat(newTask.getId()).isNotNull().isInstanceOf(UUID.class);
-    Assertions.assertThat(newTask.getUserId()).isEqualTo("6d162bee-3186-1111-bf31-59746a41600e");
+    Assertions.assertThat(newTask.getUserId()).isEqualTo(USER_ID);
     Assertions.assertThat(newTask.getTitle()).isEqualTo("fake-title");
     Assertions.assertThat(newTask.getDescription()).isPresent().contains("super description");
     Assertions.assertThat(newTask.getPriority()).isEqualTo(Priority.MEDIUM);
@@ -80,7 +100,7 @@ class TaskRepositoryEbeanTest {
 
     Task newTask =
         taskRepository.createTask(
-            "6d162bee-3186-1111-bf31-59746a41600e",
+            USER_ID,
             "fake-title",
             null,
             Priority.MEDIUM,
@@ -95,7 +115,7 @@ class TaskRepositoryEbeanTest {
     Assertions.assertThat(taskCaptor.getValue()).isEqualTo(newTask);
 
     Assertions.assertThat(newTask.getId()).isNotNull().isInstanceOf(UUID.class);
-    Assertions.assertThat(newTask.getUserId()).isEqualTo("6d162bee-3186-1111-bf31-59746a41600e");
+    Assertions.assertThat(newTask.getUserId()).isEqualTo(USER_ID);
     Assertions.assertThat(newTask.getTitle()).isEqualTo("fake-title");
     Assertions.assertThat(newTask.getDescription()).isEmpty();
     Assertions.assertThat(newTask.getPriority()).isEqualTo(Priority.MEDIUM);
@@ -112,24 +132,22 @@ class TaskRepositoryEbeanTest {
     Task taskMock1 = Mockito.mock(Task.class);
     Task taskMock2 = Mockito.mock(Task.class);
     ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
-    OrderBy<Task> orderByMock = Mockito.mock(OrderBy.class);
     Query<Task> finalQueryMock = Mockito.mock(Query.class);
 
     Mockito.when(
             ebeanDatabaseMock
                 .find(Task.class)
                 .where()
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e"))
+                .eq("user_id", USER_ID))
         .thenReturn(partialQueryMock);
 
-    Mockito.when(partialQueryMock.order()).thenReturn(orderByMock);
-    Mockito.when(orderByMock.desc("created_at")).thenReturn(finalQueryMock);
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
     Mockito.when(finalQueryMock.findList()).thenReturn(Arrays.asList(taskMock1, taskMock2));
 
     // When
     List<Task> openTasks =
         taskRepository.getTasks(
-            "6d162bee-3186-1111-bf31-59746a41600e", Priority.MEDIUM, Status.OPEN);
+            USER_ID, Priority.MEDIUM, Status.OPEN, null, null);
 
     // Then
     Assertions.assertThat(openTasks).hasSize(2);
@@ -142,24 +160,22 @@ class TaskRepositoryEbeanTest {
   void givenAUserIdAStatusAPriorityTheGetTasksShouldReturnAnEmptyList() {
     // Given
     ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
-    OrderBy<Task> orderByMock = Mockito.mock(OrderBy.class);
     Query<Task> finalQueryMock = Mockito.mock(Query.class);
 
     Mockito.when(
             ebeanDatabaseMock
                 .find(Task.class)
                 .where()
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e"))
+                .eq("user_id", USER_ID))
         .thenReturn(partialQueryMock);
 
-    Mockito.when(partialQueryMock.order()).thenReturn(orderByMock);
-    Mockito.when(orderByMock.desc("created_at")).thenReturn(finalQueryMock);
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
     Mockito.when(finalQueryMock.findList()).thenReturn(Collections.emptyList());
 
     // When
     List<Task> openTasks =
         taskRepository.getTasks(
-            "6d162bee-3186-1111-bf31-59746a41600e", Priority.LOW, Status.COMPLETE);
+            USER_ID, Priority.LOW, Status.COMPLETE, null, null);
 
     // Then
     Assertions.assertThat(openTasks).hasSize(0);
@@ -173,23 +189,22 @@ class TaskRepositoryEbeanTest {
     // Given
     Task taskMock = Mockito.mock(Task.class);
     ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
-    OrderBy<Task> orderByMock = Mockito.mock(OrderBy.class);
     Query<Task> finalQueryMock = Mockito.mock(Query.class);
 
     Mockito.when(
             ebeanDatabaseMock
                 .find(Task.class)
                 .where()
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e"))
+                .eq("user_id", USER_ID))
         .thenReturn(partialQueryMock);
 
-    Mockito.when(partialQueryMock.order()).thenReturn(orderByMock);
-    Mockito.when(orderByMock.desc("created_at")).thenReturn(finalQueryMock);
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
     Mockito.when(finalQueryMock.findList()).thenReturn(Collections.singletonList(taskMock));
 
     // When
     List<Task> openTasks =
-        taskRepository.getTasks("6d162bee-3186-1111-bf31-59746a41600e", null, Status.COMPLETE);
+        taskRepository.getTasks(
+            USER_ID, null, Status.COMPLETE, null, null);
 
     // Then
     Assertions.assertThat(openTasks).hasSize(1);
@@ -204,29 +219,28 @@ class TaskRepositoryEbeanTest {
     // Given
     Task taskMock = Mockito.mock(Task.class);
     ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
-    OrderBy<Task> orderByMock = Mockito.mock(OrderBy.class);
     Query<Task> finalQueryMock = Mockito.mock(Query.class);
 
     Mockito.when(
             ebeanDatabaseMock
                 .find(Task.class)
                 .where()
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e"))
+                .eq("user_id", USER_ID))
         .thenReturn(partialQueryMock);
 
-    Mockito.when(partialQueryMock.order()).thenReturn(orderByMock);
-    Mockito.when(orderByMock.desc("created_at")).thenReturn(finalQueryMock);
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
     Mockito.when(finalQueryMock.findList()).thenReturn(Collections.singletonList(taskMock));
 
     // When
     List<Task> openTasks =
-        taskRepository.getTasks("6d162bee-3186-1111-bf31-59746a41600e", Priority.HIGH, null);
+        taskRepository.getTasks(
+            USER_ID, Priority.HIGH, null, null, null);
 
     // Then
     Assertions.assertThat(openTasks).hasSize(1);
 
     Mockito.verify(partialQueryMock, Mockito.times(1)).eq("priority", Priority.HIGH);
-    Mockito.verify(partialQueryMock, Mockito.times(1)).ne("status", Status.TRASH);
+    Mockito.verify(partialQueryMock, Mockito.times(1)).raw("status <> 2");
   }
 
   @Test
@@ -234,23 +248,22 @@ class TaskRepositoryEbeanTest {
     // Given
     Task taskMock = Mockito.mock(Task.class);
     ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
-    OrderBy<Task> orderByMock = Mockito.mock(OrderBy.class);
     Query<Task> finalQueryMock = Mockito.mock(Query.class);
 
     Mockito.when(
             ebeanDatabaseMock
                 .find(Task.class)
                 .where()
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e"))
+                .eq("user_id", USER_ID))
         .thenReturn(partialQueryMock);
 
-    Mockito.when(partialQueryMock.order()).thenReturn(orderByMock);
-    Mockito.when(orderByMock.desc("created_at")).thenReturn(finalQueryMock);
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
     Mockito.when(finalQueryMock.findList()).thenReturn(Collections.singletonList(taskMock));
 
     // When
     List<Task> openTasks =
-        taskRepository.getTasks("6d162bee-3186-1111-bf31-59746a41600e", null, null);
+        taskRepository.getTasks(
+            USER_ID, null, null, null, null);
 
     // Then
     Assertions.assertThat(openTasks).hasSize(1);
@@ -258,7 +271,74 @@ class TaskRepositoryEbeanTest {
     Mockito.verify(partialQueryMock, Mockito.times(0))
         .eq(Mockito.eq("priority"), Mockito.anyString());
 
-    Mockito.verify(partialQueryMock, Mockito.times(1)).ne("status", Status.TRASH);
+    Mockito.verify(partialQueryMock, Mockito.times(1)).raw("status <> 2");
+  }
+
+  @Test
+  void givenALimitTheGetTasksShouldReturnTheFirstPageOfTasks() {
+    // Given
+    ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
+    Query<Task> finalQueryMock = Mockito.mock(Query.class);
+
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .eq("user_id", USER_ID))
+        .thenReturn(partialQueryMock);
+
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
+    Mockito.when(finalQueryMock.findList())
+        .thenReturn(Arrays.asList(Mockito.mock(Task.class), Mockito.mock(Task.class)));
+
+    // When
+    List<Task> tasks =
+        taskRepository.getTasks(USER_ID, null, null, 2, null);
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(2);
+
+    Mockito.verify(partialQueryMock, Mockito.times(1)).raw("status <> 2");
+    Mockito.verify(partialQueryMock, Mockito.times(0))
+        .raw(Mockito.anyString(), Mockito.<Object>any());
+    Mockito.verify(finalQueryMock, Mockito.times(1)).setMaxRows(2);
+  }
+
+  @Test
+  void givenALimitAndACursorTheGetTasksShouldReturnThePageOfTasksFollowingTheCursor() {
+    // Given
+    ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
+    Query<Task> finalQueryMock = Mockito.mock(Query.class);
+    TaskCursor cursor =
+        new TaskCursor(
+            Instant.ofEpochMilli(1000), UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .eq("user_id", USER_ID))
+        .thenReturn(partialQueryMock);
+
+    Mockito.when(partialQueryMock.orderBy("created_at desc, id desc")).thenReturn(finalQueryMock);
+    Mockito.when(finalQueryMock.findList())
+        .thenReturn(Collections.singletonList(Mockito.mock(Task.class)));
+
+    // When
+    List<Task> tasks =
+        taskRepository.getTasks(
+            USER_ID, null, Status.OPEN, 10, cursor);
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1);
+
+    Mockito.verify(partialQueryMock, Mockito.times(1)).eq("status", Status.OPEN);
+    Mockito.verify(partialQueryMock, Mockito.times(1))
+        .raw(
+            "(created_at, id) < (?, ?)",
+            Instant.ofEpochMilli(1000),
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.verify(finalQueryMock, Mockito.times(1)).setMaxRows(10);
   }
 
   @Test
@@ -269,8 +349,31 @@ class TaskRepositoryEbeanTest {
                 .find(Task.class)
                 .where()
                 .idEq(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e")
-                .ne("status", Status.TRASH)
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
+                .findOneOrEmpty())
+        .thenReturn(Optional.of(Mockito.mock(Task.class)));
+
+    // When
+    Optional<Task> optTask =
+        taskRepository.getTask(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            USER_ID);
+
+    // Then
+    Assertions.assertThat(optTask).isPresent();
+  }
+
+  @Test
+  void givenSomeAttributesTheGetTaskShouldSelectOnlyThemWithoutLazyLoading() {
+    // Given
+    Query<Task> queryMock = ebeanDatabaseMock.find(Task.class);
+    Mockito.when(
+            queryMock
+                .where()
+                .idEq(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
                 .findOneOrEmpty())
         .thenReturn(Optional.of(Mockito.mock(Task.class)));
 
@@ -278,10 +381,13 @@ class TaskRepositoryEbeanTest {
     Optional<Task> optTask =
         taskRepository.getTask(
             UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
-            "6d162bee-3186-1111-bf31-59746a41600e");
+            USER_ID,
+            Set.of("title"));
 
     // Then
     Assertions.assertThat(optTask).isPresent();
+    Mockito.verify(queryMock, Mockito.times(1)).select("title");
+    Mockito.verify(queryMock, Mockito.times(1)).setDisableLazyLoading(true);
   }
 
   @Test
@@ -292,8 +398,8 @@ class TaskRepositoryEbeanTest {
                 .find(Task.class)
                 .where()
                 .idEq(UUID.fromString("00000000-3186-0000-bf31-59746a41600e"))
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e")
-                .ne("status", Status.TRASH)
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
                 .findOneOrEmpty())
         .thenReturn(Optional.empty());
 
@@ -301,7 +407,7 @@ class TaskRepositoryEbeanTest {
     Optional<Task> optTask =
         taskRepository.getTask(
             UUID.fromString("00000000-3186-0000-bf31-59746a41600e"),
-            "6d162bee-3186-1111-bf31-59746a41600e");
+            USER_ID);
 
     // Then
     Assertions.assertThat(optTask).isEmpty();
@@ -315,29 +421,643 @@ class TaskRepositoryEbeanTest {
                 .find(Task.class)
                 .where()
                 .idEq(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
-                .eq("user_id", "6d162bee-3186-1111-bf31-59746a41600e")
-                .ne("status", Status.TRASH)
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
                 .findOneOrEmpty())
         .thenReturn(Optional.of(Mockito.mock(Task.class)));
 
     // When
     Optional<Task> optTask =
         taskRepository.getTask(
-            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"), "wrong-user-id");
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            UUID.fromString("99999999-9999-9999-9999-999999999999"));
 
     // Then
     Assertions.assertThat(optTask).isEmpty();
   }
 
   @Test
-  void givenAnUpdatedTaskTheUpdateTaskShouldSaveIt() {
+  void givenAListOfNewTasksTheCreateTasksShouldInsertThemInABatchAndReturnTheCreatedTasks() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(1));
+    Transaction transactionMock = Mockito.mock(Transaction.class);
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(transactionMock);
+
+    List<NewTask> newTasks =
+        List.of(
+            new NewTask("title1", null, Priority.HIGH, Status.OPEN, null, null),
+            new NewTask(
+                "title2",
+                "description2",
+                Priority.LOW,
+                Status.COMPLETE,
+                Instant.ofEpochSecond(10),
+                true));
+
+    // When
+    List<Task> createdTasks =
+        taskRepository.createTasks(USER_ID, newTasks);
+
+    // Then
+    Mockito.verify(transactionMock, Mockito.times(1)).setBatchMode(true);
+    Mockito.verify(ebeanDatabaseMock, Mockito.times(1)).insertAll(createdTasks, transactionMock);
+    Mockito.verify(transactionMock, Mockito.times(1)).commit();
+
+    Assertions.assertThat(createdTasks).hasSize(2);
+
+    Task firstTask = createdTasks.get(0);
+    Assertions.assertThat(firstTask.getId()).isNotNull();
+    Assertions.assertThat(firstTask.getUserId()).isEqualTo(USER_ID);
+    Assertions.assertThat(firstTask.getTitle()).isEqualTo("title1");
+    Assertions.assertThat(firstTask.getDescription()).isEmpty();
+    Assertions.assertThat(firstTask.getPriority()).isEqualTo(Priority.HIGH);
+    Assertions.assertThat(firstTask.getStatus()).isEqualTo(Status.OPEN);
+    Assertions.assertThat(firstTask.getCreatedAt()).isEqualTo(Instant.ofEpochSecond(1));
+    Assertions.assertThat(firstTask.getUpdatedAt()).isEqualTo(Instant.ofEpochSecond(1));
+    Assertions.assertThat(firstTask.getReminderAt()).isEmpty();
+    Assertions.assertThat(firstTask.getReminderAllDay()).isEmpty();
+
+    Task secondTask = createdTasks.get(1);
+    Assertions.assertThat(secondTask.getId()).isNotNull().isNotEqualTo(firstTask.getId());
+    Assertions.assertThat(secondTask.getTitle()).isEqualTo("title2");
+    Assertions.assertThat(secondTask.getDescription()).isPresent().contains("description2");
+    Assertions.assertThat(secondTask.getPriority()).isEqualTo(Priority.LOW);
+    Assertions.assertThat(secondTask.getStatus()).isEqualTo(Status.COMPLETE);
+    Assertions.assertThat(secondTask.getCreatedAt()).isEqualTo(Instant.ofEpochSecond(1, 1000));
+    Assertions.assertThat(secondTask.getReminderAt())
+        .isPresent()
+        .contains(Instant.ofEpochSecond(10));
+    Assertions.assertThat(secondTask.getReminderAllDay()).isPresent().contains(Boolean.TRUE);
+  }
+
+  @Test
+  void givenAnEmptyListOfNewTasksTheCreateTasksShouldNotOpenATransaction() {
+    // Given & When
+    List<Task> createdTasks =
+        taskRepository.createTasks(USER_ID, List.of());
+
+    // Then
+    Assertions.assertThat(createdTasks).isEmpty();
+    Mockito.verify(ebeanDatabaseMock, Mockito.never()).beginTransaction();
+  }
+
+  @Test
+  void givenTheChangesOfSomeTasksTheUpdateTasksShouldApplyThemWithConditionalStatementsInABatch() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Transaction transactionMock = Mockito.mock(Transaction.class);
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(transactionMock);
+
+    SqlUpdate sqlUpdateMock = Mockito.mock(SqlUpdate.class);
+    Mockito.when(
+            ebeanDatabaseMock.sqlUpdate(
+                "UPDATE task SET status = ?, updated_at = ?"
+                    + " WHERE id = ? AND user_id = ? AND status <> 2"))
+        .thenReturn(sqlUpdateMock);
+    // The second task has been trashed concurrently, so its conditional update is a no-op
+    Mockito.when(sqlUpdateMock.executeBatch()).thenReturn(new int[] {1, 0});
+
+    Task updatedTask =
+        new Task(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            USER_ID,
+            "title",
+            null,
+            Priority.LOW,
+            Status.COMPLETE,
+            Instant.ofEpochSecond(1),
+            null,
+            null);
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .usingTransaction(transactionMock)
+                .where()
+                .idIn(Set.of(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e")))
+                .eq("user_id", USER_ID)
+                .findList())
+        .thenReturn(List.of(updatedTask));
+
+    Map<UUID, TaskChanges> changesByTaskId = new LinkedHashMap<>();
+    changesByTaskId.put(
+        UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+        new TaskChanges().setStatus(Status.COMPLETE));
+    changesByTaskId.put(
+        UUID.fromString("6d162bee-3186-0001-bf31-59746a41600e"),
+        new TaskChanges().setStatus(Status.COMPLETE));
+
+    // When
+    Map<UUID, Task> updatedTasks = taskRepository.updateTasks(changesByTaskId, USER_ID);
+
+    // Then
+    Assertions.assertThat(updatedTasks)
+        .containsExactly(
+            Map.entry(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"), updatedTask));
+
+    Mockito.verify(sqlUpdateMock, Mockito.times(2)).setParameter(1, Status.COMPLETE.getCode());
+    Mockito.verify(sqlUpdateMock, Mockito.times(2)).setParameter(2, Instant.ofEpochSecond(100));
+    Mockito.verify(sqlUpdateMock, Mockito.times(1))
+        .setParameter(3, UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.verify(sqlUpdateMock, Mockito.times(1))
+        .setParameter(3, UUID.fromString("6d162bee-3186-0001-bf31-59746a41600e"));
+    Mockito.verify(sqlUpdateMock, Mockito.times(2)).setParameter(4, USER_ID);
+    Mockito.verify(sqlUpdateMock, Mockito.times(2)).addBatch();
+    Mockito.verify(sqlUpdateMock, Mockito.times(1)).executeBatch();
+    Mockito.verify(transactionMock, Mockito.times(1)).commit();
+    Mockito.verify(taskChangeListenerMock, Mockito.times(1)).onTasksSaved(List.of(updatedTask));
+  }
+
+  @Test
+  void givenATaskMovedInTheTrashTheUpdateTasksShouldSetItsTrashDate() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(Mockito.mock(Transaction.class));
+
+    SqlUpdate sqlUpdateMock = Mockito.mock(SqlUpdate.class);
+    Mockito.when(
+            ebeanDatabaseMock.sqlUpdate(
+                "UPDATE task SET status = ?, trashed_at = ?, updated_at = ?"
+                    + " WHERE id = ? AND user_id = ? AND status <> 2"))
+        .thenReturn(sqlUpdateMock);
+    Mockito.when(sqlUpdateMock.executeBatch()).thenReturn(new int[] {0});
+
+    // When
+    Map<UUID, Task> updatedTasks =
+        taskRepository.updateTasks(
+            Map.of(
+                UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+                new TaskChanges().setStatus(Status.TRASH)),
+            USER_ID);
+
+    // Then
+    Assertions.assertThat(updatedTasks).isEmpty();
+    Mockito.verify(sqlUpdateMock, Mockito.times(1)).setParameter(1, Status.TRASH.getCode());
+    Mockito.verify(sqlUpdateMock, Mockito.times(1)).setParameter(2, Instant.ofEpochSecond(100));
+    Mockito.verify(sqlUpdateMock, Mockito.times(1)).setParameter(3, Instant.ofEpochSecond(100));
+    Mockito.verifyNoInteractions(taskChangeListenerMock);
+  }
+
+  @Test
+  void givenSomeTaskIdsTheTrashTasksShouldTrashThemWithASingleConditionalStatement() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Transaction transactionMock = Mockito.mock(Transaction.class);
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(transactionMock);
+
+    @SuppressWarnings("unchecked")
+    Query<Task> queryMock = Mockito.mock(Query.class, Mockito.RETURNS_SELF);
+    Mockito.when(
+            ebeanDatabaseMock.findNative(
+                Task.class,
+                "UPDATE task SET status = 2, trashed_at = ?, updated_at = ?"
+                    + " WHERE id = ANY(?) AND user_id = ? AND status <> 2 RETURNING id"))
+        .thenReturn(queryMock);
+
+    Task trashedTask =
+        new Task(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null);
+    Mockito.when(queryMock.findList()).thenReturn(List.of(trashedTask));
+
+    List<UUID> taskIds =
+        List.of(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            UUID.fromString("6d162bee-3186-0001-bf31-59746a41600e"));
+
+    // When
+    Set<UUID> trashedTaskIds = taskRepository.trashTasks(taskIds, USER_ID);
+
+    // Then
+    Assertions.assertThat(trashedTaskIds)
+        .containsExactly(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+
+    Mockito.verify(queryMock, Mockito.times(1)).usingTransaction(transactionMock);
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(1, Instant.ofEpochSecond(100));
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(2, Instant.ofEpochSecond(100));
+    Mockito.verify(queryMock, Mockito.times(1)).setArrayParameter(3, taskIds);
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(4, USER_ID);
+    Mockito.verify(transactionMock, Mockito.times(1)).commit();
+    Mockito.verify(taskChangeListenerMock, Mockito.times(1))
+        .onTaskTrashed(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+  }
+
+  @Test
+  void givenAListOfTaskIdsAndAUserIdTheGetTasksByIdsShouldReturnTheRequestedTasks() {
+    // Given
+    Set<UUID> taskIds =
+        Set.of(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            UUID.fromString("6d162bee-3186-2222-bf31-59746a41600e"));
+    Task taskMock = Mockito.mock(Task.class);
+
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .idIn(taskIds)
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
+                .findList())
+        .thenReturn(List.of(taskMock));
+
+    // When
+    List<Task> tasks =
+        taskRepository.getTasksByIds(taskIds, USER_ID);
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1).containsExactly(taskMock);
+  }
+
+  @Test
+  void givenSomeChangesTheUpdateTaskShouldApplyThemWithASingleConditionalStatement() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Transaction transactionMock = Mockito.mock(Transaction.class);
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(transactionMock);
+
+    @SuppressWarnings("unchecked")
+    Query<Task> queryMock = Mockito.mock(Query.class);
+    Mockito.when(
+            ebeanDatabaseMock.findNative(
+                Task.class,
+                "UPDATE task SET title = ?, priority = ?, reminder_at = NULL,"
+                    + " reminder_all_day = NULL, reminder_fired_at = NULL, updated_at = ?"
+                    + " WHERE id = ? AND user_id = ? AND status <> 2"
+                    + " RETURNING id, user_id, title, description, priority, status, created_at,"
+                    + " reminder_at, reminder_all_day, trashed_at, updated_at"))
+        .thenReturn(queryMock);
+    Mockito.when(queryMock.usingTransaction(transactionMock)).thenReturn(queryMock);
+
+    Task updatedTaskMock = Mockito.mock(Task.class);
+    Mockito.when(queryMock.findOneOrEmpty()).thenReturn(Optional.of(updatedTaskMock));
+
+    TaskChanges changes =
+        new TaskChanges().setTitle("new title").setPriority(Priority.LOW).setReminder(null, null);
+
+    // When
+    Optional<Task> optUpdatedTask =
+        taskRepository.updateTask(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            USER_ID,
+            changes);
+
+    // Then
+    Assertions.assertThat(optUpdatedTask).isPresent().contains(updatedTaskMock);
+
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(1, "new title");
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(2, Priority.LOW.getCode());
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(3, Instant.ofEpochSecond(100));
+    Mockito.verify(queryMock, Mockito.times(1))
+        .setParameter(4, UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.verify(queryMock, Mockito.times(1))
+        .setParameter(5, USER_ID);
+    Mockito.verify(queryMock, Mockito.never()).setParameter(Mockito.eq(6), Mockito.any());
+    Mockito.verify(transactionMock, Mockito.times(1)).commit();
+  }
+
+  @Test
+  void givenNoChangesTheUpdateTaskShouldReturnTheTaskWithoutUpdatingIt() {
+    // Given
+    Task taskMock = Mockito.mock(Task.class);
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .idEq(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
+                .eq("user_id", USER_ID)
+                .raw("status <> 2")
+                .findOneOrEmpty())
+        .thenReturn(Optional.of(taskMock));
+
+    // When
+    Optional<Task> optUpdatedTask =
+        taskRepository.updateTask(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            USER_ID,
+            new TaskChanges());
+
+    // Then
+    Assertions.assertThat(optUpdatedTask).isPresent().contains(taskMock);
+    Mockito.verify(ebeanDatabaseMock, Mockito.never()).beginTransaction();
+  }
+
+  @Test
+  void givenAnIdOfANotTrashedTaskTheTrashTaskShouldTrashItWithASingleConditionalStatement() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Mockito.when(
+            ebeanDatabaseMock
+                .sqlUpdate(
+                    "UPDATE task SET status = 2, trashed_at = ?, updated_at = ?"
+                        + " WHERE id = ? AND user_id = ? AND status <> 2")
+                .setParameter(1, Instant.ofEpochSecond(100))
+                .setParameter(2, Instant.ofEpochSecond(100))
+                .setParameter(3, UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
+                .setParameter(4, USER_ID)
+                .execute())
+        .thenReturn(1);
+
+    // When
+    boolean trashed =
+        taskRepository.trashTask(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            USER_ID);
+
+    // Then
+    Assertions.assertThat(trashed).isTrue();
+    Mockito.verify(taskChangeListenerMock, Mockito.times(1))
+        .onTaskTrashed(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+  }
+
+  @Test
+  void givenAnIdOfANotExistingTaskTheTrashTaskShouldReturnFalse() {
+    // Given
+    Mockito.when(fakeClock.instant()).thenReturn(Instant.ofEpochSecond(100));
+    Mockito.when(
+            ebeanDatabaseMock
+                .sqlUpdate(
+                    "UPDATE task SET status = 2, trashed_at = ?, updated_at = ?"
+                        + " WHERE id = ? AND user_id = ? AND status <> 2")
+                .setParameter(1, Instant.ofEpochSecond(100))
+                .setParameter(2, Instant.ofEpochSecond(100))
+                .setParameter(3, UUID.fromString("00000000-3186-0000-bf31-59746a41600e"))
+                .setParameter(4, USER_ID)
+                .execute())
+        .thenReturn(0);
+
+    // When
+    boolean trashed =
+        taskRepository.trashTask(
+            UUID.fromString("00000000-3186-0000-bf31-59746a41600e"),
+            USER_ID);
+
+    // Then
+    Assertions.assertThat(trashed).isFalse();
+    Mockito.verifyNoInteractions(taskChangeListenerMock);
+  }
+
+  @Test
+  void givenABlankQueryTheSearchTasksShouldReturnAnEmptyListWithoutQueryingTheDatabase() {
+    // Given & When
+    List<TaskSearchResult> results =
+        taskRepository.searchTasks(
+            USER_ID, "  ", 10, null, Collections.emptySet());
+
+    // Then
+    Assertions.assertThat(results).isEmpty();
+    Mockito.verifyNoInteractions(ebeanDatabaseMock);
+  }
+
+  @Test
+  void givenAQueryAndACursorTheSearchTasksShouldReturnTheFollowingTasksSortedByRank() {
+    // Given
+    SqlQuery sqlQueryMock = Mockito.mock(SqlQuery.class, Mockito.RETURNS_SELF);
+    Mockito.when(
+            ebeanDatabaseMock.sqlQuery(
+                "SELECT id, created_at, title, ts_rank(search_vector, search_query) AS search_rank"
+                    + " FROM task, websearch_to_tsquery('simple', ?) AS search_query"
+                    + " WHERE user_id = ? AND status <> 2 AND search_vector @@ search_query"
+                    + " AND (ts_rank(search_vector, search_query), created_at, id) < (?, ?, ?)"
+                    + " ORDER BY search_rank DESC, created_at DESC, id DESC"))
+        .thenReturn(sqlQueryMock);
+
+    SqlRow rowMock = Mockito.mock(SqlRow.class);
+    Mockito.when(rowMock.getUUID("id"))
+        .thenReturn(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.when(rowMock.getTimestamp("created_at"))
+        .thenReturn(Timestamp.from(Instant.ofEpochSecond(5)));
+    Mockito.when(rowMock.getString("title")).thenReturn("quarterly report");
+    Mockito.when(rowMock.getBoolean("reminder_all_day")).thenReturn(null);
+    Mockito.when(rowMock.getFloat("search_rank")).thenReturn(0.5f);
+    Mockito.when(sqlQueryMock.findList()).thenReturn(List.of(rowMock));
+
+    TaskSearchCursor after =
+        new TaskSearchCursor(
+            0.6f,
+            Instant.ofEpochSecond(10),
+            UUID.fromString("6d162bee-3186-9999-bf31-59746a41600e"));
+
+    // When
+    List<TaskSearchResult> results =
+        taskRepository.searchTasks(
+            USER_ID, "report", 10, after, Set.of("title"));
+
+    // Then
+    Assertions.assertThat(results).hasSize(1);
+    Task task = results.get(0).getTask();
+    Assertions.assertThat(task.getId())
+        .isEqualTo(UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Assertions.assertThat(task.getTitle()).isEqualTo("quarterly report");
+    Assertions.assertThat(task.getCreatedAt()).isEqualTo(Instant.ofEpochSecond(5));
+    Assertions.assertThat(task.getDescription()).isEmpty();
+    Assertions.assertThat(results.get(0).getRank()).isEqualTo(0.5f);
+
+    Mockito.verify(sqlQueryMock, Mockito.times(1)).setParameter(1, "report");
+    Mockito.verify(sqlQueryMock, Mockito.times(1))
+        .setParameter(2, USER_ID);
+    Mockito.verify(sqlQueryMock, Mockito.times(1)).setParameter(3, 0.6f);
+    Mockito.verify(sqlQueryMock, Mockito.times(1)).setParameter(4, Instant.ofEpochSecond(10));
+    Mockito.verify(sqlQueryMock, Mockito.times(1))
+        .setParameter(5, UUID.fromString("6d162bee-3186-9999-bf31-59746a41600e"));
+    Mockito.verify(sqlQueryMock, Mockito.times(1)).setMaxRows(10);
+  }
+
+  @Test
+  void givenAnIntervalTheGetOpenTasksWithReminderShouldReturnTheRemindersFollowingTheCursor() {
+    // Given
+    ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
+    Query<Task> finalQueryMock = Mockito.mock(Query.class);
+    Task taskMock = Mockito.mock(Task.class);
+
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .raw("reminder_at IS NOT NULL AND status = 0")
+                .lt("reminder_at", Instant.ofEpochSecond(600)))
+        .thenReturn(partialQueryMock);
+
+    Mockito.when(partialQueryMock.orderBy("reminder_at asc, id asc")).thenReturn(finalQueryMock);
+    Mockito.when(finalQueryMock.findList()).thenReturn(List.of(taskMock));
+
+    // When
+    List<Task> tasks =
+        taskRepository.getOpenTasksWithReminder(
+            Instant.ofEpochSecond(10),
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            Instant.ofEpochSecond(600),
+            100);
+
+    // Then
+    Assertions.assertThat(tasks).containsExactly(taskMock);
+
+    Mockito.verify(partialQueryMock, Mockito.times(1))
+        .raw(
+            "(reminder_at, id) > (?, ?)",
+            Instant.ofEpochSecond(10),
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.verify(partialQueryMock, Mockito.never())
+        .ge(Mockito.anyString(), Mockito.<Object>any());
+    Mockito.verify(finalQueryMock, Mockito.times(1)).setMaxRows(100);
+  }
+
+  @Test
+  void givenSomeDueRemindersTheClaimDueRemindersShouldClaimThemWithASingleConditionalStatement() {
+    // Given
+    List<UUID> taskIds =
+        List.of(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            UUID.fromString("6d162bee-3186-2222-bf31-59746a41600e"));
+    Transaction transactionMock = Mockito.mock(Transaction.class);
+    Mockito.when(ebeanDatabaseMock.beginTransaction()).thenReturn(transactionMock);
+
+    @SuppressWarnings("unchecked")
+    Query<Task> queryMock = Mockito.mock(Query.class, Mockito.RETURNS_SELF);
+    Mockito.when(
+            ebeanDatabaseMock.findNative(
+                Task.class,
+                "UPDATE task SET reminder_fired_at = ?"
+                    + " WHERE id = ANY(?) AND status = 0 AND reminder_at <= ?"
+                    + " AND reminder_fired_at IS NULL"
+                    + " RETURNING id, user_id, title, description, priority, status, created_at,"
+                    + " reminder_at, reminder_all_day, trashed_at, updated_at"))
+        .thenReturn(queryMock);
+
+    Task claimedTaskMock = Mockito.mock(Task.class);
+    Mockito.when(queryMock.findList()).thenReturn(List.of(claimedTaskMock));
+
+    // When
+    List<Task> claimedTasks =
+        taskRepository.claimDueReminders(taskIds, Instant.ofEpochSecond(100));
+
+    // Then
+    Assertions.assertThat(claimedTasks).containsExactly(claimedTaskMock);
+
+    Mockito.verify(queryMock, Mockito.times(1)).usingTransaction(transactionMock);
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(1, Instant.ofEpochSecond(100));
+    Mockito.verify(queryMock, Mockito.times(1)).setArrayParameter(2, taskIds);
+    Mockito.verify(queryMock, Mockito.times(1)).setParameter(3, Instant.ofEpochSecond(100));
+    Mockito.verify(transactionMock, Mockito.times(1)).commit();
+  }
+
+  @Test
+  void givenAWatermarkTheGetTaskChangesShouldReturnTheChangesFollowingItIncludingTheTrashedTasks() {
     // Given
+    ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
+    Query<Task> finalQueryMock = Mockito.mock(Query.class);
     Task taskMock = Mockito.mock(Task.class);
 
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .eq("user_id", USER_ID)
+                .lt("updated_at", Instant.ofEpochSecond(600)))
+        .thenReturn(partialQueryMock);
+
+    Mockito.when(partialQueryMock.orderBy("updated_at asc, id asc")).thenReturn(finalQueryMock);
+    Mockito.when(finalQueryMock.findList()).thenReturn(List.of(taskMock));
+
+    // When
+    List<Task> tasks =
+        taskRepository.getTaskChanges(
+            USER_ID,
+            new TaskWatermark(
+                Instant.ofEpochSecond(10), UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e")),
+            Instant.ofEpochSecond(600),
+            100);
+
+    // Then
+    Assertions.assertThat(tasks).containsExactly(taskMock);
+
+    Mockito.verify(partialQueryMock, Mockito.times(1))
+        .raw(
+            "(updated_at, id) > (?, ?)",
+            Instant.ofEpochSecond(10),
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"));
+    Mockito.verify(partialQueryMock, Mockito.never())
+        .ne(Mockito.anyString(), Mockito.<Object>any());
+    Mockito.verify(partialQueryMock, Mockito.never()).raw("status <> 2");
+    Mockito.verify(finalQueryMock, Mockito.times(1)).setMaxRows(100);
+  }
+
+  @Test
+  void givenNoWatermarkTheGetTaskChangesShouldExcludeTheTrashedTasksWithALiteralCondition() {
+    // Given
+    ExpressionList<Task> partialQueryMock = Mockito.mock(ExpressionList.class);
+    Query<Task> finalQueryMock = Mockito.mock(Query.class);
+
+    Mockito.when(
+            ebeanDatabaseMock
+                .find(Task.class)
+                .where()
+                .eq("user_id", USER_ID)
+                .lt("updated_at", Instant.ofEpochSecond(600)))
+        .thenReturn(partialQueryMock);
+
+    Mockito.when(partialQueryMock.orderBy("updated_at asc, id asc")).thenReturn(finalQueryMock);
+    Mockito.when(finalQueryMock.findList()).thenReturn(List.of());
+
+    // When
+    taskRepository.getTaskChanges(USER_ID, null, Instant.ofEpochSecond(600), 100);
+
+    // Then
+    // A bound status would prevent the planner from matching the partial indexes with a generic
+    // plan, so the condition must be in the generated SQL as it is
+    ArgumentCaptor<String> rawCaptor = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(partialQueryMock, Mockito.times(1)).raw(rawCaptor.capture());
+    Assertions.assertThat(rawCaptor.getValue()).isEqualTo("status <> 2");
+
+    Mockito.verify(partialQueryMock, Mockito.never())
+        .ne(Mockito.anyString(), Mockito.<Object>any());
+  }
+
+  @Test
+  void givenAnInstantAndALimitTheDeleteTrashedTasksShouldDeleteABatchOfTasksTrashedBeforeIt() {
+    // Given
+    Mockito.when(
+            ebeanDatabaseMock
+                .sqlUpdate(
+                    "DELETE FROM task WHERE id IN (SELECT id FROM task"
+                        + " WHERE status = 2 AND trashed_at < ?"
+                        + " LIMIT ? FOR UPDATE SKIP LOCKED)")
+                .setParameter(1, Instant.ofEpochSecond(10))
+                .setParameter(2, 500)
+                .execute())
+        .thenReturn(500);
+
+    // When
+    int deleted = taskRepository.deleteTrashedTasks(Instant.ofEpochSecond(10), 500);
+
+    // Then
+    Assertions.assertThat(deleted).isEqualTo(500);
+  }
+
+  @Test
+  void givenAnInstantAndALimitTheStampTrashedTasksShouldSetTheTrashDateOfABatchOfTasks() {
+    // Given
+    Mockito.when(
+            ebeanDatabaseMock
+                .sqlUpdate(
+                    "UPDATE task SET trashed_at = ? WHERE id IN (SELECT id FROM task"
+                        + " WHERE status = 2 AND trashed_at IS NULL"
+                        + " LIMIT ? FOR UPDATE SKIP LOCKED)")
+                .setParameter(1, Instant.ofEpochSecond(10))
+                .setParameter(2, 500)
+                .execute())
+        .thenReturn(3);
+
     // When
-    taskRepository.updateTask(taskMock);
+    int stamped = taskRepository.stampTrashedTasks(Instant.ofEpochSecond(10), 500);
 
     // Then
-    Mockito.verify(ebeanDatabaseMock, Mockito.times(1)).update(taskMock);
+    Assertions.assertThat(stamped).isEqualTo(3);
   }
 }
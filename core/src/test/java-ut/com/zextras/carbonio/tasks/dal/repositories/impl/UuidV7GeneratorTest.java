@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.dal.repositories.impl;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class UuidV7GeneratorTest {
+
+  private static final long NOW_MILLIS = 1704103200000L;
+
+  @Test
+  void givenAClockTheGenerateShouldReturnAVersion7UuidStartingWithTheTimestamp() {
+    // Given
+    UuidV7Generator generator =
+        new UuidV7Generator(Clock.fixed(Instant.ofEpochMilli(NOW_MILLIS), ZoneId.of("UTC")));
+
+    // When
+    UUID id = generator.generate();
+
+    // Then
+    Assertions.assertThat(id.version()).isEqualTo(7);
+    Assertions.assertThat(id.variant()).isEqualTo(2);
+    Assertions.assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW_MILLIS);
+  }
+
+  @Test
+  void givenMoreIdsThanTheCounterInTheSameMillisecondTheGenerateShouldReturnIncreasingIds() {
+    // Given
+    UuidV7Generator generator =
+        new UuidV7Generator(Clock.fixed(Instant.ofEpochMilli(NOW_MILLIS), ZoneId.of("UTC")));
+
+    // When
+    List<UUID> ids = new ArrayList<>();
+    for (int index = 0; index < 10000; index++) {
+      ids.add(generator.generate());
+    }
+
+    // Then
+    for (int index = 1; index < ids.size(); index++) {
+      Assertions.assertThat(
+              Long.compareUnsigned(
+                  ids.get(index).getMostSignificantBits(),
+                  ids.get(index - 1).getMostSignificantBits()))
+          .isPositive();
+    }
+    Assertions.assertThat(new HashSet<>(ids)).hasSize(10000);
+    Assertions.assertThat(ids.get(0).getMostSignificantBits() >>> 16).isEqualTo(NOW_MILLIS);
+  }
+
+  @Test
+  void givenAClockGoingBackwardsTheGenerateShouldNotReturnAnOlderId() {
+    // Given
+    Clock clockMock = Mockito.mock(Clock.class);
+    Mockito.when(clockMock.millis()).thenReturn(NOW_MILLIS, NOW_MILLIS - 1000);
+    UuidV7Generator generator = new UuidV7Generator(clockMock);
+
+    // When
+    UUID firstId = generator.generate();
+    UUID secondId = generator.generate();
+
+    // Then
+    Assertions.assertThat(secondId.getMostSignificantBits() >>> 16).isEqualTo(NOW_MILLIS);
+    Assertions.assertThat(
+            Long.compareUnsigned(
+                secondId.getMostSignificantBits(), firstId.getMostSignificantBits()))
+        .isPositive();
+  }
+}
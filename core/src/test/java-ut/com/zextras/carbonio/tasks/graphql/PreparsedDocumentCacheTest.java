@@ -0,0 +1,184 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PreparsedDocumentCacheTest {
+
+  private static final String QUERY = "query { findTasks { id title } }";
+  private static final String QUERY_HASH =
+      Hashing.sha256().hashString(QUERY, StandardCharsets.UTF_8).toString();
+
+  private Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateMock;
+  private PreparsedDocumentEntry validEntry;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    parseAndValidateMock = Mockito.mock(Function.class);
+    validEntry = new PreparsedDocumentEntry(Document.newDocument().build());
+    Mockito.when(parseAndValidateMock.apply(Mockito.any(ExecutionInput.class)))
+        .thenReturn(validEntry);
+  }
+
+  @Test
+  void givenTheSameQueryTwiceTheGetDocumentAsyncShouldParseAndValidateItOnce() {
+    // Given
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(), new SimpleMeterRegistry());
+
+    // When
+    PreparsedDocumentEntry firstEntry =
+        documentCache.getDocumentAsync(aQuery(QUERY), parseAndValidateMock).join();
+    PreparsedDocumentEntry secondEntry =
+        documentCache.getDocumentAsync(aQuery(QUERY), parseAndValidateMock).join();
+
+    // Then
+    Assertions.assertThat(firstEntry).isSameAs(validEntry);
+    Assertions.assertThat(secondEntry).isSameAs(validEntry);
+    Mockito.verify(parseAndValidateMock, Mockito.times(1)).apply(Mockito.any());
+    Assertions.assertThat(documentCache.getHitCount()).isEqualTo(1L);
+    Assertions.assertThat(documentCache.getMissCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void givenAQueryWithErrorsTheGetDocumentAsyncShouldNotCacheIt() {
+    // Given
+    GraphQLError error = GraphqlErrorBuilder.newError().message("Invalid syntax").build();
+    Mockito.when(parseAndValidateMock.apply(Mockito.any(ExecutionInput.class)))
+        .thenReturn(new PreparsedDocumentEntry(error));
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(), new SimpleMeterRegistry());
+
+    // When
+    documentCache.getDocumentAsync(aQuery("query {"), parseAndValidateMock).join();
+    PreparsedDocumentEntry entry =
+        documentCache.getDocumentAsync(aQuery("query {"), parseAndValidateMock).join();
+
+    // Then
+    Assertions.assertThat(entry.getErrors()).containsExactly(error);
+    Mockito.verify(parseAndValidateMock, Mockito.times(2)).apply(Mockito.any());
+    Assertions.assertThat(documentCache.getSize()).isZero();
+  }
+
+  @Test
+  void givenAnUnknownPersistedQueryHashTheGetDocumentAsyncShouldReturnANotFoundError() {
+    // Given
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(), new SimpleMeterRegistry());
+
+    // When
+    PreparsedDocumentEntry entry =
+        documentCache
+            .getDocumentAsync(
+                aPersistedQuery("PersistedQueryMarker", QUERY_HASH), parseAndValidateMock)
+            .join();
+
+    // Then
+    Assertions.assertThat(entry.hasErrors()).isTrue();
+    Assertions.assertThat(entry.getErrors().get(0).getMessage())
+        .isEqualTo("PersistedQueryNotFound");
+    Assertions.assertThat(entry.getErrors().get(0).getExtensions())
+        .containsEntry("code", "PERSISTED_QUERY_NOT_FOUND");
+    Mockito.verifyNoInteractions(parseAndValidateMock);
+  }
+
+  @Test
+  void givenAPersistedQueryRegisteredWithItsTextTheGetDocumentAsyncShouldResolveItsHash() {
+    // Given
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(), new SimpleMeterRegistry());
+    documentCache
+        .getDocumentAsync(
+            aPersistedQuery(QUERY, QUERY_HASH.toUpperCase(Locale.ROOT)), parseAndValidateMock)
+        .join();
+
+    // When
+    PreparsedDocumentEntry entry =
+        documentCache
+            .getDocumentAsync(aPersistedQuery("", QUERY_HASH), parseAndValidateMock)
+            .join();
+
+    // Then
+    Assertions.assertThat(entry).isSameAs(validEntry);
+    Mockito.verify(parseAndValidateMock, Mockito.times(1)).apply(Mockito.any());
+  }
+
+  @Test
+  void givenAPersistedQueryHashNotMatchingItsTextTheGetDocumentAsyncShouldReturnAnError() {
+    // Given
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(), new SimpleMeterRegistry());
+
+    // When
+    PreparsedDocumentEntry entry =
+        documentCache
+            .getDocumentAsync(
+                aPersistedQuery("query { getTask(taskId: \"1\") { id } }", QUERY_HASH),
+                parseAndValidateMock)
+            .join();
+
+    // Then
+    Assertions.assertThat(entry.getErrors().get(0).getMessage())
+        .isEqualTo("PersistedQueryIdInvalid");
+    Mockito.verifyNoInteractions(parseAndValidateMock);
+    Assertions.assertThat(documentCache.getSize()).isZero();
+  }
+
+  @Test
+  void givenAnAllowlistTheGetDocumentAsyncShouldRejectTheQueriesNotInIt() {
+    // Given
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PreparsedDocumentCache documentCache =
+        new PreparsedDocumentCache(100, Set.of(QUERY_HASH), meterRegistry);
+
+    // When
+    PreparsedDocumentEntry allowedEntry =
+        documentCache.getDocumentAsync(aQuery(QUERY), parseAndValidateMock).join();
+    PreparsedDocumentEntry rejectedEntry =
+        documentCache
+            .getDocumentAsync(aQuery("query { getServiceInfo { name } }"), parseAndValidateMock)
+            .join();
+
+    // Then
+    Assertions.assertThat(allowedEntry).isSameAs(validEntry);
+    Assertions.assertThat(rejectedEntry.getErrors().get(0).getMessage())
+        .isEqualTo("PersistedQueryNotAllowed");
+    Mockito.verify(parseAndValidateMock, Mockito.times(1)).apply(Mockito.any());
+    Assertions.assertThat(
+            meterRegistry
+                .get("tasks.graphql.persisted.queries.rejected")
+                .tag("reason", "persisted_query_not_allowed")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  private static ExecutionInput aQuery(String query) {
+    return ExecutionInput.newExecutionInput(query).build();
+  }
+
+  private static ExecutionInput aPersistedQuery(String query, String hash) {
+    return ExecutionInput.newExecutionInput(query)
+        .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+        .build();
+  }
+}
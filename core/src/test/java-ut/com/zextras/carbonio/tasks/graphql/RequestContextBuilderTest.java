@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import com.zextras.carbonio.tasks.graphql.instrumentations.QueryLimitsInstrumentation;
+import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import graphql.parser.ParserOptions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class RequestContextBuilderTest {
+
+  private TaskRepository taskRepositoryMock;
+  private RequestContextBuilder requestContextBuilder;
+  private DataFetcherExecutor dataFetcherExecutor;
+  private ParserOptions parserOptions;
+
+  @BeforeEach
+  void setUp() {
+    taskRepositoryMock = Mockito.mock(TaskRepository.class);
+    dataFetcherExecutor = new DataFetcherExecutor(2, 100);
+    parserOptions = ParserOptions.newParserOptions().maxTokens(100).build();
+    QueryLimitsInstrumentation queryLimitsInstrumentationMock =
+        Mockito.mock(QueryLimitsInstrumentation.class);
+    Mockito.when(queryLimitsInstrumentationMock.getParserOptions()).thenReturn(parserOptions);
+    requestContextBuilder =
+        new RequestContextBuilder(
+            taskRepositoryMock, dataFetcherExecutor, queryLimitsInstrumentationMock);
+  }
+
+  @AfterEach
+  void cleanUp() throws InterruptedException {
+    dataFetcherExecutor.shutdown(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void givenAnAuthenticatedRequestTheBuildShouldReturnAContextWithTheTaskDataLoader() {
+    // Given
+    HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(requestMock.getAttribute("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    HttpServletResponse responseMock = Mockito.mock(HttpServletResponse.class);
+
+    // When
+    GraphQLKickstartContext context = requestContextBuilder.build(requestMock, responseMock);
+
+    // Then
+    Assertions.assertThat(context.getMapOfContext())
+        .containsEntry(HttpServletRequest.class, requestMock)
+        .containsEntry(HttpServletResponse.class, responseMock)
+        .containsEntry(ParserOptions.class, parserOptions);
+    Assertions.assertThat(context.getDataLoaderRegistry().getKeys()).containsExactly("task");
+  }
+
+  @Test
+  void givenManyTaskLookupsTheTaskDataLoaderShouldFetchThemWithASingleQuery() {
+    // Given
+    UUID existingTaskId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    UUID notExistingTaskId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+    Task existingTaskMock = Mockito.mock(Task.class);
+    Mockito.when(existingTaskMock.getId()).thenReturn(existingTaskId);
+    Mockito.when(
+            taskRepositoryMock.getTasksByIds(
+                Set.of(existingTaskId, notExistingTaskId),
+                UUID.fromString("00000000-0000-0000-0000-000000000000")))
+        .thenReturn(List.of(existingTaskMock));
+
+    DataLoader<UUID, Task> taskDataLoader =
+        requestContextBuilder.buildTaskDataLoader(
+            UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // When
+    CompletableFuture<Task> existingTask = taskDataLoader.load(existingTaskId);
+    CompletableFuture<Task> notExistingTask = taskDataLoader.load(notExistingTaskId);
+    taskDataLoader.dispatchAndJoin();
+
+    // Then
+    Assertions.assertThat(existingTask.join()).isEqualTo(existingTaskMock);
+    Assertions.assertThat(notExistingTask.join()).isNull();
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .getTasksByIds(Mockito.anyCollection(), Mockito.anyString());
+  }
+}
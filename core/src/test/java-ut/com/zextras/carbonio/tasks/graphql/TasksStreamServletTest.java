@@ -0,0 +1,336 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.graphql.datafetchers.DataFetcherExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TasksStreamServletTest {
+
+  private static final UUID REQUESTER_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+  private TaskRepository taskRepositoryMock;
+  private DataFetcherExecutor dataFetcherExecutorMock;
+  private MeterRegistry meterRegistry;
+  private HttpServletRequest requestMock;
+  private HttpServletResponse responseMock;
+  private ByteArrayOutputStream responseBody;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    taskRepositoryMock = Mockito.mock(TaskRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    // The pages are read in the thread of the request
+    dataFetcherExecutorMock = Mockito.mock(DataFetcherExecutor.class);
+    Mockito.doAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .when(dataFetcherExecutorMock)
+        .execute(Mockito.any());
+    requestMock = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(requestMock.getAttribute("requesterId")).thenReturn(REQUESTER_ID);
+
+    responseBody = new ByteArrayOutputStream();
+    responseMock = Mockito.mock(HttpServletResponse.class);
+    Mockito.when(responseMock.getOutputStream()).thenReturn(new FakeOutputStream(responseBody));
+  }
+
+  @Test
+  void givenNoParametersTheDoGetShouldStreamAllTheFieldsOfTheNotTrashedTasks() throws Exception {
+    // Given
+    Task task1 =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            REQUESTER_ID,
+            "title1",
+            "description1",
+            Priority.HIGH,
+            Status.OPEN,
+            Instant.ofEpochMilli(5L),
+            Instant.ofEpochMilli(55L),
+            null);
+    Task task2 =
+        new Task(
+            UUID.fromString("22222222-2222-2222-2222-222222222222"),
+            REQUESTER_ID,
+            "title2",
+            null,
+            Priority.LOW,
+            Status.COMPLETE,
+            Instant.ofEpochMilli(3L),
+            null,
+            null);
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.anyInt(),
+                Mockito.any(),
+                Mockito.anySet()))
+        .thenReturn(List.of(task1, task2));
+
+    // When
+    createServlet(100, 1).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(responseMock, Mockito.times(1)).setStatus(200);
+    Mockito.verify(responseMock, Mockito.times(1)).setContentType("application/json");
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .getTasks(
+            Mockito.eq(REQUESTER_ID),
+            Mockito.isNull(),
+            Mockito.isNull(),
+            Mockito.eq(100),
+            Mockito.isNull(),
+            Mockito.eq(
+                Set.of(
+                    "id",
+                    "title",
+                    "description",
+                    "priority",
+                    "status",
+                    "createdAt",
+                    "reminderAt",
+                    "reminderAllDay")));
+    Assertions.assertThat(responseBody.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            "{\"data\":{\"findTasks\":["
+                + "{\"id\":\"11111111-1111-1111-1111-111111111111\",\"title\":\"title1\","
+                + "\"description\":\"description1\",\"priority\":\"HIGH\",\"status\":\"OPEN\","
+                + "\"createdAt\":5,\"reminderAt\":55,\"reminderAllDay\":false},"
+                + "{\"id\":\"22222222-2222-2222-2222-222222222222\",\"title\":\"title2\","
+                + "\"description\":null,\"priority\":\"LOW\",\"status\":\"COMPLETE\","
+                + "\"createdAt\":3,\"reminderAt\":null,\"reminderAllDay\":null}"
+                + "]}}");
+  }
+
+  @Test
+  void givenTheFiltersAndTheFieldsTheDoGetShouldStreamOnlyTheRequestedFields() throws Exception {
+    // Given
+    Mockito.when(requestMock.getParameter("status")).thenReturn("OPEN");
+    Mockito.when(requestMock.getParameter("priority")).thenReturn("MEDIUM");
+    Mockito.when(requestMock.getParameter("fields")).thenReturn("title, cursor");
+
+    // A partially loaded task has all the attributes not requested set to null
+    Task task =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            null,
+            "title",
+            null,
+            null,
+            null,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.anyInt(),
+                Mockito.any(),
+                Mockito.anySet()))
+        .thenReturn(List.of(task));
+
+    // When
+    createServlet(100, 1).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .getTasks(
+            REQUESTER_ID,
+            Priority.MEDIUM,
+            Status.OPEN,
+            100,
+            null,
+            Set.of("id", "title", "createdAt"));
+    Assertions.assertThat(responseBody.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            "{\"data\":{\"findTasks\":[{\"title\":\"title\",\"cursor\":\""
+                + TaskCursor.of(task).encode()
+                + "\"}]}}");
+  }
+
+  @Test
+  void givenAnUnknownFieldTheDoGetShouldRespondWithABadRequest() throws Exception {
+    // Given
+    Mockito.when(requestMock.getParameter("fields")).thenReturn("title,userId");
+
+    // When
+    createServlet(100, 1).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(responseMock, Mockito.times(1)).sendError(400, "Unknown task field userId");
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+    Assertions.assertThat(responseBody.size()).isZero();
+  }
+
+  @Test
+  void givenAnInvalidStatusTheDoGetShouldRespondWithABadRequest() throws Exception {
+    // Given
+    Mockito.when(requestMock.getParameter("status")).thenReturn("DONE");
+
+    // When
+    createServlet(100, 1).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(responseMock, Mockito.times(1)).sendError(400, "Invalid status DONE");
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+  }
+
+  @Test
+  void givenMoreTasksThanTheFetchSizeTheDoGetShouldReadThemInKeysetPages() throws Exception {
+    // Given
+    Mockito.when(requestMock.getParameter("fields")).thenReturn("id");
+    Task task1 = buildTask("11111111-1111-1111-1111-111111111111", 9L);
+    Task task2 = buildTask("22222222-2222-2222-2222-222222222222", 8L);
+    Task task3 = buildTask("33333333-3333-3333-3333-333333333333", 7L);
+    Set<String> attributes = Set.of("id", "createdAt");
+
+    Mockito.when(taskRepositoryMock.getTasks(REQUESTER_ID, null, null, 2, null, attributes))
+        .thenReturn(List.of(task1, task2));
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                REQUESTER_ID, null, null, 2, TaskCursor.of(task2), attributes))
+        .thenReturn(List.of(task3));
+
+    // When
+    createServlet(2, 1).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(2))
+        .getTasks(
+            Mockito.any(),
+            Mockito.any(),
+            Mockito.any(),
+            Mockito.anyInt(),
+            Mockito.any(),
+            Mockito.anySet());
+    Mockito.verify(dataFetcherExecutorMock, Mockito.times(2)).execute(Mockito.any());
+    Assertions.assertThat(responseBody.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            "{\"data\":{\"findTasks\":["
+                + "{\"id\":\"11111111-1111-1111-1111-111111111111\"},"
+                + "{\"id\":\"22222222-2222-2222-2222-222222222222\"},"
+                + "{\"id\":\"33333333-3333-3333-3333-333333333333\"}"
+                + "]}}");
+    Assertions.assertThat(meterRegistry.get("tasks.stream.tasks").counter().count())
+        .isEqualTo(3.0);
+    Assertions.assertThat(
+            meterRegistry.get("tasks.stream.request").tag("outcome", "success").timer().count())
+        .isEqualTo(1L);
+  }
+
+  @Test
+  void givenTheMaxConcurrentStreamsReachedTheDoGetShouldRespondWithServiceUnavailable()
+      throws Exception {
+    // When
+    createServlet(100, 0).doGet(requestMock, responseMock);
+
+    // Then
+    Mockito.verify(responseMock, Mockito.times(1))
+        .sendError(503, "Too many concurrent tasks streams");
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+    Assertions.assertThat(responseBody.size()).isZero();
+    Assertions.assertThat(
+            meterRegistry.get("tasks.stream.request").tag("outcome", "rejected").timer().count())
+        .isEqualTo(1L);
+  }
+
+  @Test
+  void givenTheDataFetcherExecutorQueueFullTheDoGetShouldRespondWithServiceUnavailable()
+      throws Exception {
+    // Given
+    Mockito.doThrow(new RejectedExecutionException("too many pending operations"))
+        .when(dataFetcherExecutorMock)
+        .execute(Mockito.any());
+
+    // When
+    TasksStreamServlet tasksStreamServlet = createServlet(100, 1);
+    tasksStreamServlet.doGet(requestMock, responseMock);
+    tasksStreamServlet.doGet(requestMock, responseMock);
+
+    // Then
+    // The permit of the rejected stream is released, so the second request is not refused by the
+    // limit on the concurrent streams
+    Mockito.verify(responseMock, Mockito.times(2)).sendError(503, "too many pending operations");
+    Mockito.verify(responseMock, Mockito.never()).setStatus(200);
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+    Assertions.assertThat(responseBody.size()).isZero();
+  }
+
+  private TasksStreamServlet createServlet(int fetchSize, int maxConcurrentStreams) {
+    return new TasksStreamServlet(
+        taskRepositoryMock,
+        dataFetcherExecutorMock,
+        fetchSize,
+        maxConcurrentStreams,
+        meterRegistry);
+  }
+
+  private Task buildTask(String id, long createdAt) {
+    return new Task(
+        UUID.fromString(id),
+        null,
+        null,
+        null,
+        null,
+        null,
+        Instant.ofEpochMilli(createdAt),
+        null,
+        null);
+  }
+
+  private static final class FakeOutputStream extends ServletOutputStream {
+
+    private final ByteArrayOutputStream outputStream;
+
+    private FakeOutputStream(ByteArrayOutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(int oneByte) {
+      outputStream.write(oneByte);
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      // The output stream is always ready
+    }
+  }
+}
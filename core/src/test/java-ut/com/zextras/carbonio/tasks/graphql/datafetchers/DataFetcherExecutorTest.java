@@ -0,0 +1,74 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DataFetcherExecutorTest {
+
+  private DataFetcherExecutor dataFetcherExecutor;
+  private CountDownLatch latch;
+
+  @BeforeEach
+  void setUp() {
+    dataFetcherExecutor = new DataFetcherExecutor(1, 1);
+    latch = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void cleanUp() throws InterruptedException {
+    latch.countDown();
+    dataFetcherExecutor.shutdown(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void givenAnOperationTheExecuteShouldRunItOnADataFetcherThread() throws Exception {
+    // Given & When
+    CompletableFuture<String> threadName =
+        CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), dataFetcherExecutor);
+
+    // Then
+    Assertions.assertThat(threadName.get(1, TimeUnit.SECONDS)).startsWith("data-fetcher-");
+  }
+
+  @Test
+  void givenABusyPoolAndAFullQueueTheExecuteShouldRejectTheOperationAndCountIt()
+      throws Exception {
+    // Given
+    CountDownLatch started = new CountDownLatch(1);
+    dataFetcherExecutor.execute(
+        () -> {
+          started.countDown();
+          awaitLatch();
+        });
+    started.await(1, TimeUnit.SECONDS);
+    dataFetcherExecutor.execute(this::awaitLatch);
+
+    // When
+    Throwable throwable =
+        Assertions.catchThrowable(() -> CompletableFuture.runAsync(() -> {}, dataFetcherExecutor));
+
+    // Then
+    Assertions.assertThat(throwable).isInstanceOf(RejectedExecutionException.class);
+    Assertions.assertThat(dataFetcherExecutor.getRejectedCount()).isEqualTo(1L);
+    Assertions.assertThat(dataFetcherExecutor.getActiveCount()).isEqualTo(1);
+    Assertions.assertThat(dataFetcherExecutor.getQueueSize()).isEqualTo(1);
+  }
+
+  private void awaitLatch() {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -14,6 +14,7 @@ import graphql.schema.CoercingParseValueException;
 import graphql.schema.CoercingSerializeException;
 import graphql.schema.GraphQLScalarType;
 import java.math.BigInteger;
+import java.time.Instant;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ThrowableAssert;
@@ -55,6 +56,19 @@ class DateTimeScalarTest {
     Assertions.assertThat(serialize).isEqualTo(333L);
   }
 
+  @Test
+  void givenAnInstantTheSerializeShouldReturnItsEpochMillis() {
+    // Given
+    DateTimeScalar dateTimeScalar = new DateTimeScalar();
+    Instant inputValue = Instant.ofEpochMilli(333L);
+
+    // When
+    Long serialize = dateTimeScalar.serialize(inputValue);
+
+    // Then
+    Assertions.assertThat(serialize).isEqualTo(333L);
+  }
+
   @Test
   void givenAStringOfALongTheSerializeShouldReturnASerializedLong() {
     // Given
@@ -8,15 +8,34 @@ import com.google.common.collect.ImmutableMap;
 import com.zextras.carbonio.tasks.dal.dao.Priority;
 import com.zextras.carbonio.tasks.dal.dao.Status;
 import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskChanges;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
 import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchCursor;
+import com.zextras.carbonio.tasks.dal.repositories.TaskSearchResult;
+import com.zextras.carbonio.tasks.dal.repositories.TaskWatermark;
 import graphql.GraphQLContext;
 import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.assertj.core.api.Assertions;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -24,13 +43,27 @@ import org.mockito.Mockito;
 
 class TaskDataFetchersTest {
 
+  private static final Instant NOW = Instant.parse("2024-01-31T10:00:00Z");
+
   private TaskRepository taskRepositoryMock;
   private TaskDataFetchers taskDataFetchers;
+  private DataFetcherExecutor dataFetcherExecutor;
 
   @BeforeEach
   void setUp() {
     taskRepositoryMock = Mockito.mock(TaskRepository.class);
-    taskDataFetchers = new TaskDataFetchers(taskRepositoryMock);
+    dataFetcherExecutor = new DataFetcherExecutor(2, 100);
+    taskDataFetchers =
+        new TaskDataFetchers(
+            taskRepositoryMock,
+            dataFetcherExecutor,
+            Clock.fixed(NOW, ZoneOffset.UTC),
+            Duration.ofDays(30));
+  }
+
+  @AfterEach
+  void cleanUp() throws InterruptedException {
+    dataFetcherExecutor.shutdown(1, TimeUnit.SECONDS);
   }
 
   @Test
@@ -47,12 +80,13 @@ class TaskDataFetchersTest {
     Mockito.when(
             taskRepositoryMock.getTask(
                 UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
-                "00000000-0000-0000-0000-000000000000"))
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                Set.of()))
         .thenReturn(Optional.of(requestedTaskMock));
 
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
     Mockito.when(environmentMock.getArgument("taskId"))
@@ -60,14 +94,14 @@ class TaskDataFetchersTest {
     Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.getTask().get(environmentMock).get();
 
     // Then
     Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
     Assertions.assertThat(dataFetcherResult.getData()).isNotNull();
 
-    Map<String, Object> mapRequestedTask = dataFetcherResult.getData();
+    Map<String, Object> mapRequestedTask = resolveTaskFields(dataFetcherResult.getData());
 
     Assertions.assertThat(mapRequestedTask)
         .containsEntry("id", UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
@@ -75,11 +109,52 @@ class TaskDataFetchersTest {
         .doesNotContainKey("description")
         .containsEntry("priority", Priority.MEDIUM)
         .containsEntry("status", Status.COMPLETE)
-        .containsEntry("createdAt", 10L)
+        .containsEntry("createdAt", Instant.ofEpochMilli(10L))
         .doesNotContainKey("reminderAt")
         .doesNotContainKey("reminderAllDay");
   }
 
+  @Test
+  void givenARegisteredTaskDataLoaderTheGetTaskDataFetcherShouldLoadTheTaskThroughIt()
+      throws Exception {
+    // Given
+    Task requestedTask =
+        new Task(
+            UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title1",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            Instant.ofEpochMilli(10),
+            null,
+            null);
+
+    DataLoader<UUID, Task> taskDataLoader =
+        DataLoaderFactory.newMappedDataLoader(
+            taskIds ->
+                CompletableFuture.completedFuture(Map.of(requestedTask.getId(), requestedTask)));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getArgument("taskId"))
+        .thenReturn("6d162bee-3186-0000-bf31-59746a41600e");
+    Mockito.when(environmentMock.<UUID, Task>getDataLoader("task")).thenReturn(taskDataLoader);
+
+    // When
+    CompletableFuture<DataFetcherResult<TaskResult>> futureResult =
+        taskDataFetchers.getTask().get(environmentMock);
+    taskDataLoader.dispatchAndJoin();
+
+    // Then
+    DataFetcherResult<TaskResult> dataFetcherResult = futureResult.get();
+    Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
+    Assertions.assertThat(resolveTaskFields(dataFetcherResult.getData()))
+        .containsEntry("id", UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"))
+        .containsEntry("title", "title1");
+
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+  }
+
   @Test
   void givenANotExistingTaskIdTheGetTaskDataFetcherShouldReturnAnEmptyResultWithAnError()
       throws Exception {
@@ -87,12 +162,13 @@ class TaskDataFetchersTest {
     Mockito.when(
             taskRepositoryMock.getTask(
                 UUID.fromString("6d162bee-3186-0000-bf31-59746a41600e"),
-                "00000000-0000-0000-0000-000000000000"))
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                Set.of()))
         .thenReturn(Optional.empty());
 
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
     Mockito.when(environmentMock.getArgument("taskId"))
@@ -100,7 +176,7 @@ class TaskDataFetchersTest {
     Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.getTask().get(environmentMock).get();
 
     // Then
@@ -118,7 +194,7 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Task attributes to update
     Map<String, Object> updateTask =
@@ -139,7 +215,7 @@ class TaskDataFetchersTest {
     Task existingTaskMock =
         new Task(
             UUID.fromString("11111111-1111-1111-1111-111111111111"),
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title",
             null,
             Priority.HIGH,
@@ -149,28 +225,33 @@ class TaskDataFetchersTest {
             false);
 
     Mockito.when(
-            taskRepositoryMock.getTask(
-                UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
-        .thenReturn(Optional.of(existingTaskMock));
+            taskRepositoryMock.updateTask(
+                Mockito.eq(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")),
+                Mockito.any(TaskChanges.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<TaskChanges>getArgument(2).applyTo(existingTaskMock);
+              return Optional.of(existingTaskMock);
+            });
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.updateTask().get(environmentMock).get();
 
     // Then
     Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
     Assertions.assertThat(dataFetcherResult.getData()).isNotNull();
 
-    Map<String, Object> mapUpdatedTask = dataFetcherResult.getData();
+    Map<String, Object> mapUpdatedTask = resolveTaskFields(dataFetcherResult.getData());
     Assertions.assertThat(mapUpdatedTask)
         .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
         .containsEntry("title", "New title")
         .containsEntry("description", "New description")
         .containsEntry("priority", Priority.LOW)
         .containsEntry("status", Status.COMPLETE)
-        .containsEntry("createdAt", 5L)
-        .containsEntry("reminderAt", 55L)
+        .containsEntry("createdAt", Instant.ofEpochMilli(5L))
+        .containsEntry("reminderAt", Instant.ofEpochMilli(55L))
         .containsEntry("reminderAllDay", Boolean.TRUE);
   }
 
@@ -181,7 +262,7 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Task attributes to update
     Map<String, Object> updateTask =
@@ -196,7 +277,7 @@ class TaskDataFetchersTest {
     Task existingTaskMock =
         new Task(
             UUID.fromString("11111111-1111-1111-1111-111111111111"),
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title",
             "description",
             Priority.HIGH,
@@ -206,27 +287,32 @@ class TaskDataFetchersTest {
             false);
 
     Mockito.when(
-            taskRepositoryMock.getTask(
-                UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
-        .thenReturn(Optional.of(existingTaskMock));
+            taskRepositoryMock.updateTask(
+                Mockito.eq(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")),
+                Mockito.any(TaskChanges.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<TaskChanges>getArgument(2).applyTo(existingTaskMock);
+              return Optional.of(existingTaskMock);
+            });
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.updateTask().get(environmentMock).get();
 
     // Then
     Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
     Assertions.assertThat(dataFetcherResult.getData()).isNotNull();
 
-    Map<String, Object> mapUpdatedTask = dataFetcherResult.getData();
+    Map<String, Object> mapUpdatedTask = resolveTaskFields(dataFetcherResult.getData());
     Assertions.assertThat(mapUpdatedTask)
         .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
         .containsEntry("title", "title")
         .containsEntry("description", "description")
         .containsEntry("priority", Priority.HIGH)
         .containsEntry("status", Status.OPEN)
-        .containsEntry("createdAt", 5L)
+        .containsEntry("createdAt", Instant.ofEpochMilli(5L))
         .doesNotContainKey("reminderAt")
         .doesNotContainKey("reminderAllDay");
   }
@@ -238,7 +324,7 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Task attributes to update
     Map<String, Object> updateTask =
@@ -255,7 +341,7 @@ class TaskDataFetchersTest {
     Task existingTaskMock =
         new Task(
             UUID.fromString("11111111-1111-1111-1111-111111111111"),
-            "00000000-0000-0000-0000-000000000000",
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
             "title",
             "description",
             Priority.HIGH,
@@ -265,20 +351,25 @@ class TaskDataFetchersTest {
             true);
 
     Mockito.when(
-            taskRepositoryMock.getTask(
-                UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
-        .thenReturn(Optional.of(existingTaskMock));
+            taskRepositoryMock.updateTask(
+                Mockito.eq(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")),
+                Mockito.any(TaskChanges.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<TaskChanges>getArgument(2).applyTo(existingTaskMock);
+              return Optional.of(existingTaskMock);
+            });
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.updateTask().get(environmentMock).get();
 
     // Then
     Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
     Assertions.assertThat(dataFetcherResult.getData()).isNotNull();
 
-    Map<String, Object> mapUpdatedTask = dataFetcherResult.getData();
+    Map<String, Object> mapUpdatedTask = resolveTaskFields(dataFetcherResult.getData());
     Assertions.assertThat(mapUpdatedTask)
         .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
         .doesNotContainKey("reminderAt")
@@ -291,7 +382,7 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Task attributes to update
     Map<String, Object> updateTask =
@@ -305,13 +396,14 @@ class TaskDataFetchersTest {
     Mockito.when(environmentMock.getArgument("updateTask")).thenReturn(updateTask);
 
     Mockito.when(
-            taskRepositoryMock.getTask(
-                UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
+            taskRepositoryMock.updateTask(
+                Mockito.eq(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")),
+                Mockito.any(TaskChanges.class)))
         .thenReturn(Optional.empty());
 
     // When
-    DataFetcherResult<Map<String, Object>> dataFetcherResult =
+    DataFetcherResult<TaskResult> dataFetcherResult =
         taskDataFetchers.updateTask().get(environmentMock).get();
 
     // Then
@@ -328,38 +420,28 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
     Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
     Mockito.when(environmentMock.getArgument("taskId"))
         .thenReturn("11111111-1111-1111-1111-111111111111");
 
-    Task existingTaskMock =
-        new Task(
-            UUID.fromString("11111111-1111-1111-1111-111111111111"),
-            "00000000-0000-0000-0000-000000000000",
-            "title",
-            "description",
-            Priority.HIGH,
-            Status.COMPLETE,
-            Instant.ofEpochMilli(5L),
-            Instant.ofEpochMilli(55L),
-            true);
-
-    Mockito.when(taskRepositoryMock.getTask(existingTaskMock.getId(), existingTaskMock.getUserId()))
-        .thenReturn(Optional.of(existingTaskMock));
+    Mockito.when(
+            taskRepositoryMock.trashTask(
+                UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                UUID.fromString("00000000-0000-0000-0000-000000000000")))
+        .thenReturn(true);
 
     // When
     DataFetcherResult<UUID> dataFetcherResult =
         taskDataFetchers.trashTask().get(environmentMock).get();
 
     // Then
-    ArgumentCaptor<Task> captorTask = ArgumentCaptor.forClass(Task.class);
-    Mockito.verify(taskRepositoryMock, Mockito.times(1)).updateTask(captorTask.capture());
-
-    existingTaskMock.setStatus(Status.TRASH);
-    Assertions.assertThat(existingTaskMock).isEqualTo(captorTask.getValue());
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .trashTask(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     Assertions.assertThat(dataFetcherResult.getData())
         .isNotNull()
@@ -373,7 +455,7 @@ class TaskDataFetchersTest {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get("requesterId"))
-        .thenReturn("00000000-0000-0000-0000-000000000000");
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
     Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
@@ -381,17 +463,16 @@ class TaskDataFetchersTest {
         .thenReturn("11111111-1111-1111-1111-111111111111");
 
     Mockito.when(
-            taskRepositoryMock.getTask(
+            taskRepositoryMock.trashTask(
                 UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
-        .thenReturn(Optional.empty());
+                UUID.fromString("00000000-0000-0000-0000-000000000000")))
+        .thenReturn(false);
 
     // When
     DataFetcherResult<UUID> dataFetcherResult =
         taskDataFetchers.trashTask().get(environmentMock).get();
 
     // Then
-    Mockito.verify(taskRepositoryMock, Mockito.times(0)).updateTask(Mockito.any(Task.class));
 
     Assertions.assertThat(dataFetcherResult.getData()).isNull();
     Assertions.assertThat(dataFetcherResult.getErrors()).hasSize(1);
@@ -405,7 +486,8 @@ class TaskDataFetchersTest {
           throws Exception {
     // Given
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
-    Mockito.when(graphQLContextMock.get("requesterId")).thenReturn("wrong-user-id");
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("99999999-9999-9999-9999-999999999999"));
 
     DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
     Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
@@ -413,21 +495,540 @@ class TaskDataFetchersTest {
         .thenReturn("11111111-1111-1111-1111-111111111111");
 
     Mockito.when(
-            taskRepositoryMock.getTask(
+            taskRepositoryMock.trashTask(
                 UUID.fromString("11111111-1111-1111-1111-111111111111"),
-                "00000000-0000-0000-0000-000000000000"))
-        .thenReturn(Optional.of(Mockito.mock(Task.class)));
+                UUID.fromString("00000000-0000-0000-0000-000000000000")))
+        .thenReturn(true);
 
     // When
     DataFetcherResult<UUID> dataFetcherResult =
         taskDataFetchers.trashTask().get(environmentMock).get();
 
     // Then
-    Mockito.verify(taskRepositoryMock, Mockito.times(0)).updateTask(Mockito.any(Task.class));
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .trashTask(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("99999999-9999-9999-9999-999999999999"));
 
     Assertions.assertThat(dataFetcherResult.getData()).isNull();
     Assertions.assertThat(dataFetcherResult.getErrors()).hasSize(1);
     Assertions.assertThat(dataFetcherResult.getErrors().get(0).getMessage())
         .contains("Could not find task with id 11111111-1111-1111-1111-111111111111");
   }
+
+  @Test
+  void givenAPageSizeAndACursorTheFindTasksDataFetcherShouldReturnThePageOfTasksWithTheirCursors()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    TaskCursor afterCursor =
+        new TaskCursor(
+            Instant.ofEpochMilli(20L), UUID.fromString("22222222-2222-2222-2222-222222222222"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("first")).thenReturn(1);
+    Mockito.when(environmentMock.getArgument("after")).thenReturn(afterCursor.encode());
+
+    Task task =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                null,
+                null,
+                1,
+                afterCursor,
+                Set.of()))
+        .thenReturn(List.of(task));
+
+    // When
+    List<TaskResult> tasks = taskDataFetchers.findTasks().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1);
+    Assertions.assertThat(resolveTaskFields(tasks.get(0)))
+        .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
+        .containsEntry("title", "title")
+        .containsEntry("cursor", TaskCursor.of(task).encode());
+  }
+
+  @Test
+  void givenAQueryAndACursorTheSearchTasksDataFetcherShouldReturnTheMatchingTasksWithTheirCursors()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    TaskSearchCursor afterCursor =
+        new TaskSearchCursor(
+            0.5f,
+            Instant.ofEpochMilli(20L),
+            UUID.fromString("22222222-2222-2222-2222-222222222222"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("query")).thenReturn("report");
+    Mockito.when(environmentMock.getArgument("first")).thenReturn(1);
+    Mockito.when(environmentMock.getArgument("after")).thenReturn(afterCursor.encode());
+
+    Task task =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "report",
+            null,
+            Priority.HIGH,
+            Status.OPEN,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+    TaskSearchResult searchResult = new TaskSearchResult(task, 0.25f);
+
+    Mockito.when(
+            taskRepositoryMock.searchTasks(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                "report",
+                1,
+                afterCursor,
+                Set.of()))
+        .thenReturn(List.of(searchResult));
+
+    // When
+    List<TaskResult> tasks = taskDataFetchers.searchTasks().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1);
+    Assertions.assertThat(resolveTaskFields(tasks.get(0)))
+        .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
+        .containsEntry("title", "report")
+        .containsEntry("cursor", searchResult.getCursor().encode());
+  }
+
+  @Test
+  void givenAWatermarkTheTaskChangesDataFetcherShouldReturnTheChangedAndTheTrashedTasks()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    TaskWatermark since =
+        new TaskWatermark(
+            NOW.minusSeconds(60), UUID.fromString("22222222-2222-2222-2222-222222222222"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("since")).thenReturn(since.encode());
+    Mockito.when(environmentMock.getArgument("first")).thenReturn(2);
+
+    Task changedTask = buildChangedTask("11111111-1111-1111-1111-111111111111", Status.OPEN, 50);
+    Task trashedTask = buildChangedTask("33333333-3333-3333-3333-333333333333", Status.TRASH, 40);
+    Task followingTask =
+        buildChangedTask("44444444-4444-4444-4444-444444444444", Status.OPEN, 30);
+
+    Mockito.when(
+            taskRepositoryMock.getTaskChanges(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                since,
+                NOW.minusSeconds(5),
+                3))
+        .thenReturn(List.of(changedTask, trashedTask, followingTask));
+
+    // When
+    Map<String, Object> changeSet = taskDataFetchers.taskChanges().get(environmentMock).get();
+
+    // Then
+    @SuppressWarnings("unchecked")
+    List<TaskResult> changedTasks = (List<TaskResult>) changeSet.get("changed");
+    Assertions.assertThat(changedTasks).hasSize(1);
+    Assertions.assertThat(resolveTaskFields(changedTasks.get(0)))
+        .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"));
+    Assertions.assertThat(changeSet.get("trashed"))
+        .isEqualTo(List.of(UUID.fromString("33333333-3333-3333-3333-333333333333")));
+    Assertions.assertThat(changeSet)
+        .containsEntry("watermark", TaskWatermark.of(trashedTask).encode())
+        .containsEntry("hasMore", true)
+        .containsEntry("resyncRequired", false);
+  }
+
+  @Test
+  void givenNoMoreChangesTheTaskChangesDataFetcherShouldMoveTheWatermarkToTheSettledChanges()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+
+    Mockito.when(
+            taskRepositoryMock.getTaskChanges(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                null,
+                NOW.minusSeconds(5),
+                501))
+        .thenReturn(List.of());
+
+    // When
+    Map<String, Object> changeSet = taskDataFetchers.taskChanges().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(changeSet)
+        .containsEntry("changed", List.of())
+        .containsEntry("trashed", List.of())
+        .containsEntry("watermark", TaskWatermark.at(NOW.minusSeconds(5)).encode())
+        .containsEntry("hasMore", false)
+        .containsEntry("resyncRequired", false);
+  }
+
+  @Test
+  void givenAWatermarkOlderThanTheTrashRetentionTheTaskChangesDataFetcherShouldRequireAResync()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("since"))
+        .thenReturn(TaskWatermark.at(NOW.minus(Duration.ofDays(31))).encode());
+
+    // When
+    Map<String, Object> changeSet = taskDataFetchers.taskChanges().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(changeSet)
+        .containsEntry("resyncRequired", true)
+        .doesNotContainKey("watermark");
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+  }
+
+  @Test
+  void givenASelectionOfFieldsTheFindTasksDataFetcherShouldLoadOnlyTheRequestedAttributes()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    SelectedField idFieldMock = Mockito.mock(SelectedField.class);
+    Mockito.when(idFieldMock.getName()).thenReturn("id");
+    SelectedField titleFieldMock = Mockito.mock(SelectedField.class);
+    Mockito.when(titleFieldMock.getName()).thenReturn("title");
+    SelectedField cursorFieldMock = Mockito.mock(SelectedField.class);
+    Mockito.when(cursorFieldMock.getName()).thenReturn("cursor");
+    DataFetchingFieldSelectionSet selectionSetMock =
+        Mockito.mock(DataFetchingFieldSelectionSet.class);
+    Mockito.when(selectionSetMock.getImmediateFields())
+        .thenReturn(List.of(idFieldMock, titleFieldMock, cursorFieldMock));
+    Mockito.when(selectionSetMock.contains("cursor")).thenReturn(true);
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getSelectionSet()).thenReturn(selectionSetMock);
+
+    // A partially loaded task has all the attributes not requested set to null
+    Task task =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            null,
+            "title",
+            null,
+            null,
+            null,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                null,
+                null,
+                null,
+                null,
+                Set.of("id", "title", "createdAt")))
+        .thenReturn(List.of(task));
+
+    // When
+    List<TaskResult> tasks = taskDataFetchers.findTasks().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1);
+    Assertions.assertThat(resolveTaskFields(tasks.get(0)))
+        .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
+        .containsEntry("title", "title")
+        .containsEntry("cursor", TaskCursor.of(task).encode())
+        .doesNotContainKey("priority")
+        .doesNotContainKey("status");
+  }
+
+  @Test
+  void givenASelectionWithoutTheCursorTheFindTasksDataFetcherShouldNotEncodeIt()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    SelectedField titleFieldMock = Mockito.mock(SelectedField.class);
+    Mockito.when(titleFieldMock.getName()).thenReturn("title");
+    DataFetchingFieldSelectionSet selectionSetMock =
+        Mockito.mock(DataFetchingFieldSelectionSet.class);
+    Mockito.when(selectionSetMock.getImmediateFields()).thenReturn(List.of(titleFieldMock));
+    Mockito.when(selectionSetMock.contains("cursor")).thenReturn(false);
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getSelectionSet()).thenReturn(selectionSetMock);
+
+    Task task =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            null,
+            "title",
+            null,
+            null,
+            null,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+
+    Mockito.when(
+            taskRepositoryMock.getTasks(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                null,
+                null,
+                null,
+                null,
+                Set.of("id", "title", "createdAt")))
+        .thenReturn(List.of(task));
+
+    // When
+    List<TaskResult> tasks = taskDataFetchers.findTasks().get(environmentMock).get();
+
+    // Then
+    Assertions.assertThat(tasks).hasSize(1);
+    Assertions.assertThat(tasks.get(0).getTask()).isSameAs(task);
+    Assertions.assertThat(tasks.get(0).getCursor()).isNull();
+  }
+
+  @Test
+  void givenAnExistingAndANotExistingTaskTheUpdateTasksDataFetcherShouldUpdateOnlyTheExistingOne()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("updateTasks"))
+        .thenReturn(
+            List.of(
+                ImmutableMap.<String, Object>builder()
+                    .put("id", "11111111-1111-1111-1111-111111111111")
+                    .put("status", Status.COMPLETE)
+                    .build(),
+                ImmutableMap.<String, Object>builder()
+                    .put("id", "22222222-2222-2222-2222-222222222222")
+                    .put("status", Status.COMPLETE)
+                    .build()));
+
+    Task updatedTask =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            null,
+            Priority.HIGH,
+            Status.COMPLETE,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+
+    Mockito.when(
+            taskRepositoryMock.updateTasks(
+                Mockito.anyMap(),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000"))))
+        .thenReturn(Map.of(updatedTask.getId(), updatedTask));
+
+    // When
+    DataFetcherResult<List<TaskResult>> dataFetcherResult =
+        taskDataFetchers.updateTasks().get(environmentMock).get();
+
+    // Then
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Map<UUID, TaskChanges>> captorChanges = ArgumentCaptor.forClass(Map.class);
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .updateTasks(
+            captorChanges.capture(),
+            Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    Mockito.verify(taskRepositoryMock, Mockito.never())
+        .getTasksByIds(Mockito.anyCollection(), Mockito.any());
+    Assertions.assertThat(captorChanges.getValue())
+        .containsOnlyKeys(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("22222222-2222-2222-2222-222222222222"));
+    Assertions.assertThat(captorChanges.getValue().values())
+        .allSatisfy(
+            changes -> Assertions.assertThat(changes.getStatus()).contains(Status.COMPLETE));
+
+    List<TaskResult> updatedTasks = dataFetcherResult.getData();
+    Assertions.assertThat(updatedTasks).hasSize(2);
+    Assertions.assertThat(resolveTaskFields(updatedTasks.get(0)))
+        .containsEntry("id", UUID.fromString("11111111-1111-1111-1111-111111111111"))
+        .containsEntry("status", Status.COMPLETE);
+    Assertions.assertThat(updatedTasks.get(1)).isNull();
+
+    Assertions.assertThat(dataFetcherResult.getErrors()).hasSize(1);
+    Assertions.assertThat(dataFetcherResult.getErrors().get(0).getMessage())
+        .isEqualTo("Could not find task with id 22222222-2222-2222-2222-222222222222");
+  }
+
+  @Test
+  void givenATaskRequestedTwiceTheUpdateTasksDataFetcherShouldMergeItsChanges() throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("updateTasks"))
+        .thenReturn(
+            List.of(
+                ImmutableMap.<String, Object>builder()
+                    .put("id", "11111111-1111-1111-1111-111111111111")
+                    .put("title", "first title")
+                    .put("status", Status.COMPLETE)
+                    .build(),
+                ImmutableMap.<String, Object>builder()
+                    .put("id", "11111111-1111-1111-1111-111111111111")
+                    .put("title", "second title")
+                    .build()));
+
+    Task updatedTask =
+        new Task(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "second title",
+            null,
+            Priority.HIGH,
+            Status.COMPLETE,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+
+    Mockito.when(
+            taskRepositoryMock.updateTasks(
+                Mockito.anyMap(),
+                Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000"))))
+        .thenReturn(Map.of(updatedTask.getId(), updatedTask));
+
+    // When
+    DataFetcherResult<List<TaskResult>> dataFetcherResult =
+        taskDataFetchers.updateTasks().get(environmentMock).get();
+
+    // Then
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Map<UUID, TaskChanges>> captorChanges = ArgumentCaptor.forClass(Map.class);
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .updateTasks(
+            captorChanges.capture(),
+            Mockito.eq(UUID.fromString("00000000-0000-0000-0000-000000000000")));
+
+    TaskChanges changes =
+        captorChanges.getValue().get(UUID.fromString("11111111-1111-1111-1111-111111111111"));
+    Assertions.assertThat(captorChanges.getValue()).hasSize(1);
+    Assertions.assertThat(changes.getTitle()).contains("second title");
+    Assertions.assertThat(changes.getStatus()).contains(Status.COMPLETE);
+
+    Assertions.assertThat(dataFetcherResult.getErrors()).isEmpty();
+    Assertions.assertThat(dataFetcherResult.getData()).hasSize(2);
+    Assertions.assertThat(dataFetcherResult.getData().get(0).getTask()).isSameAs(updatedTask);
+    Assertions.assertThat(dataFetcherResult.getData().get(1).getTask()).isSameAs(updatedTask);
+  }
+
+  @Test
+  void givenAnExistingAndAMalformedTaskIdTheTrashTasksDataFetcherShouldTrashOnlyTheExistingOne()
+      throws Exception {
+    // Given
+    GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
+    Mockito.when(graphQLContextMock.get("requesterId"))
+        .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getGraphQlContext()).thenReturn(graphQLContextMock);
+    Mockito.when(environmentMock.getArgument("taskIds"))
+        .thenReturn(List.of("malformed-id", "11111111-1111-1111-1111-111111111111"));
+
+    Mockito.when(
+            taskRepositoryMock.trashTasks(
+                Set.of(UUID.fromString("11111111-1111-1111-1111-111111111111")),
+                UUID.fromString("00000000-0000-0000-0000-000000000000")))
+        .thenReturn(Set.of(UUID.fromString("11111111-1111-1111-1111-111111111111")));
+
+    // When
+    DataFetcherResult<List<UUID>> dataFetcherResult =
+        taskDataFetchers.trashTasks().get(environmentMock).get();
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.never())
+        .getTasksByIds(Mockito.anyCollection(), Mockito.any());
+    Assertions.assertThat(dataFetcherResult.getData())
+        .containsExactly(null, UUID.fromString("11111111-1111-1111-1111-111111111111"));
+    Assertions.assertThat(dataFetcherResult.getErrors()).hasSize(1);
+    Assertions.assertThat(dataFetcherResult.getErrors().get(0).getMessage())
+        .isEqualTo("Could not find task with id malformed-id");
+  }
+
+  /** Resolves the fields of the GraphQL Task type from the given result, skipping the null ones. */
+  @SuppressWarnings("rawtypes")
+  private static Map<String, Object> resolveTaskFields(TaskResult taskResult) throws Exception {
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getSource()).thenReturn(taskResult);
+
+    Map<String, Object> fields = new HashMap<>();
+    for (Map.Entry<String, DataFetcher> field : TaskResult.getFieldDataFetchers().entrySet()) {
+      Object value = field.getValue().get(environmentMock);
+      if (value != null) {
+        fields.put(field.getKey(), value);
+      }
+    }
+    return fields;
+  }
+
+  private static Task buildChangedTask(String id, Status status, long secondsAgo) {
+    Task task =
+        new Task(
+            UUID.fromString(id),
+            UUID.fromString("00000000-0000-0000-0000-000000000000"),
+            "title",
+            null,
+            Priority.MEDIUM,
+            status,
+            Instant.ofEpochMilli(5L),
+            null,
+            null);
+    task.setUpdatedAt(NOW.minusSeconds(secondsAgo));
+    return task;
+  }
 }
@@ -0,0 +1,95 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.datafetchers;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.LightDataFetcher;
+import java.time.Instant;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TaskResultTest {
+
+  @Test
+  void givenATaskWithAReminderTheReminderAllDayShouldBeFalseIfNotSet() throws Exception {
+    // Given
+    TaskResult taskResult =
+        new TaskResult(buildTask(Instant.ofEpochMilli(55L), null), "cursor-of-the-task");
+
+    // When
+    Object reminderAt = resolve("reminderAt", taskResult);
+    Object reminderAllDay = resolve("reminderAllDay", taskResult);
+    Object cursor = resolve("cursor", taskResult);
+
+    // Then
+    Assertions.assertThat(reminderAt).isEqualTo(Instant.ofEpochMilli(55L));
+    Assertions.assertThat(reminderAllDay).isEqualTo(Boolean.FALSE);
+    Assertions.assertThat(cursor).isEqualTo("cursor-of-the-task");
+  }
+
+  @Test
+  void givenATaskWithoutAReminderTheReminderAllDayShouldBeNull() throws Exception {
+    // Given
+    TaskResult taskResult = new TaskResult(buildTask(null, Boolean.TRUE));
+
+    // When
+    Object reminderAt = resolve("reminderAt", taskResult);
+    Object reminderAllDay = resolve("reminderAllDay", taskResult);
+    Object description = resolve("description", taskResult);
+    Object cursor = resolve("cursor", taskResult);
+
+    // Then
+    Assertions.assertThat(reminderAt).isNull();
+    Assertions.assertThat(reminderAllDay).isNull();
+    Assertions.assertThat(description).isNull();
+    Assertions.assertThat(cursor).isNull();
+  }
+
+  @Test
+  void givenTheSourceObjectTheFieldDataFetchersShouldNotNeedTheEnvironment() throws Exception {
+    // Given
+    TaskResult taskResult = new TaskResult(buildTask(null, null));
+    @SuppressWarnings("unchecked")
+    LightDataFetcher<Object> titleDataFetcher =
+        (LightDataFetcher<Object>) TaskResult.getFieldDataFetchers().get("title");
+
+    // When
+    Object title =
+        titleDataFetcher.get(
+            null,
+            taskResult,
+            () -> {
+              throw new IllegalStateException("The environment should not be built");
+            });
+
+    // Then
+    Assertions.assertThat(title).isEqualTo("title");
+  }
+
+  private static Object resolve(String field, TaskResult taskResult) throws Exception {
+    DataFetchingEnvironment environmentMock = Mockito.mock(DataFetchingEnvironment.class);
+    Mockito.when(environmentMock.getSource()).thenReturn(taskResult);
+
+    return TaskResult.getFieldDataFetchers().get(field).get(environmentMock);
+  }
+
+  private static Task buildTask(Instant reminderAt, Boolean reminderAllDay) {
+    return new Task(
+        UUID.fromString("11111111-1111-1111-1111-111111111111"),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        "title",
+        null,
+        Priority.LOW,
+        Status.OPEN,
+        Instant.ofEpochMilli(5L),
+        reminderAt,
+        reminderAllDay);
+  }
+}
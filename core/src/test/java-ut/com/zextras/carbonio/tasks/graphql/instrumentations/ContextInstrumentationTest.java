@@ -9,6 +9,7 @@ import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.Test;
@@ -20,8 +21,9 @@ class ContextInstrumentationTest {
   void
       givenARequestWithARequesterIdAttributeTheInstrumentationShouldPutRequesterIdInGraphQLContext() {
     // Given
+    UUID requesterId = UUID.fromString("00000000-0000-0000-0000-000000000000");
     HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
-    Mockito.when(requestMock.getAttribute("requesterId")).thenReturn("requester-uuid");
+    Mockito.when(requestMock.getAttribute("requesterId")).thenReturn(requesterId);
 
     GraphQLContext graphQLContextMock = Mockito.mock(GraphQLContext.class);
     Mockito.when(graphQLContextMock.get(HttpServletRequest.class)).thenReturn(requestMock);
@@ -38,7 +40,7 @@ class ContextInstrumentationTest {
     contextInstrumentation.beginExecution(parametersMock, instrumentationStateMock);
 
     // Then
-    Mockito.verify(graphQLContextMock, Mockito.times(1)).put("requesterId", "requester-uuid");
+    Mockito.verify(graphQLContextMock, Mockito.times(1)).put("requesterId", requesterId);
     Mockito.verifyNoInteractions(instrumentationStateMock);
   }
 
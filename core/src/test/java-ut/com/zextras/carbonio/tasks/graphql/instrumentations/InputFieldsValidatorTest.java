@@ -5,12 +5,17 @@
 package com.zextras.carbonio.tasks.graphql.instrumentations;
 
 import com.google.common.collect.ImmutableMap;
+import com.zextras.carbonio.tasks.dal.repositories.TaskCursor;
 import com.zextras.carbonio.tasks.graphql.validators.InputFieldsValidator;
 import graphql.GraphQLError;
 import graphql.execution.instrumentation.fieldvalidation.FieldAndArguments;
 import graphql.execution.instrumentation.fieldvalidation.FieldValidationEnvironment;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -307,4 +312,184 @@ class InputFieldsValidatorTest {
 
     Assertions.assertThat(optErrors).isPresent();
   }
+
+  @Test
+  void givenValidPaginationArgumentsThePaginationValidatorShouldNotReturnErrors() {
+    // Given
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("first")).thenReturn(500);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("after"))
+        .thenReturn(
+            new TaskCursor(
+                    Instant.ofEpochMilli(10),
+                    UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"))
+                .encode());
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator.paginationValidator().apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verifyNoInteractions(environmentMock);
+
+    Assertions.assertThat(optErrors).isEmpty();
+  }
+
+  @Test
+  void givenInvalidPaginationArgumentsThePaginationValidatorShouldReturnAnError() {
+    // Given
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("first")).thenReturn(0);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("after")).thenReturn("invalid-cursor");
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+    Mockito.when(
+            environmentMock.mkError(
+                "Invalid first. It must be between 1 and 500\n"
+                    + "Invalid after. The cursor is malformed"))
+        .thenReturn(Mockito.mock(GraphQLError.class));
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator.paginationValidator().apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verify(environmentMock, Mockito.times(1))
+        .mkError(
+            "Invalid first. It must be between 1 and 500\n"
+                + "Invalid after. The cursor is malformed");
+
+    Assertions.assertThat(optErrors).isPresent();
+  }
+
+  @Test
+  void givenATooLongQueryAndAFindTasksCursorTheSearchValidatorShouldReturnAnError() {
+    // Given
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("query")).thenReturn("a".repeat(257));
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("first")).thenReturn(10);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("after"))
+        .thenReturn(
+            new TaskCursor(
+                    Instant.ofEpochMilli(10),
+                    UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"))
+                .encode());
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+    Mockito.when(
+            environmentMock.mkError(
+                "Invalid query. Length is more than 256 characters\n"
+                    + "Invalid after. The cursor is malformed"))
+        .thenReturn(Mockito.mock(GraphQLError.class));
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator.searchValidator().apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verify(environmentMock, Mockito.times(1))
+        .mkError(
+            "Invalid query. Length is more than 256 characters\n"
+                + "Invalid after. The cursor is malformed");
+
+    Assertions.assertThat(optErrors).isPresent();
+  }
+
+  @Test
+  void givenAMalformedWatermarkTheChangesValidatorShouldReturnAnError() {
+    // Given
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("first")).thenReturn(100);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("since")).thenReturn("not-a-watermark!");
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+    Mockito.when(environmentMock.mkError("Invalid since. The watermark is malformed"))
+        .thenReturn(Mockito.mock(GraphQLError.class));
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator.changesValidator().apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verify(environmentMock, Mockito.times(1))
+        .mkError("Invalid since. The watermark is malformed");
+
+    Assertions.assertThat(optErrors).isPresent();
+  }
+
+  @Test
+  void givenAnInvalidTaskInputInABulkTheBulkUpsertTasksValidatorShouldReturnAnErrorWithItsIndex() {
+    // Given
+    List<Map<String, Object>> newTasksInput =
+        List.of(
+            ImmutableMap.<String, Object>builder().put("title", "valid title").build(),
+            ImmutableMap.<String, Object>builder()
+                .put("title", "valid title")
+                .put("reminderAllDay", true)
+                .build());
+
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("newTasks")).thenReturn(newTasksInput);
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+    Mockito.when(
+            environmentMock.mkError(
+                "newTasks[1]: The reminderAt and the reminderAllDay attributes must be both always"
+                    + " set"))
+        .thenReturn(Mockito.mock(GraphQLError.class));
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator
+            .bulkUpsertTasksValidator("newTasks")
+            .apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verify(environmentMock, Mockito.times(1))
+        .mkError(
+            "newTasks[1]: The reminderAt and the reminderAllDay attributes must be both always"
+                + " set");
+
+    Assertions.assertThat(optErrors).isPresent();
+  }
+
+  @Test
+  void givenTooManyTaskIdsTheBulkSizeValidatorShouldReturnAnError() {
+    // Given
+    List<String> taskIds = Collections.nCopies(501, "6d162bee-3186-1111-bf31-59746a41600e");
+
+    FieldAndArguments fieldAndArgumentsMock = Mockito.mock(FieldAndArguments.class);
+    Mockito.when(fieldAndArgumentsMock.getArgumentValue("taskIds")).thenReturn(taskIds);
+
+    FieldValidationEnvironment environmentMock = Mockito.mock(FieldValidationEnvironment.class);
+    Mockito.when(
+            environmentMock.mkError("Invalid taskIds. It cannot contain more than 500 elements"))
+        .thenReturn(Mockito.mock(GraphQLError.class));
+
+    InputFieldsValidator inputFieldsValidator = new InputFieldsValidator();
+
+    // When
+    Optional<GraphQLError> optErrors =
+        inputFieldsValidator
+            .bulkSizeValidator("taskIds")
+            .apply(fieldAndArgumentsMock, environmentMock);
+
+    // Then
+    Mockito.verify(environmentMock, Mockito.times(1))
+        .mkError("Invalid taskIds. It cannot contain more than 500 elements");
+
+    Assertions.assertThat(optErrors).isPresent();
+  }
 }
@@ -0,0 +1,170 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.graphql.instrumentations;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.parser.ParserOptions;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryLimitsInstrumentationTest {
+
+  private static final String SCHEMA =
+      "type Task { id: ID title: String }"
+          + " type TaskChangeSet { changed: [Task] hasMore: Boolean }"
+          + " type Query {"
+          + "   getTask(taskId: ID!): Task"
+          + "   findTasks(first: Int): [Task]"
+          + "   taskChanges(first: Int): TaskChangeSet"
+          + " }";
+
+  private SimpleMeterRegistry meterRegistry;
+  private QueryLimitsInstrumentation queryLimitsInstrumentation;
+  private GraphQL graphQL;
+
+  @BeforeEach
+  void setUp() {
+    GraphQLSchema schema =
+        new SchemaGenerator()
+            .makeExecutableSchema(
+                new SchemaParser().parse(SCHEMA), RuntimeWiring.newRuntimeWiring().build());
+
+    meterRegistry = new SimpleMeterRegistry();
+    queryLimitsInstrumentation = new QueryLimitsInstrumentation(2, 1000, 2, 1, 100, meterRegistry);
+    graphQL = GraphQL.newGraphQL(schema).instrumentation(queryLimitsInstrumentation).build();
+  }
+
+  @Test
+  void givenAnOperationWithinTheLimitsTheInstrumentationShouldNotRejectIt() {
+    // Given
+    String query = "query { findTasks(first: 10) { id title } taskChanges(first: 10) { hasMore } }";
+
+    // When
+    ExecutionResult result = graphQL.execute(query);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).isEmpty();
+  }
+
+  @Test
+  void givenAnOperationTooDeepTheInstrumentationShouldRejectIt() {
+    // Given
+    String query = "query { taskChanges(first: 1) { changed { id } } }";
+
+    // When
+    ExecutionResult result = graphQL.execute(query);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The depth of the operation exceeds the limit of 2");
+    Assertions.assertThat(result.<Object>getData()).isNull();
+    Assertions.assertThat(
+            meterRegistry
+                .get("tasks.graphql.limit.rejected")
+                .tag("limit", "depth")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void givenAPageSizeInAVariableTheInstrumentationShouldWeightTheComplexityWithIt() {
+    // Given
+    ExecutionInput executionInput =
+        ExecutionInput.newExecutionInput("query($first: Int) { findTasks(first: $first) { id } }")
+            .variables(Map.of("first", 1000))
+            .build();
+
+    // When
+    ExecutionResult result = graphQL.execute(executionInput);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The complexity of the operation exceeds the limit of 1000");
+  }
+
+  @Test
+  void givenAPaginatedFieldWithoutPageSizeTheInstrumentationShouldWeightItWithTheMaxPageSize() {
+    // Given
+    String query = "query { findTasks { id title } }";
+
+    // When
+    ExecutionResult result = graphQL.execute(query);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The complexity of the operation exceeds the limit of 1000");
+  }
+
+  @Test
+  void givenTooManyRootFieldsTheInstrumentationShouldRejectTheOperation() {
+    // Given
+    String query =
+        "query { getTask(taskId: \"1\") { id } findTasks(first: 1) { id }"
+            + " taskChanges(first: 1) { hasMore } }";
+
+    // When
+    ExecutionResult result = graphQL.execute(query);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The root fields of the operation exceed the limit of 2");
+  }
+
+  @Test
+  void givenTooManyAliasesTheInstrumentationShouldRejectTheOperation() {
+    // Given
+    String query = "query { getTask(taskId: \"1\") { first: title second: title } }";
+
+    // When
+    ExecutionResult result = graphQL.execute(query);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The aliases of the operation exceed the limit of 1");
+  }
+
+  @Test
+  void givenTheParserOptionsInTheContextTheParserShouldRejectADocumentWithTooManyTokens() {
+    // Given
+    int defaultMaxTokens = ParserOptions.getDefaultOperationParserOptions().getMaxTokens();
+    ExecutionInput executionInput =
+        ExecutionInput.newExecutionInput()
+            .query("query { " + "getTask(taskId: \"1\") { id } ".repeat(20) + "}")
+            .graphQLContext(
+                Map.of(ParserOptions.class, queryLimitsInstrumentation.getParserOptions()))
+            .build();
+
+    // When
+    ExecutionResult result = graphQL.execute(executionInput);
+
+    // Then
+    Assertions.assertThat(result.getErrors()).hasSize(1);
+    Assertions.assertThat(result.<Object>getData()).isNull();
+    Assertions.assertThat(
+            meterRegistry
+                .get("tasks.graphql.limit.rejected")
+                .tag("limit", "tokens")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+    Assertions.assertThat(ParserOptions.getDefaultOperationParserOptions().getMaxTokens())
+        .isEqualTo(defaultMaxTokens);
+  }
+}
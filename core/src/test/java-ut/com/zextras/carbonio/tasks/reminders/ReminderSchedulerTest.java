@@ -0,0 +1,301 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.reminders;
+
+import com.zextras.carbonio.tasks.dal.dao.Priority;
+import com.zextras.carbonio.tasks.dal.dao.Status;
+import com.zextras.carbonio.tasks.dal.dao.Task;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ReminderSchedulerTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+  private static final Instant WINDOW_END = NOW.plus(Duration.ofMinutes(10));
+
+  private TaskRepository taskRepositoryMock;
+  private ReminderSink reminderSinkMock;
+  private Clock clockMock;
+
+  /** The last version of each task built by the test, as if it was stored in the database. */
+  private Map<UUID, Task> storedTasks;
+
+  @BeforeEach
+  void setUp() {
+    taskRepositoryMock = Mockito.mock(TaskRepository.class);
+    reminderSinkMock = Mockito.mock(ReminderSink.class);
+    clockMock = Mockito.mock(Clock.class);
+    Mockito.when(clockMock.instant()).thenReturn(NOW);
+
+    storedTasks = new HashMap<>();
+    Mockito.when(taskRepositoryMock.claimDueReminders(Mockito.anyCollection(), Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<UUID> taskIds = invocation.getArgument(0);
+              Instant now = invocation.getArgument(1);
+              return taskIds.stream()
+                  .map(storedTasks::get)
+                  .filter(task -> !task.getReminderAt().orElseThrow().isAfter(now))
+                  .collect(Collectors.toList());
+            });
+  }
+
+  @Test
+  void givenRemindersInTheWindowTheTickShouldDeliverOnlyTheDueOnes() {
+    // Given
+    Task dueTask = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Task laterTask = buildTask("00000000-0000-0000-0000-000000000002", NOW.plusSeconds(60));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenReturn(List.of(dueTask, laterTask));
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(dueTask));
+    Mockito.verify(reminderSinkMock, Mockito.never()).deliver(DueReminder.of(laterTask));
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .getOpenTasksWithReminder(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+    Assertions.assertThat(reminderScheduler.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void givenAReminderChangedAfterTheLoadTheTickShouldFireItAtTheNewDateOnly() {
+    // Given
+    Task task = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenReturn(List.of(task));
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+
+    Task changedTask = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(30));
+    reminderScheduler.onTasksSaved(List.of(changedTask));
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(30));
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(reminderSinkMock, Mockito.never()).deliver(DueReminder.of(task));
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(changedTask));
+  }
+
+  @Test
+  void givenATrashedTaskTheTickShouldNotFireItsReminder() {
+    // Given
+    Task task = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenReturn(List.of(task));
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+    reminderScheduler.onTaskTrashed(task.getId());
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verifyNoInteractions(reminderSinkMock);
+    Assertions.assertThat(reminderScheduler.getPendingCount()).isZero();
+  }
+
+  @Test
+  void givenAReminderBeyondTheLoadedWindowTheOnTasksSavedShouldNotKeepItInMemory() {
+    // Given
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+
+    // When
+    reminderScheduler.onTasksSaved(
+        List.of(
+            buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5)),
+            buildTask("00000000-0000-0000-0000-000000000002", WINDOW_END.plusSeconds(1))));
+
+    // Then
+    Assertions.assertThat(reminderScheduler.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void givenMoreRemindersThanTheMaximumTheTickShouldLoadThemInPagesFollowingTheLastOne() {
+    // Given
+    Task task1 = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Task task2 = buildTask("00000000-0000-0000-0000-000000000002", NOW.plusSeconds(5));
+    Task task3 = buildTask("00000000-0000-0000-0000-000000000003", NOW.plusSeconds(5));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 2))
+        .thenReturn(List.of(task1, task2));
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(2);
+    reminderScheduler.tick();
+
+    Instant later = NOW.plusSeconds(5);
+    Mockito.when(clockMock.instant()).thenReturn(later);
+    Mockito.when(
+            taskRepositoryMock.getOpenTasksWithReminder(
+                NOW.plusSeconds(5), task2.getId(), later.plus(Duration.ofMinutes(10)), 2))
+        .thenReturn(List.of(task3));
+
+    // When
+    reminderScheduler.tick();
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(task1));
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(task2));
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(task3));
+  }
+
+  @Test
+  void givenATaskChangedDuringTheLoadTheTickShouldKeepTheNotifiedReminderInsteadOfTheLoadedOne() {
+    // Given
+    Task staleTask = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Task changedTask = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(30));
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+
+    // The change is committed and notified by another thread after the query has read the row
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenAnswer(
+            invocation -> {
+              notifyFromAnotherThread(() -> reminderScheduler.onTasksSaved(List.of(changedTask)));
+              return List.of(staleTask);
+            });
+
+    // When
+    reminderScheduler.tick();
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(30));
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(reminderSinkMock, Mockito.never()).deliver(DueReminder.of(staleTask));
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(changedTask));
+  }
+
+  @Test
+  void givenATaskTrashedDuringTheLoadTheTickShouldNotKeepItsLoadedReminder() {
+    // Given
+    Task staleTask = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenAnswer(
+            invocation -> {
+              notifyFromAnotherThread(() -> reminderScheduler.onTaskTrashed(staleTask.getId()));
+              return List.of(staleTask);
+            });
+
+    // When
+    reminderScheduler.tick();
+
+    // Then
+    Assertions.assertThat(reminderScheduler.getPendingCount()).isZero();
+  }
+
+  @Test
+  void givenAReminderAlreadyClaimedByAnotherNodeTheTickShouldNotDeliverIt() {
+    // Given
+    Task task = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenReturn(List.of(task));
+    Mockito.when(taskRepositoryMock.claimDueReminders(Mockito.anyCollection(), Mockito.any()))
+        .thenReturn(List.of());
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(1))
+        .claimDueReminders(List.of(task.getId()), NOW.plusSeconds(5));
+    Mockito.verifyNoInteractions(reminderSinkMock);
+    Assertions.assertThat(reminderScheduler.getPendingCount()).isZero();
+  }
+
+  @Test
+  void givenAFailingClaimTheTickShouldClaimTheDueRemindersAgainAtTheNextTick() {
+    // Given
+    Task task = buildTask("00000000-0000-0000-0000-000000000001", NOW.plusSeconds(5));
+    Mockito.when(taskRepositoryMock.getOpenTasksWithReminder(NOW, null, WINDOW_END, 100))
+        .thenReturn(List.of(task));
+    Mockito.when(taskRepositoryMock.claimDueReminders(Mockito.anyCollection(), Mockito.any()))
+        .thenThrow(new IllegalStateException("database unreachable"))
+        .thenReturn(List.of(task));
+
+    ReminderScheduler reminderScheduler = buildReminderScheduler(100);
+    reminderScheduler.tick();
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(NOW.plusSeconds(5));
+    reminderScheduler.tick();
+    reminderScheduler.tick();
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(2))
+        .claimDueReminders(List.of(task.getId()), NOW.plusSeconds(5));
+    Mockito.verify(reminderSinkMock, Mockito.times(1)).deliver(DueReminder.of(task));
+  }
+
+  /**
+   * Runs the given notification in another thread and waits for it: the notification must not be
+   * blocked by the load running in the current thread.
+   */
+  private static void notifyFromAnotherThread(Runnable notification) throws InterruptedException {
+    Thread thread = new Thread(notification);
+    thread.start();
+    thread.join(TimeUnit.SECONDS.toMillis(5));
+    Assertions.assertThat(thread.isAlive()).isFalse();
+  }
+
+  private ReminderScheduler buildReminderScheduler(int maxLoaded) {
+    return new ReminderScheduler(
+        () -> taskRepositoryMock,
+        reminderSinkMock,
+        clockMock,
+        Duration.ofMinutes(10),
+        maxLoaded,
+        new SimpleMeterRegistry());
+  }
+
+  private Task buildTask(String id, Instant reminderAt) {
+    Task task =
+        new Task(
+            UUID.fromString(id),
+            UUID.fromString("6d162bee-3186-1111-bf31-59746a41600e"),
+            "title",
+            null,
+            Priority.MEDIUM,
+            Status.OPEN,
+            NOW.minusSeconds(60),
+            reminderAt,
+            false);
+    storedTasks.put(task.getId(), task);
+    return task;
+  }
+}
@@ -4,11 +4,15 @@
 
 package com.zextras.carbonio.tasks.rest.controllers;
 
-import com.zextras.carbonio.tasks.rest.services.HealthService;
+import com.zextras.carbonio.tasks.rest.services.HealthMonitor;
+import com.zextras.carbonio.tasks.rest.services.HealthSnapshot;
 import com.zextras.carbonio.tasks.rest.types.health.DependencyType;
 import com.zextras.carbonio.tasks.rest.types.health.HealthStatus;
 import com.zextras.carbonio.tasks.rest.types.health.ServiceHealth;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpStatus;
@@ -18,11 +22,12 @@ import org.mockito.Mockito;
 
 class HealthControllerImplTest {
 
-  private HealthService healthServiceMock;
+  private HealthMonitor healthMonitorMock;
 
   @BeforeEach
   void setUp() {
-    healthServiceMock = Mockito.mock(HealthService.class);
+    healthMonitorMock = Mockito.mock(HealthMonitor.class);
+    Mockito.when(healthMonitorMock.getAge(Mockito.any())).thenReturn(Duration.ofSeconds(3));
   }
 
   @Test
@@ -41,14 +46,16 @@ class HealthControllerImplTest {
             .setReady(true)
             .setDependencies(Collections.singletonList(dependencyHealth));
 
-    Mockito.when(healthServiceMock.getServiceHealthStatus()).thenReturn(healthStatus);
+    Mockito.when(healthMonitorMock.getSnapshot())
+        .thenReturn(new HealthSnapshot(healthStatus, Instant.now()));
 
-    try (Response response = new HealthControllerImpl(healthServiceMock).health()) {
+    try (Response response = new HealthControllerImpl(healthMonitorMock).health()) {
 
       // Then
       Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
       Assertions.assertThat(response.getEntity()).isNotNull();
-      Mockito.verify(healthServiceMock, Mockito.times(1)).getServiceHealthStatus();
+      Assertions.assertThat(response.getHeaderString(HttpHeaders.AGE)).isEqualTo("3");
+      Mockito.verify(healthMonitorMock, Mockito.times(1)).getSnapshot();
     }
   }
 
@@ -57,51 +64,85 @@ class HealthControllerImplTest {
     // Given & When
     HealthStatus healthStatus = new HealthStatus().setReady(false);
 
-    Mockito.when(healthServiceMock.getServiceHealthStatus()).thenReturn(healthStatus);
-    try (Response response = new HealthControllerImpl(healthServiceMock).health()) {
+    Mockito.when(healthMonitorMock.getSnapshot())
+        .thenReturn(new HealthSnapshot(healthStatus, Instant.now()));
+    try (Response response = new HealthControllerImpl(healthMonitorMock).health()) {
 
       // Then
       Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY_502);
       Assertions.assertThat(response.getEntity()).isNotNull();
-      Mockito.verify(healthServiceMock, Mockito.times(1)).getServiceHealthStatus();
+      Mockito.verify(healthMonitorMock, Mockito.times(1)).getSnapshot();
     }
   }
 
   @Test
   void healthLiveShouldReturn204StatusCodeResponse() {
     // Given & When
-    try (Response response = new HealthControllerImpl(healthServiceMock).healthLive()) {
+    try (Response response = new HealthControllerImpl(healthMonitorMock).healthLive()) {
 
       // Then
       Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NO_CONTENT_204);
       Assertions.assertThat(response.getEntity()).isNull();
-      Mockito.verifyNoInteractions(healthServiceMock);
+      Mockito.verifyNoInteractions(healthMonitorMock);
     }
   }
 
   @Test
   void givenAllDependenciesReadyTheHealthReadyShouldReturn204StatusCodeResponse() {
     // Given & When
-    Mockito.when(healthServiceMock.areServiceDependenciesReady()).thenReturn(true);
-    try (Response response = new HealthControllerImpl(healthServiceMock).healthReady()) {
+    HealthSnapshot healthSnapshot = buildSnapshot(true);
+    Mockito.when(healthMonitorMock.getSnapshot()).thenReturn(healthSnapshot);
+    Mockito.when(healthMonitorMock.isStale(healthSnapshot)).thenReturn(false);
+    try (Response response = new HealthControllerImpl(healthMonitorMock).healthReady()) {
 
       // Then
       Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NO_CONTENT_204);
       Assertions.assertThat(response.getEntity()).isNull();
-      Mockito.verify(healthServiceMock, Mockito.times(1)).areServiceDependenciesReady();
+      Assertions.assertThat(response.getHeaderString(HttpHeaders.AGE)).isEqualTo("3");
+      Mockito.verify(healthMonitorMock, Mockito.times(1)).getSnapshot();
     }
   }
 
   @Test
   void givenADependencyNotReadyTheHealthReadyShouldReturn502StatusCodeResponse() {
     // Given & When
-    Mockito.when(healthServiceMock.areServiceDependenciesReady()).thenReturn(false);
-    try (Response response = new HealthControllerImpl(healthServiceMock).healthReady()) {
+    HealthSnapshot healthSnapshot = buildSnapshot(false);
+    Mockito.when(healthMonitorMock.getSnapshot()).thenReturn(healthSnapshot);
+    Mockito.when(healthMonitorMock.isStale(healthSnapshot)).thenReturn(false);
+    try (Response response = new HealthControllerImpl(healthMonitorMock).healthReady()) {
 
       // Then
       Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY_502);
       Assertions.assertThat(response.getEntity()).isNull();
-      Mockito.verify(healthServiceMock, Mockito.times(1)).areServiceDependenciesReady();
+      Mockito.verify(healthMonitorMock, Mockito.times(1)).getSnapshot();
     }
   }
+
+  @Test
+  void givenAStaleSnapshotTheHealthReadyShouldReturn502StatusCodeResponse() {
+    // Given & When
+    HealthSnapshot healthSnapshot = buildSnapshot(true);
+    Mockito.when(healthMonitorMock.getSnapshot()).thenReturn(healthSnapshot);
+    Mockito.when(healthMonitorMock.isStale(healthSnapshot)).thenReturn(true);
+    try (Response response = new HealthControllerImpl(healthMonitorMock).healthReady()) {
+
+      // Then
+      Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY_502);
+    }
+  }
+
+  private static HealthSnapshot buildSnapshot(boolean dependencyLive) {
+    ServiceHealth dependencyHealth =
+        new ServiceHealth()
+            .setName("dependency-1")
+            .setReady(dependencyLive)
+            .setLive(dependencyLive)
+            .setType(DependencyType.REQUIRED);
+
+    return new HealthSnapshot(
+        new HealthStatus()
+            .setReady(dependencyLive)
+            .setDependencies(Collections.singletonList(dependencyHealth)),
+        Instant.now());
+  }
 }
@@ -0,0 +1,31 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.controllers;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.ws.rs.core.Response;
+import org.assertj.core.api.Assertions;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+
+class MetricsControllerImplTest {
+
+  @Test
+  void givenARegisteredMeterTheMetricsShouldReturn200StatusCodeWithTheMeterInPrometheusFormat() {
+    // Given
+    PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    meterRegistry.counter("tasks.test.requests", "result", "hit").increment(3);
+
+    // When
+    try (Response response = new MetricsControllerImpl(meterRegistry).metrics()) {
+
+      // Then
+      Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
+      Assertions.assertThat((String) response.getEntity())
+          .contains("tasks_test_requests_total{result=\"hit\",} 3.0");
+    }
+  }
+}
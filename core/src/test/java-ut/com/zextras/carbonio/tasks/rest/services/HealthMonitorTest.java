@@ -0,0 +1,94 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.rest.services;
+
+import com.zextras.carbonio.tasks.rest.types.health.HealthStatus;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class HealthMonitorTest {
+
+  private HealthService healthServiceMock;
+  private Clock clockMock;
+  private HealthMonitor healthMonitor;
+
+  @BeforeEach
+  void setUp() {
+    healthServiceMock = Mockito.mock(HealthService.class);
+    clockMock = Mockito.mock(Clock.class);
+    Mockito.when(healthServiceMock.getServiceHealthStatus())
+        .thenReturn(new HealthStatus().setReady(true));
+    Mockito.when(clockMock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+
+    healthMonitor = new HealthMonitor(healthServiceMock, Duration.ofSeconds(10), clockMock);
+  }
+
+  @Test
+  void givenARecentSnapshotTheGetSnapshotShouldNotCheckTheDependenciesAgain() {
+    // Given
+    HealthSnapshot firstSnapshot = healthMonitor.getSnapshot();
+    Mockito.when(clockMock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:10Z"));
+
+    // When
+    HealthSnapshot secondSnapshot = healthMonitor.getSnapshot();
+
+    // Then
+    Assertions.assertThat(secondSnapshot).isSameAs(firstSnapshot);
+    Assertions.assertThat(healthMonitor.getAge(secondSnapshot)).isEqualTo(Duration.ofSeconds(10));
+    Mockito.verify(healthServiceMock, Mockito.times(1)).getServiceHealthStatus();
+  }
+
+  @Test
+  void givenAnOldSnapshotAndAMonitorNotRunningTheGetSnapshotShouldCheckTheDependenciesAgain() {
+    // Given
+    HealthSnapshot firstSnapshot = healthMonitor.getSnapshot();
+    Mockito.when(clockMock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:11Z"));
+
+    // When
+    HealthSnapshot secondSnapshot = healthMonitor.getSnapshot();
+
+    // Then
+    Assertions.assertThat(secondSnapshot).isNotSameAs(firstSnapshot);
+    Assertions.assertThat(secondSnapshot.getCheckedAt())
+        .isEqualTo(Instant.parse("2024-01-01T10:00:11Z"));
+    Mockito.verify(healthServiceMock, Mockito.times(2)).getServiceHealthStatus();
+  }
+
+  @Test
+  void givenASnapshotNotRefreshedForThreeIntervalsTheIsStaleShouldReturnTrue() {
+    // Given
+    HealthSnapshot snapshot = healthMonitor.getSnapshot();
+
+    // When
+    Mockito.when(clockMock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:30Z"));
+    boolean staleAfterThreeIntervals = healthMonitor.isStale(snapshot);
+    Mockito.when(clockMock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:31Z"));
+    boolean staleAfterMoreThanThreeIntervals = healthMonitor.isStale(snapshot);
+
+    // Then
+    Assertions.assertThat(staleAfterThreeIntervals).isFalse();
+    Assertions.assertThat(staleAfterMoreThanThreeIntervals).isTrue();
+  }
+
+  @Test
+  void givenAFailingHealthCheckTheRefreshShouldKeepTheLastSnapshot() {
+    // Given
+    HealthSnapshot snapshot = healthMonitor.getSnapshot();
+    Mockito.when(healthServiceMock.getServiceHealthStatus())
+        .thenThrow(new IllegalStateException("boom"));
+
+    // When
+    Throwable throwable = Assertions.catchThrowable(healthMonitor::refresh);
+
+    // Then
+    Assertions.assertThat(throwable).isInstanceOf(IllegalStateException.class);
+    Assertions.assertThat(healthMonitor.getSnapshot()).isSameAs(snapshot);
+  }
+}
@@ -0,0 +1,109 @@
+// SPDX-FileCopyrightText: 2024 Zextras <https://www.zextras.com>
+//
+// SPDX-License-Identifier: AGPL-3.0-only
+
+package com.zextras.carbonio.tasks.trash;
+
+import com.zextras.carbonio.tasks.Constants.Metrics;
+import com.zextras.carbonio.tasks.config.TasksConfig;
+import com.zextras.carbonio.tasks.dal.repositories.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TrashPurgerTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-31T10:00:00Z");
+  private static final Instant TRASHED_BEFORE = Instant.parse("2024-01-01T10:00:00Z");
+
+  private TaskRepository taskRepositoryMock;
+  private TasksConfig tasksConfigMock;
+  private Clock clockMock;
+  private SimpleMeterRegistry meterRegistry;
+  private TrashPurger trashPurger;
+
+  @BeforeEach
+  void setUp() {
+    taskRepositoryMock = Mockito.mock(TaskRepository.class);
+    tasksConfigMock = Mockito.mock(TasksConfig.class);
+    clockMock = Mockito.mock(Clock.class);
+    Mockito.when(clockMock.instant()).thenReturn(NOW);
+    meterRegistry = new SimpleMeterRegistry();
+
+    trashPurger =
+        new TrashPurger(
+            taskRepositoryMock,
+            tasksConfigMock,
+            clockMock,
+            Duration.ofDays(30),
+            Duration.ofMinutes(60),
+            2,
+            Duration.ZERO,
+            meterRegistry);
+  }
+
+  @Test
+  void givenThePurgeDisabledThePurgeShouldNotTouchTheTrashedTasks() {
+    // Given
+    Mockito.when(tasksConfigMock.isTrashPurgeEnabled()).thenReturn(false);
+
+    // When
+    trashPurger.purge();
+
+    // Then
+    Mockito.verifyNoInteractions(taskRepositoryMock);
+  }
+
+  @Test
+  void givenExpiredTrashedTasksThePurgeShouldDeleteThemInBatchesUntilAPartialBatch() {
+    // Given
+    Mockito.when(tasksConfigMock.isTrashPurgeEnabled()).thenReturn(true);
+    Mockito.when(taskRepositoryMock.stampTrashedTasks(NOW, 2)).thenReturn(1);
+    Mockito.when(taskRepositoryMock.deleteTrashedTasks(TRASHED_BEFORE, 2))
+        .thenReturn(2)
+        .thenReturn(2)
+        .thenReturn(1);
+
+    // When
+    trashPurger.purge();
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(1)).stampTrashedTasks(NOW, 2);
+    Mockito.verify(taskRepositoryMock, Mockito.times(3)).deleteTrashedTasks(TRASHED_BEFORE, 2);
+    Assertions.assertThat(meterRegistry.get(Metrics.TRASH_PURGE_DELETED).counter().count())
+        .isEqualTo(5.0);
+    Assertions.assertThat(
+            meterRegistry
+                .get(Metrics.TRASH_PURGE_BATCH)
+                .tag("operation", "delete")
+                .timer()
+                .count())
+        .isEqualTo(3L);
+    Assertions.assertThat(trashPurger.isRunning()).isFalse();
+  }
+
+  @Test
+  void givenThePurgeDisabledWhileRunningThePurgeShouldSkipTheRemainingBatches() {
+    // Given
+    Mockito.when(tasksConfigMock.isTrashPurgeEnabled()).thenReturn(true).thenReturn(false);
+    Mockito.when(clockMock.instant())
+        .thenReturn(NOW)
+        .thenReturn(NOW.plusSeconds(1))
+        .thenReturn(NOW.plusSeconds(2))
+        .thenReturn(NOW.plusSeconds(61));
+    Mockito.when(taskRepositoryMock.stampTrashedTasks(NOW, 2)).thenReturn(0);
+    Mockito.when(taskRepositoryMock.deleteTrashedTasks(TRASHED_BEFORE, 2)).thenReturn(2);
+
+    // When
+    trashPurger.purge();
+
+    // Then
+    Mockito.verify(taskRepositoryMock, Mockito.times(1)).deleteTrashedTasks(TRASHED_BEFORE, 2);
+    Mockito.verify(tasksConfigMock, Mockito.times(2)).isTrashPurgeEnabled();
+  }
+}